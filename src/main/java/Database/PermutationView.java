@@ -0,0 +1,90 @@
+package Database;
+
+import model.PetColumns;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+
+/**
+ * The {@code PermutationView} class presents an immutable list in a seeded pseudo-random
+ * order without copying or modifying it.
+ * <p>
+ * Element {@code i} of the view is element {@code (stride * i + offset) mod n} of the
+ * source, where {@code stride} is coprime with {@code n}, so every element appears exactly
+ * once. Creating a view costs constant time, whatever the size of the source, and the same
+ * seed always gives the same order. The order is well mixed for presentation but is not a
+ * uniformly random shuffle.
+ * <p>
+ * A view of a pet list that lays out its own scoring columns gathers them in the view's
+ * order, so the pets are not created for scoring.
+ *
+ * @param <E> the element type
+ */
+final class PermutationView<E> extends AbstractList<E> implements RandomAccess, PetColumns.Source {
+
+    private final List<E> source;
+    private final long stride;
+    private final long offset;
+
+    /**
+     * Creates a view of the source in the order chosen by the seed.
+     *
+     * @param source the list to present; must not change while the view is in use
+     * @param seed   selects the order
+     */
+    PermutationView(List<E> source, long seed) {
+        this.source = source;
+        int size = source.size();
+        SplittableRandom random = new SplittableRandom(seed);
+        if (size < 2) {
+            this.stride = 1;
+            this.offset = 0;
+            return;
+        }
+        long candidate = 1 + random.nextInt(size - 1);
+        while (gcd(candidate, size) != 1) {
+            candidate = 1 + random.nextInt(size - 1);
+        }
+        this.stride = candidate;
+        this.offset = random.nextInt(size);
+    }
+
+    @Override
+    public E get(int index) {
+        int size = source.size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return source.get((int) ((stride * index + offset) % size));
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    @Override
+    public PetColumns columns() {
+        PetColumns columns = source instanceof PetColumns.Source pets ? pets.columns() : null;
+        if (columns == null) {
+            return null;
+        }
+        int size = source.size();
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = (int) ((stride * i + offset) % size);
+        }
+        return columns.select(positions);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
@@ -1,26 +1,124 @@
 package Database;
 
+import model.CompactPetCatalog;
+import model.OffHeapPetCatalog;
 import model.Pet;
+import model.PetCatalogLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The {@code PetDatabase} class simulates a pet database by storing and returning
  * a predefined list of {@link Pet} objects. This static class is responsible for
  * loading all pet records used throughout the application.
  * <p>
- * The pet list is populated during class loading through a static initializer block.
- * A call to {@code getAllPets()} returns the full list of pets in randomized order.
+ * The pet list is populated during class loading through a static initializer block and
+ * then frozen into an immutable catalog, so concurrent callers always see the same pets
+ * and never race on a shared list. {@code getCatalog()} returns the catalog in id order;
+ * {@code getAllPets()} returns it in a randomized presentation order as a read-only view,
+ * without copying or shuffling anything. Every pet has a stable id from 0 to
+ * {@code size() - 1}; {@code getPetById(int)} returns a pet by id in constant time.
+ * <p>
+ * The catalog is indexed by type, breed, MBTI type and (name, breed) through a
+ * {@link PetIndex}. {@code addPets(List)} registers new pets under the next free ids and
+ * publishes a new catalog together with its index, extended incrementally; catalogs and
+ * indexes returned earlier are never modified.
+ * <p>
+ * Setting the {@value #CATALOG_PROPERTY} system property to a JSON or CSV file loads the
+ * catalog from that file with a {@link PetCatalogLoader} instead of the built-in pets. A
+ * loaded catalog is kept bit-packed in a {@link CompactPetCatalog}, so its pets are views
+ * created when read; pets added afterwards are kept as objects alongside it. A catalog
+ * file written by {@link OffHeapPetCatalog} (extension {@value OffHeapPetCatalog#FILE_EXTENSION})
+ * is memory-mapped instead, so it stays off the heap and is shared with every other
+ * process that maps it. Both kinds of catalog, and the views {@code getAllPets()} returns
+ * of them, are scored from the catalog's own columns rather than from pets created for
+ * the purpose.
  */
 public class PetDatabase {
 
-    /** Internal list holding all pet entries. */
-    private static List<Pet> petList = new ArrayList<>();
+    /** System property naming an external catalog file to load instead of the built-in pets. */
+    public static final String CATALOG_PROPERTY = "petforu.catalog";
+
+    /** Internal list the pet entries are loaded into. */
+    private static final List<Pet> petList = new ArrayList<>();
+
+    /**
+     * An immutable catalog in id order, with its index. Ids are dense, starting at 0, so a
+     * pet's id is also its position.
+     */
+    private static final class Snapshot {
+        final List<Pet> catalog;
+        final PetIndex index;
+
+        Snapshot(List<Pet> catalog, PetIndex index) {
+            this.catalog = catalog;
+            this.index = index;
+        }
+    }
+
+    /**
+     * A catalog followed by the pets added to it, so that adding pets copies only the added
+     * ones and never materializes a compact catalog.
+     */
+    private static final class Appended extends AbstractList<Pet> implements RandomAccess {
+        final List<Pet> base;
+        final Pet[] added;
+
+        Appended(List<Pet> base, Pet[] added) {
+            this.base = base;
+            this.added = added;
+        }
+
+        @Override
+        public Pet get(int index) {
+            return index < base.size() ? base.get(index) : added[index - base.size()];
+        }
+
+        @Override
+        public int size() {
+            return base.size() + added.length;
+        }
+    }
+
+    /** The current catalog; replaced as a whole when pets are added. */
+    private static volatile Snapshot snapshot;
 
     // Static block to populate the database at class load time
     static {
-        populateDatabase();
+        List<Pet> catalog = loadCatalog();
+        snapshot = new Snapshot(catalog, PetIndex.of(catalog));
+    }
+
+    /**
+     * Loads the external catalog named by {@value #CATALOG_PROPERTY} if it is set, otherwise
+     * the built-in pets.
+     *
+     * @return the catalog in id order
+     * @throws UncheckedIOException if the external catalog cannot be read
+     */
+    private static List<Pet> loadCatalog() {
+        String path = System.getProperty(CATALOG_PROPERTY);
+        if (path == null || path.isBlank()) {
+            populateDatabase();
+            return List.copyOf(petList);
+        }
+        try {
+            if (path.toLowerCase(Locale.ROOT).endsWith(OffHeapPetCatalog.FILE_EXTENSION)) {
+                return OffHeapPetCatalog.map(Path.of(path)).asList();
+            }
+            return CompactPetCatalog.of(new PetCatalogLoader().load(Path.of(path))).asList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load pet catalog: " + path, e);
+        }
     }
 
     /**
@@ -30,73 +128,164 @@ public class PetDatabase {
     private static void populateDatabase() {
         // Populate pets with mixed types and breeds
 
-        petList.add(new Pet("Bella", "Dog", "Beagle", "Female", "ISFJ", 7, 50.0, 30.0, false, true, 2.0, "images/bella.jpg"));
-        petList.add(new Pet("Charlie", "Dog", "Golden Retriever", "Male", "ENTJ", 9, 75.0, 50.0, false, true, 2.5, "images/charlie.jpg"));
-        petList.add(new Pet("Milo", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "images/milo.jpg"));
-        petList.add(new Pet("Gizmo", "Guinea Pig", "Abyssinian", "Male", "ENTP", 5, 5.5, 6.0, true, false, 0.6, "images/gizmo.jpg"));
-        petList.add(new Pet("Zoe", "Hamster", "Syrian Hamster", "Female", "ENFP", 3, 5.0, 10.0, true, false, 0.5, "images/zoe.jpg"));
-        petList.add(new Pet("Shelly", "Turtle", "Red-eared Slider", "Female", "ISTP", 2, 2.0, 5.0, false, false, 0.1, "images/shelly.jpg"));
-        petList.add(new Pet("Whiskers", "Rat", "Fancy Rat", "Male", "INTP", 6, 1.0, 3.0, true, false, 0.2, "images/whiskers.jpg"));
-        petList.add(new Pet("Kiki", "Parrot", "African Grey", "Male", "INTP", 5, 40.0, 15.0, false, false, 1.0, "images/kiki.jpg"));
-        petList.add(new Pet("Misty", "Cat", "Bengal", "Female", "INFJ", 6, 35.0, 30.0, false, false, 1.6, "images/misty.jpg"));
-        petList.add(new Pet("Rocky", "Hamster", "Roborovski Hamster", "Male", "INFJ", 3, 5.0, 8.0, true, false, 0.4, "images/rocky.jpg"));
-        petList.add(new Pet("Bubbles", "Fish", "Goldfish", "Male", "INFP", 2, 1.0, 5.0, false, false, 0.2, "images/bubbles.jpg"));
-        petList.add(new Pet("Sunny", "Parrot", "Macaw", "Female", "ENFJ", 7, 15.0, 20.0, false, false, 2.0, "images/sunny.jpg"));
-        petList.add(new Pet("Max", "Dog", "Rottweiler", "Male", "ESTJ", 8, 80.0, 60.0, true, true, 3.0, "images/max.jpg"));
-        petList.add(new Pet("Slither", "Snake", "Ball Python", "Male", "INTJ", 8, 5.0, 8.0, false, false, 1.0, "images/slither.jpg"));
-        petList.add(new Pet("Cooper", "Dog", "Beagle", "Male", "ENFP", 7, 50.0, 35.0, false, true, 2.5, "images/cooper.jpg"));
-        petList.add(new Pet("Shelly", "Guinea Pig", "American", "Male", "ISFJ", 4, 5.0, 5.0, true, false, 0.5, "images/shelly.jpg"));
-        petList.add(new Pet("Squeaky", "Rat", "Dumbo Rat", "Female", "INFJ", 5, 1.2, 3.5, true, false, 0.3, "images/squeaky.jpg"));
-        petList.add(new Pet("Pumpkin", "Hamster", "Winter White Hamster", "Female", "ENFP", 2, 4.5, 7.0, true, false, 0.4, "images/pumpkin.jpg"));
-        petList.add(new Pet("Daisy", "Dog", "Bulldog", "Female", "ESTP", 6, 50.0, 35.0, true, true, 2.5, "images/daisy.jpg"));
-        petList.add(new Pet("Tiny", "Hamster", "Campbell's  Hamster", "Male", "INTP", 4, 5.0, 9.0, false, false, 0.4, "images/tiny.jpg"));
-        petList.add(new Pet("Ziw", "Cat", "Maine Coon", "Female", "ISFP", 7, 50.0, 35.0, false, false, 2.0, "images/ziw.jpg"));
-        petList.add(new Pet("Tiger", "Cat", "British Shorthair", "Female", "INTJ", 8, 45.0, 25.0, false, false, 2.0, "images/tiger.jpg"));
-        petList.add(new Pet("Giz", "Guinea Pig", "Peruvian", "Female", "INFP", 3, 6.0, 7.0, true, false, 0.4, "images/giz.jpg"));
-        petList.add(new Pet("Tommy", "Turtle", "Box Turtle", "Male", "INTJ", 3, 3.5, 4.0, false, false, 0.2, "images/tommy.jpg"));
-        petList.add(new Pet("Slit", "Snake", "Ball Python", "Male", "INTJ", 8, 5.0, 8.0, false, false, 1.0, "images/slit.jpg"));
-        petList.add(new Pet("Sadie", "Dog", "Poodle", "Female", "INFP", 8, 55.0, 45.0, false, true, 2.0, "images/sadie.jpg"));
-        petList.add(new Pet("Spike", "Lizard", "Bearded Dragon", "Female", "ISFJ", 6, 10.0, 15.0, false, false, 2.0, "images/spike.jpg"));
-        petList.add(new Pet("Coop", "Dog", "Chihuahua", "Male", "ENFP", 5, 25.0, 20.0, false, true, 2.5, "images/coop.jpg"));
-        petList.add(new Pet("Maggie", "Parrot", "Cockatoo", "Female", "ENFJ", 7, 12.0, 18.0, false, false, 2.0, "images/maggie.jpg"));
-        petList.add(new Pet("Rock", "Hamster", "Roborovski Hamster", "Male", "ENFP", 3, 5.0, 8.0, true, false, 0.4, "images/rock.jpg"));
-        petList.add(new Pet("Windy", "Parrot", "Macaw", "Female", "ENFJ", 7, 15.0, 20.0, false, false, 2.0, "images/windy.jpg"));
-        petList.add(new Pet("Penny", "Guinea Pig", "Peruvian", "Female", "INFP", 3, 5.5, 6.5, true, false, 0.5, "images/penny.jpg"));
-        petList.add(new Pet("Nemo", "Fish", "Betta", "Male", "ISTJ", 2, 1.0, 3.0, false, false, 0.2, "images/nemo.jpg"));
-        petList.add(new Pet("Luna", "Cat", "Ragdoll", "Female", "INFJ", 5, 30.0, 28.0, false, false, 1.8, "images/luna.jpg"));
-        petList.add(new Pet("Buddy", "Dog", "Labrador", "Male", "ENFP", 8, 70.0, 55.0, false, true, 2.5, "images/buddy.jpg"));
-        petList.add(new Pet("Peanut", "Hamster", "Chinese Hamster", "Male", "ISFP", 3, 4.0, 7.0, true, false, 0.4, "images/peanut.jpg"));
-        petList.add(new Pet("Coco", "Parrot", "Conure", "Female", "ESFJ", 6, 10.0, 14.0, false, false, 1.5, "images/coco.jpg"));
-        petList.add(new Pet("Shadow", "Cat", "Sphynx", "Male", "INTP", 4, 28.0, 22.0, false, false, 1.4, "images/shadow.jpg"));
-        petList.add(new Pet("Spiky", "Dog", "Doberman", "Male", "ENTJ", 9, 80.0, 65.0, true, true, 3.0, "images/spiky.jpg"));
-        petList.add(new Pet("Snowy", "Rabbit", "Netherland Dwarf", "Female", "ISFJ", 4, 8.0, 10.0, false, false, 1.0, "images/snowy.jpg"));
-        petList.add(new Pet("Blue", "Fish", "Guppy", "Male", "INFP", 2, 1.0, 3.0, false, false, 0.2, "images/blue.jpg"));
-        petList.add(new Pet("Peaches", "Guinea Pig", "Silkie", "Female", "ENFP", 3, 6.0, 7.0, true, false, 0.5, "images/peaches.jpg"));
-        petList.add(new Pet("Loki", "Cat", "Oriental Shorthair", "Male", "ENTP", 6, 33.0, 27.0, false, false, 1.7, "images/loki.jpg"));
-        petList.add(new Pet("Benny", "Dog", "Basset Hound", "Male", "ISFP", 5, 55.0, 38.0, false, true, 2.0, "images/benny.jpg"));
-        petList.add(new Pet("Ruby", "Parrot", "Lovebird", "Female", "ENFJ", 5, 8.0, 12.0, false, false, 1.2, "images/ruby.jpg"));
-        petList.add(new Pet("Dusty", "Rabbit", "Lop", "Male", "ESFP", 4, 10.0, 11.0, false, false, 1.1, "images/dusty.jpg"));
-        petList.add(new Pet("Flame", "Lizard", "Leopard Gecko", "Female", "INTJ", 4, 7.0, 10.0, false, false, 1.0, "images/flame.jpg"));
-        petList.add(new Pet("Basil", "Snake", "Corn Snake", "Male", "ISTP", 5, 4.5, 7.0, false, false, 0.9, "images/basil.jpg"));
-        petList.add(new Pet("Tango", "Parrot", "Parakeet", "Male", "ENFP", 4, 6.0, 10.0, false, false, 1.3, "images/tango.jpg"));
-        petList.add(new Pet("Ginger", "Dog", "Shiba Inu", "Female", "INFJ", 6, 45.0, 40.0, false, true, 2.3, "images/ginger.jpg"));
+        petList.add(new Pet(0, "Bella", "Dog", "Beagle", "Female", "ISFJ", 7, 50.0, 30.0, false, true, 2.0, "images/bella.jpg"));
+        petList.add(new Pet(1, "Charlie", "Dog", "Golden Retriever", "Male", "ENTJ", 9, 75.0, 50.0, false, true, 2.5, "images/charlie.jpg"));
+        petList.add(new Pet(2, "Milo", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "images/milo.jpg"));
+        petList.add(new Pet(3, "Gizmo", "Guinea Pig", "Abyssinian", "Male", "ENTP", 5, 5.5, 6.0, true, false, 0.6, "images/gizmo.jpg"));
+        petList.add(new Pet(4, "Zoe", "Hamster", "Syrian Hamster", "Female", "ENFP", 3, 5.0, 10.0, true, false, 0.5, "images/zoe.jpg"));
+        petList.add(new Pet(5, "Shelly", "Turtle", "Red-eared Slider", "Female", "ISTP", 2, 2.0, 5.0, false, false, 0.1, "images/shelly.jpg"));
+        petList.add(new Pet(6, "Whiskers", "Rat", "Fancy Rat", "Male", "INTP", 6, 1.0, 3.0, true, false, 0.2, "images/whiskers.jpg"));
+        petList.add(new Pet(7, "Kiki", "Parrot", "African Grey", "Male", "INTP", 5, 40.0, 15.0, false, false, 1.0, "images/kiki.jpg"));
+        petList.add(new Pet(8, "Misty", "Cat", "Bengal", "Female", "INFJ", 6, 35.0, 30.0, false, false, 1.6, "images/misty.jpg"));
+        petList.add(new Pet(9, "Rocky", "Hamster", "Roborovski Hamster", "Male", "INFJ", 3, 5.0, 8.0, true, false, 0.4, "images/rocky.jpg"));
+        petList.add(new Pet(10, "Bubbles", "Fish", "Goldfish", "Male", "INFP", 2, 1.0, 5.0, false, false, 0.2, "images/bubbles.jpg"));
+        petList.add(new Pet(11, "Sunny", "Parrot", "Macaw", "Female", "ENFJ", 7, 15.0, 20.0, false, false, 2.0, "images/sunny.jpg"));
+        petList.add(new Pet(12, "Max", "Dog", "Rottweiler", "Male", "ESTJ", 8, 80.0, 60.0, true, true, 3.0, "images/max.jpg"));
+        petList.add(new Pet(13, "Slither", "Snake", "Ball Python", "Male", "INTJ", 8, 5.0, 8.0, false, false, 1.0, "images/slither.jpg"));
+        petList.add(new Pet(14, "Cooper", "Dog", "Beagle", "Male", "ENFP", 7, 50.0, 35.0, false, true, 2.5, "images/cooper.jpg"));
+        petList.add(new Pet(15, "Shelly", "Guinea Pig", "American", "Male", "ISFJ", 4, 5.0, 5.0, true, false, 0.5, "images/shelly.jpg"));
+        petList.add(new Pet(16, "Squeaky", "Rat", "Dumbo Rat", "Female", "INFJ", 5, 1.2, 3.5, true, false, 0.3, "images/squeaky.jpg"));
+        petList.add(new Pet(17, "Pumpkin", "Hamster", "Winter White Hamster", "Female", "ENFP", 2, 4.5, 7.0, true, false, 0.4, "images/pumpkin.jpg"));
+        petList.add(new Pet(18, "Daisy", "Dog", "Bulldog", "Female", "ESTP", 6, 50.0, 35.0, true, true, 2.5, "images/daisy.jpg"));
+        petList.add(new Pet(19, "Tiny", "Hamster", "Campbell's  Hamster", "Male", "INTP", 4, 5.0, 9.0, false, false, 0.4, "images/tiny.jpg"));
+        petList.add(new Pet(20, "Ziw", "Cat", "Maine Coon", "Female", "ISFP", 7, 50.0, 35.0, false, false, 2.0, "images/ziw.jpg"));
+        petList.add(new Pet(21, "Tiger", "Cat", "British Shorthair", "Female", "INTJ", 8, 45.0, 25.0, false, false, 2.0, "images/tiger.jpg"));
+        petList.add(new Pet(22, "Giz", "Guinea Pig", "Peruvian", "Female", "INFP", 3, 6.0, 7.0, true, false, 0.4, "images/giz.jpg"));
+        petList.add(new Pet(23, "Tommy", "Turtle", "Box Turtle", "Male", "INTJ", 3, 3.5, 4.0, false, false, 0.2, "images/tommy.jpg"));
+        petList.add(new Pet(24, "Slit", "Snake", "Ball Python", "Male", "INTJ", 8, 5.0, 8.0, false, false, 1.0, "images/slit.jpg"));
+        petList.add(new Pet(25, "Sadie", "Dog", "Poodle", "Female", "INFP", 8, 55.0, 45.0, false, true, 2.0, "images/sadie.jpg"));
+        petList.add(new Pet(26, "Spike", "Lizard", "Bearded Dragon", "Female", "ISFJ", 6, 10.0, 15.0, false, false, 2.0, "images/spike.jpg"));
+        petList.add(new Pet(27, "Coop", "Dog", "Chihuahua", "Male", "ENFP", 5, 25.0, 20.0, false, true, 2.5, "images/coop.jpg"));
+        petList.add(new Pet(28, "Maggie", "Parrot", "Cockatoo", "Female", "ENFJ", 7, 12.0, 18.0, false, false, 2.0, "images/maggie.jpg"));
+        petList.add(new Pet(29, "Rock", "Hamster", "Roborovski Hamster", "Male", "ENFP", 3, 5.0, 8.0, true, false, 0.4, "images/rock.jpg"));
+        petList.add(new Pet(30, "Windy", "Parrot", "Macaw", "Female", "ENFJ", 7, 15.0, 20.0, false, false, 2.0, "images/windy.jpg"));
+        petList.add(new Pet(31, "Penny", "Guinea Pig", "Peruvian", "Female", "INFP", 3, 5.5, 6.5, true, false, 0.5, "images/penny.jpg"));
+        petList.add(new Pet(32, "Nemo", "Fish", "Betta", "Male", "ISTJ", 2, 1.0, 3.0, false, false, 0.2, "images/nemo.jpg"));
+        petList.add(new Pet(33, "Luna", "Cat", "Ragdoll", "Female", "INFJ", 5, 30.0, 28.0, false, false, 1.8, "images/luna.jpg"));
+        petList.add(new Pet(34, "Buddy", "Dog", "Labrador", "Male", "ENFP", 8, 70.0, 55.0, false, true, 2.5, "images/buddy.jpg"));
+        petList.add(new Pet(35, "Peanut", "Hamster", "Chinese Hamster", "Male", "ISFP", 3, 4.0, 7.0, true, false, 0.4, "images/peanut.jpg"));
+        petList.add(new Pet(36, "Coco", "Parrot", "Conure", "Female", "ESFJ", 6, 10.0, 14.0, false, false, 1.5, "images/coco.jpg"));
+        petList.add(new Pet(37, "Shadow", "Cat", "Sphynx", "Male", "INTP", 4, 28.0, 22.0, false, false, 1.4, "images/shadow.jpg"));
+        petList.add(new Pet(38, "Spiky", "Dog", "Doberman", "Male", "ENTJ", 9, 80.0, 65.0, true, true, 3.0, "images/spiky.jpg"));
+        petList.add(new Pet(39, "Snowy", "Rabbit", "Netherland Dwarf", "Female", "ISFJ", 4, 8.0, 10.0, false, false, 1.0, "images/snowy.jpg"));
+        petList.add(new Pet(40, "Blue", "Fish", "Guppy", "Male", "INFP", 2, 1.0, 3.0, false, false, 0.2, "images/blue.jpg"));
+        petList.add(new Pet(41, "Peaches", "Guinea Pig", "Silkie", "Female", "ENFP", 3, 6.0, 7.0, true, false, 0.5, "images/peaches.jpg"));
+        petList.add(new Pet(42, "Loki", "Cat", "Oriental Shorthair", "Male", "ENTP", 6, 33.0, 27.0, false, false, 1.7, "images/loki.jpg"));
+        petList.add(new Pet(43, "Benny", "Dog", "Basset Hound", "Male", "ISFP", 5, 55.0, 38.0, false, true, 2.0, "images/benny.jpg"));
+        petList.add(new Pet(44, "Ruby", "Parrot", "Lovebird", "Female", "ENFJ", 5, 8.0, 12.0, false, false, 1.2, "images/ruby.jpg"));
+        petList.add(new Pet(45, "Dusty", "Rabbit", "Lop", "Male", "ESFP", 4, 10.0, 11.0, false, false, 1.1, "images/dusty.jpg"));
+        petList.add(new Pet(46, "Flame", "Lizard", "Leopard Gecko", "Female", "INTJ", 4, 7.0, 10.0, false, false, 1.0, "images/flame.jpg"));
+        petList.add(new Pet(47, "Basil", "Snake", "Corn Snake", "Male", "ISTP", 5, 4.5, 7.0, false, false, 0.9, "images/basil.jpg"));
+        petList.add(new Pet(48, "Tango", "Parrot", "Parakeet", "Male", "ENFP", 4, 6.0, 10.0, false, false, 1.3, "images/tango.jpg"));
+        petList.add(new Pet(49, "Ginger", "Dog", "Shiba Inu", "Female", "INFJ", 6, 45.0, 40.0, false, true, 2.3, "images/ginger.jpg"));
     }
 
     /**
-     * Fetches the list of all pets from the "database".
+     * Returns all pets in id order.
      *
-     * @return List of all pets stored in the database.
+     * @return the immutable catalog
      */
+    public static List<Pet> getCatalog() {
+        return snapshot.catalog;
+    }
 
     /**
-     * Returns a shuffled list of all available pets in the database.
+     * Returns the index of the current catalog. It covers at least every pet of any catalog
+     * or pet list obtained earlier.
+     *
+     * @return the catalog index
+     */
+    public static PetIndex getIndex() {
+        return snapshot.index;
+    }
+
+    /**
+     * Returns all available pets in a freshly randomized order.
      * This method simulates randomized display order for user recommendation.
      *
-     * @return a {@code List<Pet>} containing all pets
+     * @return a read-only {@code List<Pet>} view containing all pets
      */
     public static List<Pet> getAllPets() {
-        // Shuffle the list to randomize the order
-        Collections.shuffle(petList);
-        return petList;
+        return getAllPets(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Returns all available pets in the randomized order selected by a seed. The same seed
+     * always gives the same order, so a session can keep its presentation order stable.
+     *
+     * @param seed selects the order
+     * @return a read-only {@code List<Pet>} view containing all pets
+     */
+    public static List<Pet> getAllPets(long seed) {
+        return new PermutationView<>(snapshot.catalog, seed);
+    }
+
+    /**
+     * Tells whether a list is a catalog or pet list view returned by this class. Such a
+     * view never changes, so it can be kept without copying.
+     *
+     * @param pets a list of pets
+     * @return {@code true} if {@code pets} is an immutable view of a catalog
+     */
+    public static boolean isCatalogView(List<Pet> pets) {
+        return pets instanceof PermutationView || pets instanceof Appended;
+    }
+
+    /**
+     * Registers a pet under the next free id.
+     *
+     * @param pet the pet to add; its own id, if any, is ignored
+     * @return the registered pet, carrying its new id
+     */
+    public static Pet addPet(Pet pet) {
+        return addPets(List.of(pet)).get(0);
+    }
+
+    /**
+     * Registers pets under the next free ids, in list order, and indexes them. Adding pets
+     * in batches costs one copy of the previously added pets per batch.
+     *
+     * @param pets the pets to add; their own ids, if any, are ignored
+     * @return the registered pets, carrying their new ids
+     */
+    public static synchronized List<Pet> addPets(List<Pet> pets) {
+        Snapshot current = snapshot;
+        int firstId = current.catalog.size();
+        List<Pet> base = current.catalog;
+        Pet[] added = new Pet[0];
+        if (current.catalog instanceof Appended appended) {
+            base = appended.base;
+            added = appended.added;
+        }
+        added = Arrays.copyOf(added, added.length + pets.size());
+        for (int i = 0; i < pets.size(); i++) {
+            Pet pet = pets.get(i);
+            added[firstId - base.size() + i] = new Pet(firstId + i, pet.getName(), pet.getType(), pet.getBreed(),
+                    pet.getGender(), pet.getMbti(), pet.getEnergyLevel(), pet.getRequiredSpace(), pet.getMonthlyCost(),
+                    pet.isAllergenic(), pet.requiresYard(), pet.getTimeNeededPerDay(), pet.getImagePath());
+        }
+        List<Pet> catalog = new Appended(base, added);
+        snapshot = new Snapshot(catalog, current.index.withPets(catalog));
+        return catalog.subList(firstId, catalog.size());
+    }
+
+    /**
+     * Returns the pet registered under the given id.
+     *
+     * @param id the pet's id
+     * @return the pet, or {@code null} if no pet has that id
+     */
+    public static Pet getPetById(int id) {
+        List<Pet> catalog = snapshot.catalog;
+        return id >= 0 && id < catalog.size() ? catalog.get(id) : null;
+    }
+
+    /**
+     * Returns the number of pets in the database.
+     *
+     * @return the number of pets
+     */
+    public static int size() {
+        return snapshot.catalog.size();
     }
 }
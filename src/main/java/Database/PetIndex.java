@@ -0,0 +1,273 @@
+package Database;
+
+import model.CategoryDictionary;
+import model.MbtiCode;
+import model.Pet;
+import model.PetKeyIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code PetIndex} class holds the secondary indexes of a pet catalog, so that lookups
+ * by type, breed, MBTI type or (name, breed) touch only the matching pets instead of
+ * scanning the whole catalog.
+ * <p>
+ * Type, type-and-breed and MBTI lookups are answered from posting lists: sorted arrays of
+ * the ids of the matching pets. Types and breeds are case-folded the way
+ * {@link String#equalsIgnoreCase} compares them, once per dictionary code rather than once
+ * per pet. A {@code null} breed is indexed under its own key, distinct from every string;
+ * pets without a type are in no posting list of types, and lookups by a {@code null} type
+ * find nothing. (Name, breed) lookups go to the catalog's {@link PetKeyIndex}.
+ * <p>
+ * An index is immutable. {@link #withPets} indexes pets appended to the catalog
+ * incrementally: ids only grow, so the new ids are appended in place to growable posting
+ * lists that the new index shares with this one, which ignores every id beyond its own
+ * size. Extending the most recent index therefore costs time in proportion to the new
+ * pets, amortized over the growth of the lists, even when pets are added one at a time;
+ * extending an index that was already extended rebuilds the whole index. The catalog must
+ * be in id order, with the pet at position {@code i} having id {@code i}, as in
+ * {@link PetDatabase}. An index built with {@link #ofPositions} instead ignores the pets'
+ * own ids and answers with positions in the list it indexes, so that a subset of a
+ * catalog can be indexed as it is.
+ */
+public final class PetIndex {
+
+    private static final int[] NO_IDS = new int[0];
+
+    /** A case-folded type and breed; the breed may be {@code null}. */
+    private record TypeAndBreed(String type, String breed) {}
+
+    /** Whether ids are positions in the list rather than the pets' own ids. */
+    private final boolean byPosition;
+
+    /** The indexed catalog, in id order. */
+    private final List<Pet> pets;
+
+    /** The posting lists, possibly holding ids beyond this index's catalog. */
+    private final Postings postings;
+
+    /** Positions of the pets by (name, breed). */
+    private final PetKeyIndex keys;
+
+    private PetIndex(boolean byPosition, List<Pet> pets, Postings postings, PetKeyIndex keys) {
+        this.byPosition = byPosition;
+        this.pets = pets;
+        this.postings = postings;
+        this.keys = keys;
+    }
+
+    /**
+     * Indexes a whole catalog.
+     *
+     * @param catalog the catalog, in id order
+     * @return the index
+     * @throws IllegalArgumentException if a pet's id is not its position in the catalog
+     */
+    public static PetIndex of(List<Pet> catalog) {
+        return empty(false).withPets(catalog);
+    }
+
+    /**
+     * Indexes a list of pets by position: every lookup returns positions in the list, and
+     * the pets' own ids are ignored.
+     *
+     * @param pets the pets to index
+     * @return the index
+     */
+    public static PetIndex ofPositions(List<Pet> pets) {
+        return empty(true).withPets(pets);
+    }
+
+    private static PetIndex empty(boolean byPosition) {
+        return new PetIndex(byPosition, List.of(), new Postings(), PetKeyIndex.of(List.of()));
+    }
+
+    /**
+     * Returns an index of a catalog that extends the one this index covers, indexing only
+     * the appended pets. This index is left unchanged.
+     *
+     * @param catalog this index's catalog followed by the new pets, in id order
+     * @return the index of the whole catalog
+     * @throws IllegalArgumentException if a new pet's id is not its position in the catalog,
+     *                                  unless this index is by position
+     */
+    public PetIndex withPets(List<Pet> catalog) {
+        int from = pets.size();
+        if (catalog.size() < from) {
+            throw new IllegalArgumentException("Catalog has " + catalog.size() + " pets but "
+                    + from + " are already indexed");
+        }
+        if (!byPosition) {
+            for (int id = from; id < catalog.size(); id++) {
+                if (catalog.get(id).getId() != id) {
+                    throw new IllegalArgumentException("Pet at position " + id + " has id " + catalog.get(id).getId());
+                }
+            }
+        }
+        synchronized (postings) {
+            if (postings.extent == from) {
+                postings.add(catalog, from);
+                return new PetIndex(byPosition, catalog, postings, keys.withPets(catalog));
+            }
+        }
+        // This index was already extended; its posting lists hold pets that are not in this catalog
+        return empty(byPosition).withPets(catalog);
+    }
+
+    /** @return the number of indexed pets */
+    public int size() {
+        return pets.size();
+    }
+
+    /**
+     * Returns the ids of the pets of a type, ignoring case.
+     *
+     * @param type the pet type (e.g., Dog, Cat)
+     * @return the matching ids, in increasing order, as a new array
+     */
+    public int[] idsOfType(String type) {
+        return type == null ? NO_IDS : idsBelowSize(postings.byType.get(fold(type)));
+    }
+
+    /**
+     * Returns the ids of the pets of a type and breed, ignoring case. An empty or
+     * {@code null} breed matches every breed of the type.
+     *
+     * @param type  the pet type (e.g., Dog, Cat)
+     * @param breed the breed, or empty for any breed
+     * @return the matching ids, in increasing order, as a new array
+     */
+    public int[] idsOfTypeAndBreed(String type, String breed) {
+        if (breed == null || breed.isEmpty()) {
+            return idsOfType(type);
+        }
+        if (type == null) {
+            return NO_IDS;
+        }
+        return idsBelowSize(postings.byTypeAndBreed.get(new TypeAndBreed(fold(type), fold(breed))));
+    }
+
+    /**
+     * Returns the ids of the pets of an MBTI type, ignoring case.
+     *
+     * @param mbti the four-letter MBTI type
+     * @return the matching ids, in increasing order, as a new array
+     * @throws IllegalArgumentException if {@code mbti} is not a valid MBTI type
+     */
+    public int[] idsWithMbti(String mbti) {
+        return idsBelowSize(postings.byMbti[MbtiCode.encode(mbti)]);
+    }
+
+    /**
+     * Looks up a pet by name and breed, compared exactly.
+     *
+     * @param name  the pet's name
+     * @param breed the pet's breed
+     * @return the lowest id of a pet with that key, or {@code -1} if there is none
+     */
+    public int idOf(String name, String breed) {
+        return keys.positionOf(name, breed);
+    }
+
+    /** @return the ids of a posting list that belong to this index's catalog, as a new array */
+    private int[] idsBelowSize(IdList list) {
+        return list == null ? NO_IDS : list.idsBelow(pets.size());
+    }
+
+    /**
+     * Posting lists shared by an index and the indexes extended from it. Ids are only ever
+     * appended, larger than every id of the indexes already handed out, so those indexes
+     * keep reading the lists while they grow; the maps are concurrent.
+     */
+    private static final class Postings {
+        final Map<String, IdList> byType = new ConcurrentHashMap<>();
+        final Map<TypeAndBreed, IdList> byTypeAndBreed = new ConcurrentHashMap<>();
+        final IdList[] byMbti = new IdList[MbtiCode.COUNT];
+
+        /** Number of catalog pets added, guarded by this object's lock. */
+        int extent;
+
+        Postings() {
+            Arrays.setAll(byMbti, code -> new IdList());
+        }
+
+        /** Adds the pets from position {@code from} on; the caller holds this object's lock. */
+        void add(List<Pet> catalog, int from) {
+            String[] foldedTypes = new String[Pet.TYPES.size()];
+            String[] foldedBreeds = new String[Pet.BREEDS.size()];
+            for (int id = from; id < catalog.size(); id++) {
+                Pet pet = catalog.get(id);
+                foldedTypes = folded(Pet.TYPES, foldedTypes, pet.getTypeCode());
+                foldedBreeds = folded(Pet.BREEDS, foldedBreeds, pet.getBreedCode());
+                String type = foldedTypes[pet.getTypeCode()];
+                if (type != null) {
+                    byType.computeIfAbsent(type, k -> new IdList()).add(id);
+                    byTypeAndBreed.computeIfAbsent(new TypeAndBreed(type, foldedBreeds[pet.getBreedCode()]),
+                            k -> new IdList()).add(id);
+                }
+                byMbti[pet.getMbtiCode()].add(id);
+            }
+            extent = catalog.size();
+        }
+    }
+
+    /**
+     * A growable, increasing list of ids with a single writer. The count is written after
+     * the id it covers, and a grown array is published before, so a reader that reads the
+     * count first and then the array sees every id the count covers.
+     */
+    private static final class IdList {
+        private volatile int[] ids = NO_IDS;
+        private volatile int count;
+
+        void add(int id) {
+            int[] current = ids;
+            int n = count;
+            if (n == current.length) {
+                current = Arrays.copyOf(current, Math.max(4, 2 * n));
+                ids = current;
+            }
+            current[n] = id;
+            count = n + 1;
+        }
+
+        /** @return the ids smaller than {@code limit}, as a new array */
+        int[] idsBelow(int limit) {
+            int n = count;
+            int[] current = ids;
+            int end = n > 0 && current[n - 1] >= limit ? Arrays.binarySearch(current, 0, n, limit) : n;
+            return Arrays.copyOf(current, end < 0 ? -end - 1 : end);
+        }
+    }
+
+    /**
+     * Makes sure the case-folded value of a code is cached, growing the cache if the code
+     * was assigned after it was sized. The {@code null} value stays {@code null}.
+     *
+     * @return the cache, which may be a new array
+     */
+    private static String[] folded(CategoryDictionary dictionary, String[] cache, int code) {
+        if (code >= cache.length) {
+            cache = Arrays.copyOf(cache, dictionary.size());
+        }
+        if (cache[code] == null && code != CategoryDictionary.NULL_CODE) {
+            cache[code] = fold(dictionary.decode(code));
+        }
+        return cache;
+    }
+
+    /**
+     * Case-folds a string so that two strings fold to the same value exactly when
+     * {@link String#equalsIgnoreCase} considers them equal.
+     */
+    private static String fold(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
@@ -64,7 +64,7 @@ public final class PetForUApp {
                     energyLevel, space, budget, allergy == 1, hasYard == 1, timePerDay
             );
 
-            ConsoleController consoleController = new ConsoleController(manager.getUser(), new model.CompatibilityCalculator());
+            ConsoleController consoleController = new ConsoleController(manager.getUser(), manager.getCalculator());
 
             boolean running = true;
             while (running) {
@@ -79,9 +79,9 @@ public final class PetForUApp {
                 String input = scanner.nextLine().trim();
 
                 switch (input) {
-                    case "1" -> consoleController.displayBestMatch(manager.getCsvPath());
-                    case "2" -> consoleController.displayRecommendedPets(manager.getCsvPath());
-                    case "3" -> consoleController.displayAllPetsWithScores(manager.getCsvPath());
+                    case "1" -> consoleController.displayBestMatch(manager.getSession());
+                    case "2" -> consoleController.displayRecommendedPets(manager.getSession());
+                    case "3" -> consoleController.displayAllPetsWithScores(manager.getSession());
                     case "4" -> {
                         System.out.print("Enter the pet type (Dog, Cat, Hamster, Parrot): ");
                         String petType = scanner.nextLine().trim();
@@ -90,13 +90,17 @@ public final class PetForUApp {
                         String petBreed = scanner.nextLine().trim();
 
                         new model.PetSearcher(consoleController)
-                                .searchAndDisplay(petType, petBreed, manager.getCsvPath());
+                                .searchAndDisplay(petType, petBreed, manager.getSession());
                     }
                     case "Q", "q" -> running = false;
                     default -> System.out.println("Invalid option. Please choose 1, 2, 3, 4, or Q.");
                 }
             }
 
+            // The exports are written in the background; let them finish before exiting
+            manager.awaitExport();
+            manager.close();
+
             System.out.println("Thank you for using PetMatcher! Goodbye.");
 
         } catch (Exception e) {
@@ -2,11 +2,9 @@ package controller;
 
 import model.*;
 import java.awt.Desktop;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -58,6 +56,23 @@ public class ConsoleController {
         }
     }
 
+    /**
+     * Displays the best match pet from the session's in-memory ranking.
+     * The pet image will also be opened using the system default image viewer.
+     *
+     * @param session the scored session for the current user
+     */
+    public void displayBestMatch(ScoredSession session) {
+        RankedResult bestMatch = session.bestMatch();
+
+        if (bestMatch.isEmpty()) {
+            displayNoCompatiblePets();
+            return;
+        }
+
+        displayBestMatchDetails(new PetWithScore(bestMatch.pet(0), bestMatch.score(0)));
+    }
+
     /**
      * Displays recommended pets to the user.
      * This method will filter pets with compatibility scores above a certain threshold (e.g., 80%)
@@ -68,22 +83,31 @@ public class ConsoleController {
      */
     public void displayRecommendedPets(String csvFilePath) {
         List<Pet> allPets = Database.PetDatabase.getAllPets();
-        PetFilter filter = new PetFilter(csvFilePath);
-        List<Pet> filteredPets = filter.filterPetsByCompatibility(allPets);
+        RankedResult recommended = readRankingAbove(allPets, csvFilePath, 0.80);
 
-        if (filteredPets.isEmpty()) {
+        if (recommended.isEmpty()) {
             displayNoCompatiblePets();
             return;
         }
 
-        // Convert to PetWithScore for display
-        List<PetWithScore> petsWithScores = new ArrayList<>();
-        for (Pet pet : filteredPets) {
-            double score = getScoreFromCSV(pet.getName(), pet.getBreed(), csvFilePath);
-            petsWithScores.add(new PetWithScore(pet, score));
+        displayFilteredPets(recommended);
+    }
+
+    /**
+     * Displays the recommended pets from the session's in-memory ranking.
+     * Each matching pet's image will also be opened using the system default image viewer.
+     *
+     * @param session the scored session for the current user
+     */
+    public void displayRecommendedPets(ScoredSession session) {
+        RankedResult recommended = session.recommended();
+
+        if (recommended.isEmpty()) {
+            displayNoCompatiblePets();
+            return;
         }
 
-        displayFilteredPets(petsWithScores);
+        displayFilteredPets(recommended);
     }
 
     /**
@@ -94,29 +118,17 @@ public class ConsoleController {
      * @param csvFilePath The path to the CSV file containing all pet data.
      */
     public void displayAllPetsWithScores(String csvFilePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvFilePath))) {
-            System.out.println("\n" + LINE_SEPARATOR);
-            System.out.println("ALL PETS WITH COMPATIBILITY SCORES");
-            System.out.println(LINE_SEPARATOR);
+        try (CsvTokenizer row = CsvTokenizer.open(csvFilePath)) {
+            printAllPetsHeader();
 
             // Skip header line
-            String header = reader.readLine();
+            row.next();
 
-            String line;
             int count = 1;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length < 5) continue; // Skip invalid rows
-
-                String name = parts[0];
-                String breed = parts[1];
-                String type = parts[2];
-                String score = parts[3];
-                String imagePath = parts[4];
-
-                System.out.println(count + ". " + name + " (" + type + " - " + breed + ")");
-                System.out.println("   Compatibility: " + score);
-                System.out.println(SECTION_SEPARATOR);
+            while (row.next()) {
+                if (row.fieldCount() < 5) continue; // Skip invalid rows
+
+                printPetWithScore(count, row.fieldString(0), row.fieldString(2), row.fieldString(1), row.fieldString(3));
                 count++;
             }
         } catch (IOException e) {
@@ -124,6 +136,46 @@ public class ConsoleController {
         }
     }
 
+    /**
+     * Displays all pets with their compatibility scores from the session's in-memory ranking.
+     * NOTE: This method does NOT open or display any pet images.
+     *
+     * @param session the scored session for the current user
+     */
+    public void displayAllPetsWithScores(ScoredSession session) {
+        RankedResult ranking = session.getRanking();
+        printAllPetsHeader();
+        for (int rank = 0; rank < ranking.size(); rank++) {
+            Pet pet = ranking.pet(rank);
+            printPetWithScore(rank + 1, pet.getName(), pet.getType(), pet.getBreed(),
+                    formatPercentage(ranking.score(rank)));
+        }
+    }
+
+    /**
+     * Prints the heading of the all pets list.
+     */
+    private void printAllPetsHeader() {
+        System.out.println("\n" + LINE_SEPARATOR);
+        System.out.println("ALL PETS WITH COMPATIBILITY SCORES");
+        System.out.println(LINE_SEPARATOR);
+    }
+
+    /**
+     * Prints one entry of the all pets list.
+     *
+     * @param count the entry's number in the list
+     * @param name  the pet's name
+     * @param type  the pet's type
+     * @param breed the pet's breed
+     * @param score the formatted compatibility score
+     */
+    private void printPetWithScore(int count, String name, String type, String breed, String score) {
+        System.out.println(count + ". " + name + " (" + type + " - " + breed + ")");
+        System.out.println("   Compatibility: " + score);
+        System.out.println(SECTION_SEPARATOR);
+    }
+
     /**
      * Displays search results for a pet by type and/or breed.
      * This method will receive a list of matched pets and display their details.
@@ -220,25 +272,57 @@ public class ConsoleController {
      * @param filteredPets the list of pets with compatibility scores above 80%
      */
     public void displayFilteredPets(List<PetWithScore> filteredPets) {
+        printFilteredHeader(filteredPets.size());
+
+        int count = 1;
+        for (PetWithScore petWithScore : filteredPets) {
+            printFilteredPet(count++, petWithScore.getPet(), petWithScore.getScore());
+        }
+    }
+
+    /**
+     * Displays a ranking of pets with compatibility scores above 80%, reading each pet
+     * straight from the ranking.
+     *
+     * @param filteredPets the ranking of pets with compatibility scores above 80%
+     */
+    public void displayFilteredPets(RankedResult filteredPets) {
+        printFilteredHeader(filteredPets.size());
+
+        for (int rank = 0; rank < filteredPets.size(); rank++) {
+            printFilteredPet(rank + 1, filteredPets.pet(rank), filteredPets.score(rank));
+        }
+    }
+
+    /**
+     * Prints the heading of the highly compatible pets list.
+     *
+     * @param count the number of pets listed
+     */
+    private void printFilteredHeader(int count) {
         System.out.println("\n" + LINE_SEPARATOR);
         System.out.println("🔍 HIGHLY COMPATIBLE PETS (80%+ MATCH) 🔍");
         System.out.println(LINE_SEPARATOR);
-        System.out.println("Found " + filteredPets.size() + " pets with compatibility scores above 80%:");
+        System.out.println("Found " + count + " pets with compatibility scores above 80%:");
         System.out.println(SECTION_SEPARATOR);
+    }
 
-        int count = 1;
-        for (PetWithScore petWithScore : filteredPets) {
-            Pet pet = petWithScore.getPet();
-            System.out.println(count + ". " + pet.getName() + " (" + pet.getType() + " - " + pet.getBreed() + ")");
-            System.out.println("   Compatibility: " + formatPercentage(petWithScore.getScore()));
-            System.out.println(SECTION_SEPARATOR);
-            displayPetDetails(pet);
-            System.out.println(LINE_SEPARATOR);
-            count++;
+    /**
+     * Prints one entry of the highly compatible pets list and opens its image.
+     *
+     * @param count the entry's number in the list
+     * @param pet   the pet
+     * @param score the pet's compatibility score
+     */
+    private void printFilteredPet(int count, Pet pet, double score) {
+        System.out.println(count + ". " + pet.getName() + " (" + pet.getType() + " - " + pet.getBreed() + ")");
+        System.out.println("   Compatibility: " + formatPercentage(score));
+        System.out.println(SECTION_SEPARATOR);
+        displayPetDetails(pet);
+        System.out.println(LINE_SEPARATOR);
 
-            // Open the image
-            openImage(pet.getImagePath());
-        }
+        // Open the image
+        openImage(pet.getImagePath());
     }
 
     /**
@@ -289,7 +373,9 @@ public class ConsoleController {
     }
 
     /**
-     * Gets the compatibility score for a pet from the CSV file.
+     * Gets the compatibility score for a pet from the CSV file. The file is memory-mapped
+     * and scanned in place, so no line or field strings are created for rows that do not
+     * match.
      *
      * @param petName the name of the pet
      * @param petBreed the breed of the pet
@@ -297,27 +383,54 @@ public class ConsoleController {
      * @return the compatibility score (0.0 to 1.0) or 0.0 if not found
      */
     private double getScoreFromCSV(String petName, String petBreed, String csvFilePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvFilePath))) {
+        try {
+            MappedCompatibilityCsv csv = MappedCompatibilityCsv.open(Path.of(csvFilePath));
+            int row = csv.find(petName, petBreed);
+            if (row >= 0) {
+                return csv.score(row);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+        }
+
+        return 0.0; // Default if not found
+    }
+
+    /**
+     * Reads the pets scoring above a threshold from the CSV file in a single pass, keeping
+     * the file's order.
+     *
+     * @param pets        the catalog to look the listed pets up in
+     * @param csvFilePath the path to the CSV file
+     * @param threshold   the score a pet must exceed to be kept
+     * @return the qualifying pets with their scores
+     */
+    private RankedResult readRankingAbove(List<Pet> pets, String csvFilePath, double threshold) {
+        RankedResult.Builder ranking = new RankedResult.Builder(pets);
+        PetKeyIndex index = PetKeyIndex.of(pets);
+        try (CsvTokenizer row = CsvTokenizer.open(csvFilePath)) {
             // Skip header line
-            String header = reader.readLine();
+            row.next();
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length < 5) continue; // Skip invalid rows
+            while (row.next()) {
+                if (row.fieldCount() < 5) continue; // Skip invalid rows
 
-                String name = parts[0];
-                String breed = parts[1];
-                String scoreStr = parts[3].replace("%", ""); // Remove % sign
+                double score;
+                try {
+                    score = row.percentField(3); // Convert to decimal
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (score <= threshold) continue;
 
-                if (petName.equals(name) && petBreed.equals(breed)) {
-                    return Double.parseDouble(scoreStr) / 100.0; // Convert to decimal
+                int position = index.positionOfRow(row);
+                if (position >= 0) {
+                    ranking.add(position, score);
                 }
             }
         } catch (IOException e) {
             System.err.println("Error reading CSV file: " + e.getMessage());
         }
-
-        return 0.0; // Default if not found
+        return ranking.build();
     }
-}
\ No newline at end of file
+}
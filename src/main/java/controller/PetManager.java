@@ -3,7 +3,19 @@ package controller;
 import model.*;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The {@code PetManager} class coordinates the core logic of the PetForU application.
@@ -12,25 +24,90 @@ import java.util.List;
  * <p>
  * This class acts as a bridge between user input and model-layer components such as
  * {@code PetSorter}, {@code PetFilter}, {@code PetSearcher}, and {@code PetMatcher}.
+ * <p>
+ * The ranking is kept in memory as a {@link ScoredSession} that the menu actions query
+ * directly. The exports, a CSV for people and other tools and a binary ranking file from
+ * which the session can be restored, are optional and can be turned off by setting the
+ * {@value #EXPORT_PROPERTY} system property to {@code false}.
+ * <p>
+ * Exports are written behind the session: the constructor returns as soon as the ranking
+ * is in memory, and the files are written on a background thread. Code that reads the
+ * files must first wait for {@link #getExportFuture()} or call {@link #awaitExport()}.
+ * <p>
+ * Each manager writes into its own directory, {@code output/session-<id>}, and publishes
+ * every file atomically, so any number of sessions, in one process or many, can run at
+ * once without overwriting or reading each other's partial results. A session holds a lock
+ * on its directory until it is {@linkplain #close() closed} or its process exits. Once its
+ * exports are written, a session deletes the directories of ended sessions, those whose
+ * lock is free, beyond the {@value #KEPT_SESSIONS} most recently modified, so the output
+ * of finished sessions does not accumulate while the files of running ones stay in place.
  */
-public class PetManager {
+public class PetManager implements AutoCloseable {
+
+    /** System property that disables the exports when set to {@code false}. */
+    public static final String EXPORT_PROPERTY = "petforu.export.csv";
+
+    /** Directory under which each session creates its own output directory. */
+    public static final String OUTPUT_ROOT = "output";
+
+    /** Number of session directories kept under {@link #OUTPUT_ROOT}, including the newest. */
+    public static final int KEPT_SESSIONS = 10;
+
+    /** Prefix of every session's directory name. */
+    private static final String SESSION_PREFIX = "session-";
+
+    /** File in each session directory that is locked while the session runs. */
+    private static final String LOCK_FILE = "session.lock";
+
+    /** Writes exports on daemon threads, so they never delay the menu or each other. */
+    private static final ExecutorService EXPORTER = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "petforu-export");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /** The user profile derived from questionnaire input. */
     private final User user;
 
+    /** Identifies this session's output directory. */
+    private final String sessionId;
+
+    /** The directory this session's exports are written to. */
+    private final String outputDirectory;
+
     /** The file path where compatibility results will be exported. */
     private final String csvPath;
 
+    /** The file path where the binary ranking will be saved. */
+    private final String rankingPath;
+
     /** The compatibility calculator used to compute match scores. */
     private final ICompatibilityCalculator calculator;
 
-    /** All pets loaded from the database. */
+    /** Selects this session's presentation order of the catalog. */
+    private final long presentationSeed;
+
+    /** All pets loaded from the database, in this session's presentation order. */
     private final List<Pet> allPets;
 
+    /** The in-memory ranking of all pets for this user. */
+    private final ScoredSession session;
+
+    /** Completes when this session's exports have been written, or at once if disabled. */
+    private final CompletableFuture<Void> export;
+
+    /**
+     * Marks the output directory as in use; {@code null} if the export is disabled or the
+     * lock could not be taken.
+     */
+    private final FileLock lock;
+
     /**
      * Constructs a {@code PetManager} instance based on user questionnaire responses.
      * It creates a {@link User} object, loads all pets from the database, initializes
-     * the compatibility calculator, and exports compatibility scores to a CSV file.
+     * the compatibility calculator and ranks all pets. Unless the export is disabled, it
+     * then starts writing the ranking to a CSV file and a binary ranking file in the
+     * background and returns without waiting for them.
      *
      * @param gender             user's gender
      * @param preferredPetGender preferred pet gender
@@ -57,15 +134,28 @@ public class PetManager {
                         + (jScore == 1 ? "J" : "P"),
                 energy, space, budget, allergy, hasYard, time);
 
-        this.calculator = new CompatibilityCalculator();
-        this.allPets = Database.PetDatabase.getAllPets();
-        this.csvPath = "output/pet_compatibility.csv";
+        this.calculator = configuredCalculator();
+        this.presentationSeed = ThreadLocalRandom.current().nextLong();
+        this.allPets = Database.PetDatabase.getAllPets(presentationSeed);
+        this.sessionId = UUID.randomUUID().toString();
+        this.outputDirectory = OUTPUT_ROOT + "/" + SESSION_PREFIX + sessionId;
+        this.csvPath = outputDirectory + "/pet_compatibility.csv";
+        this.rankingPath = outputDirectory + "/pet_ranking.bin";
 
-        // Ensure output directory exists
-        new File("output").mkdirs();
+        // Precompute compatibility scores once for the whole session
+        this.session = new ScoredSession(user, calculator, allPets, Database.PetDatabase.getIndex());
 
-        // Precompute and export compatibility scores
-        new PetSorter(user, calculator).sortAndExportToCSV(allPets, csvPath);
+        if (Boolean.parseBoolean(System.getProperty(EXPORT_PROPERTY, "true"))) {
+            ScoredSession ranked = session;
+            String directory = outputDirectory;
+            String csv = csvPath;
+            String ranking = rankingPath;
+            this.lock = lockOutputDirectory(directory);
+            this.export = CompletableFuture.runAsync(() -> writeExports(ranked, csv, ranking), EXPORTER);
+        } else {
+            this.lock = null;
+            this.export = CompletableFuture.completedFuture(null);
+        }
     }
 
     /**
@@ -77,6 +167,53 @@ public class PetManager {
         return user;
     }
 
+    /**
+     * Returns the compatibility calculator used for this session.
+     *
+     * @return the calculator
+     */
+    public ICompatibilityCalculator getCalculator() {
+        return calculator;
+    }
+
+    /**
+     * Returns the in-memory ranking for this session.
+     *
+     * @return the scored session
+     */
+    public ScoredSession getSession() {
+        return session;
+    }
+
+    /**
+     * Returns the seed of this session's presentation order, which
+     * {@code PetDatabase.getAllPets(long)} turns back into the same order of the same
+     * catalog.
+     *
+     * @return the presentation seed
+     */
+    public long getPresentationSeed() {
+        return presentationSeed;
+    }
+
+    /**
+     * Returns the identifier of this session, unique across sessions and processes.
+     *
+     * @return the session id
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Returns the directory this session's exports are written to.
+     *
+     * @return path to the session's output directory
+     */
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+
     /**
      * Returns the file path of the compatibility CSV.
      *
@@ -85,4 +222,164 @@ public class PetManager {
     public String getCsvPath() {
         return csvPath;
     }
+
+    /**
+     * Returns the file path of the binary ranking, from which the session can be restored
+     * with {@link ScoredSession#restore}.
+     *
+     * @return path to the output ranking file
+     */
+    public String getRankingPath() {
+        return rankingPath;
+    }
+
+    /**
+     * Returns a future that completes when the CSV and ranking files have been written,
+     * or exceptionally if writing them failed. It is already complete if the export is
+     * disabled.
+     *
+     * @return the export's completion signal
+     */
+    public CompletableFuture<Void> getExportFuture() {
+        return export.copy();
+    }
+
+    /**
+     * Blocks until the CSV and ranking files have been written.
+     *
+     * @throws RuntimeException if writing the files failed
+     */
+    public void awaitExport() {
+        try {
+            export.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Ends the session, releasing its output directory once the exports have been written.
+     * The files are kept; a later session deletes them when they are no longer among the
+     * {@value #KEPT_SESSIONS} most recent.
+     */
+    @Override
+    public void close() {
+        if (lock != null) {
+            export.whenComplete((ignored, failure) -> release(lock));
+        }
+    }
+
+    /**
+     * Creates the session's output directory and locks it for as long as the session runs.
+     *
+     * @return the lock, or {@code null} if it could not be taken
+     */
+    private static FileLock lockOutputDirectory(String directory) {
+        new File(directory).mkdirs();
+        try {
+            FileChannel channel = FileChannel.open(new File(directory, LOCK_FILE).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                return channel.lock();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not lock session directory " + directory + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void release(FileLock lock) {
+        try {
+            lock.channel().close();
+        } catch (IOException e) {
+            System.err.println("Could not release session lock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the session's exports; runs on the export thread.
+     */
+    private static void writeExports(ScoredSession session, String csvPath, String rankingPath) {
+        session.exportToCSV(csvPath);
+        session.exportRanking(rankingPath);
+        deleteOldSessions();
+    }
+
+    /**
+     * Deletes the directories of ended sessions that are not among the
+     * {@value #KEPT_SESSIONS} most recently modified. A directory whose lock is held, by a
+     * session still running in this or another process or by another session deleting it
+     * at the same time, is skipped.
+     */
+    private static void deleteOldSessions() {
+        File[] sessions = new File(OUTPUT_ROOT).listFiles(
+                file -> file.isDirectory() && file.getName().startsWith(SESSION_PREFIX));
+        if (sessions == null || sessions.length <= KEPT_SESSIONS) {
+            return;
+        }
+        long[] modified = new long[sessions.length];
+        Integer[] order = new Integer[sessions.length];
+        for (int i = 0; i < sessions.length; i++) {
+            modified[i] = sessions[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(modified[b], modified[a]));
+        for (int i = KEPT_SESSIONS; i < order.length; i++) {
+            deleteIfEnded(sessions[order[i]]);
+        }
+    }
+
+    /**
+     * Deletes a session directory unless its session still holds the lock. Directories
+     * without a lock file are left by sessions that ended before locking was introduced.
+     */
+    private static void deleteIfEnded(File directory) {
+        File lockFile = new File(directory, LOCK_FILE);
+        if (lockFile.exists()) {
+            try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.WRITE)) {
+                FileLock probe = channel.tryLock();
+                if (probe == null) {
+                    return;
+                }
+                deleteFiles(directory, lockFile);
+            } catch (OverlappingFileLockException e) {
+                return;
+            } catch (IOException e) {
+                // Deleted by another session in the meantime, or not ours to delete
+                return;
+            }
+        }
+        deleteFiles(directory, null);
+        directory.delete();
+    }
+
+    /** Deletes the files of a directory, except the given one. */
+    private static void deleteFiles(File directory, File except) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.equals(except)) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the scoring weights configured through {@link WeightProfile#PROFILE_PROPERTY},
+     * falling back to the built-in weights if the profile cannot be read.
+     *
+     * @return the calculator for this session
+     */
+    private static ICompatibilityCalculator configuredCalculator() {
+        try {
+            return WeightProfile.configuredCalculator();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not load scoring profile, using default weights: " + e.getMessage());
+            return CompatibilityCalculator.create();
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * The {@code AtomicFiles} class publishes files atomically: the content is written to a
+ * temporary file next to the target, which is then renamed over the target in one step.
+ * <p>
+ * Readers therefore see either the previous file or the complete new one, never a partly
+ * written file, and concurrent writers of the same target cannot interleave their content;
+ * the last rename wins. Each write uses its own uniquely named temporary file.
+ */
+final class AtomicFiles {
+
+    /**
+     * Writes content to a file.
+     */
+    @FunctionalInterface
+    interface Content {
+
+        /**
+         * @param file the file to create and write
+         * @throws IOException if the file cannot be written
+         */
+        void writeTo(Path file) throws IOException;
+    }
+
+    private AtomicFiles() {}
+
+    /**
+     * Writes a file atomically, replacing any existing file. If the file system cannot
+     * rename atomically, the temporary file is moved over the target non-atomically.
+     *
+     * @param target  the file to publish
+     * @param content writes the complete content to the temporary file it is given
+     * @throws IOException if the content cannot be written or the file cannot be renamed
+     */
+    static void publish(Path target, Content content) throws IOException {
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            content.writeTo(temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
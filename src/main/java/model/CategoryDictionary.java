@@ -0,0 +1,120 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code CategoryDictionary} class encodes the values of a categorical pet attribute,
+ * such as type, breed or gender, as small integer codes shared by the whole catalog.
+ * <p>
+ * Each distinct string is stored once and given the next code the first time it is seen;
+ * codes are never reused or removed. Pets hold codes instead of strings, so filters compare
+ * attributes with int equality, and the strings are decoded only for display. Code 0
+ * always stands for a missing ({@code null}) value.
+ * <p>
+ * Encoding is thread-safe; looking up a known value does not lock, and decoding never does.
+ */
+public final class CategoryDictionary {
+
+    /** Code of the missing value. */
+    public static final int NULL_CODE = 0;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+    /** Decoded value of each code; only the first {@link #size} entries are in use. */
+    private volatile String[] values = new String[16];
+
+    /** Number of codes handed out; written after the value it publishes. */
+    private volatile int size = 1;
+
+    /**
+     * Returns the code of a value, assigning the next free code if the value is new.
+     *
+     * @param value the string to encode, or {@code null}
+     * @return its code
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    /**
+     * Returns the code of a value without assigning one.
+     *
+     * @param value the string to look up, or {@code null}
+     * @return its code, or {@code -1} if the value has never been encoded
+     */
+    public int codeOf(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Returns the string a code stands for.
+     *
+     * @param code a code returned by {@link #encode(String)}
+     * @return the value, or {@code null} for {@link #NULL_CODE}
+     * @throws IndexOutOfBoundsException if the code has not been assigned
+     */
+    public String decode(int code) {
+        int n = size;
+        if (code < 0 || code >= n) {
+            throw new IndexOutOfBoundsException("Code " + code + " out of bounds for size " + n);
+        }
+        return values[code];
+    }
+
+    /** @return the number of codes assigned so far, including {@link #NULL_CODE} */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the decoded value of every code assigned so far.
+     *
+     * @return a new array; element {@code c} is the value of code {@code c}
+     */
+    public String[] values() {
+        int n = size;
+        return Arrays.copyOf(values, n);
+    }
+
+    /**
+     * Finds the codes whose values equal a string, ignoring case, in one pass over the
+     * distinct values, so that a filter can then test each pet with an array lookup.
+     *
+     * @param value the string to match
+     * @return element {@code c} is {@code true} if code {@code c} matches; codes assigned
+     *         after this call are not covered
+     */
+    public boolean[] matchesIgnoreCase(String value) {
+        String[] decoded = values();
+        boolean[] matches = new boolean[decoded.length];
+        for (int code = 1; code < decoded.length; code++) {
+            matches[code] = decoded[code].equalsIgnoreCase(value);
+        }
+        return matches;
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        int code = size;
+        if (code == values.length) {
+            values = Arrays.copyOf(values, code * 2);
+        }
+        values[code] = value;
+        size = code + 1;
+        // Only publish the code once it can be decoded
+        codes.put(value, code);
+        return code;
+    }
+}
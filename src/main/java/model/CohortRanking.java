@@ -0,0 +1,53 @@
+package model;
+
+/**
+ * The {@code CohortRanking} class holds the top-K pets of every user in a scored cohort,
+ * as produced by {@link CohortScorer#rankTopK}.
+ * <p>
+ * Rankings are stored as primitive arrays of catalog positions and scores, ordered from
+ * best to worst match. Equal scores are ordered by ascending catalog position.
+ */
+public class CohortRanking {
+
+    /** Catalog positions of each user's top pets. */
+    private final int[][] positions;
+
+    /** Scores of each user's top pets, parallel to {@link #positions}. */
+    private final double[][] scores;
+
+    /**
+     * Constructs a ranking from per-user result arrays.
+     *
+     * @param positions catalog positions of each user's top pets, best first
+     * @param scores    matching scores, best first
+     */
+    CohortRanking(int[][] positions, double[][] scores) {
+        this.positions = positions;
+        this.scores = scores;
+    }
+
+    /** @return the number of users in the cohort */
+    public int userCount() {
+        return positions.length;
+    }
+
+    /**
+     * Returns the catalog positions of a user's top pets, best match first.
+     *
+     * @param user the user's index in the cohort
+     * @return the pet positions; callers must not modify the array
+     */
+    public int[] topPets(int user) {
+        return positions[user];
+    }
+
+    /**
+     * Returns the scores of a user's top pets, parallel to {@link #topPets(int)}.
+     *
+     * @param user the user's index in the cohort
+     * @return the scores; callers must not modify the array
+     */
+    public double[] topScores(int user) {
+        return scores[user];
+    }
+}
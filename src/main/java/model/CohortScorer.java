@@ -0,0 +1,205 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The {@code CohortScorer} class scores a whole cohort of users against a pet catalog
+ * in one parallel pass, instead of building one {@code PetManager} per user.
+ * <p>
+ * The users x pets work is split recursively on a {@link ForkJoinPool} into tiles of
+ * {@value #USER_TILE} users by {@value #PET_TILE} pets. Within a tile every user is
+ * scored against the same slice of the pet columns, so the slice stays in cache while
+ * it is reused. Tiles are independent, so throughput grows with the number of cores.
+ */
+public class CohortScorer {
+
+    /** Users scored against each pet slice before moving on. */
+    static final int USER_TILE = 16;
+
+    /** Pets per slice; the scored columns of a slice fit comfortably in L2 cache. */
+    static final int PET_TILE = 4096;
+
+    private final IBatchCompatibilityCalculator calculator;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a scorer that runs on the common fork/join pool.
+     *
+     * @param calculator the batch scoring algorithm
+     */
+    public CohortScorer(IBatchCompatibilityCalculator calculator) {
+        this(calculator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a scorer that runs on the given pool.
+     *
+     * @param calculator the batch scoring algorithm
+     * @param pool       the pool that executes the tiles
+     */
+    public CohortScorer(IBatchCompatibilityCalculator calculator, ForkJoinPool pool) {
+        this.calculator = calculator;
+        this.pool = pool;
+    }
+
+    /**
+     * Computes the full users x pets score matrix.
+     *
+     * @param users the cohort
+     * @param pets  the columnar pet catalog
+     * @return {@code matrix[u][p]} is the score of user {@code u} for the pet at position {@code p}
+     */
+    public double[][] scoreMatrix(List<User> users, PetColumns pets) {
+        double[][] matrix = new double[users.size()][pets.size()];
+        pool.invoke(new MatrixTask(users, pets, matrix, 0, users.size(), 0, pets.size()));
+        return matrix;
+    }
+
+    /**
+     * Computes every user's {@code k} best pets without materializing the score matrix.
+     *
+     * @param users the cohort
+     * @param pets  the columnar pet catalog
+     * @param k     the number of pets to keep per user
+     * @return the per-user rankings
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public CohortRanking rankTopK(List<User> users, PetColumns pets, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        TopKHeap[] heaps = pool.invoke(new TopKTask(users, pets, k, 0, users.size(), 0, pets.size()));
+
+        int[][] positions = new int[users.size()][];
+        double[][] scores = new double[users.size()][];
+        for (int u = 0; u < heaps.length; u++) {
+            positions[u] = new int[heaps[u].size()];
+            scores[u] = new double[heaps[u].size()];
+            heaps[u].drainSorted(positions[u], scores[u]);
+        }
+        return new CohortRanking(positions, scores);
+    }
+
+    /**
+     * @return {@code true} if the block is small enough to be scored as a single tile
+     */
+    private static boolean isTile(int users, int pets) {
+        return users <= USER_TILE && pets <= PET_TILE;
+    }
+
+    /**
+     * Writes one block of the score matrix, splitting its larger dimension until it is a tile.
+     */
+    private final class MatrixTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<User> users;
+        private final PetColumns pets;
+        private final double[][] matrix;
+        private final int userFrom, userTo, petFrom, petTo;
+
+        MatrixTask(List<User> users, PetColumns pets, double[][] matrix,
+                   int userFrom, int userTo, int petFrom, int petTo) {
+            this.users = users;
+            this.pets = pets;
+            this.matrix = matrix;
+            this.userFrom = userFrom;
+            this.userTo = userTo;
+            this.petFrom = petFrom;
+            this.petTo = petTo;
+        }
+
+        @Override
+        protected void compute() {
+            int userCount = userTo - userFrom;
+            int petCount = petTo - petFrom;
+            if (isTile(userCount, petCount)) {
+                for (int u = userFrom; u < userTo; u++) {
+                    calculator.scoreRange(users.get(u), pets, petFrom, petTo, matrix[u], petFrom);
+                }
+            } else if (userCount > USER_TILE && (long) userCount * PET_TILE >= (long) petCount * USER_TILE) {
+                int mid = (userFrom + userTo) >>> 1;
+                invokeAll(new MatrixTask(users, pets, matrix, userFrom, mid, petFrom, petTo),
+                        new MatrixTask(users, pets, matrix, mid, userTo, petFrom, petTo));
+            } else {
+                int mid = (petFrom + petTo) >>> 1;
+                invokeAll(new MatrixTask(users, pets, matrix, userFrom, userTo, petFrom, mid),
+                        new MatrixTask(users, pets, matrix, userFrom, userTo, mid, petTo));
+            }
+        }
+    }
+
+    /**
+     * Ranks one block of the cohort, returning a top-K heap per user of the block.
+     * Pet-dimension splits merge their heaps; user-dimension splits concatenate them.
+     */
+    private final class TopKTask extends RecursiveTask<TopKHeap[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<User> users;
+        private final PetColumns pets;
+        private final int k;
+        private final int userFrom, userTo, petFrom, petTo;
+
+        TopKTask(List<User> users, PetColumns pets, int k,
+                 int userFrom, int userTo, int petFrom, int petTo) {
+            this.users = users;
+            this.pets = pets;
+            this.k = k;
+            this.userFrom = userFrom;
+            this.userTo = userTo;
+            this.petFrom = petFrom;
+            this.petTo = petTo;
+        }
+
+        @Override
+        protected TopKHeap[] compute() {
+            int userCount = userTo - userFrom;
+            int petCount = petTo - petFrom;
+            if (isTile(userCount, petCount)) {
+                return scoreTile();
+            }
+            if (userCount > USER_TILE && (long) userCount * PET_TILE >= (long) petCount * USER_TILE) {
+                int mid = (userFrom + userTo) >>> 1;
+                TopKTask left = new TopKTask(users, pets, k, userFrom, mid, petFrom, petTo);
+                TopKTask right = new TopKTask(users, pets, k, mid, userTo, petFrom, petTo);
+                invokeAll(left, right);
+                TopKHeap[] heaps = new TopKHeap[userCount];
+                System.arraycopy(left.join(), 0, heaps, 0, mid - userFrom);
+                System.arraycopy(right.join(), 0, heaps, mid - userFrom, userTo - mid);
+                return heaps;
+            }
+            int mid = (petFrom + petTo) >>> 1;
+            TopKTask left = new TopKTask(users, pets, k, userFrom, userTo, petFrom, mid);
+            TopKTask right = new TopKTask(users, pets, k, userFrom, userTo, mid, petTo);
+            invokeAll(left, right);
+            TopKHeap[] lefts = left.join();
+            TopKHeap[] rights = right.join();
+            // Each half's heap holds at most its own pets, so the merge needs a larger heap
+            TopKHeap[] heaps = new TopKHeap[userCount];
+            for (int u = 0; u < userCount; u++) {
+                heaps[u] = new TopKHeap(Math.min(k, petCount));
+                heaps[u].addAll(lefts[u]);
+                heaps[u].addAll(rights[u]);
+            }
+            return heaps;
+        }
+
+        private TopKHeap[] scoreTile() {
+            TopKHeap[] heaps = new TopKHeap[userTo - userFrom];
+            double[] scores = new double[petTo - petFrom];
+            for (int u = userFrom; u < userTo; u++) {
+                TopKHeap heap = new TopKHeap(Math.min(k, petTo - petFrom));
+                calculator.scoreRange(users.get(u), pets, petFrom, petTo, scores, 0);
+                for (int i = 0; i < scores.length; i++) {
+                    heap.offer(petFrom + i, scores[i]);
+                }
+                heaps[u - userFrom] = heap;
+            }
+            return heaps;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code CompactPetCatalog} class stores a pet catalog bit-packed, one row per pet, for
+ * catalogs too large to keep as {@link Pet} objects.
+ * <p>
+ * Each row takes 27 bytes besides the name and image path strings:
+ * <ul>
+ *   <li>the type and breed as {@link Pet#TYPES} and {@link Pet#BREEDS} codes;</li>
+ *   <li>one {@code int} of traits: the {@link MbtiCode} in bits 0–3, the allergenic and
+ *       requires-yard flags in bits 4 and 5, and the {@link Pet#GENDERS} code above;</li>
+ *   <li>the energy level in a byte;</li>
+ *   <li>space, monthly cost and daily time as fixed-point shorts, in hundredths.</li>
+ * </ul>
+ * Amounts that are not exact hundredths within the range of a short are kept as doubles in
+ * a small per-column side table instead, so every value reads back bit-for-bit and
+ * scores come out exactly as for the original pets.
+ * <p>
+ * {@link #asList()} presents the rows as pets: each {@link Pet} is a short-lived view of a
+ * row, created when it is read, and the row at position {@code i} has id {@code i}. Scoring
+ * can skip the pets altogether through {@link #columns()}. The rows are never modified
+ * after construction.
+ */
+public final class CompactPetCatalog {
+
+    /** Largest gender code that fits above the MBTI code and the flags. */
+    private static final int MAX_GENDER_CODE = (1 << 26) - 1;
+
+    private static final int ALLERGENIC = 1 << 4;
+    private static final int REQUIRES_YARD = 1 << 5;
+    private static final int GENDER_SHIFT = 6;
+
+    private final int size;
+    private final String[] name;
+    private final int[] typeCode;
+    private final int[] breedCode;
+    private final int[] traits;
+    private final byte[] energyLevel;
+    private final FixedPointColumn requiredSpace;
+    private final FixedPointColumn monthlyCost;
+    private final FixedPointColumn timeNeededPerDay;
+    private final String[] imagePath;
+
+    /** The scoring columns, decoded on first use. */
+    private volatile PetColumns columns;
+
+    private CompactPetCatalog(int size, IntFunction<Pet> pets) {
+        this.size = size;
+        this.name = new String[size];
+        this.typeCode = new int[size];
+        this.breedCode = new int[size];
+        this.traits = new int[size];
+        this.energyLevel = new byte[size];
+        this.requiredSpace = new FixedPointColumn(size);
+        this.monthlyCost = new FixedPointColumn(size);
+        this.timeNeededPerDay = new FixedPointColumn(size);
+        this.imagePath = new String[size];
+
+        for (int row = 0; row < size; row++) {
+            Pet pet = pets.apply(row);
+            int energy = pet.getEnergyLevel();
+            if (energy != (byte) energy) {
+                throw new IllegalArgumentException("Energy level " + energy + " of pet " + row + " does not fit in a byte");
+            }
+            if (pet.getGenderCode() > MAX_GENDER_CODE) {
+                throw new IllegalArgumentException("Too many distinct genders to pack: " + pet.getGenderCode());
+            }
+            name[row] = pet.getName();
+            typeCode[row] = pet.getTypeCode();
+            breedCode[row] = pet.getBreedCode();
+            traits[row] = pet.getMbtiCode()
+                    | (pet.isAllergenic() ? ALLERGENIC : 0)
+                    | (pet.requiresYard() ? REQUIRES_YARD : 0)
+                    | pet.getGenderCode() << GENDER_SHIFT;
+            energyLevel[row] = (byte) energy;
+            requiredSpace.set(row, pet.getRequiredSpace());
+            monthlyCost.set(row, pet.getMonthlyCost());
+            timeNeededPerDay.set(row, pet.getTimeNeededPerDay());
+            imagePath[row] = pet.getImagePath();
+        }
+    }
+
+    /**
+     * Packs a list of pets. The pets' own ids are ignored: the pet at position {@code i}
+     * becomes row {@code i}.
+     *
+     * @param pets the pets to pack
+     * @return the packed catalog
+     * @throws IllegalArgumentException if a pet's energy level does not fit in a byte
+     */
+    public static CompactPetCatalog of(List<Pet> pets) {
+        return new CompactPetCatalog(pets.size(), pets::get);
+    }
+
+    /**
+     * Packs a columnar catalog, creating each pet only while its row is written.
+     *
+     * @param catalog the catalog to pack
+     * @return the packed catalog, with the same ids
+     * @throws IllegalArgumentException if a pet's energy level does not fit in a byte
+     */
+    public static CompactPetCatalog of(PetCatalog catalog) {
+        return new CompactPetCatalog(catalog.size(), catalog::pet);
+    }
+
+    /** @return the number of pets in the catalog */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Creates a view of the pet in a row.
+     *
+     * @param id the row, which is also the pet's id
+     * @return a new {@code Pet} with the row's attributes
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    public Pet pet(int id) {
+        int t = traits[id];
+        return new Pet(id, name[id], typeCode[id], breedCode[id], t >>> GENDER_SHIFT, t & 0xF,
+                energyLevel[id], requiredSpace.get(id), monthlyCost.get(id),
+                (t & ALLERGENIC) != 0, (t & REQUIRES_YARD) != 0,
+                timeNeededPerDay.get(id), imagePath[id]);
+    }
+
+    /**
+     * Returns a read-only list view of the catalog in id order. Each {@link Pet} is created
+     * from its row when the element is read, so the catalog is never held as objects.
+     *
+     * @return the pets, element {@code i} having id {@code i}
+     */
+    public List<Pet> asList() {
+        return new PetView();
+    }
+
+    /**
+     * Returns the catalog as a columnar scoring view, without creating any pets. The rows
+     * are decoded the first time and the columns shared afterwards.
+     *
+     * @return the scoring columns, in id order
+     */
+    public PetColumns columns() {
+        PetColumns decoded = columns;
+        if (decoded == null) {
+            decoded = decodeColumns();
+            columns = decoded;
+        }
+        return decoded;
+    }
+
+    private PetColumns decodeColumns() {
+        int[] energy = new int[size];
+        int[] mbti = new int[size];
+        int[] gender = new int[size];
+        long[] allergenic = new long[(size + 63) >>> 6];
+        long[] requiresYard = new long[(size + 63) >>> 6];
+        for (int row = 0; row < size; row++) {
+            int t = traits[row];
+            energy[row] = energyLevel[row];
+            mbti[row] = t & 0xF;
+            gender[row] = t >>> GENDER_SHIFT;
+            if ((t & ALLERGENIC) != 0) {
+                allergenic[row >>> 6] |= 1L << row;
+            }
+            if ((t & REQUIRES_YARD) != 0) {
+                requiresYard[row >>> 6] |= 1L << row;
+            }
+        }
+        return new PetColumns(requiredSpace.toArray(), monthlyCost.toArray(), timeNeededPerDay.toArray(),
+                energy, allergenic, requiresYard, mbti, gender, Pet.GENDERS.values());
+    }
+
+    /** Read-only list of row views, which lays out its columns from the packed rows. */
+    private final class PetView extends AbstractList<Pet> implements RandomAccess, PetColumns.Source {
+
+        @Override
+        public Pet get(int index) {
+            return pet(index);
+        }
+
+        @Override
+        public PetColumns columns() {
+            return CompactPetCatalog.this.columns();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A column of amounts stored as shorts in hundredths. A value that would not read back
+     * exactly is marked with {@link #EXACT} and kept as a double, looked up by row.
+     */
+    private static final class FixedPointColumn {
+
+        static final double SCALE = 100.0;
+
+        /** Marks a row whose value is in the side table. */
+        static final short EXACT = Short.MIN_VALUE;
+
+        final short[] units;
+
+        /** Rows kept exactly, in increasing order, and their values. */
+        int[] exactRows = new int[0];
+        double[] exactValues = new double[0];
+        int exactCount;
+
+        FixedPointColumn(int size) {
+            units = new short[size];
+        }
+
+        /** Stores a value; rows must be set in increasing order. */
+        void set(int row, double value) {
+            long fixed = Math.round(value * SCALE);
+            if (fixed > EXACT && fixed <= Short.MAX_VALUE && Double.compare(fixed / SCALE, value) == 0) {
+                units[row] = (short) fixed;
+                return;
+            }
+            if (exactCount == exactRows.length) {
+                int capacity = Math.max(8, exactCount * 2);
+                exactRows = Arrays.copyOf(exactRows, capacity);
+                exactValues = Arrays.copyOf(exactValues, capacity);
+            }
+            units[row] = EXACT;
+            exactRows[exactCount] = row;
+            exactValues[exactCount] = value;
+            exactCount++;
+        }
+
+        double get(int row) {
+            short fixed = units[row];
+            if (fixed != EXACT) {
+                return fixed / SCALE;
+            }
+            return exactValues[Arrays.binarySearch(exactRows, 0, exactCount, row)];
+        }
+
+        double[] toArray() {
+            double[] values = new double[units.length];
+            for (int row = 0; row < values.length; row++) {
+                values[row] = units[row] / SCALE;
+            }
+            for (int i = 0; i < exactCount; i++) {
+                values[exactRows[i]] = exactValues[i];
+            }
+            return values;
+        }
+    }
+}
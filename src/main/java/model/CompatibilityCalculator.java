@@ -8,8 +8,44 @@ package model;
  * space availability, time availability, budget, yard requirement, energy level,
  * MBTI similarity, and pet gender preference. A pet that triggers a user's allergy
  * will receive an automatic score of 0.0.
+ * <p>
+ * Whole catalogs can be scored in one pass through {@link #scoreRange}, which evaluates
+ * the same criteria over a {@link PetColumns} view and yields identical scores.
+ * The MBTI criterion is a single lookup in the {@link MbtiCode} similarity table.
  */
-public class CompatibilityCalculator implements ICompatibilityCalculator {
+public class CompatibilityCalculator implements IBatchCompatibilityCalculator {
+
+    /** System property that enables the SIMD scoring kernel when set to {@code true}. */
+    public static final String VECTOR_PROPERTY = "petforu.scoring.vector";
+
+    /**
+     * Creates the calculator selected by the runtime configuration. When the
+     * {@value #VECTOR_PROPERTY} system property is {@code true} and the
+     * {@code jdk.incubator.vector} module is available, a {@link VectorCompatibilityCalculator}
+     * is returned; otherwise the scalar calculator is used.
+     *
+     * @return a calculator producing the standard compatibility scores
+     */
+    public static CompatibilityCalculator create() {
+        if (Boolean.getBoolean(VECTOR_PROPERTY)
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorCompatibilityCalculator();
+            } catch (LinkageError e) {
+                System.err.println("Vector scoring unavailable, using scalar scoring: " + e.getMessage());
+            }
+        }
+        return new CompatibilityCalculator();
+    }
+
+    /**
+     * Returns the weights this calculator applies, for callers that bound its scores.
+     *
+     * @return the built-in weights, or {@code null} for a subclass that may score differently
+     */
+    WeightProfile weights() {
+        return getClass() == CompatibilityCalculator.class ? WeightProfile.DEFAULT : null;
+    }
 
     /**
      * Computes the compatibility score between a given user and pet.
@@ -31,12 +67,81 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
                         0.15 * getBudgetScore(user.getBudget(), pet.getMonthlyCost()) +
                         0.10 * getYardScore(user.hasYard(), pet.requiresYard()) +
                         0.15 * getEnergyLevelScore(user.getEnergyLevel(), pet.getEnergyLevel()) +
-                        0.25 * getMBTIScore(user.getMbti(), pet.getMbti()) +
-                        0.05 * getGenderScore(user.getPreferredPetGender(), pet.getGender());
+                        0.25 * getMBTIScore(user.getMbtiCode(), pet.getMbtiCode()) +
+                        0.05 * user.genderScore(pet.getGenderCode());
 
         return finalScore;
     }
 
+    /**
+     * Scores a range of pets from a columnar catalog. The gender criterion is evaluated
+     * once per distinct catalog value and the MBTI criterion is read from the user's row
+     * of the similarity table, so the per-pet loop only reads primitive columns and
+     * performs no allocation.
+     *
+     * @param user      the user profile
+     * @param pets      the columnar pet catalog
+     * @param from      first pet position (inclusive)
+     * @param to        last pet position (exclusive)
+     * @param out       the destination array
+     * @param outOffset position in {@code out} for the score of pet {@code from}
+     */
+    @Override
+    public void scoreRange(User user, PetColumns pets, int from, int to, double[] out, int outOffset) {
+        int mbtiRow = user.getMbtiCode() << 4;
+        double[] genderScores = genderScores(user, pets);
+
+        double space = user.getSpace();
+        double time = user.getTimePerDay();
+        double budget = user.getBudget();
+        boolean hasYard = user.hasYard();
+        boolean allergic = user.isAllergic();
+        int energy = user.getEnergyLevel();
+
+        for (int i = from, o = outOffset; i < to; i++, o++) {
+            // Allergy = hard fail
+            if (allergic && (pets.allergenic[i >>> 6] & (1L << i)) != 0) {
+                out[o] = 0.0;
+                continue;
+            }
+            boolean needsYard = (pets.requiresYard[i >>> 6] & (1L << i)) != 0;
+
+            out[o] = 0.15 * getSpaceScore(space, pets.requiredSpace[i]) +
+                    0.15 * getTimeScore(time, pets.timeNeededPerDay[i]) +
+                    0.15 * getBudgetScore(budget, pets.monthlyCost[i]) +
+                    0.10 * getYardScore(hasYard, needsYard) +
+                    0.15 * getEnergyLevelScore(energy, pets.energyLevel[i]) +
+                    0.25 * MbtiCode.SCORES[mbtiRow | pets.mbtiCode[i]] +
+                    0.05 * genderScores[pets.genderCode[i]];
+        }
+    }
+
+    /**
+     * Evaluates the gender criterion for every distinct gender value of the catalog.
+     *
+     * @param user the user profile
+     * @param pets the columnar pet catalog
+     * @return the gender scores, indexed by catalog gender code
+     */
+    static double[] genderScores(User user, PetColumns pets) {
+        return genderScores(user.getPreferredPetGender(), pets.genderDictionary);
+    }
+
+    /**
+     * Evaluates the gender criterion for every value of a gender dictionary.
+     *
+     * @param preferredGender the user's preferred pet gender
+     * @param genders         the gender of each code
+     * @return the gender scores, indexed by gender code
+     */
+    static double[] genderScores(String preferredGender, String[] genders) {
+        double[] scores = new double[genders.length];
+        for (int code = 0; code < scores.length; code++) {
+            scores[code] = getGenderScore(preferredGender, genders[code]);
+        }
+        return scores;
+    }
+
     /**
      * Calculates the space compatibility score.
      *
@@ -44,7 +149,7 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
      * @param petSpace  the space required by the pet
      * @return 1.0 if sufficient, otherwise a fractional score
      */
-    private double getSpaceScore(double userSpace, double petSpace) {
+    static double getSpaceScore(double userSpace, double petSpace) {
         return userSpace >= petSpace ? 1.0 : userSpace / petSpace;
     }
 
@@ -55,7 +160,7 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
      * @param petTime  the pet's required time per day
      * @return 1.0 if sufficient, otherwise a fractional score
      */
-    private double getTimeScore(double userTime, double petTime) {
+    static double getTimeScore(double userTime, double petTime) {
         return userTime >= petTime ? 1.0 : userTime / petTime;
     }
 
@@ -66,7 +171,7 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
      * @param petCost    the pet's monthly cost
      * @return 1.0 if sufficient, otherwise a fractional score
      */
-    private double getBudgetScore(double userBudget, double petCost) {
+    static double getBudgetScore(double userBudget, double petCost) {
         return userBudget >= petCost ? 1.0 : userBudget / petCost;
     }
 
@@ -77,7 +182,7 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
      * @param petNeedsYard whether the pet requires a yard
      * @return 1.0 if compatible, 0.0 otherwise
      */
-    private double getYardScore(boolean userHasYard, boolean petNeedsYard) {
+    static double getYardScore(boolean userHasYard, boolean petNeedsYard) {
         return !petNeedsYard || userHasYard ? 1.0 : 0.0;
     }
 
@@ -88,7 +193,7 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
      * @param petEnergy  the pet's energy level
      * @return a score between 0.0 and 1.0 based on similarity
      */
-    private double getEnergyLevelScore(int userEnergy, int petEnergy) {
+    static double getEnergyLevelScore(int userEnergy, int petEnergy) {
         int diff = Math.abs(userEnergy - petEnergy);
         return 1.0 - (diff / 10.0);
     }
@@ -96,30 +201,12 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
     /**
      * Calculates the MBTI compatibility score.
      *
-     * @param userMBTI the user's MBTI type
-     * @param petMBTI  the pet's MBTI type
-     * @return a score from 0.0 to 1.0 based on character-by-character match
+     * @param userMBTI the user's 4-bit MBTI code
+     * @param petMBTI  the pet's 4-bit MBTI code
+     * @return a score from 0.0 to 1.0, 0.25 per matching letter
      */
-    private double getMBTIScore(String userMBTI, String petMBTI) {
-        if (userMBTI.equalsIgnoreCase(petMBTI)) {
-            return 1.0;
-        }
-
-        int matchCount = 0;
-        for (int i = 0; i < 4; i++) {
-            if (i < userMBTI.length() && i < petMBTI.length() &&
-                    Character.toUpperCase(userMBTI.charAt(i)) == Character.toUpperCase(petMBTI.charAt(i))) {
-                matchCount++;
-            }
-        }
-
-        return switch (matchCount) {
-            case 4 -> 1.0;
-            case 3 -> 0.75;
-            case 2 -> 0.5;
-            case 1 -> 0.25;
-            default -> 0.0;
-        };
+    static double getMBTIScore(int userMBTI, int petMBTI) {
+        return MbtiCode.score(userMBTI, petMBTI);
     }
 
     /**
@@ -129,7 +216,7 @@ public class CompatibilityCalculator implements ICompatibilityCalculator {
      * @param petGender       the pet's actual gender
      * @return 1.0 if compatible, 0.0 otherwise
      */
-    private double getGenderScore(String preferredGender, String petGender) {
+    static double getGenderScore(String preferredGender, String petGender) {
         if (preferredGender.equalsIgnoreCase("Any")) return 1.0;
         return preferredGender.equalsIgnoreCase(petGender) ? 1.0 : 0.0;
     }
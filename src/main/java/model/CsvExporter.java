@@ -0,0 +1,284 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The {@code CsvExporter} class streams scored pets to a compatibility CSV in UTF-8.
+ * <p>
+ * Rows are encoded straight into a reusable byte buffer that is flushed to the underlying
+ * stream only when full, so exporting a ranking makes one write call per buffer and
+ * allocates nothing per row for ASCII data. Scores are written as whole percentages with
+ * the same rounding as {@code String.format("%.0f%%", score * 100)}, without going
+ * through a formatter.
+ * <p>
+ * The columns are {@code Name,Breed,Type,Score,ImagePath}, followed by {@code Id} when every
+ * exported pet has a database id. A text field that contains a comma, a quote or a line
+ * break is quoted as in RFC 4180, so that {@link CsvTokenizer} reads it back intact.
+ */
+public final class CsvExporter implements Closeable {
+
+    /** Size of the output buffer, in bytes. */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /** Longest encoding of one UTF-16 char, or of a surrogate pair, in bytes. */
+    private static final int MAX_CHAR_BYTES = 4;
+
+    /** Largest value written by the integer percent path; larger values use the formatter. */
+    private static final double MAX_FAST_PERCENT = 1L << 52;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+
+    /**
+     * Creates an exporter that writes to the given stream. The stream is closed by
+     * {@link #close()}.
+     *
+     * @param out the destination stream
+     */
+    public CsvExporter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes every row of the source to a CSV file, replacing any existing file.
+     *
+     * @param rows the pets and scores to export, in order
+     * @param path the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(ScoredPetSource rows, Path path) throws IOException {
+        try (CsvExporter exporter = new CsvExporter(Files.newOutputStream(path))) {
+            exporter.writeAll(rows);
+        }
+    }
+
+    /**
+     * Writes the header and every row of the source.
+     *
+     * @param rows the pets and scores to export, in order
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeAll(ScoredPetSource rows) throws IOException {
+        boolean withIds = true;
+        for (int row = 0; row < rows.size() && withIds; row++) {
+            withIds = rows.pet(row).hasId();
+        }
+
+        writeHeader(withIds);
+        for (int row = 0; row < rows.size(); row++) {
+            writeRow(rows.pet(row), rows.score(row), withIds);
+        }
+    }
+
+    /**
+     * Writes the header line.
+     *
+     * @param withIds whether to include the {@code Id} column
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeHeader(boolean withIds) throws IOException {
+        writeText(withIds ? "Name,Breed,Type,Score,ImagePath,Id\n" : "Name,Breed,Type,Score,ImagePath\n");
+    }
+
+    /**
+     * Writes one row.
+     *
+     * @param pet    the pet
+     * @param score  the pet's score, from 0.0 to 1.0
+     * @param withId whether to append the pet's id
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeRow(Pet pet, double score, boolean withId) throws IOException {
+        writeField(pet.getName());
+        writeByte(',');
+        writeField(pet.getBreed());
+        writeByte(',');
+        writeField(pet.getType());
+        writeByte(',');
+        writePercentage(score);
+        writeByte(',');
+        writeField(pet.getImagePath());
+        if (withId) {
+            writeByte(',');
+            writeLong(pet.getId());
+        }
+        writeByte('\n');
+    }
+
+    /**
+     * Writes any buffered bytes to the stream.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void flush() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+        out.flush();
+    }
+
+    /**
+     * Flushes the buffer and closes the stream.
+     *
+     * @throws IOException if the stream cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Formats a score as a whole-number percentage, e.g. {@code 0.855} as {@code "86%"}.
+     * The result is identical to {@code String.format("%.0f%%", score * 100)}.
+     *
+     * @param score the score between 0.0 and 1.0
+     * @return the percentage string
+     */
+    public static String formatPercentage(double score) {
+        double percent = score * 100;
+        if (!isFastPercent(percent)) {
+            return String.format("%.0f%%", percent);
+        }
+        return roundHalfUp(percent) + "%";
+    }
+
+    /**
+     * Writes a score as a whole-number percentage followed by {@code %}.
+     */
+    private void writePercentage(double score) throws IOException {
+        double percent = score * 100;
+        if (!isFastPercent(percent)) {
+            writeText(String.format("%.0f%%", percent));
+            return;
+        }
+        writeLong(roundHalfUp(percent));
+        writeByte('%');
+    }
+
+    /**
+     * @return {@code true} if the value is a non-negative number small enough to round exactly
+     *         with integer arithmetic
+     */
+    private static boolean isFastPercent(double percent) {
+        // Excludes NaN, infinities, negative values and -0.0, which the formatter prints as "-0"
+        return percent >= 0 && percent < MAX_FAST_PERCENT && Double.doubleToRawLongBits(percent) >= 0;
+    }
+
+    /**
+     * Rounds a non-negative double to the nearest integer, ties away from zero. The value's
+     * fractional part is computed exactly, so ties are decided on the exact binary value, as
+     * the formatter's {@code HALF_UP} rounding does.
+     */
+    private static long roundHalfUp(double value) {
+        long whole = (long) value;
+        return value - whole >= 0.5 ? whole + 1 : whole;
+    }
+
+    /**
+     * Writes a non-negative integer in decimal.
+     */
+    private void writeLong(long value) throws IOException {
+        if (value < 0) {
+            writeText(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = count + digits;
+        for (int i = end - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count = end;
+    }
+
+    /**
+     * Writes a text field, quoting it and doubling its quotes if it contains a comma, a
+     * quote or a line break. A missing value is written as {@code null}, as the
+     * string-concatenating exporter did.
+     */
+    private void writeField(String text) throws IOException {
+        if (text == null) {
+            writeText("null");
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                writeByte('"');
+                writeText(text.replace("\"", "\"\""));
+                writeByte('"');
+                return;
+            }
+        }
+        writeText(text);
+    }
+
+    /**
+     * Writes a string in UTF-8, encoding surrogate pairs as four-byte sequences and lone
+     * surrogates as {@code ?}, as {@link java.nio.charset.StandardCharsets#UTF_8} does.
+     */
+    private void writeText(String text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                buffer[count++] = (byte) c;
+                continue;
+            }
+            ensureCapacity(MAX_CHAR_BYTES);
+            if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >>> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buffer[count++] = (byte) (0xF0 | (codePoint >>> 18));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    buffer[count++] = '?';
+                }
+            } else {
+                buffer[count++] = (byte) (0xE0 | (c >>> 12));
+                buffer[count++] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeByte(char c) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) c;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (count + bytes > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, count);
+        count = 0;
+    }
+}
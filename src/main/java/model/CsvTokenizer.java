@@ -0,0 +1,364 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The {@code CsvTokenizer} class reads CSV records as defined by RFC 4180 from a
+ * {@link Reader}, one record at a time.
+ * <p>
+ * Fields may be quoted with {@code "}; a quoted field may contain commas, line breaks and
+ * doubled quotes ({@code ""}), which are unescaped. Records end with {@code \n},
+ * {@code \r\n} or {@code \r}. A blank line is a record with one empty field. The tokenizer is
+ * lenient where the RFC is strict: text after a closing quote is kept as part of the field,
+ * and an unterminated quote runs to the end of the input.
+ * <p>
+ * Input is read through a reusable character buffer, and the current record's fields are
+ * unescaped into a second reusable buffer, so reading a record allocates nothing once the
+ * buffers have grown to the longest record. Fields are exposed as {@link CharSequence}
+ * views, and can be compared and parsed in place; {@link #fieldString} is the only method
+ * that creates a {@code String}. Views and field contents are valid only until the next
+ * call to {@link #next()}.
+ */
+public final class CsvTokenizer implements Closeable {
+
+    /** Size of the input buffer, in chars. */
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    /** Most digits that are parsed as a whole number before falling back to {@link Double}. */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private final Reader reader;
+    private final char[] input = new char[BUFFER_SIZE];
+    private int inputPosition;
+    private int inputLimit;
+
+    /** Unescaped text of the current record's fields, back to back. */
+    private char[] record = new char[256];
+    private int recordLength;
+
+    /** Start and end of each field of the current record in {@link #record}. */
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    /** One reusable view per column. */
+    private Field[] views = new Field[0];
+
+    /**
+     * Creates a tokenizer over the given reader. The reader is closed by {@link #close()}.
+     *
+     * @param reader the CSV text
+     */
+    public CsvTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Opens a CSV file encoded in UTF-8.
+     *
+     * @param path the file path
+     * @return a tokenizer positioned before the first record
+     * @throws IOException if the file cannot be opened
+     */
+    public static CsvTokenizer open(String path) throws IOException {
+        return new CsvTokenizer(new InputStreamReader(Files.newInputStream(Path.of(path)), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return {@code false} if the input has no more records
+     * @throws IOException if the input cannot be read
+     */
+    public boolean next() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        int c = read();
+        if (c < 0) {
+            return false;
+        }
+
+        int fieldStart = 0;
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    endField(fieldStart);
+                    return true;
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == ',') {
+                endField(fieldStart);
+                fieldStart = recordLength;
+                atFieldStart = true;
+                c = read();
+                continue;
+            } else if (c == '\n' || c < 0) {
+                endField(fieldStart);
+                return true;
+            } else if (c == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                endField(fieldStart);
+                return true;
+            } else if (c == '"' && atFieldStart) {
+                quoted = true;
+            } else {
+                append((char) c);
+            }
+            atFieldStart = false;
+            c = read();
+        }
+    }
+
+    /** @return the number of fields in the current record */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns a view of one field of the current record. The same view object is returned
+     * for a column on every record, and its contents change with {@link #next()}.
+     *
+     * @param index the column, from 0
+     * @return the field's unescaped text
+     */
+    public CharSequence field(int index) {
+        checkIndex(index);
+        if (index >= views.length) {
+            int oldLength = views.length;
+            views = Arrays.copyOf(views, Math.max(fieldCount, index + 1));
+            for (int i = oldLength; i < views.length; i++) {
+                views[i] = new Field(i);
+            }
+        }
+        return views[index];
+    }
+
+    /**
+     * @param index the column, from 0
+     * @return a copy of the field's unescaped text
+     */
+    public String fieldString(int index) {
+        checkIndex(index);
+        return new String(record, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * @param index the column, from 0
+     * @param value the expected text, or {@code null}
+     * @return {@code true} if the field equals {@code value} exactly
+     */
+    public boolean fieldEquals(int index, String value) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int length = fieldEnds[index] - start;
+        if (value == null || length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (record[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares a field with a string, ignoring case as {@link String#equalsIgnoreCase} does
+     * for each char.
+     *
+     * @param index the column, from 0
+     * @param value the expected text, or {@code null}
+     * @return {@code true} if the field equals {@code value} ignoring case
+     */
+    public boolean fieldEqualsIgnoreCase(int index, String value) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int length = fieldEnds[index] - start;
+        if (value == null || length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char a = record[start + i];
+            char b = value.charAt(i);
+            if (a != b) {
+                char upperA = Character.toUpperCase(a);
+                char upperB = Character.toUpperCase(b);
+                if (upperA != upperB && Character.toLowerCase(upperA) != Character.toLowerCase(upperB)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a percentage field, e.g. {@code 85%} as {@code 0.85}, with the same result as
+     * {@code Double.parseDouble(field.replace("%", "")) / 100.0}.
+     *
+     * @param index the column, from 0
+     * @return the percentage as a fraction
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double percentField(int index) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        if (end > start && record[end - 1] == '%') {
+            end--;
+        }
+
+        long percent = 0;
+        boolean whole = end > start && end - start <= MAX_FAST_DIGITS;
+        for (int i = start; i < end && whole; i++) {
+            int digit = record[i] - '0';
+            whole = digit >= 0 && digit <= 9;
+            percent = percent * 10 + digit;
+        }
+        if (whole) {
+            return percent / 100.0;
+        }
+        return Double.parseDouble(fieldString(index).replace("%", "")) / 100.0;
+    }
+
+    /**
+     * Parses an integer field, with the same result as
+     * {@code Integer.parseInt(field.trim())}.
+     *
+     * @param index the column, from 0
+     * @return the integer
+     * @throws NumberFormatException if the field is not an integer
+     */
+    public int intField(int index) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        if (end > start && end - start <= 9) {
+            int value = 0;
+            int i = start;
+            while (i < end && record[i] >= '0' && record[i] <= '9') {
+                value = value * 10 + (record[i] - '0');
+                i++;
+            }
+            if (i == end) {
+                return value;
+            }
+        }
+        return Integer.parseInt(fieldString(index).trim());
+    }
+
+    /**
+     * Closes the underlying reader.
+     *
+     * @throws IOException if the reader cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of bounds for " + fieldCount + " fields");
+        }
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = c;
+    }
+
+    private void endField(int start) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    private int read() throws IOException {
+        if (inputPosition == inputLimit && !fill()) {
+            return -1;
+        }
+        return input[inputPosition++];
+    }
+
+    private int peek() throws IOException {
+        if (inputPosition == inputLimit && !fill()) {
+            return -1;
+        }
+        return input[inputPosition];
+    }
+
+    private boolean fill() throws IOException {
+        int count;
+        do {
+            count = reader.read(input, 0, input.length);
+        } while (count == 0);
+        if (count < 0) {
+            return false;
+        }
+        inputPosition = 0;
+        inputLimit = count;
+        return true;
+    }
+
+    /**
+     * A view of one column of the current record.
+     */
+    private final class Field implements CharSequence {
+
+        private final int index;
+
+        Field(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int length() {
+            checkIndex(index);
+            return fieldEnds[index] - fieldStarts[index];
+        }
+
+        @Override
+        public char charAt(int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length());
+            }
+            return record[fieldStarts[index] + i];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return fieldString(index);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * Extension of {@link ICompatibilityCalculator} for calculators that can score a whole
+ * catalog at once from its {@link PetColumns} view.
+ * <p>
+ * Implementations must produce exactly the same score for position {@code i} as
+ * {@link #calculate(User, Pet)} would for the corresponding pet.
+ */
+public interface IBatchCompatibilityCalculator extends ICompatibilityCalculator {
+
+    /**
+     * Scores the pets at positions {@code [from, to)} of the catalog and writes the
+     * results to {@code out}, starting at {@code outOffset}.
+     *
+     * @param user      the user to match
+     * @param pets      the columnar pet catalog
+     * @param from      first pet position (inclusive)
+     * @param to        last pet position (exclusive)
+     * @param out       the destination array
+     * @param outOffset position in {@code out} for the score of pet {@code from}
+     */
+    void scoreRange(User user, PetColumns pets, int from, int to, double[] out, int outOffset);
+
+    /**
+     * Scores every pet in the catalog.
+     *
+     * @param user the user to match
+     * @param pets the columnar pet catalog
+     * @return the scores, indexed by pet position
+     */
+    default double[] scoreAll(User user, PetColumns pets) {
+        double[] scores = new double[pets.size()];
+        scoreRange(user, pets, 0, pets.size(), scores, 0);
+        return scores;
+    }
+}
@@ -0,0 +1,390 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The {@code MappedCompatibilityCsv} class gives random access to the rows of a
+ * compatibility CSV, as written by {@link CsvExporter}, without reading the file onto the
+ * heap.
+ * <p>
+ * The file is memory-mapped, and the start of every row is recorded once, when the file is
+ * opened. After that, any row can be reached in constant time and its fields are located
+ * and decoded only when asked for: scores and ids are parsed straight from the mapped
+ * bytes, and names are compared in place, so scanning for a pet allocates nothing for
+ * ASCII data. Only {@link #field} creates a {@code String}.
+ * <p>
+ * Fields follow the same quoting rules as {@link CsvTokenizer}: a field that starts with
+ * {@code "} runs to the matching closing quote and may contain commas, line breaks and
+ * doubled quotes. Quoted fields are compared and parsed through {@link #field}, which
+ * unescapes them. Lines may end in {@code \n} or {@code \r\n}. Files must be smaller than
+ * 2 GB. Rows are read with absolute positions only, so one instance may be shared between
+ * threads.
+ */
+public final class MappedCompatibilityCsv {
+
+    /** Column of the pet's name. */
+    public static final int NAME = 0;
+
+    /** Column of the pet's breed. */
+    public static final int BREED = 1;
+
+    /** Column of the pet's type. */
+    public static final int TYPE = 2;
+
+    /** Column of the score, as a whole-number percentage such as {@code 85%}. */
+    public static final int SCORE = 3;
+
+    /** Column of the pet's image path. */
+    public static final int IMAGE_PATH = 4;
+
+    /** Column of the pet's id, present only when the header has it. */
+    public static final int ID = PetKeyIndex.ID_COLUMN;
+
+    /** Most digits that are parsed as a whole number before falling back to {@link Double}. */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private final ByteBuffer data;
+
+    /** Start offset of each row, plus one entry for the end of the last row. */
+    private final int[] rowStarts;
+
+    private final int rowCount;
+
+    private final boolean hasIds;
+
+    private MappedCompatibilityCsv(ByteBuffer data) {
+        this.data = data;
+        int limit = data.limit();
+
+        int headerEnd = lineEnd(0, limit);
+        this.hasIds = fieldCountBetween(0, headerEnd) > ID && fieldEquals(0, headerEnd, ID, "Id");
+
+        int[] starts = new int[16];
+        int count = 0;
+        int position = nextLine(headerEnd, limit);
+        while (position < limit) {
+            int end = lineEnd(position, limit);
+            if (end > position) {
+                if (count + 1 >= starts.length) {
+                    starts = Arrays.copyOf(starts, starts.length * 2);
+                }
+                starts[count++] = position;
+            }
+            position = nextLine(end, limit);
+        }
+        starts[count] = limit;
+
+        this.rowStarts = starts;
+        this.rowCount = count;
+    }
+
+    /**
+     * Maps a compatibility CSV and indexes its rows. The file is not locked; it must not be
+     * truncated while the returned reader is in use.
+     *
+     * @param path the CSV file
+     * @return the reader
+     * @throws IOException if the file cannot be read or is 2 GB or larger
+     */
+    public static MappedCompatibilityCsv open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= Integer.MAX_VALUE) {
+                throw new IOException("CSV file is too large to map: " + path + " (" + size + " bytes)");
+            }
+            return new MappedCompatibilityCsv(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /** @return the number of data rows, excluding the header and blank lines */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /** @return {@code true} if the header has an Id column */
+    public boolean hasIds() {
+        return hasIds;
+    }
+
+    /**
+     * @param row the row, from 0
+     * @return the number of fields in the row
+     */
+    public int fieldCount(int row) {
+        return fieldCountBetween(rowStart(row), rowEnd(row));
+    }
+
+    /**
+     * Decodes one field of a row.
+     *
+     * @param row    the row, from 0
+     * @param column the column, from 0
+     * @return the field's text, or {@code null} if the row has no such column
+     */
+    public String field(int row, int column) {
+        int end = rowEnd(row);
+        int start = fieldStart(rowStart(row), end, column);
+        if (start < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[fieldEnd(start, end) - start];
+        data.get(start, bytes);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        return bytes.length > 0 && bytes[0] == '"' ? unquote(text) : text;
+    }
+
+    /**
+     * Compares one field of a row with a string without decoding the field.
+     *
+     * @param row    the row, from 0
+     * @param column the column, from 0
+     * @param value  the expected text
+     * @return {@code true} if the field exists and equals {@code value} exactly
+     */
+    public boolean fieldEquals(int row, int column, String value) {
+        return fieldEquals(rowStart(row), rowEnd(row), column, value);
+    }
+
+    /**
+     * Parses the score of a row, e.g. {@code 85%} as {@code 0.85}, with the same result as
+     * {@code Double.parseDouble("85") / 100.0}.
+     *
+     * @param row the row, from 0
+     * @return the score between 0.0 and 1.0
+     * @throws NumberFormatException if the row has no score or it is not a number
+     */
+    public double score(int row) {
+        int end = rowEnd(row);
+        int start = fieldStart(rowStart(row), end, SCORE);
+        if (start < 0) {
+            throw new NumberFormatException("Row " + row + " has no score");
+        }
+        int stop = fieldEnd(start, end);
+        if (stop > start && data.get(stop - 1) == '%') {
+            stop--;
+        }
+
+        long percent = 0;
+        boolean whole = stop > start && stop - start <= MAX_FAST_DIGITS;
+        for (int i = start; i < stop && whole; i++) {
+            int digit = data.get(i) - '0';
+            whole = digit >= 0 && digit <= 9;
+            percent = percent * 10 + digit;
+        }
+        if (whole) {
+            return percent / 100.0;
+        }
+        String text = field(row, SCORE);
+        return Double.parseDouble(text.endsWith("%") ? text.substring(0, text.length() - 1) : text) / 100.0;
+    }
+
+    /**
+     * Parses the id of a row.
+     *
+     * @param row the row, from 0
+     * @return the pet's id, or {@link Pet#NO_ID} if the file has no Id column or the row's
+     *         id is missing or not a non-negative integer
+     */
+    public int id(int row) {
+        if (!hasIds) {
+            return Pet.NO_ID;
+        }
+        int end = rowEnd(row);
+        int start = fieldStart(rowStart(row), end, ID);
+        if (start < 0) {
+            return Pet.NO_ID;
+        }
+        int stop = fieldEnd(start, end);
+        if (stop > start && stop - start <= 9) {
+            int id = 0;
+            int i = start;
+            while (i < stop && data.get(i) >= '0' && data.get(i) <= '9') {
+                id = id * 10 + (data.get(i) - '0');
+                i++;
+            }
+            if (i == stop) {
+                return id;
+            }
+        }
+        try {
+            int id = Integer.parseInt(field(row, ID).trim());
+            return id >= 0 ? id : Pet.NO_ID;
+        } catch (NumberFormatException e) {
+            return Pet.NO_ID;
+        }
+    }
+
+    /**
+     * Finds the first complete row, one with at least name, breed, type, score and image
+     * path, for the given pet.
+     *
+     * @param name  the pet's name
+     * @param breed the pet's breed
+     * @return the row, or {@code -1} if no row matches
+     */
+    public int find(String name, String breed) {
+        for (int row = 0; row < rowCount; row++) {
+            int start = rowStart(row);
+            int end = rowEnd(row);
+            if (fieldEquals(start, end, NAME, name) && fieldEquals(start, end, BREED, breed)
+                    && fieldCountBetween(start, end) > IMAGE_PATH) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Joins a row to a catalog: by its id if the row has one, otherwise by its name and breed.
+     *
+     * @param row   the row, from 0
+     * @param index the catalog's index
+     * @return the pet's catalog position, or {@code -1} if the row matches no pet
+     */
+    public int positionIn(int row, PetKeyIndex index) {
+        int id = id(row);
+        return id != Pet.NO_ID ? index.positionOf(id) : index.positionOf(field(row, NAME), field(row, BREED));
+    }
+
+    private int rowStart(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount + " rows");
+        }
+        return rowStarts[row];
+    }
+
+    /**
+     * @return the end of the row's text, excluding its line terminator
+     */
+    private int rowEnd(int row) {
+        return lineEnd(rowStarts[row], rowStarts[row + 1]);
+    }
+
+    /**
+     * @return the position of the first {@code \n} outside quotes at or after {@code start},
+     *         or {@code limit}, stepping back over a preceding {@code \r}
+     */
+    private int lineEnd(int start, int limit) {
+        int i = fieldEnd(start, limit);
+        while (i < limit && data.get(i) == ',') {
+            i = fieldEnd(i + 1, limit);
+        }
+        return i > start && data.get(i - 1) == '\r' ? i - 1 : i;
+    }
+
+    /**
+     * @return the start of the line following a line that ends at {@code end}
+     */
+    private int nextLine(int end, int limit) {
+        int i = end;
+        while (i < limit && data.get(i) != '\n') {
+            i++;
+        }
+        return Math.min(i + 1, limit);
+    }
+
+    private int fieldCountBetween(int start, int end) {
+        int count = 1;
+        for (int i = fieldEnd(start, end); i < end; i = fieldEnd(i + 1, end)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the start of the given column between {@code start} and {@code end}, or
+     *         {@code -1} if there are fewer columns
+     */
+    private int fieldStart(int start, int end, int column) {
+        int i = start;
+        for (int skipped = 0; skipped < column; skipped++) {
+            i = fieldEnd(i, end);
+            if (i == end) {
+                return -1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the position of the comma or line feed that ends the field starting at
+     *         {@code start}, skipping over a quoted section, or {@code end}
+     */
+    private int fieldEnd(int start, int end) {
+        int i = start;
+        if (i < end && data.get(i) == '"') {
+            i++;
+            while (i < end) {
+                if (data.get(i++) == '"') {
+                    if (i < end && data.get(i) == '"') {
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+        }
+        while (i < end && data.get(i) != ',' && data.get(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Removes the quotes from a quoted field and undoubles the quotes inside it. Text after
+     * the closing quote is kept, as {@link CsvTokenizer} does.
+     */
+    private static String unquote(String text) {
+        StringBuilder unquoted = new StringBuilder(text.length());
+        int i = 1;
+        while (i < text.length()) {
+            char c = text.charAt(i++);
+            if (c == '"') {
+                if (i < text.length() && text.charAt(i) == '"') {
+                    i++;
+                } else {
+                    unquoted.append(text, i, text.length());
+                    break;
+                }
+            }
+            unquoted.append(c);
+        }
+        return unquoted.toString();
+    }
+
+    private boolean fieldEquals(int start, int end, int column, String value) {
+        int fieldStart = fieldStart(start, end, column);
+        if (fieldStart < 0) {
+            return false;
+        }
+        int fieldEnd = fieldEnd(fieldStart, end);
+        if (fieldEnd > fieldStart && data.get(fieldStart) == '"') {
+            byte[] bytes = new byte[fieldEnd - fieldStart];
+            data.get(fieldStart, bytes);
+            return unquote(new String(bytes, StandardCharsets.UTF_8)).equals(value);
+        }
+        int length = value.length();
+        if (fieldEnd - fieldStart < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                byte[] bytes = new byte[fieldEnd - fieldStart];
+                data.get(fieldStart, bytes);
+                return new String(bytes, StandardCharsets.UTF_8).equals(value);
+            }
+            if (data.get(fieldStart + i) != c) {
+                return false;
+            }
+        }
+        return fieldEnd - fieldStart == length;
+    }
+}
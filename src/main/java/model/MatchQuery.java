@@ -0,0 +1,177 @@
+package model;
+
+import model.WeightProfile.Criterion;
+
+/**
+ * The {@code MatchQuery} class answers top-K and score-threshold queries without fully
+ * scoring pets that cannot qualify.
+ * <p>
+ * Before a pet is scored, an upper bound on its score is computed from the cheap terms:
+ * the allergy hard-fail, the yard term, the MBTI table and the gender term are evaluated
+ * exactly, while the space, time, budget and energy terms are assumed perfect. The bound
+ * adds the same weighted terms in the same order as the real score, and floating-point
+ * addition and multiplication are monotonic, so the bound is never below the real score.
+ * A pet whose bound cannot beat the current K-th best score (or the threshold) is pruned.
+ * <p>
+ * Pets that survive are scored by the supplied calculator in contiguous runs of at most
+ * {@value #MAX_RUN} pets, so the scores are exactly those of the calculator. The bounds
+ * are only valid for the weights the calculator actually applies; when those are not
+ * known, no pet is pruned.
+ */
+public class MatchQuery {
+
+    /** Longest run of candidates scored before the pruning threshold is refreshed. */
+    static final int MAX_RUN = 256;
+
+    private final IBatchCompatibilityCalculator calculator;
+
+    /** The weights applied by {@link #calculator}, or {@code null} to disable pruning. */
+    private final WeightProfile weights;
+
+    /**
+     * Constructs a query engine that takes its bounds from the calculator's weights: the
+     * built-in weights for a {@link CompatibilityCalculator}, the profile of a
+     * {@link WeightedCompatibilityCalculator}. Any other calculator is queried without
+     * pruning.
+     *
+     * @param calculator the calculator used to score surviving pets
+     */
+    public MatchQuery(IBatchCompatibilityCalculator calculator) {
+        this(calculator, weightsOf(calculator));
+    }
+
+    /**
+     * Constructs a query engine for a calculator that applies the given weights.
+     *
+     * @param calculator the calculator used to score surviving pets
+     * @param weights    the weights applied by {@code calculator}, used for the bounds, or
+     *                   {@code null} to score every pet
+     */
+    public MatchQuery(IBatchCompatibilityCalculator calculator, WeightProfile weights) {
+        this.calculator = calculator;
+        this.weights = weights;
+    }
+
+    /**
+     * @return the weights the calculator is known to apply, or {@code null} if unknown
+     */
+    private static WeightProfile weightsOf(IBatchCompatibilityCalculator calculator) {
+        if (calculator instanceof WeightedCompatibilityCalculator weighted) {
+            return weighted.getProfile();
+        }
+        if (calculator instanceof CompatibilityCalculator builtIn) {
+            return builtIn.weights();
+        }
+        return null;
+    }
+
+    /**
+     * Finds the {@code k} best-scoring pets. Equal scores rank by catalog position.
+     *
+     * @param user the user to match
+     * @param pets the columnar pet catalog
+     * @param k    the number of pets to return
+     * @return the best pets, best first
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public MatchQueryResult topK(User user, PetColumns pets, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return run(user, pets, new TopKHeap(Math.min(k, pets.size())), Double.NaN);
+    }
+
+    /**
+     * Finds every pet whose score is strictly greater than {@code threshold}.
+     *
+     * @param user      the user to match
+     * @param pets      the columnar pet catalog
+     * @param threshold the score to exceed
+     * @return the qualifying pets, best first
+     */
+    public MatchQueryResult aboveThreshold(User user, PetColumns pets, double threshold) {
+        return run(user, pets, new TopKHeap(pets.size()), threshold);
+    }
+
+    /**
+     * Scans the catalog, pruning by bound and collecting survivors into the heap.
+     * A {@code NaN} threshold means "top-K": the heap's own cut-off is used instead.
+     */
+    private MatchQueryResult run(User user, PetColumns pets, TopKHeap heap, double threshold) {
+        boolean topK = Double.isNaN(threshold);
+        double[] bounds = weights == null ? null : boundTable(user, pets);
+        double[] scores = new double[MAX_RUN];
+        boolean allergic = user.isAllergic();
+        int size = pets.size();
+        int evaluated = 0;
+
+        int runStart = -1;
+        for (int i = 0; i <= size; i++) {
+            boolean candidate = false;
+            if (i < size) {
+                double bound;
+                if (bounds == null) {
+                    bound = Double.POSITIVE_INFINITY;
+                } else {
+                    // Allergy = hard fail
+                    bound = allergic && pets.isAllergenic(i) ? 0.0 : bounds[boundIndex(pets, i)];
+                }
+                // Every retained pet precedes i and wins ties, so the bound must beat the cut-off
+                candidate = bound > (topK ? heap.threshold() : threshold);
+            }
+            if (candidate && runStart < 0) {
+                runStart = i;
+            }
+            if (runStart >= 0 && (!candidate || i - runStart == MAX_RUN)) {
+                calculator.scoreRange(user, pets, runStart, i, scores, 0);
+                for (int p = runStart; p < i; p++) {
+                    double score = scores[p - runStart];
+                    if (topK || score > threshold) {
+                        heap.offer(p, score);
+                    }
+                }
+                evaluated += i - runStart;
+                runStart = candidate ? i : -1;
+            }
+        }
+
+        int[] positions = new int[heap.size()];
+        double[] results = new double[heap.size()];
+        heap.drainSorted(positions, results);
+        return new MatchQueryResult(positions, results, evaluated, size - evaluated);
+    }
+
+    /**
+     * Precomputes the score bound for every combination of yard requirement, MBTI code and
+     * gender code, indexed by {@link #boundIndex}.
+     */
+    private double[] boundTable(User user, PetColumns pets) {
+        double[] genderScores = CompatibilityCalculator.genderScores(user, pets);
+        int genders = genderScores.length;
+        double[] table = new double[2 * MbtiCode.COUNT * genders];
+        for (int yard = 0; yard < 2; yard++) {
+            for (int mbti = 0; mbti < MbtiCode.COUNT; mbti++) {
+                for (int gender = 0; gender < genders; gender++) {
+                    double bound = weights.getWeight(Criterion.SPACE) * 1.0 +
+                            weights.getWeight(Criterion.TIME) * 1.0 +
+                            weights.getWeight(Criterion.BUDGET) * 1.0 +
+                            weights.getWeight(Criterion.YARD)
+                                    * CompatibilityCalculator.getYardScore(user.hasYard(), yard == 1) +
+                            weights.getWeight(Criterion.ENERGY) * 1.0 +
+                            weights.getWeight(Criterion.MBTI) * MbtiCode.score(user.getMbtiCode(), mbti) +
+                            weights.getWeight(Criterion.GENDER) * genderScores[gender];
+                    table[(yard * MbtiCode.COUNT + mbti) * genders + gender] = bound;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return the index of the pet's cheap-term combination in the bound table
+     */
+    private static int boundIndex(PetColumns pets, int i) {
+        int yard = pets.requiresYard(i) ? 1 : 0;
+        return (yard * MbtiCode.COUNT + pets.mbtiCode[i]) * pets.genderDictionary.length + pets.genderCode[i];
+    }
+}
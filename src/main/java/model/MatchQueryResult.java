@@ -0,0 +1,59 @@
+package model;
+
+/**
+ * The {@code MatchQueryResult} class holds the pets returned by a {@link MatchQuery},
+ * ordered from best to worst match, together with pruning statistics for the query.
+ */
+public class MatchQueryResult {
+
+    private final int[] positions;
+    private final double[] scores;
+    private final int evaluatedCount;
+    private final int prunedCount;
+
+    /**
+     * Constructs a query result.
+     *
+     * @param positions      catalog positions of the matching pets, best first
+     * @param scores         scores parallel to {@code positions}
+     * @param evaluatedCount number of pets that were fully scored
+     * @param prunedCount    number of pets skipped because their upper bound could not qualify
+     */
+    MatchQueryResult(int[] positions, double[] scores, int evaluatedCount, int prunedCount) {
+        this.positions = positions;
+        this.scores = scores;
+        this.evaluatedCount = evaluatedCount;
+        this.prunedCount = prunedCount;
+    }
+
+    /** @return the number of matching pets */
+    public int size() {
+        return positions.length;
+    }
+
+    /**
+     * @param rank the result rank, 0 being the best match
+     * @return the catalog position of the pet at that rank
+     */
+    public int position(int rank) {
+        return positions[rank];
+    }
+
+    /**
+     * @param rank the result rank, 0 being the best match
+     * @return the score of the pet at that rank
+     */
+    public double score(int rank) {
+        return scores[rank];
+    }
+
+    /** @return the number of pets that were fully scored */
+    public int getEvaluatedCount() {
+        return evaluatedCount;
+    }
+
+    /** @return the number of pets skipped without full evaluation */
+    public int getPrunedCount() {
+        return prunedCount;
+    }
+}
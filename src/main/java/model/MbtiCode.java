@@ -0,0 +1,111 @@
+package model;
+
+/**
+ * The {@code MbtiCode} class encodes MBTI personality types as 4-bit codes and holds the
+ * precomputed similarity tables used by the scorer and the sorter.
+ * <p>
+ * Each of the four MBTI dimensions maps to one bit of the code:
+ * bit 3 is {@code I} (set) or {@code E}, bit 2 is {@code S} or {@code N},
+ * bit 1 is {@code T} or {@code F}, and bit 0 is {@code J} or {@code P}.
+ * Two types share a letter exactly where their codes share a bit, so every
+ * pairwise comparison reduces to a single table lookup at index
+ * {@code (a << 4) | b}.
+ */
+public final class MbtiCode {
+
+    /** Number of distinct MBTI codes. */
+    public static final int COUNT = 16;
+
+    /** Letter pairs per dimension, ordered from bit 3 to bit 0: {set, clear}. */
+    private static final char[][] LETTERS = {{'I', 'E'}, {'S', 'N'}, {'T', 'F'}, {'J', 'P'}};
+
+    /** Number of matching letters for every pair of codes. */
+    private static final int[] MATCHES = new int[COUNT * COUNT];
+
+    /**
+     * Compatibility score for every pair of codes, indexed by {@code (user << 4) | pet}.
+     * Package-private so scoring kernels can index or gather from it directly.
+     */
+    static final double[] SCORES = new double[COUNT * COUNT];
+
+    /** Upper-case four-letter type of every code. */
+    private static final String[] TYPES = new String[COUNT];
+
+    static {
+        for (int code = 0; code < COUNT; code++) {
+            char[] letters = new char[4];
+            for (int i = 0; i < 4; i++) {
+                letters[i] = LETTERS[i][((code >>> (3 - i)) & 1) ^ 1];
+            }
+            TYPES[code] = new String(letters);
+        }
+        for (int a = 0; a < COUNT; a++) {
+            for (int b = 0; b < COUNT; b++) {
+                int matches = 4 - Integer.bitCount(a ^ b);
+                MATCHES[(a << 4) | b] = matches;
+                SCORES[(a << 4) | b] = matches * 0.25;
+            }
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private MbtiCode() {}
+
+    /**
+     * Parses a four-letter MBTI type, ignoring case.
+     *
+     * @param mbti the MBTI type, e.g. {@code "ENFP"}
+     * @return the 4-bit code
+     * @throws IllegalArgumentException if {@code mbti} is not a valid MBTI type
+     */
+    public static int encode(String mbti) {
+        if (mbti == null || mbti.length() != 4) {
+            throw new IllegalArgumentException("Invalid MBTI type: " + mbti);
+        }
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            char letter = Character.toUpperCase(mbti.charAt(i));
+            int bit = 3 - i;
+            if (letter == LETTERS[i][0]) {
+                code |= 1 << bit;
+            } else if (letter != LETTERS[i][1]) {
+                throw new IllegalArgumentException("Invalid MBTI type: " + mbti);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Formats a code as its upper-case four-letter MBTI type.
+     *
+     * @param code the 4-bit code
+     * @return the MBTI type, shared by every caller
+     */
+    public static String decode(int code) {
+        return TYPES[code];
+    }
+
+    /**
+     * Returns the MBTI compatibility score: 0.25 per matching letter.
+     *
+     * @param userCode the user's code
+     * @param petCode  the pet's code
+     * @return a score from 0.0 to 1.0
+     */
+    public static double score(int userCode, int petCode) {
+        return SCORES[(userCode << 4) | petCode];
+    }
+
+    /**
+     * Returns the number of letters two MBTI types have in common.
+     *
+     * @param userCode the user's code
+     * @param petCode  the pet's code
+     * @return a count from 0 to 4
+     */
+    public static int matchCount(int userCode, int petCode) {
+        return MATCHES[(userCode << 4) | petCode];
+    }
+}
@@ -0,0 +1,577 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The {@code OffHeapPetCatalog} class keeps a columnar pet catalog outside the Java heap,
+ * either in a direct buffer or in a memory-mapped catalog file, so that the rows, names
+ * and image paths of even the largest catalogs add nothing to garbage collection work.
+ * <p>
+ * A catalog file is written once with {@link #write} and then opened with {@link #map} by
+ * any number of processes, which all share one copy of it through the operating system's
+ * page cache. Opening a file reads its header and dictionaries and checks every code and
+ * string offset against them, so a corrupt file is rejected up front rather than failing
+ * when a row is read. {@link #allocate} builds the same layout in a direct buffer for a
+ * single process.
+ * <p>
+ * The layout is one column per attribute, in big-endian order: space, monthly cost and
+ * daily time as doubles, the energy level as a byte, the MBTI code and the allergenic and
+ * requires-yard flags packed into a byte, and type, breed and gender as codes into
+ * dictionaries stored in the file. Names, image paths and dictionary values are UTF-8
+ * strings at the end of the file. Codes are translated to this process's {@link Pet#TYPES},
+ * {@link Pet#BREEDS} and {@link Pet#GENDERS} codes when the catalog is opened.
+ * <p>
+ * The scoring columns are the exception: calculators walk primitive arrays, so
+ * {@link #columns()} copies them in bulk onto the heap as {@link PetColumns}, about 36
+ * bytes per pet, and keeps that copy for the life of the catalog. Any
+ * {@link IBatchCompatibilityCalculator} then scores the catalog without creating pets;
+ * names, image paths and dictionaries stay off-heap. A process that scores only part of
+ * the catalog copies just that part with {@link #columns(int, int)}, so processes sharing
+ * one mapped file hold one heap copy of the columns between them rather than one each.
+ * {@link #asList()} presents rows as pets created when read, and scoring the list uses
+ * the full columns. Rows are read with absolute positions only, so one instance may be
+ * shared between threads. Catalogs must be smaller than 2 GB.
+ */
+public final class OffHeapPetCatalog {
+
+    /** File name extension of catalog files. */
+    public static final String FILE_EXTENSION = ".pets";
+
+    /** Identifies a catalog file: {@code "PETS"} in ASCII. */
+    private static final int MAGIC = 0x50455453;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+
+    private static final int ALLERGENIC = 1 << 4;
+    private static final int REQUIRES_YARD = 1 << 5;
+
+    /** String offset standing for {@code null}. */
+    private static final int NULL_STRING = -1;
+
+    private final ByteBuffer data;
+    private final Layout layout;
+    private final int size;
+
+    /** This process's code of each file type, breed and gender code. */
+    private final int[] typeCodes;
+    private final int[] breedCodes;
+    private final int[] genderCodes;
+
+    /** The scoring columns, read on first use. */
+    private volatile PetColumns columns;
+
+    private OffHeapPetCatalog(ByteBuffer data, Layout layout) {
+        this.data = data;
+        this.layout = layout;
+        this.size = layout.count;
+        this.typeCodes = encode(Pet.TYPES, dictionary(layout.typeDictionaryAt, layout.typeCount));
+        this.breedCodes = encode(Pet.BREEDS, dictionary(layout.breedDictionaryAt, layout.breedCount));
+        this.genderCodes = encode(Pet.GENDERS, dictionary(layout.genderDictionaryAt, layout.genderCount));
+    }
+
+    /**
+     * Writes pets to a catalog file, replacing any existing file atomically, so processes
+     * that have the previous file mapped keep reading it unchanged. The pets' own ids are
+     * ignored: the pet at position {@code i} gets id {@code i}.
+     *
+     * @param pets the pets to write
+     * @param file the catalog file to create
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the catalog would reach 2 GB, or a pet's energy
+     *                                  level does not fit in a byte
+     */
+    public static void write(List<Pet> pets, Path file) throws IOException {
+        Writer writer = new Writer(pets);
+        AtomicFiles.publish(file, temp -> {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.writeTo(out);
+            }
+        });
+    }
+
+    /**
+     * Maps a catalog file read-only.
+     *
+     * @param file a file written by {@link #write}
+     * @return the mapped catalog
+     * @throws IOException if the file cannot be read, is not a catalog file, or is truncated
+     *                     or corrupt
+     */
+    public static OffHeapPetCatalog map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a pet catalog file: " + file);
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (data.getInt(0) != MAGIC) {
+                throw new IOException("Not a pet catalog file: " + file);
+            }
+            if (data.getInt(4) != VERSION) {
+                throw new IOException("Unsupported pet catalog version " + data.getInt(4) + ": " + file);
+            }
+            Layout layout = Layout.read(data);
+            if (layout == null || layout.end != length) {
+                throw new IOException("Truncated or corrupt pet catalog file: " + file);
+            }
+            String corruption = corruption(data, layout);
+            if (corruption != null) {
+                throw new IOException("Corrupt pet catalog file, " + corruption + ": " + file);
+            }
+            return new OffHeapPetCatalog(data, layout);
+        }
+    }
+
+    /**
+     * Copies pets into a direct buffer. The pets' own ids are ignored: the pet at position
+     * {@code i} gets id {@code i}.
+     *
+     * @param pets the pets to copy
+     * @return the off-heap catalog
+     * @throws IllegalArgumentException if the catalog would reach 2 GB, or a pet's energy
+     *                                  level does not fit in a byte
+     */
+    public static OffHeapPetCatalog allocate(List<Pet> pets) {
+        Writer writer = new Writer(pets);
+        ByteBuffer data = ByteBuffer.allocateDirect((int) writer.layout.end);
+        try {
+            writer.writeTo(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    data.put((byte) b);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    data.put(bytes, offset, length);
+                }
+            });
+        } catch (IOException e) {
+            throw new AssertionError("A buffer cannot fail to be written", e);
+        }
+        return new OffHeapPetCatalog(data.clear(), writer.layout);
+    }
+
+    /** @return the number of pets in the catalog */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Creates the pet in a row.
+     *
+     * @param id the row, which is also the pet's id
+     * @return a new {@code Pet} with the row's attributes
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    public Pet pet(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Pet " + id + " out of bounds for size " + size);
+        }
+        int traits = data.get(layout.traitsAt + id);
+        return new Pet(id, string(data.getInt(layout.nameAt + 4 * id)),
+                typeCodes[data.getInt(layout.typeAt + 4 * id)],
+                breedCodes[data.getInt(layout.breedAt + 4 * id)],
+                genderCodes[data.getInt(layout.genderAt + 4 * id)],
+                traits & 0xF, data.get(layout.energyAt + id),
+                data.getDouble(layout.spaceAt + 8 * id), data.getDouble(layout.costAt + 8 * id),
+                (traits & ALLERGENIC) != 0, (traits & REQUIRES_YARD) != 0,
+                data.getDouble(layout.timeAt + 8 * id), string(data.getInt(layout.imageAt + 4 * id)));
+    }
+
+    /**
+     * Returns a read-only list view of the catalog in id order. Each {@link Pet} is created
+     * from its row when the element is read.
+     *
+     * @return the pets, element {@code i} having id {@code i}
+     */
+    public List<Pet> asList() {
+        return new PetView();
+    }
+
+    /**
+     * Returns the scoring columns of the catalog, in id order, for any
+     * {@link IBatchCompatibilityCalculator}. They are copied from the buffer onto the heap
+     * in bulk the first time and shared afterwards; no pets are created.
+     *
+     * @return the scoring columns
+     */
+    public PetColumns columns() {
+        PetColumns read = columns;
+        if (read == null) {
+            read = readColumns(0, size);
+            columns = read;
+        }
+        return read;
+    }
+
+    /**
+     * Copies the scoring columns of a range of rows onto the heap, without keeping them.
+     *
+     * @param fromId first pet id (inclusive)
+     * @param toId   last pet id (exclusive)
+     * @return columns whose position {@code i} is the pet with id {@code fromId + i}
+     * @throws IndexOutOfBoundsException if the ids are not a range of the catalog
+     */
+    public PetColumns columns(int fromId, int toId) {
+        if (fromId < 0 || fromId > toId || toId > size) {
+            throw new IndexOutOfBoundsException("Range [" + fromId + ", " + toId + ") out of bounds for size " + size);
+        }
+        PetColumns read = columns;
+        if (read != null && fromId == 0 && toId == size) {
+            return read;
+        }
+        return readColumns(fromId, toId);
+    }
+
+    private PetColumns readColumns(int fromId, int toId) {
+        int count = toId - fromId;
+        double[] space = new double[count];
+        double[] cost = new double[count];
+        double[] time = new double[count];
+        data.slice(layout.spaceAt + 8 * fromId, 8 * count).asDoubleBuffer().get(space);
+        data.slice(layout.costAt + 8 * fromId, 8 * count).asDoubleBuffer().get(cost);
+        data.slice(layout.timeAt + 8 * fromId, 8 * count).asDoubleBuffer().get(time);
+        byte[] energyBytes = new byte[count];
+        byte[] traits = new byte[count];
+        data.get(layout.energyAt + fromId, energyBytes);
+        data.get(layout.traitsAt + fromId, traits);
+        int[] gender = new int[count];
+        data.slice(layout.genderAt + 4 * fromId, 4 * count).asIntBuffer().get(gender);
+
+        int[] energy = new int[count];
+        int[] mbti = new int[count];
+        long[] allergenic = new long[(count + 63) >>> 6];
+        long[] requiresYard = new long[(count + 63) >>> 6];
+        for (int i = 0; i < count; i++) {
+            energy[i] = energyBytes[i];
+            mbti[i] = traits[i] & 0xF;
+            if ((traits[i] & ALLERGENIC) != 0) {
+                allergenic[i >>> 6] |= 1L << i;
+            }
+            if ((traits[i] & REQUIRES_YARD) != 0) {
+                requiresYard[i >>> 6] |= 1L << i;
+            }
+            gender[i] = genderCodes[gender[i]];
+        }
+        // Read after the codes were encoded, so that every gender code is covered
+        return new PetColumns(space, cost, time, energy, allergenic, requiresYard, mbti, gender,
+                Pet.GENDERS.values());
+    }
+
+    /**
+     * Checks every code against its dictionary and every string against the string section.
+     *
+     * @return what is wrong with the catalog, or {@code null} if nothing is
+     */
+    private static String corruption(ByteBuffer data, Layout layout) {
+        int count = layout.count;
+        String problem = codes(data, layout.genderAt, count, layout.genderCount, "gender");
+        if (problem == null) {
+            problem = codes(data, layout.typeAt, count, layout.typeCount, "type");
+        }
+        if (problem == null) {
+            problem = codes(data, layout.breedAt, count, layout.breedCount, "breed");
+        }
+        // Name, image and dictionary offsets are contiguous
+        int offsets = 2 * count + layout.typeCount + layout.breedCount + layout.genderCount;
+        long stringBytes = layout.end - layout.stringsAt;
+        for (int i = 0; problem == null && i < offsets; i++) {
+            int offset = data.getInt(layout.nameAt + 4 * i);
+            if (offset == NULL_STRING) {
+                continue;
+            }
+            if (offset < 0 || offset > stringBytes - 4) {
+                problem = "string offset " + offset + " out of range";
+            } else {
+                int length = data.getInt(layout.stringsAt + offset);
+                if (length < 0 || offset + 4L + length > stringBytes) {
+                    problem = "string of " + length + " bytes at offset " + offset + " out of range";
+                }
+            }
+        }
+        return problem;
+    }
+
+    /** Checks that a column of codes only refers to entries of its dictionary. */
+    private static String codes(ByteBuffer data, int at, int count, int dictionarySize, String name) {
+        for (int i = 0; i < count; i++) {
+            int code = data.getInt(at + 4 * i);
+            if (code < 0 || code >= dictionarySize) {
+                return name + " code " + code + " of pet " + i + " not in a dictionary of " + dictionarySize;
+            }
+        }
+        return null;
+    }
+
+    private String[] dictionary(int at, int count) {
+        String[] values = new String[count];
+        for (int code = 0; code < count; code++) {
+            values[code] = string(data.getInt(at + 4 * code));
+        }
+        return values;
+    }
+
+    private static int[] encode(CategoryDictionary dictionary, String[] values) {
+        int[] codes = new int[values.length];
+        for (int code = 0; code < values.length; code++) {
+            codes[code] = dictionary.encode(values[code]);
+        }
+        return codes;
+    }
+
+    private String string(int offset) {
+        if (offset == NULL_STRING) {
+            return null;
+        }
+        int at = layout.stringsAt + offset;
+        byte[] bytes = new byte[data.getInt(at)];
+        data.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Read-only list of row views, which scores from the catalog's columns. */
+    private final class PetView extends AbstractList<Pet> implements RandomAccess, PetColumns.Source {
+
+        @Override
+        public Pet get(int index) {
+            return pet(index);
+        }
+
+        @Override
+        public PetColumns columns() {
+            return OffHeapPetCatalog.this.columns();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Where each section starts. The header holds the magic number, the version, the pet
+     * count, the three dictionary sizes and the size of the string section; every other
+     * offset follows from them.
+     */
+    private static final class Layout {
+        final int count;
+        final int typeCount;
+        final int breedCount;
+        final int genderCount;
+        final int spaceAt;
+        final int costAt;
+        final int timeAt;
+        final int energyAt;
+        final int traitsAt;
+        final int genderAt;
+        final int typeAt;
+        final int breedAt;
+        final int nameAt;
+        final int imageAt;
+        final int typeDictionaryAt;
+        final int breedDictionaryAt;
+        final int genderDictionaryAt;
+        final int stringsAt;
+        final long end;
+
+        /** @throws ArithmeticException if the sections would not fit in 2 GB */
+        Layout(int count, int typeCount, int breedCount, int genderCount, long stringBytes) {
+            this.count = count;
+            this.typeCount = typeCount;
+            this.breedCount = breedCount;
+            this.genderCount = genderCount;
+            this.spaceAt = HEADER_BYTES;
+            this.costAt = Math.toIntExact(spaceAt + 8L * count);
+            this.timeAt = Math.toIntExact(costAt + 8L * count);
+            this.energyAt = Math.toIntExact(timeAt + 8L * count);
+            this.traitsAt = Math.toIntExact(energyAt + (long) count);
+            // Keep the int columns 4-byte aligned
+            this.genderAt = Math.toIntExact((traitsAt + (long) count + 3) & ~3L);
+            this.typeAt = Math.toIntExact(genderAt + 4L * count);
+            this.breedAt = Math.toIntExact(typeAt + 4L * count);
+            this.nameAt = Math.toIntExact(breedAt + 4L * count);
+            this.imageAt = Math.toIntExact(nameAt + 4L * count);
+            this.typeDictionaryAt = Math.toIntExact(imageAt + 4L * count);
+            this.breedDictionaryAt = Math.toIntExact(typeDictionaryAt + 4L * typeCount);
+            this.genderDictionaryAt = Math.toIntExact(breedDictionaryAt + 4L * breedCount);
+            this.stringsAt = Math.toIntExact(genderDictionaryAt + 4L * genderCount);
+            this.end = Math.toIntExact(stringsAt + stringBytes);
+        }
+
+        /** @return the layout described by a header, or {@code null} if it is invalid */
+        static Layout read(ByteBuffer data) {
+            int count = data.getInt(8);
+            int typeCount = data.getInt(12);
+            int breedCount = data.getInt(16);
+            int genderCount = data.getInt(20);
+            int stringBytes = data.getInt(24);
+            if ((count | typeCount | breedCount | genderCount | stringBytes) < 0) {
+                return null;
+            }
+            try {
+                return new Layout(count, typeCount, breedCount, genderCount, stringBytes);
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+
+        void writeHeader(DataOutputStream out, int stringBytes) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(typeCount);
+            out.writeInt(breedCount);
+            out.writeInt(genderCount);
+            out.writeInt(stringBytes);
+            out.writeInt(0);
+        }
+    }
+
+    /**
+     * Lays out a list of pets and writes it section by section. Strings are encoded once
+     * to find their offsets and again while they are written, so no encoded copy of the
+     * catalog is kept.
+     */
+    private static final class Writer {
+        final List<Pet> pets;
+        final String[] types;
+        final String[] breeds;
+        final String[] genders;
+        final int[] nameOffsets;
+        final int[] imageOffsets;
+        final int[][] dictionaryOffsets;
+        final int stringBytes;
+        final Layout layout;
+
+        /** Size of the strings placed so far; past 2 GB the offsets wrap and are rejected. */
+        private long stringEnd;
+
+        Writer(List<Pet> pets) {
+            this.pets = pets;
+            int count = pets.size();
+            for (int i = 0; i < count; i++) {
+                int energy = pets.get(i).getEnergyLevel();
+                if (energy != (byte) energy) {
+                    throw new IllegalArgumentException("Energy level " + energy + " of pet " + i + " does not fit in a byte");
+                }
+            }
+            // Read after the pets, so that every pet's codes are covered
+            this.types = Pet.TYPES.values();
+            this.breeds = Pet.BREEDS.values();
+            this.genders = Pet.GENDERS.values();
+
+            nameOffsets = new int[count];
+            imageOffsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                nameOffsets[i] = place(pets.get(i).getName());
+            }
+            for (int i = 0; i < count; i++) {
+                imageOffsets[i] = place(pets.get(i).getImagePath());
+            }
+            String[][] dictionaries = {types, breeds, genders};
+            dictionaryOffsets = new int[dictionaries.length][];
+            for (int d = 0; d < dictionaries.length; d++) {
+                dictionaryOffsets[d] = new int[dictionaries[d].length];
+                for (int code = 0; code < dictionaries[d].length; code++) {
+                    dictionaryOffsets[d][code] = place(dictionaries[d][code]);
+                }
+            }
+            try {
+                this.stringBytes = Math.toIntExact(stringEnd);
+                this.layout = new Layout(count, types.length, breeds.length, genders.length, stringEnd);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Pet catalog of " + count + " pets would not fit in 2 GB", e);
+            }
+        }
+
+        void writeTo(OutputStream stream) throws IOException {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            layout.writeHeader(out, stringBytes);
+            for (Pet pet : pets) {
+                out.writeDouble(pet.getRequiredSpace());
+            }
+            for (Pet pet : pets) {
+                out.writeDouble(pet.getMonthlyCost());
+            }
+            for (Pet pet : pets) {
+                out.writeDouble(pet.getTimeNeededPerDay());
+            }
+            for (Pet pet : pets) {
+                out.writeByte(pet.getEnergyLevel());
+            }
+            for (Pet pet : pets) {
+                out.writeByte(pet.getMbtiCode()
+                        | (pet.isAllergenic() ? ALLERGENIC : 0)
+                        | (pet.requiresYard() ? REQUIRES_YARD : 0));
+            }
+            for (int i = layout.traitsAt + pets.size(); i < layout.genderAt; i++) {
+                out.writeByte(0);
+            }
+            for (Pet pet : pets) {
+                out.writeInt(pet.getGenderCode());
+            }
+            for (Pet pet : pets) {
+                out.writeInt(pet.getTypeCode());
+            }
+            for (Pet pet : pets) {
+                out.writeInt(pet.getBreedCode());
+            }
+            writeInts(out, nameOffsets);
+            writeInts(out, imageOffsets);
+            for (int[] offsets : dictionaryOffsets) {
+                writeInts(out, offsets);
+            }
+            for (Pet pet : pets) {
+                writeString(out, pet.getName());
+            }
+            for (Pet pet : pets) {
+                writeString(out, pet.getImagePath());
+            }
+            for (String[] dictionary : new String[][]{types, breeds, genders}) {
+                for (String value : dictionary) {
+                    writeString(out, value);
+                }
+            }
+            out.flush();
+        }
+
+        /** Reserves room for a string in the string section and returns its offset. */
+        private int place(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            int offset = (int) stringEnd;
+            stringEnd += 4L + value.getBytes(StandardCharsets.UTF_8).length;
+            return offset;
+        }
+
+        private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+}
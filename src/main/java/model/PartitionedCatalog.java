@@ -0,0 +1,438 @@
+package model;
+
+import Database.PetIndex;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * The {@code PartitionedCatalog} class splits one pet catalog into partitions by shelter
+ * and, optionally, by pet type, and answers queries by scattering them across the
+ * partitions in parallel and gathering the results.
+ * <p>
+ * Every partition holds its own {@link PetColumns} and {@link PetIndex}, over the pets it
+ * owns, in id order. A ranking query takes the top {@code k} of each partition with a
+ * bounded heap, then merges the per-partition rankings with a k-way heap, so only
+ * {@code k} pets per partition ever leave it. Type filters and searches skip the partitions
+ * of other types when the catalog is partitioned by type. Queries limited to one shelter
+ * touch only that shelter's partitions and run on the calling thread when there is only
+ * one.
+ * <p>
+ * Results refer to the whole catalog: ids are catalog ids, and rankings are
+ * {@link RankedResult}s over the catalog, ordered by descending score and then by
+ * ascending id, exactly as an unpartitioned ranking. The catalog must be in id order, with
+ * the pet at position {@code i} having id {@code i}, as in {@code PetDatabase}. A
+ * partitioned catalog is immutable and may be queried from several threads.
+ */
+public final class PartitionedCatalog {
+
+    private final List<Pet> catalog;
+    private final Partition[] partitions;
+
+    /** Indexes into {@link #partitions} of each shelter's partitions. */
+    private final Map<String, int[]> partitionsByShelter;
+
+    private final ForkJoinPool pool;
+
+    /** Whether each partition holds the pets of a single type. */
+    private final boolean byType;
+
+    private PartitionedCatalog(List<Pet> catalog, Partition[] partitions, boolean byType, ForkJoinPool pool) {
+        this.catalog = catalog;
+        this.partitions = partitions;
+        this.byType = byType;
+        this.pool = pool;
+        Map<String, int[]> byShelter = new LinkedHashMap<>();
+        for (int p = 0; p < partitions.length; p++) {
+            int[] indexes = byShelter.getOrDefault(partitions[p].shelter, new int[0]);
+            indexes = Arrays.copyOf(indexes, indexes.length + 1);
+            indexes[indexes.length - 1] = p;
+            byShelter.put(partitions[p].shelter, indexes);
+        }
+        this.partitionsByShelter = byShelter;
+    }
+
+    /**
+     * Partitions a catalog by shelter, running queries on the common fork/join pool.
+     *
+     * @param catalog   the catalog, in id order
+     * @param shelterOf the shelter of each pet
+     * @param byType    whether to split each shelter's pets further by type
+     * @return the partitioned catalog
+     * @throws NullPointerException if a pet has no shelter
+     */
+    public static PartitionedCatalog of(List<Pet> catalog, Function<Pet, String> shelterOf, boolean byType) {
+        return of(catalog, shelterOf, byType, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Partitions a catalog by shelter, running queries on the given pool.
+     *
+     * @param catalog   the catalog, in id order
+     * @param shelterOf the shelter of each pet
+     * @param byType    whether to split each shelter's pets further by type
+     * @param pool      the pool that queries the partitions
+     * @return the partitioned catalog
+     * @throws NullPointerException if a pet has no shelter
+     */
+    static PartitionedCatalog of(List<Pet> catalog, Function<Pet, String> shelterOf, boolean byType,
+                                 ForkJoinPool pool) {
+        Map<List<String>, int[]> ids = new LinkedHashMap<>();
+        Map<List<String>, Integer> counts = new LinkedHashMap<>();
+        for (int id = 0; id < catalog.size(); id++) {
+            Pet pet = catalog.get(id);
+            List<String> key = Arrays.asList(requireShelter(shelterOf.apply(pet), id), byType ? pet.getType() : null);
+            int count = counts.merge(key, 1, Integer::sum);
+            int[] partitionIds = ids.computeIfAbsent(key, k -> new int[16]);
+            if (count > partitionIds.length) {
+                partitionIds = Arrays.copyOf(partitionIds, partitionIds.length * 2);
+                ids.put(key, partitionIds);
+            }
+            partitionIds[count - 1] = id;
+        }
+
+        // Build the partitions' columns and indexes in parallel too
+        List<Map.Entry<List<String>, int[]>> entries = new ArrayList<>(ids.entrySet());
+        Partition[] partitions = pool.invoke(ForkJoinTask.adapt(() -> entries.parallelStream()
+                .map(entry -> new Partition(entry.getKey().get(0), entry.getKey().get(1), catalog,
+                        Arrays.copyOf(entry.getValue(), counts.get(entry.getKey()))))
+                .toArray(Partition[]::new)));
+        return new PartitionedCatalog(catalog, partitions, byType, pool);
+    }
+
+    /** @return the number of partitions */
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    /** @return the shelters, in order of their first pet */
+    public List<String> shelters() {
+        return List.copyOf(partitionsByShelter.keySet());
+    }
+
+    /**
+     * Ranks the whole catalog for a user.
+     *
+     * @param user       the user profile
+     * @param calculator the scoring algorithm
+     * @param k          the number of pets to keep
+     * @return the {@code k} best pets, best first
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public RankedResult topK(User user, IBatchCompatibilityCalculator calculator, int k) {
+        requireNonNegative(k);
+        return merge(scatter(allPartitions(), partition -> partition.topK(user, calculator, k, null, null)), k);
+    }
+
+    /**
+     * Ranks one shelter's pets for a user, touching only that shelter's partitions.
+     *
+     * @param user       the user profile
+     * @param calculator the scoring algorithm
+     * @param k          the number of pets to keep
+     * @param shelter    the shelter
+     * @return the {@code k} best pets of the shelter, best first; empty for an unknown shelter
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public RankedResult topK(User user, IBatchCompatibilityCalculator calculator, int k, String shelter) {
+        requireNonNegative(k);
+        return merge(scatter(partitionsOf(shelter), partition -> partition.topK(user, calculator, k, null, null)), k);
+    }
+
+    /**
+     * Ranks the pets of a type and, if given, breed for a user, compared case-insensitively.
+     *
+     * @param user       the user profile
+     * @param calculator the scoring algorithm
+     * @param k          the number of pets to keep
+     * @param type       the pet type, e.g. {@code "Dog"}
+     * @param breed      the breed, or {@code null} or empty to match every breed of the type
+     * @return the {@code k} best matching pets, best first
+     * @throws IllegalArgumentException if {@code k} is negative or {@code type} is {@code null}
+     */
+    public RankedResult search(User user, IBatchCompatibilityCalculator calculator, int k, String type, String breed) {
+        requireNonNegative(k);
+        requireType(type);
+        return merge(scatter(partitionsOfType(allPartitions(), type),
+                partition -> partition.topK(user, calculator, k, type, breed)), k);
+    }
+
+    /**
+     * Finds the pets of a type and, if given, breed, compared case-insensitively.
+     *
+     * @param type  the pet type, e.g. {@code "Dog"}
+     * @param breed the breed, or {@code null} or empty to match every breed of the type
+     * @return the matching catalog ids, in increasing order
+     * @throws IllegalArgumentException if {@code type} is {@code null}
+     */
+    public int[] idsOfTypeAndBreed(String type, String breed) {
+        requireType(type);
+        List<int[]> parts = scatter(partitionsOfType(allPartitions(), type),
+                partition -> partition.idsOfTypeAndBreed(type, breed));
+        return mergeIds(parts);
+    }
+
+    /**
+     * Finds one shelter's pets of a type and, if given, breed, touching only that shelter's
+     * partitions.
+     *
+     * @param type    the pet type, e.g. {@code "Dog"}
+     * @param breed   the breed, or {@code null} or empty to match every breed of the type
+     * @param shelter the shelter
+     * @return the matching catalog ids, in increasing order
+     * @throws IllegalArgumentException if {@code type} is {@code null}
+     */
+    public int[] idsOfTypeAndBreed(String type, String breed, String shelter) {
+        requireType(type);
+        List<int[]> parts = scatter(partitionsOfType(partitionsOf(shelter), type),
+                partition -> partition.idsOfTypeAndBreed(type, breed));
+        return mergeIds(parts);
+    }
+
+    private int[] allPartitions() {
+        int[] all = new int[partitions.length];
+        Arrays.setAll(all, p -> p);
+        return all;
+    }
+
+    private int[] partitionsOf(String shelter) {
+        return partitionsByShelter.getOrDefault(shelter, new int[0]);
+    }
+
+    /**
+     * Drops the partitions of other types when partitioned by type, including the partition
+     * of pets without a type, which no type matches.
+     */
+    private int[] partitionsOfType(int[] candidates, String type) {
+        return Arrays.stream(candidates)
+                .filter(p -> !byType || type.equalsIgnoreCase(partitions[p].type))
+                .toArray();
+    }
+
+    /**
+     * Runs a query on each partition, in parallel when there are several.
+     *
+     * @return the partitions' results, in partition order
+     */
+    private <T> List<T> scatter(int[] targets, Function<Partition, T> query) {
+        if (targets.length == 1) {
+            return List.of(query.apply(partitions[targets[0]]));
+        }
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(targets.length);
+        for (int p : targets) {
+            Partition partition = partitions[p];
+            tasks.add(pool.submit(() -> query.apply(partition)));
+        }
+        List<T> results = new ArrayList<>(targets.length);
+        for (ForkJoinTask<T> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    /**
+     * Merges per-partition rankings, each best first, into the overall {@code k} best, with
+     * a heap holding the current head of each ranking.
+     */
+    private RankedResult merge(List<Ranking> rankings, int k) {
+        int[] heap = new int[rankings.size()];
+        int[] cursor = new int[rankings.size()];
+        int heapSize = 0;
+        for (int r = 0; r < rankings.size(); r++) {
+            if (rankings.get(r).size > 0) {
+                heap[heapSize] = r;
+                siftUp(heap, heapSize++, rankings, cursor);
+            }
+        }
+        RankedResult.Builder result = new RankedResult.Builder(catalog);
+        for (int count = 0; count < k && heapSize > 0; count++) {
+            int r = heap[0];
+            Ranking best = rankings.get(r);
+            result.add(best.ids[cursor[r]], best.scores[cursor[r]]);
+            if (++cursor[r] == best.size) {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, rankings, cursor);
+        }
+        return result.build();
+    }
+
+    private static void siftUp(int[] heap, int i, List<Ranking> rankings, int[] cursor) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ahead(heap[i], heap[parent], rankings, cursor)) {
+                return;
+            }
+            int swap = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = swap;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, List<Ranking> rankings, int[] cursor) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int best = left;
+            if (left + 1 < size && ahead(heap[left + 1], heap[left], rankings, cursor)) {
+                best = left + 1;
+            }
+            if (!ahead(heap[best], heap[i], rankings, cursor)) {
+                return;
+            }
+            int swap = heap[i];
+            heap[i] = heap[best];
+            heap[best] = swap;
+            i = best;
+        }
+    }
+
+    /** @return {@code true} if the head of ranking a ranks ahead of the head of ranking b */
+    private static boolean ahead(int a, int b, List<Ranking> rankings, int[] cursor) {
+        Ranking ra = rankings.get(a);
+        Ranking rb = rankings.get(b);
+        return TopKHeap.isBetter(ra.scores[cursor[a]], ra.ids[cursor[a]], rb.scores[cursor[b]], rb.ids[cursor[b]]);
+    }
+
+    /** Merges increasing id lists of disjoint partitions into one increasing list. */
+    private static int[] mergeIds(List<int[]> parts) {
+        int total = 0;
+        for (int[] part : parts) {
+            total += part.length;
+        }
+        int[] merged = new int[total];
+        int offset = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        // The lists are disjoint, so sorting their concatenation merges them
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /** A partition's best pets, best first, by catalog id. */
+    private static final class Ranking {
+        final int[] ids;
+        final double[] scores;
+        final int size;
+
+        Ranking(int[] ids, double[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+    }
+
+    /**
+     * The pets of one shelter, and of one type if partitioned by type, with their own
+     * columns and index. Positions in the partition follow catalog id order.
+     */
+    private static final class Partition {
+        final String shelter;
+
+        /** The partition's type, or {@code null} if not partitioned by type. */
+        final String type;
+
+        /** Catalog id of each position, increasing. */
+        final int[] ids;
+
+        final List<Pet> pets;
+        final PetColumns columns;
+        final PetIndex index;
+
+        Partition(String shelter, String type, List<Pet> catalog, int[] ids) {
+            this.shelter = shelter;
+            this.type = type;
+            this.ids = ids;
+            this.pets = new SubList(catalog, ids);
+            this.columns = PetColumns.of(pets);
+            this.index = PetIndex.ofPositions(pets);
+        }
+
+        /**
+         * Ranks the partition's pets, or only those of a type and breed if a type is given.
+         */
+        Ranking topK(User user, IBatchCompatibilityCalculator calculator, int k, String type, String breed) {
+            int[] positions = type == null ? null : index.idsOfTypeAndBreed(type, breed);
+            TopKHeap heap = new TopKHeap(Math.min(k, positions == null ? ids.length : positions.length));
+            if (positions == null || positions.length == ids.length) {
+                double[] scores = calculator.scoreAll(user, columns);
+                for (int position = 0; position < scores.length; position++) {
+                    heap.offer(position, scores[position]);
+                }
+            } else {
+                for (int position : positions) {
+                    heap.offer(position, calculator.calculate(user, pets.get(position)));
+                }
+            }
+            int[] best = new int[heap.size()];
+            double[] scores = new double[heap.size()];
+            int count = heap.drainSorted(best, scores);
+            for (int r = 0; r < count; r++) {
+                best[r] = ids[best[r]];
+            }
+            return new Ranking(best, scores, count);
+        }
+
+        int[] idsOfTypeAndBreed(String type, String breed) {
+            int[] positions = index.idsOfTypeAndBreed(type, breed);
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = ids[positions[i]];
+            }
+            return positions;
+        }
+    }
+
+    /** Read-only view of the catalog pets at the given ids. */
+    private static final class SubList extends AbstractList<Pet> implements RandomAccess {
+        private final List<Pet> catalog;
+        private final int[] ids;
+
+        SubList(List<Pet> catalog, int[] ids) {
+            this.catalog = catalog;
+            this.ids = ids;
+        }
+
+        @Override
+        public Pet get(int index) {
+            return catalog.get(ids[index]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    private static void requireNonNegative(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+    }
+
+    private static void requireType(String type) {
+        if (type == null) {
+            throw new IllegalArgumentException("type must not be null");
+        }
+    }
+
+    private static String requireShelter(String shelter, int id) {
+        if (shelter == null) {
+            throw new NullPointerException("Pet " + id + " has no shelter");
+        }
+        return shelter;
+    }
+}
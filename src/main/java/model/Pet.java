@@ -8,14 +8,36 @@ import Database.PetDatabase;
  * <p>
  * Each pet is defined by attributes such as species type, breed, gender, MBTI type,
  * energy level, space and care requirements, and compatibility-related metadata.
+ * <p>
+ * Pets stored in {@link PetDatabase} carry a stable, dense integer id that identifies
+ * them across scoring, export and lookups. Two pets with ids are equal exactly when their
+ * ids are; a pet without an id ({@link #NO_ID}) is only equal to itself.
+ * <p>
+ * Type, breed and gender are stored as codes of the catalog-wide {@link #TYPES},
+ * {@link #BREEDS} and {@link #GENDERS} dictionaries, and the MBTI type as its
+ * {@link MbtiCode}, so each distinct string is held once however many pets share it, and
+ * filters can compare the codes directly. The getters decode them for display.
  */
 public class Pet {
 
+    /** Id of a pet that is not registered in a database. */
+    public static final int NO_ID = -1;
+
+    /** Codes of every pet type. */
+    public static final CategoryDictionary TYPES = new CategoryDictionary();
+
+    /** Codes of every breed. */
+    public static final CategoryDictionary BREEDS = new CategoryDictionary();
+
+    /** Codes of every gender. */
+    public static final CategoryDictionary GENDERS = new CategoryDictionary();
+
+    private final int id;                    // dense database id, or NO_ID
     private final String name;
-    private final String type;               // e.g., Dog, Cat, Hamster
-    private final String breed;
-    private final String gender;             // Male or Female
-    private final String mbti;               // 4-letter MBTI string
+    private final int typeCode;              // e.g., Dog, Cat, Hamster; see TYPES
+    private final int breedCode;             // see BREEDS
+    private final int genderCode;            // Male or Female; see GENDERS
+    private final int mbtiCode;              // 4-bit MBTI code, see MbtiCode
     private final int energyLevel;           // Scale: 1–10
     private final double requiredSpace;      // in square feet
     private final double monthlyCost;        // estimated monthly cost in USD
@@ -39,16 +61,65 @@ public class Pet {
      * @param requiresYard      whether the pet needs a yard
      * @param timeNeededPerDay  number of hours of attention/exercise per day
      * @param imagePath         optional path to a photo for GUI display
+     * @throws IllegalArgumentException if {@code mbti} is not a valid MBTI type
      */
     public Pet(String name, String type, String breed, String gender, String mbti,
                int energyLevel, double requiredSpace, double monthlyCost,
                boolean allergenic, boolean requiresYard, double timeNeededPerDay,
                String imagePath) {
+        this(NO_ID, name, type, breed, gender, mbti, energyLevel, requiredSpace, monthlyCost,
+                allergenic, requiresYard, timeNeededPerDay, imagePath);
+    }
+
+    /**
+     * Constructs a {@code Pet} instance registered under the given id.
+     *
+     * @param id                the pet's database id, a non-negative integer
+     * @param name              the pet's name
+     * @param type              the pet's species (e.g., Dog, Cat)
+     * @param breed             the breed of the pet
+     * @param gender            the pet's gender ("Male" or "Female")
+     * @param mbti              the MBTI personality type of the pet
+     * @param energyLevel       the pet's activity level on a scale of 1–10
+     * @param requiredSpace     the minimum space required to care for the pet
+     * @param monthlyCost       estimated monthly cost to maintain the pet
+     * @param allergenic        whether the pet may cause allergic reactions
+     * @param requiresYard      whether the pet needs a yard
+     * @param timeNeededPerDay  number of hours of attention/exercise per day
+     * @param imagePath         optional path to a photo for GUI display
+     * @throws IllegalArgumentException if {@code mbti} is not a valid MBTI type or
+     *                                  {@code id} is negative other than {@link #NO_ID}
+     */
+    public Pet(int id, String name, String type, String breed, String gender, String mbti,
+               int energyLevel, double requiredSpace, double monthlyCost,
+               boolean allergenic, boolean requiresYard, double timeNeededPerDay,
+               String imagePath) {
+        this(id, name, TYPES.encode(type), BREEDS.encode(breed), GENDERS.encode(gender), MbtiCode.encode(mbti),
+                energyLevel, requiredSpace, monthlyCost, allergenic, requiresYard, timeNeededPerDay, imagePath);
+    }
+
+    /**
+     * Constructs a pet from already-encoded attributes.
+     *
+     * @param typeCode   the type's code in {@link #TYPES}
+     * @param breedCode  the breed's code in {@link #BREEDS}
+     * @param genderCode the gender's code in {@link #GENDERS}
+     * @param mbtiCode   the 4-bit {@link MbtiCode} of the MBTI type
+     * @throws IllegalArgumentException if {@code id} is negative other than {@link #NO_ID}
+     */
+    Pet(int id, String name, int typeCode, int breedCode, int genderCode, int mbtiCode,
+        int energyLevel, double requiredSpace, double monthlyCost,
+        boolean allergenic, boolean requiresYard, double timeNeededPerDay,
+        String imagePath) {
+        if (id < NO_ID) {
+            throw new IllegalArgumentException("Invalid pet id: " + id);
+        }
+        this.id = id;
         this.name = name;
-        this.type = type;
-        this.breed = breed;
-        this.gender = gender;
-        this.mbti = mbti;
+        this.typeCode = typeCode;
+        this.breedCode = breedCode;
+        this.genderCode = genderCode;
+        this.mbtiCode = mbtiCode;
         this.energyLevel = energyLevel;
         this.requiredSpace = requiredSpace;
         this.monthlyCost = monthlyCost;
@@ -58,6 +129,16 @@ public class Pet {
         this.imagePath = imagePath;
     }
 
+    /** @return the pet's database id, or {@link #NO_ID} if it has none */
+    public int getId() {
+        return id;
+    }
+
+    /** @return {@code true} if the pet has a database id */
+    public boolean hasId() {
+        return id != NO_ID;
+    }
+
     /** @return the name of the pet */
     public String getName() {
         return name;
@@ -65,22 +146,42 @@ public class Pet {
 
     /** @return the pet type (e.g., Dog, Cat) */
     public String getType() {
-        return type;
+        return TYPES.decode(typeCode);
+    }
+
+    /** @return the pet type's code in {@link #TYPES} */
+    public int getTypeCode() {
+        return typeCode;
     }
 
     /** @return the breed of the pet */
     public String getBreed() {
-        return breed;
+        return BREEDS.decode(breedCode);
+    }
+
+    /** @return the breed's code in {@link #BREEDS} */
+    public int getBreedCode() {
+        return breedCode;
     }
 
     /** @return the pet's gender */
     public String getGender() {
-        return gender;
+        return GENDERS.decode(genderCode);
+    }
+
+    /** @return the gender's code in {@link #GENDERS} */
+    public int getGenderCode() {
+        return genderCode;
     }
 
-    /** @return the MBTI personality type of the pet */
+    /** @return the MBTI personality type of the pet, in upper case */
     public String getMbti() {
-        return mbti;
+        return MbtiCode.decode(mbtiCode);
+    }
+
+    /** @return the pet's MBTI type as a 4-bit {@link MbtiCode} */
+    public int getMbtiCode() {
+        return mbtiCode;
     }
 
     /** @return the pet's energy level from 1 to 10 */
@@ -117,4 +218,22 @@ public class Pet {
     public String getImagePath() {
         return imagePath;
     }
+
+    /**
+     * Compares pets by id. Pets without an id are only equal to themselves.
+     *
+     * @param o the object to compare with
+     * @return {@code true} if {@code o} is the same pet
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return id != NO_ID && o instanceof Pet other && other.id == id;
+    }
+
+    /** @return a hash code consistent with {@link #equals(Object)} */
+    @Override
+    public int hashCode() {
+        return id != NO_ID ? Integer.hashCode(id) : System.identityHashCode(this);
+    }
 }
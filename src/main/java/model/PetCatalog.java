@@ -0,0 +1,98 @@
+package model;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code PetCatalog} class holds a whole pet catalog as columns: one array per
+ * attribute, indexed by pet id.
+ * <p>
+ * It is what {@link PetCatalogLoader} fills while streaming an external catalog file, so
+ * millions of records can be loaded without building an object per record. Scoring can run
+ * directly on {@link #columns()}, which shares the numeric arrays instead of copying them;
+ * {@link Pet} objects are only created when asked for.
+ * <p>
+ * Ids are dense: the pet at position {@code i} has id {@code i}. Types, breeds and genders
+ * are stored as their {@link Pet#TYPES}, {@link Pet#BREEDS} and {@link Pet#GENDERS} codes,
+ * and MBTI types as their {@link MbtiCode}. The arrays are never modified after
+ * construction.
+ */
+public final class PetCatalog {
+
+    private final int size;
+    private final String[] name;
+    private final int[] typeCode;
+    private final int[] breedCode;
+    private final int[] genderCode;
+    private final int[] mbtiCode;
+    private final int[] energyLevel;
+    private final double[] requiredSpace;
+    private final double[] monthlyCost;
+    private final long[] allergenic;
+    private final long[] requiresYard;
+    private final double[] timeNeededPerDay;
+    private final String[] imagePath;
+
+    /**
+     * Wraps filled column arrays. All per-pet arrays must have the same length, and the
+     * bitsets must hold at least that many bits.
+     */
+    PetCatalog(String[] name, int[] typeCode, int[] breedCode, int[] genderCode, int[] mbtiCode,
+               int[] energyLevel, double[] requiredSpace, double[] monthlyCost,
+               long[] allergenic, long[] requiresYard, double[] timeNeededPerDay, String[] imagePath) {
+        this.size = name.length;
+        this.name = name;
+        this.typeCode = typeCode;
+        this.breedCode = breedCode;
+        this.genderCode = genderCode;
+        this.mbtiCode = mbtiCode;
+        this.energyLevel = energyLevel;
+        this.requiredSpace = requiredSpace;
+        this.monthlyCost = monthlyCost;
+        this.allergenic = allergenic;
+        this.requiresYard = requiresYard;
+        this.timeNeededPerDay = timeNeededPerDay;
+        this.imagePath = imagePath;
+    }
+
+    /** @return the number of pets in the catalog */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Creates the pet with the given id.
+     *
+     * @param id the pet's id, from 0 to {@code size() - 1}
+     * @return a new {@code Pet} with that id
+     * @throws IndexOutOfBoundsException if there is no pet with that id
+     */
+    public Pet pet(int id) {
+        return new Pet(id, name[id], typeCode[id], breedCode[id], genderCode[id], mbtiCode[id],
+                energyLevel[id], requiredSpace[id], monthlyCost[id],
+                (allergenic[id >>> 6] & (1L << id)) != 0, (requiresYard[id >>> 6] & (1L << id)) != 0,
+                timeNeededPerDay[id], imagePath[id]);
+    }
+
+    /**
+     * Creates every pet, in id order, in parallel.
+     *
+     * @return an immutable list whose element {@code i} has id {@code i}
+     */
+    public List<Pet> toPets() {
+        Pet[] pets = new Pet[size];
+        IntStream.range(0, size).parallel().forEach(id -> pets[id] = pet(id));
+        return List.of(pets);
+    }
+
+    /**
+     * Returns a columnar scoring view of the catalog. The columns are shared with this
+     * catalog, not copied.
+     *
+     * @return the scoring columns, in id order
+     */
+    public PetColumns columns() {
+        return new PetColumns(requiredSpace, monthlyCost, timeNeededPerDay, energyLevel,
+                allergenic, requiresYard, mbtiCode, genderCode, Pet.GENDERS.values());
+    }
+}
@@ -0,0 +1,630 @@
+package model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The {@code PetCatalogLoader} class loads an external pet catalog file straight into a
+ * columnar {@link PetCatalog}, parsing and validating large files in parallel.
+ * <p>
+ * Two formats are read, both UTF-8:
+ * <ul>
+ *   <li>JSON: an array of objects such as
+ *   <pre>
+ *   [{"name": "Bella", "type": "Dog", "breed": "Beagle", "gender": "Female", "mbti": "ISFJ",
+ *     "energyLevel": 7, "requiredSpace": 50.0, "monthlyCost": 30.0, "allergenic": false,
+ *     "requiresYard": true, "timeNeededPerDay": 2.0, "imagePath": "images/bella.jpg"}]
+ *   </pre>
+ *   read with the Jackson streaming parser; no tree or bound objects are built.</li>
+ *   <li>CSV: a header row naming the same columns, in any order, followed by one record per
+ *   pet, read with the {@link CsvTokenizer}.</li>
+ * </ul>
+ * Keys and column names match ignoring case; {@code imagePath} is optional and unknown
+ * keys are ignored. Pets get ids in file order, from 0.
+ * <p>
+ * The file is read into memory in one bulk read, then a single sequential pass over the
+ * bytes finds record boundaries about every {@value #DEFAULT_CHUNK_BYTES} bytes, tracking
+ * quotes so no boundary falls inside a string. Each chunk is parsed and validated on a
+ * {@link ForkJoinPool} into its own column arrays, and the chunks are concatenated in file
+ * order. Records are numbered from 1 in error messages, not counting the CSV header; when
+ * several records are invalid, the first one in the file is reported. Files of 2 GB or more
+ * are not supported.
+ */
+public final class PetCatalogLoader {
+
+    /** Target size of each parsed chunk, in bytes. */
+    static final int DEFAULT_CHUNK_BYTES = 1 << 22;
+
+    /** Largest file that can be read into one array. */
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE - 8;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /** The attributes of a catalog record, with their JSON keys and CSV column names. */
+    private enum Column {
+        NAME("name"),
+        TYPE("type"),
+        BREED("breed"),
+        GENDER("gender"),
+        MBTI("mbti"),
+        ENERGY_LEVEL("energyLevel"),
+        REQUIRED_SPACE("requiredSpace"),
+        MONTHLY_COST("monthlyCost"),
+        ALLERGENIC("allergenic"),
+        REQUIRES_YARD("requiresYard"),
+        TIME_NEEDED_PER_DAY("timeNeededPerDay"),
+        IMAGE_PATH("imagePath");
+
+        private final String key;
+
+        Column(String key) {
+            this.key = key;
+        }
+    }
+
+    /** Bit mask of the columns every record must have. */
+    private static final int REQUIRED_COLUMNS = ((1 << Column.values().length) - 1) & ~(1 << Column.IMAGE_PATH.ordinal());
+
+    private static final Map<String, Column> COLUMNS_BY_KEY = new HashMap<>();
+
+    static {
+        for (Column column : Column.values()) {
+            COLUMNS_BY_KEY.put(column.key.toLowerCase(Locale.ROOT), column);
+        }
+    }
+
+    /** Parses the bytes from {@code start} to {@code end} into a chunk. */
+    @FunctionalInterface
+    private interface ChunkParser {
+        Chunk parse(int start, int end);
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    /**
+     * Constructs a loader that parses on the common fork/join pool.
+     */
+    public PetCatalogLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Constructs a loader that parses on the given pool.
+     *
+     * @param pool       the pool that parses the chunks
+     * @param chunkBytes the target size of each chunk, in bytes
+     */
+    PetCatalogLoader(ForkJoinPool pool, int chunkBytes) {
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Loads a catalog file, choosing the format by its extension: {@code .json} or
+     * {@code .csv}.
+     *
+     * @param path the catalog file
+     * @return the loaded catalog
+     * @throws IOException              if the file cannot be read or is not well-formed
+     * @throws IllegalArgumentException if the extension is not recognized or a record is invalid
+     */
+    public PetCatalog load(Path path) throws IOException {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".json")) {
+            return loadJson(path);
+        }
+        if (fileName.endsWith(".csv")) {
+            return loadCsv(path);
+        }
+        throw new IllegalArgumentException("Pet catalog must be a .json or .csv file: " + path);
+    }
+
+    /**
+     * Loads a catalog from a JSON array of pet objects.
+     *
+     * @param path the catalog file
+     * @return the loaded catalog
+     * @throws IOException              if the file cannot be read or is not well-formed JSON
+     * @throws IllegalArgumentException if a record is missing a field or has an invalid value
+     */
+    public PetCatalog loadJson(Path path) throws IOException {
+        byte[] bytes = readAll(path);
+        int i = skipWhitespace(bytes, bomLength(bytes));
+        if (i == bytes.length || bytes[i] != '[') {
+            throw new IOException("Pet catalog must be a JSON array of pet objects: " + path);
+        }
+
+        List<int[]> chunks = new ArrayList<>();
+        int chunkStart = i + 1;
+        int nextBoundary = chunkStart + chunkBytes;
+        int depth = 1;
+        boolean inString = false;
+        for (i++; i < bytes.length && depth > 0; i++) {
+            byte b = bytes[i];
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            } else if (b == ',' && depth == 1 && i >= nextBoundary) {
+                chunks.add(new int[]{chunkStart, i});
+                chunkStart = i + 1;
+                nextBoundary = chunkStart + chunkBytes;
+            }
+        }
+        if (depth > 0) {
+            throw new IOException("Pet catalog JSON array is not terminated: " + path);
+        }
+        if (skipWhitespace(bytes, i) != bytes.length) {
+            throw new IOException("Unexpected content after the pet catalog JSON array: " + path);
+        }
+        chunks.add(new int[]{chunkStart, i - 1});
+
+        boolean split = chunks.size() > 1;
+        return parseChunks(path, chunks, (start, end) -> parseJsonChunk(bytes, start, end, split));
+    }
+
+    /**
+     * Loads a catalog from a CSV file with a header row.
+     *
+     * @param path the catalog file
+     * @return the loaded catalog
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a column is missing or a record has an invalid value
+     */
+    public PetCatalog loadCsv(Path path) throws IOException {
+        byte[] bytes = readAll(path);
+
+        // Find record ends the way CsvTokenizer does: a quote only opens a quoted field at
+        // the start of a field, and "" inside a quoted field is an escaped quote.
+        List<int[]> chunks = new ArrayList<>();
+        int chunkStart = bomLength(bytes);
+        int headerEnd = -1;
+        int nextBoundary = 0;
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        for (int i = chunkStart; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (quoted) {
+                if (b == '"') {
+                    if (i + 1 < bytes.length && bytes[i + 1] == '"') {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+                continue;
+            }
+            boolean recordEnd = b == '\n' || b == '\r' && (i + 1 == bytes.length || bytes[i + 1] != '\n');
+            if (recordEnd && (headerEnd < 0 || i + 1 >= nextBoundary)) {
+                if (headerEnd < 0) {
+                    headerEnd = i + 1;
+                } else {
+                    chunks.add(new int[]{chunkStart, i + 1});
+                }
+                chunkStart = i + 1;
+                nextBoundary = chunkStart + chunkBytes;
+            }
+            if (b == '"' && atFieldStart) {
+                quoted = true;
+            }
+            atFieldStart = b == ',' || b == '\n' || b == '\r';
+        }
+        if (headerEnd < 0) {
+            headerEnd = bytes.length;
+            chunkStart = bytes.length;
+        }
+        if (chunkStart < bytes.length) {
+            chunks.add(new int[]{chunkStart, bytes.length});
+        }
+
+        int[] columns = readHeader(path, bytes, bomLength(bytes), headerEnd);
+        return parseChunks(path, chunks, (start, end) -> parseCsvChunk(bytes, start, end, columns));
+    }
+
+    /**
+     * Maps each column to its position in the CSV header.
+     *
+     * @return the field index of each {@link Column}, or -1 if the file does not have it
+     */
+    private static int[] readHeader(Path path, byte[] bytes, int start, int end) throws IOException {
+        int[] columns = new int[Column.values().length];
+        Arrays.fill(columns, -1);
+        try (CsvTokenizer header = tokenizer(bytes, start, end)) {
+            if (!header.next()) {
+                throw new IllegalArgumentException("Pet catalog CSV has no header row: " + path);
+            }
+            for (int i = 0; i < header.fieldCount(); i++) {
+                Column column = COLUMNS_BY_KEY.get(header.fieldString(i).trim().toLowerCase(Locale.ROOT));
+                if (column != null && columns[column.ordinal()] < 0) {
+                    columns[column.ordinal()] = i;
+                }
+            }
+        }
+        for (Column column : Column.values()) {
+            if (columns[column.ordinal()] < 0 && (REQUIRED_COLUMNS & 1 << column.ordinal()) != 0) {
+                throw new IllegalArgumentException("Pet catalog CSV has no " + column.key + " column: " + path);
+            }
+        }
+        return columns;
+    }
+
+    private static Chunk parseCsvChunk(byte[] bytes, int start, int end, int[] columns) {
+        int width = Arrays.stream(columns).max().orElse(0) + 1;
+        int imagePath = columns[Column.IMAGE_PATH.ordinal()];
+        Chunk chunk = new Chunk(end - start);
+        try (CsvTokenizer csv = tokenizer(bytes, start, end)) {
+            while (csv.next()) {
+                if (csv.fieldCount() == 1 && csv.field(0).length() == 0) {
+                    continue;
+                }
+                if (csv.fieldCount() < width) {
+                    throw new IllegalArgumentException("expected " + width + " fields but found " + csv.fieldCount());
+                }
+                chunk.add(csv.fieldString(columns[Column.NAME.ordinal()]),
+                        csv.fieldString(columns[Column.TYPE.ordinal()]),
+                        csv.fieldString(columns[Column.BREED.ordinal()]),
+                        csv.fieldString(columns[Column.GENDER.ordinal()]),
+                        csv.fieldString(columns[Column.MBTI.ordinal()]),
+                        csvInt(csv, columns, Column.ENERGY_LEVEL),
+                        csvDouble(csv, columns, Column.REQUIRED_SPACE),
+                        csvDouble(csv, columns, Column.MONTHLY_COST),
+                        csvBoolean(csv, columns, Column.ALLERGENIC),
+                        csvBoolean(csv, columns, Column.REQUIRES_YARD),
+                        csvDouble(csv, columns, Column.TIME_NEEDED_PER_DAY),
+                        imagePath < 0 ? "" : csv.fieldString(imagePath));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            chunk.failure = e;
+        }
+        return chunk;
+    }
+
+    private static int csvInt(CsvTokenizer csv, int[] columns, Column column) {
+        try {
+            return csv.intField(columns[column.ordinal()]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column.key + " must be an integer: " + csv.field(columns[column.ordinal()]));
+        }
+    }
+
+    private static double csvDouble(CsvTokenizer csv, int[] columns, Column column) {
+        String text = csv.fieldString(columns[column.ordinal()]);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column.key + " must be a number: " + text);
+        }
+    }
+
+    private static boolean csvBoolean(CsvTokenizer csv, int[] columns, Column column) {
+        int index = columns[column.ordinal()];
+        if (csv.fieldEqualsIgnoreCase(index, "true")) {
+            return true;
+        }
+        if (csv.fieldEqualsIgnoreCase(index, "false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(column.key + " must be true or false: " + csv.field(index));
+    }
+
+    /**
+     * Parses the pet objects between {@code start} and {@code end}, which hold a run of
+     * comma-separated array elements, by presenting them to Jackson as an array of their own.
+     * A chunk of a split array must not be empty, or a stray comma would go unnoticed.
+     */
+    private static Chunk parseJsonChunk(byte[] bytes, int start, int end, boolean split) {
+        Chunk chunk = new Chunk(end - start);
+        InputStream elements = new SequenceInputStream(new SequenceInputStream(
+                new ByteArrayInputStream(new byte[]{'['}), new ByteArrayInputStream(bytes, start, end - start)),
+                new ByteArrayInputStream(new byte[]{']'}));
+        try (JsonParser parser = JSON.createParser(elements)) {
+            parser.nextToken();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                readJsonRecord(parser, chunk);
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("expected a pet object but found " + parser.getText());
+            }
+            if (split && chunk.size == 0) {
+                throw new IOException("expected a pet object after ','");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            chunk.failure = e;
+        }
+        return chunk;
+    }
+
+    private static void readJsonRecord(JsonParser parser, Chunk chunk) throws IOException {
+        String name = null;
+        String type = null;
+        String breed = null;
+        String gender = null;
+        String mbti = null;
+        int energyLevel = 0;
+        double requiredSpace = 0;
+        double monthlyCost = 0;
+        boolean allergenic = false;
+        boolean requiresYard = false;
+        double timeNeededPerDay = 0;
+        String imagePath = "";
+        int present = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Column column = COLUMNS_BY_KEY.get(parser.currentName().toLowerCase(Locale.ROOT));
+            parser.nextToken();
+            if (column == null) {
+                parser.skipChildren();
+                continue;
+            }
+            present |= 1 << column.ordinal();
+            switch (column) {
+                case NAME -> name = jsonText(parser, column);
+                case TYPE -> type = jsonText(parser, column);
+                case BREED -> breed = jsonText(parser, column);
+                case GENDER -> gender = jsonText(parser, column);
+                case MBTI -> mbti = jsonText(parser, column);
+                case ENERGY_LEVEL -> energyLevel = jsonInt(parser, column);
+                case REQUIRED_SPACE -> requiredSpace = jsonDouble(parser, column);
+                case MONTHLY_COST -> monthlyCost = jsonDouble(parser, column);
+                case ALLERGENIC -> allergenic = jsonBoolean(parser, column);
+                case REQUIRES_YARD -> requiresYard = jsonBoolean(parser, column);
+                case TIME_NEEDED_PER_DAY -> timeNeededPerDay = jsonDouble(parser, column);
+                case IMAGE_PATH -> imagePath = jsonText(parser, column);
+            }
+        }
+
+        int missing = REQUIRED_COLUMNS & ~present;
+        if (missing != 0) {
+            throw new IllegalArgumentException("missing field " + Column.values()[Integer.numberOfTrailingZeros(missing)].key);
+        }
+        chunk.add(name, type, breed, gender, mbti, energyLevel, requiredSpace, monthlyCost,
+                allergenic, requiresYard, timeNeededPerDay, imagePath);
+    }
+
+    private static String jsonText(JsonParser parser, Column column) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException(column.key + " must be a string: " + parser.getText());
+        }
+        return parser.getText();
+    }
+
+    private static int jsonInt(JsonParser parser, Column column) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw new IllegalArgumentException(column.key + " must be an integer: " + parser.getText());
+        }
+        return parser.getIntValue();
+    }
+
+    private static double jsonDouble(JsonParser parser, Column column) throws IOException {
+        if (!parser.currentToken().isNumeric()) {
+            throw new IllegalArgumentException(column.key + " must be a number: " + parser.getText());
+        }
+        return parser.getDoubleValue();
+    }
+
+    private static boolean jsonBoolean(JsonParser parser, Column column) throws IOException {
+        if (!parser.currentToken().isBoolean()) {
+            throw new IllegalArgumentException(column.key + " must be true or false: " + parser.getText());
+        }
+        return parser.getBooleanValue();
+    }
+
+    /**
+     * Parses every chunk in parallel and concatenates the results in file order.
+     */
+    private PetCatalog parseChunks(Path path, List<int[]> ranges, ChunkParser parser) throws IOException {
+        List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(ranges.size());
+        for (int[] range : ranges) {
+            tasks.add(pool.submit(() -> parser.parse(range[0], range[1])));
+        }
+
+        Chunk[] chunks = new Chunk[tasks.size()];
+        int size = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = tasks.get(c).join();
+            if (chunks[c].failure != null) {
+                throwRecordFailure(path, size + chunks[c].size + 1, chunks[c].failure);
+            }
+            size += chunks[c].size;
+        }
+        return concatenate(chunks, size);
+    }
+
+    private static void throwRecordFailure(Path path, int record, Exception failure) throws IOException {
+        String message = failure instanceof JsonProcessingException json ? json.getOriginalMessage() : failure.getMessage();
+        String where = "pet record " + record + " in " + path + ": " + message;
+        if (failure instanceof IOException) {
+            throw new IOException("Malformed " + where, failure);
+        }
+        throw new IllegalArgumentException("Invalid " + where, failure);
+    }
+
+    private static PetCatalog concatenate(Chunk[] chunks, int size) {
+        String[] name = new String[size];
+        int[] typeCode = new int[size];
+        int[] breedCode = new int[size];
+        int[] genderCode = new int[size];
+        int[] mbtiCode = new int[size];
+        int[] energyLevel = new int[size];
+        double[] requiredSpace = new double[size];
+        double[] monthlyCost = new double[size];
+        long[] allergenic = new long[(size + 63) >>> 6];
+        long[] requiresYard = new long[(size + 63) >>> 6];
+        double[] timeNeededPerDay = new double[size];
+        String[] imagePath = new String[size];
+
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            int n = chunk.size;
+            System.arraycopy(chunk.name, 0, name, offset, n);
+            System.arraycopy(chunk.typeCode, 0, typeCode, offset, n);
+            System.arraycopy(chunk.breedCode, 0, breedCode, offset, n);
+            System.arraycopy(chunk.genderCode, 0, genderCode, offset, n);
+            System.arraycopy(chunk.mbtiCode, 0, mbtiCode, offset, n);
+            System.arraycopy(chunk.energyLevel, 0, energyLevel, offset, n);
+            System.arraycopy(chunk.requiredSpace, 0, requiredSpace, offset, n);
+            System.arraycopy(chunk.monthlyCost, 0, monthlyCost, offset, n);
+            System.arraycopy(chunk.timeNeededPerDay, 0, timeNeededPerDay, offset, n);
+            System.arraycopy(chunk.imagePath, 0, imagePath, offset, n);
+            for (int i = 0; i < n; i++) {
+                int id = offset + i;
+                if ((chunk.flags[i] & Chunk.ALLERGENIC) != 0) {
+                    allergenic[id >>> 6] |= 1L << id;
+                }
+                if ((chunk.flags[i] & Chunk.REQUIRES_YARD) != 0) {
+                    requiresYard[id >>> 6] |= 1L << id;
+                }
+            }
+            offset += n;
+        }
+        return new PetCatalog(name, typeCode, breedCode, genderCode, mbtiCode, energyLevel, requiredSpace,
+                monthlyCost, allergenic, requiresYard, timeNeededPerDay, imagePath);
+    }
+
+    private static CsvTokenizer tokenizer(byte[] bytes, int start, int end) {
+        return new CsvTokenizer(new InputStreamReader(
+                new ByteArrayInputStream(bytes, start, end - start), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] readAll(Path path) throws IOException {
+        if (Files.size(path) > MAX_FILE_BYTES) {
+            throw new IOException("Pet catalogs of 2 GB or more are not supported: " + path);
+        }
+        return Files.readAllBytes(path);
+    }
+
+    private static int bomLength(byte[] bytes) {
+        boolean bom = bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF;
+        return bom ? 3 : 0;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int i) {
+        while (i < bytes.length && (bytes[i] == ' ' || bytes[i] == '\t' || bytes[i] == '\n' || bytes[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * The validated records of one chunk, as growable columns. Parsing stops at the first
+     * invalid record, which is {@code size} records into the chunk.
+     */
+    private static final class Chunk {
+
+        static final byte ALLERGENIC = 1;
+        static final byte REQUIRES_YARD = 2;
+
+        String[] name;
+        int[] typeCode;
+        int[] breedCode;
+        int[] genderCode;
+        int[] mbtiCode;
+        int[] energyLevel;
+        double[] requiredSpace;
+        double[] monthlyCost;
+        byte[] flags;
+        double[] timeNeededPerDay;
+        String[] imagePath;
+        int size;
+
+        /** Why parsing stopped early, or {@code null} if every record was valid. */
+        Exception failure;
+
+        Chunk(int bytes) {
+            int capacity = Math.max(16, bytes / 128);
+            name = new String[capacity];
+            typeCode = new int[capacity];
+            breedCode = new int[capacity];
+            genderCode = new int[capacity];
+            mbtiCode = new int[capacity];
+            energyLevel = new int[capacity];
+            requiredSpace = new double[capacity];
+            monthlyCost = new double[capacity];
+            flags = new byte[capacity];
+            timeNeededPerDay = new double[capacity];
+            imagePath = new String[capacity];
+        }
+
+        void add(String name, String type, String breed, String gender, String mbti,
+                 int energyLevel, double requiredSpace, double monthlyCost,
+                 boolean allergenic, boolean requiresYard, double timeNeededPerDay, String imagePath) {
+            int code = MbtiCode.encode(mbti);
+            if (energyLevel < 1 || energyLevel > 10) {
+                throw new IllegalArgumentException("energyLevel must be from 1 to 10: " + energyLevel);
+            }
+            if (size == this.name.length) {
+                grow();
+            }
+            this.name[size] = requireText(name, Column.NAME);
+            this.typeCode[size] = Pet.TYPES.encode(requireText(type, Column.TYPE));
+            this.breedCode[size] = Pet.BREEDS.encode(requireText(breed, Column.BREED));
+            this.genderCode[size] = Pet.GENDERS.encode(requireText(gender, Column.GENDER));
+            this.mbtiCode[size] = code;
+            this.energyLevel[size] = energyLevel;
+            this.requiredSpace[size] = requireAmount(requiredSpace, Column.REQUIRED_SPACE);
+            this.monthlyCost[size] = requireAmount(monthlyCost, Column.MONTHLY_COST);
+            this.flags[size] = (byte) ((allergenic ? ALLERGENIC : 0) | (requiresYard ? REQUIRES_YARD : 0));
+            this.timeNeededPerDay[size] = requireAmount(timeNeededPerDay, Column.TIME_NEEDED_PER_DAY);
+            this.imagePath[size] = imagePath;
+            size++;
+        }
+
+        private void grow() {
+            int capacity = size * 2;
+            name = Arrays.copyOf(name, capacity);
+            typeCode = Arrays.copyOf(typeCode, capacity);
+            breedCode = Arrays.copyOf(breedCode, capacity);
+            genderCode = Arrays.copyOf(genderCode, capacity);
+            mbtiCode = Arrays.copyOf(mbtiCode, capacity);
+            energyLevel = Arrays.copyOf(energyLevel, capacity);
+            requiredSpace = Arrays.copyOf(requiredSpace, capacity);
+            monthlyCost = Arrays.copyOf(monthlyCost, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            timeNeededPerDay = Arrays.copyOf(timeNeededPerDay, capacity);
+            imagePath = Arrays.copyOf(imagePath, capacity);
+        }
+
+        private static String requireText(String value, Column column) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException(column.key + " must not be blank");
+            }
+            return value;
+        }
+
+        private static double requireAmount(double value, Column column) {
+            if (!(value >= 0.0) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException(column.key + " must be a non-negative number: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package model;
+
+import java.util.List;
+
+/**
+ * The {@code PetColumns} class is a structure-of-arrays view of a pet catalog,
+ * laid out for batch compatibility scoring.
+ * <p>
+ * Every attribute used by the scoring criteria is stored in its own primitive array,
+ * indexed by the pet's position in the source list. Boolean attributes are packed
+ * into {@code long} bitsets, MBTI types are stored as their 4-bit {@link MbtiCode},
+ * and genders as their {@link Pet#GENDERS} codes, so that a calculator only has to
+ * evaluate each distinct value once per user.
+ * <p>
+ * The arrays are package-private so that calculators in this package can walk
+ * them directly in tight loops; they must never be modified after construction.
+ * <p>
+ * A list that keeps its pets in columns of its own, such as a view of an
+ * {@link OffHeapPetCatalog}, implements {@link Source}, and {@link #of} then takes the
+ * columns from it instead of creating and reading every pet.
+ */
+public final class PetColumns {
+
+    /**
+     * Implemented by pet lists that can lay out their scoring columns without creating
+     * their pets.
+     */
+    public interface Source {
+
+        /**
+         * @return the columns of this list's pets, in list order, or {@code null} if they
+         *         have to be read from the pets
+         */
+        PetColumns columns();
+    }
+
+    /** Number of pets in this view. */
+    private final int size;
+
+    /** Space required by each pet, in square feet. */
+    final double[] requiredSpace;
+
+    /** Estimated monthly cost of each pet, in USD. */
+    final double[] monthlyCost;
+
+    /** Time required by each pet, in hours per day. */
+    final double[] timeNeededPerDay;
+
+    /** Energy level of each pet (1–10). */
+    final int[] energyLevel;
+
+    /** Bitset of allergenic pets: bit {@code i % 64} of word {@code i / 64}. */
+    final long[] allergenic;
+
+    /** Bitset of pets that require a yard. */
+    final long[] requiresYard;
+
+    /** 4-bit {@link MbtiCode} of each pet. */
+    final int[] mbtiCode;
+
+    /** Index of each pet's gender string in {@link #genderDictionary}. */
+    final int[] genderCode;
+
+    /** Gender string of each code; may include genders no pet in this view has. */
+    final String[] genderDictionary;
+
+    /**
+     * Builds the column arrays from the given pets, preserving their order.
+     *
+     * @param pets the pets to lay out
+     */
+    private PetColumns(List<Pet> pets) {
+        this.size = pets.size();
+        this.requiredSpace = new double[size];
+        this.monthlyCost = new double[size];
+        this.timeNeededPerDay = new double[size];
+        this.energyLevel = new int[size];
+        this.allergenic = new long[(size + 63) >>> 6];
+        this.requiresYard = new long[(size + 63) >>> 6];
+        this.mbtiCode = new int[size];
+        this.genderCode = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            Pet pet = pets.get(i);
+            requiredSpace[i] = pet.getRequiredSpace();
+            monthlyCost[i] = pet.getMonthlyCost();
+            timeNeededPerDay[i] = pet.getTimeNeededPerDay();
+            energyLevel[i] = pet.getEnergyLevel();
+            if (pet.isAllergenic()) {
+                allergenic[i >>> 6] |= 1L << i;
+            }
+            if (pet.requiresYard()) {
+                requiresYard[i >>> 6] |= 1L << i;
+            }
+            mbtiCode[i] = pet.getMbtiCode();
+            genderCode[i] = pet.getGenderCode();
+        }
+
+        // Read after the loop, so that every pet's gender code is covered
+        this.genderDictionary = Pet.GENDERS.values();
+    }
+
+    /**
+     * Wraps already-encoded column arrays. All per-pet arrays must have the same length,
+     * and the bitsets must hold at least that many bits.
+     *
+     * @param requiredSpace    space required by each pet
+     * @param monthlyCost      monthly cost of each pet
+     * @param timeNeededPerDay daily time required by each pet
+     * @param energyLevel      energy level of each pet
+     * @param allergenic       bitset of allergenic pets
+     * @param requiresYard     bitset of pets that require a yard
+     * @param mbtiCode         4-bit MBTI code of each pet
+     * @param genderCode       gender dictionary code of each pet
+     * @param genderDictionary distinct gender strings
+     */
+    PetColumns(double[] requiredSpace, double[] monthlyCost, double[] timeNeededPerDay,
+               int[] energyLevel, long[] allergenic, long[] requiresYard,
+               int[] mbtiCode, int[] genderCode, String[] genderDictionary) {
+        this.size = requiredSpace.length;
+        this.requiredSpace = requiredSpace;
+        this.monthlyCost = monthlyCost;
+        this.timeNeededPerDay = timeNeededPerDay;
+        this.energyLevel = energyLevel;
+        this.allergenic = allergenic;
+        this.requiresYard = requiresYard;
+        this.mbtiCode = mbtiCode;
+        this.genderCode = genderCode;
+        this.genderDictionary = genderDictionary;
+    }
+
+    /**
+     * Creates a columnar view of the given pets. Position {@code i} in every column
+     * corresponds to {@code pets.get(i)}. The columns of a {@link Source} are taken from
+     * it; they may be shared with other callers.
+     *
+     * @param pets the pets to lay out
+     * @return the columnar view
+     */
+    public static PetColumns of(List<Pet> pets) {
+        if (pets instanceof Source source) {
+            PetColumns columns = source.columns();
+            if (columns != null) {
+                return columns;
+            }
+        }
+        return new PetColumns(pets);
+    }
+
+    /**
+     * Gathers the columns of some of the pets, in the given order.
+     *
+     * @param positions the position of each selected pet in this view
+     * @return a view whose position {@code i} is position {@code positions[i]} of this one
+     * @throws IndexOutOfBoundsException if a position is out of range
+     */
+    public PetColumns select(int[] positions) {
+        int count = positions.length;
+        double[] space = new double[count];
+        double[] cost = new double[count];
+        double[] time = new double[count];
+        int[] energy = new int[count];
+        long[] selectedAllergenic = new long[(count + 63) >>> 6];
+        long[] selectedRequiresYard = new long[(count + 63) >>> 6];
+        int[] mbti = new int[count];
+        int[] gender = new int[count];
+        for (int i = 0; i < count; i++) {
+            int p = positions[i];
+            if (p < 0 || p >= size) {
+                throw new IndexOutOfBoundsException("Position " + p + " out of bounds for size " + size);
+            }
+            space[i] = requiredSpace[p];
+            cost[i] = monthlyCost[p];
+            time[i] = timeNeededPerDay[p];
+            energy[i] = energyLevel[p];
+            if (isAllergenic(p)) {
+                selectedAllergenic[i >>> 6] |= 1L << i;
+            }
+            if (requiresYard(p)) {
+                selectedRequiresYard[i >>> 6] |= 1L << i;
+            }
+            mbti[i] = mbtiCode[p];
+            gender[i] = genderCode[p];
+        }
+        return new PetColumns(space, cost, time, energy, selectedAllergenic, selectedRequiresYard,
+                mbti, gender, genderDictionary);
+    }
+
+    /** @return the number of pets in this view */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i the pet position
+     * @return {@code true} if the pet at position {@code i} is allergenic
+     */
+    public boolean isAllergenic(int i) {
+        return (allergenic[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * @param i the pet position
+     * @return {@code true} if the pet at position {@code i} requires a yard
+     */
+    public boolean requiresYard(int i) {
+        return (requiresYard[i >>> 6] & (1L << i)) != 0;
+    }
+}
@@ -1,8 +1,6 @@
 package model;
 
 import Database.PetDatabase;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,12 +15,21 @@ import java.util.List;
  * <p>
  * It is assumed that the CSV contains rows in the format:
  * {@code Name, Breed, Type, CompatibilityScore (%), ImagePath}
+ * <p>
+ * A filter constructed with a user and calculator instead scores the given pets in memory
+ * with a {@link MatchQuery}, skipping pets whose score bound cannot exceed 80%.
  */
 public class PetFilter implements IPetFilter {
 
     /** The path to the CSV file containing compatibility scores. */
     private final String csvPath;
 
+    /** The user to score pets for, when filtering in memory. */
+    private final User user;
+
+    /** The calculator used to score pets, when filtering in memory. */
+    private final IBatchCompatibilityCalculator calculator;
+
     /**
      * Constructs a {@code PetFilter} using the given path to a CSV file.
      *
@@ -30,6 +37,20 @@ public class PetFilter implements IPetFilter {
      */
     public PetFilter(String csvPath) {
         this.csvPath = csvPath;
+        this.user = null;
+        this.calculator = null;
+    }
+
+    /**
+     * Constructs a {@code PetFilter} that scores pets in memory instead of reading a CSV.
+     *
+     * @param user       the user to score pets for
+     * @param calculator the calculator used to score pets
+     */
+    public PetFilter(User user, IBatchCompatibilityCalculator calculator) {
+        this.csvPath = null;
+        this.user = user;
+        this.calculator = calculator;
     }
 
     /**
@@ -44,33 +65,28 @@ public class PetFilter implements IPetFilter {
         if (pets == null) {
             return new ArrayList<>();
         }
+        if (calculator != null) {
+            return filterInMemory(pets);
+        }
 
-        List<PetWithScore> filteredPets = new ArrayList<>();
+        List<Pet> result = new ArrayList<>();
+        PetKeyIndex index = PetKeyIndex.of(pets);
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvPath))) {
+        try (CsvTokenizer row = CsvTokenizer.open(csvPath)) {
             // Skip header
-            String line = reader.readLine();
-
-            // Process each line of the CSV
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length < 5) continue; // Skip malformed rows
+            row.next();
 
-                String name = parts[0];
-                String breed = parts[1];
-                String type = parts[2];
-                String scoreStr = parts[3].replace("%", "");  // Remove percent sign
-                String imagePath = parts[4];
+            // Process each row of the CSV
+            while (row.next()) {
+                if (row.fieldCount() < 5) continue; // Skip malformed rows
 
                 // Parse score and normalize
-                double score = Double.parseDouble(scoreStr) / 100.0;
+                double score = row.percentField(3);
 
                 if (score > 0.80) {
-                    for (Pet pet : pets) {
-                        if (pet.getName().equals(name) && pet.getBreed().equals(breed)) {
-                            filteredPets.add(new PetWithScore(pet, score));
-                            break;
-                        }
+                    int position = index.positionOfRow(row);
+                    if (position >= 0) {
+                        result.add(pets.get(position));
                     }
                 }
             }
@@ -79,11 +95,22 @@ public class PetFilter implements IPetFilter {
         }
 
         // Return the matched pets only
-        List<Pet> result = new ArrayList<>();
-        for (PetWithScore petWithScore : filteredPets) {
-            result.add(petWithScore.getPet());
-        }
+        return result;
+    }
 
+    /**
+     * Returns the pets scoring above 80%, best first, without scoring pets whose
+     * upper bound rules them out.
+     *
+     * @param pets the list of all pets to be filtered
+     * @return a list of pets whose compatibility score exceeds 80%
+     */
+    private List<Pet> filterInMemory(List<Pet> pets) {
+        MatchQueryResult matches = new MatchQuery(calculator).aboveThreshold(user, PetColumns.of(pets), 0.80);
+        List<Pet> result = new ArrayList<>(matches.size());
+        for (int rank = 0; rank < matches.size(); rank++) {
+            result.add(pets.get(matches.position(rank)));
+        }
         return result;
     }
 }
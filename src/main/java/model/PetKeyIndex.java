@@ -0,0 +1,214 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code PetKeyIndex} class maps each pet's id, and its (name, breed) key, to its
+ * position in a catalog, so that rows of a compatibility CSV can be joined back to
+ * {@link Pet} objects in constant time instead of scanning the catalog for every row.
+ * <p>
+ * Ids are normally dense, so the id index is a plain array; a catalog whose ids are
+ * spread far beyond its size is indexed by a hash map instead. Names and breeds are
+ * compared exactly, and a {@code null} name or breed only matches {@code null}. If several
+ * pets share a (name, breed) key, the first one in the catalog wins, as with a linear
+ * scan. The index reflects the catalog at the time it was built.
+ * <p>
+ * {@link #withPets} indexes pets appended to the catalog. The index it returns shares its
+ * tables with this one, which ignores every entry beyond its own size, so extending the
+ * most recent index costs time in proportion to the new pets only; extending an older
+ * index builds new tables.
+ */
+public final class PetKeyIndex {
+
+    /** Index of the Id column in a compatibility CSV row, when present. */
+    static final int ID_COLUMN = 5;
+
+    /** A pet's name and breed, either of which may be {@code null}. */
+    private record NameAndBreed(String name, String breed) {}
+
+    /** The lookup tables, possibly covering more pets than this index. */
+    private final Tables tables;
+
+    /** Number of pets covered by this index; entries at later positions are ignored. */
+    private final int size;
+
+    private PetKeyIndex(Tables tables, int size) {
+        this.tables = tables;
+        this.size = size;
+    }
+
+    /**
+     * Indexes the given catalog by id and by (name, breed).
+     *
+     * @param pets the catalog to index
+     * @return the index
+     */
+    public static PetKeyIndex of(List<Pet> pets) {
+        Tables tables = new Tables(pets.size());
+        synchronized (tables) {
+            tables.add(pets, 0);
+        }
+        return new PetKeyIndex(tables, pets.size());
+    }
+
+    /**
+     * Returns an index of a catalog that extends the one this index covers, indexing only
+     * the appended pets. This index is left unchanged.
+     *
+     * @param pets this index's catalog followed by the new pets
+     * @return the index of the whole catalog
+     * @throws IllegalArgumentException if {@code pets} is smaller than this index's catalog
+     */
+    public PetKeyIndex withPets(List<Pet> pets) {
+        if (pets.size() < size) {
+            throw new IllegalArgumentException("Catalog has " + pets.size() + " pets but " + size + " are already indexed");
+        }
+        synchronized (tables) {
+            if (tables.extent == size) {
+                tables.add(pets, size);
+                return new PetKeyIndex(tables, pets.size());
+            }
+        }
+        // This index was already extended; its tables hold pets that are not in this catalog
+        return of(pets);
+    }
+
+    /**
+     * Looks up a pet by name and breed, compared exactly.
+     *
+     * @param name  the pet's name
+     * @param breed the pet's breed
+     * @return the pet's catalog position, or {@code -1} if no pet has that key
+     */
+    public int positionOf(String name, String breed) {
+        Integer position = tables.positions.get(new NameAndBreed(name, breed));
+        return position != null && position < size ? position : -1;
+    }
+
+    /**
+     * Looks up a pet by id.
+     *
+     * @param id the pet's id
+     * @return the pet's catalog position, or {@code -1} if no pet has that id
+     */
+    public int positionOf(int id) {
+        if (id < 0) {
+            return -1;
+        }
+        int[] byId = tables.positionById;
+        int position;
+        if (byId == null) {
+            Integer sparse = tables.positionBySparseId.get(id);
+            position = sparse == null ? -1 : sparse;
+        } else {
+            position = id < byId.length ? byId[id] : -1;
+        }
+        return position < size ? position : -1;
+    }
+
+    /**
+     * Joins a compatibility CSV row to the catalog: by its Id column if the row has one,
+     * otherwise by its name and breed.
+     *
+     * @param parts the row's fields: name, breed, type, score, image path and optional id
+     * @return the pet's catalog position, or {@code -1} if the row matches no pet
+     */
+    public int positionOfRow(String[] parts) {
+        if (parts.length > ID_COLUMN) {
+            try {
+                return positionOf(Integer.parseInt(parts[ID_COLUMN].trim()));
+            } catch (NumberFormatException e) {
+                // Not an id; fall back to the name and breed
+            }
+        }
+        return positionOf(parts[0], parts[1]);
+    }
+
+    /**
+     * Joins the current record of a compatibility CSV to the catalog, as
+     * {@link #positionOfRow(String[])} does. Rows joined by id are looked up without
+     * creating any strings.
+     *
+     * @param row a tokenizer positioned on a row with at least a name and a breed
+     * @return the pet's catalog position, or {@code -1} if the row matches no pet
+     */
+    public int positionOfRow(CsvTokenizer row) {
+        if (row.fieldCount() > ID_COLUMN) {
+            try {
+                return positionOf(row.intField(ID_COLUMN));
+            } catch (NumberFormatException e) {
+                // Not an id; fall back to the name and breed
+            }
+        }
+        return positionOf(row.fieldString(0), row.fieldString(1));
+    }
+
+    /**
+     * Lookup tables shared by an index and the indexes extended from it. Entries are only
+     * ever added, at positions beyond every index already handed out, so those indexes keep
+     * reading them while the tables grow; the maps are concurrent and a grown id array is
+     * published only once filled.
+     */
+    private static final class Tables {
+        final Map<NameAndBreed, Integer> positions;
+
+        /** Position of each pet id, or {@code -1}; {@code null} once ids are sparse. */
+        volatile int[] positionById = new int[0];
+
+        /** Position of each pet id, once ids are sparse. */
+        final Map<Integer, Integer> positionBySparseId = new ConcurrentHashMap<>();
+
+        /** Number of catalog pets added, guarded by this object's lock. */
+        int extent;
+
+        Tables(int expectedSize) {
+            this.positions = new ConcurrentHashMap<>(expectedSize);
+        }
+
+        /** Adds the pets from position {@code from} on; the caller holds this object's lock. */
+        void add(List<Pet> pets, int from) {
+            int maxId = Pet.NO_ID;
+            for (int i = from; i < pets.size(); i++) {
+                Pet pet = pets.get(i);
+                positions.putIfAbsent(new NameAndBreed(pet.getName(), pet.getBreed()), i);
+                maxId = Math.max(maxId, pet.getId());
+            }
+
+            int[] byId = positionById;
+            if (byId != null && maxId >= 2L * pets.size() + 16) {
+                // Ids are spread too far for an array; move the indexed ones into the map first
+                for (int id = 0; id < byId.length; id++) {
+                    if (byId[id] >= 0) {
+                        positionBySparseId.put(id, byId[id]);
+                    }
+                }
+                positionById = byId = null;
+            }
+            if (byId == null) {
+                for (int i = from; i < pets.size(); i++) {
+                    int id = pets.get(i).getId();
+                    if (id != Pet.NO_ID) {
+                        positionBySparseId.putIfAbsent(id, i);
+                    }
+                }
+            } else {
+                int[] grown = byId;
+                if (maxId >= byId.length) {
+                    grown = Arrays.copyOf(byId, Math.max(maxId + 1, 2 * byId.length));
+                    Arrays.fill(grown, byId.length, grown.length, -1);
+                }
+                for (int i = from; i < pets.size(); i++) {
+                    int id = pets.get(i).getId();
+                    if (id != Pet.NO_ID && grown[id] < 0) {
+                        grown[id] = i;
+                    }
+                }
+                positionById = grown;
+            }
+            extent = pets.size();
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package model;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * The {@code PetMatcher} class implements the {@link IPetMatcher} interface
@@ -13,6 +12,9 @@ import java.util.List;
  * <p>The best match is determined by reading the sorted compatibility results
  * and selecting the top pet whose score is at least 80%. If no such pet is found,
  * the method returns {@code null}.
+ *
+ * <p>{@link #findBestMatch} answers the same question directly from the catalog with a
+ * {@link MatchQuery}, which skips pets whose score bound cannot beat the best so far.
  */
 public class PetMatcher implements IPetMatcher {
 
@@ -38,29 +40,24 @@ public class PetMatcher implements IPetMatcher {
      */
     @Override
     public Pet sortAndEvaluateBestMatch(User user, String csvFilePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvFilePath))) {
+        try (CsvTokenizer row = CsvTokenizer.open(csvFilePath)) {
             // Skip header
-            reader.readLine();
+            row.next();
 
             // Read top result
-            String line = reader.readLine();
-            if (line == null) return null;
+            if (!row.next()) return null;
 
-            String[] parts = line.split(",");
-            if (parts.length < 5) {
+            if (row.fieldCount() < 5) {
                 System.err.println("Invalid CSV format");
                 return null;
             }
 
-            String name = parts[0];
-            String breed = parts[1];
-            double score = Double.parseDouble(parts[3].replace("%", "")) / 100.0;
+            double score = row.percentField(3);
 
-            // Match against pet database
-            for (Pet pet : petDatabase) {
-                if (pet.getName().equals(name) && pet.getBreed().equals(breed)) {
-                    return score >= 0.80 ? pet : null;
-                }
+            // Match against pet database, by id when the CSV carries one
+            int position = positionOfRow(row);
+            if (position >= 0) {
+                return score >= 0.80 ? petDatabase.get(position) : null;
             }
 
         } catch (IOException e) {
@@ -69,4 +66,50 @@ public class PetMatcher implements IPetMatcher {
 
         return null;
     }
+
+    /**
+     * Finds the best match for the user by querying the pet database in memory instead of
+     * reading a CSV. Only pets whose score bound can beat the best pet found so far are
+     * fully scored. Among equally scored pets, the one listed first in the database wins.
+     *
+     * @param user       the user seeking a compatible pet
+     * @param calculator the calculator used to score pets
+     * @return the best pet if its score is at least 80%, or {@code null} otherwise
+     */
+    public Pet findBestMatch(User user, IBatchCompatibilityCalculator calculator) {
+        MatchQueryResult result = new MatchQuery(calculator).topK(user, PetColumns.of(petDatabase), 1);
+        if (result.size() == 0 || result.score(0) < 0.80) {
+            return null;
+        }
+        return petDatabase.get(result.position(0));
+    }
+
+    /**
+     * Joins a single CSV row to the database as {@link PetKeyIndex#positionOfRow(CsvTokenizer)}
+     * does, by scanning: one lookup does not repay building an index.
+     */
+    private int positionOfRow(CsvTokenizer row) {
+        if (row.fieldCount() > PetKeyIndex.ID_COLUMN) {
+            try {
+                int id = row.intField(PetKeyIndex.ID_COLUMN);
+                for (int i = 0; id != Pet.NO_ID && i < petDatabase.size(); i++) {
+                    if (petDatabase.get(i).getId() == id) {
+                        return i;
+                    }
+                }
+                return -1;
+            } catch (NumberFormatException e) {
+                // Not an id; fall back to the name and breed
+            }
+        }
+        String name = row.fieldString(0);
+        String breed = row.fieldString(1);
+        for (int i = 0; i < petDatabase.size(); i++) {
+            Pet pet = petDatabase.get(i);
+            if (Objects.equals(pet.getName(), name) && Objects.equals(pet.getBreed(), breed)) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
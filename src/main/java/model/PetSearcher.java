@@ -1,16 +1,14 @@
 package model;
 
 import controller.ConsoleController;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * PetSearcher is responsible for searching pets by type and optional breed
- * from the sorted compatibility CSV file written by PetSorter.
- * This class reads the CSV, filters pets by user input, and passes results to ConsoleController.
+ * from the sorted compatibility CSV file written by PetSorter, or directly from
+ * a {@link ScoredSession}.
+ * This class filters pets by user input and passes results to ConsoleController.
  */
 public class PetSearcher implements IPetSearcher {
 
@@ -47,46 +45,37 @@ public class PetSearcher implements IPetSearcher {
      */
     @Override
     public void searchAndDisplay(String petType, String petBreed, String csvPath) {
-        List<PetWithScore> matchingPets = new ArrayList<>();
+        RankedResult.Builder matchingPets = new RankedResult.Builder(petDatabase);
+        PetKeyIndex index = PetKeyIndex.of(petDatabase);
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvPath))) {
+        try (CsvTokenizer row = CsvTokenizer.open(csvPath)) {
             // Skip header line
-            String header = reader.readLine();
+            row.next();
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length < 5) continue; // Skip invalid rows
-
-                String name = parts[0];
-                String breed = parts[1];
-                String type = parts[2];
-                String scoreStr = parts[3].replace("%", ""); // Remove % sign
-                String imagePath = parts[4];
+            while (row.next()) {
+                if (row.fieldCount() < 5) continue; // Skip invalid rows
 
                 // Case-insensitive comparison for type
-                if (!type.equalsIgnoreCase(petType)) {
+                if (!row.fieldEqualsIgnoreCase(2, petType)) {
                     continue;
                 }
 
                 // Check breed if provided
-                if (petBreed != null && !petBreed.isEmpty() && !breed.equalsIgnoreCase(petBreed)) {
+                if (petBreed != null && !petBreed.isEmpty() && !row.fieldEqualsIgnoreCase(1, petBreed)) {
                     continue;
                 }
 
                 try {
                     // Parse score
-                    double score = Double.parseDouble(scoreStr) / 100.0; // Convert to decimal
+                    double score = row.percentField(3); // Convert to decimal
 
                     // Find the corresponding Pet object from the database
-                    for (Pet pet : petDatabase) {
-                        if (pet.getName().equals(name) && pet.getBreed().equals(breed)) {
-                            matchingPets.add(new PetWithScore(pet, score));
-                            break;
-                        }
+                    int position = index.positionOfRow(row);
+                    if (position >= 0) {
+                        matchingPets.add(position, score);
                     }
                 } catch (NumberFormatException e) {
-                    System.err.println("Invalid score format: " + scoreStr);
+                    System.err.println("Invalid score format: " + row.field(3));
                     // Continue processing other entries
                 }
             }
@@ -94,7 +83,19 @@ public class PetSearcher implements IPetSearcher {
             System.err.println("Error reading CSV file: " + e.getMessage());
         }
 
-        // Display search results
-        consoleController.displaySearchResult(matchingPets);
+        // Display search results; PetWithScore objects are only created as they are shown
+        consoleController.displaySearchResult(matchingPets.build().asList());
+    }
+
+    /**
+     * Searches the session's in-memory ranking by type and optional breed and sends
+     * the results to the console.
+     *
+     * @param petType  the type of pet to search for (e.g., Dog, Cat)
+     * @param petBreed optional breed (can be empty to match all breeds of that type)
+     * @param session  the scored session for the current user
+     */
+    public void searchAndDisplay(String petType, String petBreed, ScoredSession session) {
+        consoleController.displaySearchResult(session.search(petType, petBreed).asList());
     }
-}
\ No newline at end of file
+}
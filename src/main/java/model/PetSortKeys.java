@@ -0,0 +1,258 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The {@code PetSortKeys} class ranks a scored catalog by the {@link PetSorter} ordering
+ * without boxing scores or re-evaluating tie-breakers on every comparison.
+ * <p>
+ * Each pet's eight ordering levels are encoded once into two unsigned {@code long} keys:
+ * the first holds the score, mapped so that higher scores sort first; the second packs
+ * the tie-breakers from most to least significant:
+ * <pre>
+ *   gender priority (2) | MBTI mismatches (3) | space ratio (17) | energy difference (5)
+ *   | time ratio (17) | budget ratio (17) | yard mismatch (1)
+ * </pre>
+ * Ratios are quantized to 17 bits and the energy difference is capped at 31, so two pets
+ * with different exact values may share a key. The keys are therefore sorted with a
+ * stable LSD radix sort and the result is checked against the exact comparison in one
+ * linear pass; only if that check fails does the ranking fall back to a comparison sort.
+ * Either way the order is exactly that of the comparator chain, with equal pets kept in
+ * catalog order.
+ */
+final class PetSortKeys {
+
+    /** Largest quantized ratio. */
+    private static final int RATIO_MAX = (1 << 17) - 1;
+
+    /** Largest encoded energy difference. */
+    private static final int ENERGY_MAX = (1 << 5) - 1;
+
+    private final User user;
+    private final PetColumns pets;
+    private final double[] scores;
+
+    /** Gender priority of each gender dictionary code: -1 match, 0 "Any", 1 mismatch. */
+    private final int[] genderPriority;
+
+    /**
+     * Prepares the keys for a scored catalog.
+     *
+     * @param user   the user the pets were scored for
+     * @param pets   the columnar pet catalog
+     * @param scores the score of each pet, indexed by position
+     */
+    PetSortKeys(User user, PetColumns pets, double[] scores) {
+        this.user = user;
+        this.pets = pets;
+        this.scores = scores;
+        this.genderPriority = new int[pets.genderDictionary.length];
+        String pref = user.getPreferredPetGender();
+        for (int g = 0; g < genderPriority.length; g++) {
+            if (!pref.equalsIgnoreCase("Any")) {
+                genderPriority[g] = pref.equalsIgnoreCase(pets.genderDictionary[g]) ? -1 : 1;
+            }
+        }
+    }
+
+    /**
+     * Ranks the catalog.
+     *
+     * @return pet positions, best first
+     */
+    int[] sort() {
+        int size = pets.size();
+        long[] primary = new long[size];
+        long[] secondary = new long[size];
+        for (int i = 0; i < size; i++) {
+            primary[i] = scoreKey(scores[i]);
+            secondary[i] = tieBreakKey(i);
+        }
+
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        // LSD: sort by the least significant key first; both passes are stable
+        int[] scratch = new int[size];
+        radixSort(secondary, order, scratch);
+        radixSort(primary, order, scratch);
+
+        if (!isSorted(order)) {
+            order = comparisonSort(size);
+        }
+        return order;
+    }
+
+    /**
+     * Maps a score to an unsigned key that sorts higher scores first, in the same order
+     * as {@link Double#compare} reversed.
+     */
+    static long scoreKey(double score) {
+        long bits = Double.doubleToLongBits(score);
+        // Flip negatives entirely and positives' sign bit: unsigned ascending order
+        long ascending = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        return ~ascending;
+    }
+
+    /**
+     * Packs the seven tie-breakers of pet {@code i}, most significant first.
+     */
+    private long tieBreakKey(int i) {
+        long key = genderPriority[pets.genderCode[i]] + 1;
+        key = (key << 3) | (4 - MbtiCode.matchCount(user.getMbtiCode(), pets.mbtiCode[i]));
+        key = (key << 17) | ratioKey(user.getSpace(), pets.requiredSpace[i]);
+        key = (key << 5) | Math.max(0, Math.min(ENERGY_MAX, energyDiff(i)));
+        key = (key << 17) | ratioKey(user.getTimePerDay(), pets.timeNeededPerDay[i]);
+        key = (key << 17) | ratioKey(user.getBudget(), pets.monthlyCost[i]);
+        key = (key << 1) | (yardMatch(i) < 0 ? 0 : 1);
+        return key;
+    }
+
+    /**
+     * Quantizes a "higher is better" ratio so that higher ratios get smaller keys.
+     */
+    private static long ratioKey(double available, double required) {
+        double ratio = ratio(available, required);
+        long quantized = (long) (ratio * RATIO_MAX);
+        return RATIO_MAX - Math.max(0, Math.min(RATIO_MAX, quantized));
+    }
+
+    /**
+     * Sorts {@code order} by the unsigned byte digits of {@code keys[order[i]]}, skipping
+     * digits that are the same for every pet.
+     *
+     * @param keys    the key of each pet, indexed by position
+     * @param order   the permutation to sort, in place
+     * @param scratch a buffer at least as long as {@code order}
+     */
+    static void radixSort(long[] keys, int[] order, int[] scratch) {
+        int size = order.length;
+        if (size < 2) {
+            return;
+        }
+        int[][] counts = new int[Long.BYTES][256];
+        for (long key : keys) {
+            for (int d = 0; d < Long.BYTES; d++) {
+                counts[d][(int) (key >>> (d << 3)) & 0xFF]++;
+            }
+        }
+
+        int[] from = order;
+        int[] to = scratch;
+        for (int d = 0; d < Long.BYTES; d++) {
+            int[] count = counts[d];
+            int shift = d << 3;
+            if (count[(int) (keys[from[0]] >>> shift) & 0xFF] == size) {
+                continue; // every pet has the same digit
+            }
+            int offset = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = count[b];
+                count[b] = offset;
+                offset += c;
+            }
+            for (int i = 0; i < size; i++) {
+                int pet = from[i];
+                to[count[(int) (keys[pet] >>> shift) & 0xFF]++] = pet;
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != order) {
+            System.arraycopy(from, 0, order, 0, size);
+        }
+    }
+
+    /**
+     * @return {@code true} if every adjacent pair is in comparator order, with ties in
+     *         catalog order
+     */
+    private boolean isSorted(int[] order) {
+        for (int i = 1; i < order.length; i++) {
+            int c = compare(order[i - 1], order[i]);
+            if (c > 0 || (c == 0 && order[i - 1] > order[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ranks the catalog with a stable comparison sort on the exact comparison.
+     */
+    private int[] comparisonSort(int size) {
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, this::compare);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Compares two pets by score (descending), then by the tie-breaking criteria in order.
+     *
+     * @param a the first pet position
+     * @param b the second pet position
+     * @return a negative number if pet {@code a} ranks first, positive if {@code b} does,
+     *         zero if they are tied on every criterion
+     */
+    int compare(int a, int b) {
+        int c = Double.compare(scores[b], scores[a]);
+        if (c == 0) c = Integer.compare(genderPriority[pets.genderCode[a]], genderPriority[pets.genderCode[b]]);
+        if (c == 0) c = Integer.compare(mbtiMatchCount(a), mbtiMatchCount(b));
+        if (c == 0) c = Double.compare(-ratio(user.getSpace(), pets.requiredSpace[a]),
+                -ratio(user.getSpace(), pets.requiredSpace[b]));
+        if (c == 0) c = Integer.compare(energyDiff(a), energyDiff(b));
+        if (c == 0) c = Double.compare(-ratio(user.getTimePerDay(), pets.timeNeededPerDay[a]),
+                -ratio(user.getTimePerDay(), pets.timeNeededPerDay[b]));
+        if (c == 0) c = Double.compare(-ratio(user.getBudget(), pets.monthlyCost[a]),
+                -ratio(user.getBudget(), pets.monthlyCost[b]));
+        if (c == 0) c = Integer.compare(yardMatch(a), yardMatch(b));
+        return c;
+    }
+
+    // ---------- Tie-Breaking Criteria (Private Helpers) ----------
+
+    /**
+     * Ranks pets based on the number of MBTI character matches with the user.
+     *
+     * @return negative of the number of matches (to prioritize higher match count)
+     */
+    private int mbtiMatchCount(int i) {
+        return -MbtiCode.matchCount(user.getMbtiCode(), pets.mbtiCode[i]);
+    }
+
+    /**
+     * Computes the ratio between what the user has and what the pet needs, capped at 1.0.
+     *
+     * @return the ratio (higher is better)
+     */
+    private static double ratio(double available, double required) {
+        return Math.min(available / required, 1.0);
+    }
+
+    /**
+     * Computes absolute difference between user's and pet's energy level.
+     *
+     * @return difference in energy (lower is better)
+     */
+    private int energyDiff(int i) {
+        return Math.abs(user.getEnergyLevel() - pets.energyLevel[i]);
+    }
+
+    /**
+     * Returns a ranking based on yard requirement.
+     *
+     * @return -1 if user meets pet's yard need, otherwise 1
+     */
+    private int yardMatch(int i) {
+        return (!pets.requiresYard(i) || user.hasYard()) ? -1 : 1;
+    }
+}
@@ -1,8 +1,8 @@
 package model;
 
 import Database.PetDatabase;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -11,7 +11,13 @@ import java.util.*;
  * compatibility with a given user.
  * <p>
  * Each pet is scored using a provided {@link ICompatibilityCalculator}, then sorted
- * using a multi-level tie-breaking strategy. The final sorted list is exported to a CSV file.
+ * using a multi-level tie-breaking strategy. When the calculator also implements
+ * {@link IBatchCompatibilityCalculator}, the whole list is scored in a single batch
+ * pass. The final sorted list is exported to a CSV file.
+ * <p>
+ * The ordering is score (highest first), then gender match, MBTI matches, space ratio,
+ * energy difference, time ratio, budget ratio and yard match. It is computed by
+ * {@link PetSortKeys}, which encodes every level into primitive keys once per pet.
  */
 public class PetSorter implements IPetSorter {
 
@@ -38,146 +44,67 @@ public class PetSorter implements IPetSorter {
      */
     @Override
     public void sortAndExportToCSV(List<Pet> pets, String outputCsvPath) {
-        List<PetWithScore> scoredPets = new ArrayList<>();
-
-        // Calculate compatibility score for each pet
-        for (Pet pet : pets) {
-            double score = calculator.calculate(user, pet);
-            scoredPets.add(new PetWithScore(pet, score));
-        }
-
-        // Sort using score and tie-breaking strategies
-        scoredPets.sort(Comparator
-                .comparing(PetWithScore::getScore).reversed()
-                .thenComparing(this::genderMatchPriority)
-                .thenComparing(this::mbtiMatchCount)
-                .thenComparing(this::spaceRatio)
-                .thenComparing(this::energyDiff)
-                .thenComparing(this::timeRatio)
-                .thenComparing(this::budgetRatio)
-                .thenComparing(this::yardMatch)
-        );
-
-        // Write sorted results to CSV
-        try (FileWriter writer = new FileWriter(outputCsvPath)) {
-            writer.write("Name,Breed,Type,Score,ImagePath\n");
-            for (PetWithScore p : scoredPets) {
-                Pet pet = p.getPet();
-                writer.write(String.format(
-                        "%s,%s,%s,%s,%s\n",
-                        pet.getName(),
-                        pet.getBreed(),
-                        pet.getType(),
-                        formatPercentage(p.getScore()),
-                        pet.getImagePath()
-                ));
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to write to CSV: " + e.getMessage(), e);
-        }
+        exportToCSV(rank(pets), outputCsvPath);
     }
 
     /**
-     * Formats the score as a percentage string (e.g., 85%).
+     * Scores the given pets and ranks them by compatibility score and the tie-breaking
+     * criteria, best first.
      *
-     * @param score the score between 0.0 and 1.0
-     * @return a string representing the score as a whole-number percentage
+     * @param pets the list of pets to rank
+     * @return the ranking, with positions referring to {@code pets}
      */
-    private String formatPercentage(double score) {
-        return String.format("%.0f%%", score * 100);
-    }
-
-    // ---------- Tie-Breaking Criteria (Private Helpers) ----------
+    public RankedResult rank(List<Pet> pets) {
+        PetColumns columns = PetColumns.of(pets);
+        double[] scores;
 
-    /**
-     * Ranks pets based on how closely their gender matches the user’s preference.
-     * "Any" is neutral, exact matches are preferred.
-     *
-     * @param p a pet with score
-     * @return -1 for match, 1 for mismatch, 0 for "Any"
-     */
-    private int genderMatchPriority(PetWithScore p) {
-        String pref = user.getPreferredPetGender();
-        if (pref.equalsIgnoreCase("Any")) return 0;
-        return pref.equalsIgnoreCase(p.getPet().getGender()) ? -1 : 1;
-    }
-
-    /**
-     * Ranks pets based on the number of MBTI character matches with the user.
-     *
-     * @param p a pet with score
-     * @return negative of the number of matches (to prioritize higher match count)
-     */
-    private int mbtiMatchCount(PetWithScore p) {
-        String userMBTI = user.getMbti();
-        String petMBTI = p.getPet().getMbti();
-        int match = 0;
-        for (int i = 0; i < 4; i++) {
-            if (i < userMBTI.length() && i < petMBTI.length() &&
-                    Character.toUpperCase(userMBTI.charAt(i)) == Character.toUpperCase(petMBTI.charAt(i))) {
-                match++;
+        // Calculate compatibility score for each pet
+        if (calculator instanceof IBatchCompatibilityCalculator batchCalculator) {
+            scores = batchCalculator.scoreAll(user, columns);
+        } else {
+            scores = new double[pets.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = calculator.calculate(user, pets.get(i));
             }
         }
-        return -match;
-    }
-
-    /**
-     * Compares the ratio between user's space and the pet's required space.
-     *
-     * @param p a pet with score
-     * @return negative ratio for sorting (higher ratio preferred)
-     */
-    private double spaceRatio(PetWithScore p) {
-        double space = user.getSpace();
-        double required = p.getPet().getRequiredSpace();
-        return -Math.min(space / required, 1.0);
-    }
-
-    /**
-     * Computes absolute difference between user's and pet's energy level.
-     *
-     * @param p a pet with score
-     * @return difference in energy (lower is better)
-     */
-    private double energyDiff(PetWithScore p) {
-        int userEnergy = user.getEnergyLevel();
-        int petEnergy = p.getPet().getEnergyLevel();
-        return Math.abs(userEnergy - petEnergy);
-    }
 
-    /**
-     * Compares time availability versus pet's required time.
-     *
-     * @param p a pet with score
-     * @return negative time ratio (higher ratio preferred)
-     */
-    private double timeRatio(PetWithScore p) {
-        double userTime = user.getTimePerDay();
-        double petTime = p.getPet().getTimeNeededPerDay();
-        return -Math.min(userTime / petTime, 1.0);
+        // Sort using score and tie-breaking strategies
+        int[] order = new PetSortKeys(user, columns, scores).sort();
+        double[] rankedScores = new double[order.length];
+        for (int r = 0; r < order.length; r++) {
+            rankedScores[r] = scores[order[r]];
+        }
+        return new RankedResult(pets, order, rankedScores, order.length);
     }
 
     /**
-     * Compares budget to cost for tie-breaking.
+     * Writes a ranking to a CSV file, one row per pet in rank order, through a
+     * {@link CsvExporter}. When every pet has a database id, an Id column is appended so
+     * that readers can join rows by id. The file is published atomically, so readers never
+     * see a partly written CSV.
      *
-     * @param p a pet with score
-     * @return negative budget ratio (higher ratio preferred)
+     * @param ranking       the ranking to export
+     * @param outputCsvPath the output file path to write the CSV to
      */
-    private double budgetRatio(PetWithScore p) {
-        double userBudget = user.getBudget();
-        double petCost = p.getPet().getMonthlyCost();
-        return -Math.min(userBudget / petCost, 1.0);
+    static void exportToCSV(ScoredPetSource ranking, String outputCsvPath) {
+        try {
+            AtomicFiles.publish(Path.of(outputCsvPath), file -> CsvExporter.export(ranking, file));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write to CSV: " + e.getMessage(), e);
+        }
     }
 
     /**
-     * Returns a ranking based on yard requirement.
+     * Saves a ranking in the binary format of {@link RankingFile}, published atomically.
      *
-     * @param p a pet with score
-     * @return -1 if user meets pet's yard need, otherwise 1
+     * @param ranking     the ranking to save; every pet must have an id
+     * @param rankingPath the output file path to write the ranking to
      */
-    private int yardMatch(PetWithScore p) {
-        boolean hasYard = user.hasYard();
-        boolean needsYard = p.getPet().requiresYard();
-        return (!needsYard || hasYard) ? -1 : 1;
+    static void exportRanking(ScoredPetSource ranking, String rankingPath) {
+        try {
+            AtomicFiles.publish(Path.of(rankingPath), file -> RankingFile.write(ranking, file));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write ranking: " + e.getMessage(), e);
+        }
     }
 }
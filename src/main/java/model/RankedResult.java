@@ -0,0 +1,222 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code RankedResult} class is an immutable ranking of pets from a catalog, stored as a
+ * permutation of catalog positions and a parallel array of scores.
+ * <p>
+ * Rank {@code r} refers to the pet at {@code pets.get(position(r))} with score
+ * {@code score(r)}. Ranks are kept in the order they were produced; results from
+ * {@link PetSorter#rank(List)} or from a sorted compatibility CSV are best first.
+ * <p>
+ * Views never copy the catalog: {@link #topK} and {@link #aboveThreshold} share this
+ * result's arrays, and {@link #ofType} copies only the ranks it keeps. {@link PetWithScore}
+ * objects are created only when a rank is read through {@link #asList()}.
+ */
+public final class RankedResult implements ScoredPetSource {
+
+    /** The catalog the positions refer to. */
+    private final List<Pet> pets;
+
+    /** Catalog position of each rank. Shared with views; never modified. */
+    private final int[] positions;
+
+    /** Score of each rank. Shared with views; never modified. */
+    private final double[] scores;
+
+    /** Number of ranks in this result; a prefix of the arrays. */
+    private final int size;
+
+    /**
+     * Wraps a ranking. The arrays are not copied and must not be modified afterwards.
+     *
+     * @param pets      the catalog the positions refer to
+     * @param positions catalog position of each rank
+     * @param scores    score of each rank
+     * @param size      number of ranks, at most the arrays' length
+     */
+    RankedResult(List<Pet> pets, int[] positions, double[] scores, int size) {
+        this.pets = pets;
+        this.positions = positions;
+        this.scores = scores;
+        this.size = size;
+    }
+
+    /** @return the number of ranked pets */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** @return the catalog the ranked positions refer to */
+    List<Pet> catalog() {
+        return pets;
+    }
+
+    /** @return {@code true} if no pets are ranked */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param rank the rank, from 0
+     * @return the catalog position of the pet at that rank
+     */
+    public int position(int rank) {
+        return positions[checkRank(rank)];
+    }
+
+    /**
+     * @param rank the rank, from 0
+     * @return the pet at that rank
+     */
+    @Override
+    public Pet pet(int rank) {
+        return pets.get(position(rank));
+    }
+
+    /**
+     * @param rank the rank, from 0
+     * @return the score of the pet at that rank
+     */
+    @Override
+    public double score(int rank) {
+        return scores[checkRank(rank)];
+    }
+
+    /**
+     * Returns the first {@code k} ranks, or the whole result if it is shorter.
+     *
+     * @param k the number of ranks to keep
+     * @return a view of the best {@code k} pets
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public RankedResult topK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return k >= size ? this : new RankedResult(pets, positions, scores, k);
+    }
+
+    /**
+     * Returns the leading ranks whose score is strictly greater than {@code threshold}.
+     * For a best-first result these are exactly the pets scoring above the threshold.
+     *
+     * @param threshold the score to exceed
+     * @return a view of the qualifying ranks
+     */
+    public RankedResult aboveThreshold(double threshold) {
+        int count = 0;
+        while (count < size && scores[count] > threshold) {
+            count++;
+        }
+        return topK(count);
+    }
+
+    /**
+     * Returns the ranks whose pet has the given type and, if given, breed, compared
+     * case-insensitively. Relative order is preserved.
+     *
+     * @param type  the pet type, e.g. {@code "Dog"}
+     * @param breed the breed, or {@code null} or empty to match every breed of the type
+     * @return the matching ranks
+     */
+    public RankedResult ofType(String type, String breed) {
+        boolean anyBreed = breed == null || breed.isEmpty();
+        // Compare each distinct type and breed once, then each pet by its codes
+        boolean[] typeMatches = Pet.TYPES.matchesIgnoreCase(type);
+        boolean[] breedMatches = anyBreed ? null : Pet.BREEDS.matchesIgnoreCase(breed);
+        int[] keptPositions = new int[size];
+        double[] keptScores = new double[size];
+        int count = 0;
+        for (int r = 0; r < size; r++) {
+            Pet pet = pets.get(positions[r]);
+            if (matches(typeMatches, pet.getTypeCode()) && (anyBreed || matches(breedMatches, pet.getBreedCode()))) {
+                keptPositions[count] = positions[r];
+                keptScores[count] = scores[r];
+                count++;
+            }
+        }
+        return new RankedResult(pets, Arrays.copyOf(keptPositions, count), Arrays.copyOf(keptScores, count), count);
+    }
+
+    /** Treats a code assigned after the match table was built as not matching. */
+    private static boolean matches(boolean[] byCode, int code) {
+        return code < byCode.length && byCode[code];
+    }
+
+    /**
+     * Returns a read-only list view of this result. Each {@link PetWithScore} is created
+     * when its element is read.
+     *
+     * @return the ranked pets with their scores
+     */
+    public List<PetWithScore> asList() {
+        return new AbstractList<>() {
+            @Override
+            public PetWithScore get(int rank) {
+                return new PetWithScore(pet(rank), score(rank));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int checkRank(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " out of bounds for size " + size);
+        }
+        return rank;
+    }
+
+    /**
+     * Accumulates ranks one at a time, in rank order, without boxing.
+     */
+    public static final class Builder {
+
+        private final List<Pet> pets;
+        private int[] positions = new int[16];
+        private double[] scores = new double[16];
+        private int size;
+
+        /**
+         * Starts an empty ranking over the given catalog.
+         *
+         * @param pets the catalog the positions refer to
+         */
+        public Builder(List<Pet> pets) {
+            this.pets = pets;
+        }
+
+        /**
+         * Appends the next rank.
+         *
+         * @param position the catalog position of the pet
+         * @param score    the pet's score
+         * @return this builder
+         */
+        public Builder add(int position, double score) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            positions[size] = position;
+            scores[size] = score;
+            size++;
+            return this;
+        }
+
+        /**
+         * @return the ranking built so far; the builder must not be used afterwards
+         */
+        public RankedResult build() {
+            return new RankedResult(pets, positions, scores, size);
+        }
+    }
+}
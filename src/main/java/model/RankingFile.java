@@ -0,0 +1,170 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The {@code RankingFile} class saves a ranking in a compact binary format and loads it
+ * back with one bulk read, without parsing any text.
+ * <p>
+ * The file is little-endian. It starts with a 16-byte header: the magic number
+ * {@code "PFRK"}, the format version, the number of records and a reserved word. A fixed
+ * 16-byte record follows for each rank, best first: the pet's id (int), its rank (int) and
+ * its score (double).
+ * <p>
+ * Scores are stored at full double precision, exactly as the calculator produced them, so a
+ * reloaded ranking compares and sorts identically to the original. Pets are identified by
+ * their database id; every ranked pet must have one.
+ */
+public final class RankingFile {
+
+    /** {@code "PFRK"} in ASCII. */
+    static final int MAGIC = 0x5046524B;
+
+    /** The only format version written and read. */
+    static final int VERSION = 1;
+
+    /** Size of the header, in bytes. */
+    static final int HEADER_BYTES = 16;
+
+    /** Size of one record, in bytes. */
+    static final int RECORD_BYTES = 16;
+
+    private final int[] ids;
+    private final double[] scores;
+
+    private RankingFile(int[] ids, double[] scores) {
+        this.ids = ids;
+        this.scores = scores;
+    }
+
+    /**
+     * Writes a ranking, replacing any existing file.
+     *
+     * @param ranking the ranking to save; every pet must have an id
+     * @param path    the destination file
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if a ranked pet has no id
+     */
+    public static void write(ScoredPetSource ranking, Path path) throws IOException {
+        int size = ranking.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + size * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(0);
+        for (int rank = 0; rank < size; rank++) {
+            Pet pet = ranking.pet(rank);
+            if (!pet.hasId()) {
+                throw new IllegalArgumentException("Cannot save a ranking of pets without ids: " + pet.getName());
+            }
+            buffer.putInt(pet.getId()).putInt(rank).putDouble(ranking.score(rank));
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a ranking file with a single bulk read.
+     *
+     * @param path the file to read
+     * @return the saved ids and scores, best first
+     * @throws IOException if the file cannot be read or is not a valid ranking file
+     */
+    public static RankingFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Not a ranking file: " + path);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Ranking file was truncated while reading: " + path);
+                }
+            }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a ranking file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported ranking file version " + version + ": " + path);
+            }
+            int size = buffer.getInt();
+            buffer.getInt();
+            if (size < 0 || (long) size * RECORD_BYTES != fileSize - HEADER_BYTES) {
+                throw new IOException("Ranking file has the wrong length for " + size + " records: " + path);
+            }
+
+            int[] ids = new int[size];
+            double[] scores = new double[size];
+            for (int i = 0; i < size; i++) {
+                int offset = HEADER_BYTES + i * RECORD_BYTES;
+                int rank = buffer.getInt(offset + 4);
+                if (rank != i) {
+                    throw new IOException("Ranking file record " + i + " has rank " + rank + ": " + path);
+                }
+                ids[i] = buffer.getInt(offset);
+                scores[i] = buffer.getDouble(offset + 8);
+            }
+            return new RankingFile(ids, scores);
+        }
+    }
+
+    /** @return the number of ranked pets */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param rank the rank, from 0
+     * @return the id of the pet at that rank
+     */
+    public int id(int rank) {
+        return ids[rank];
+    }
+
+    /**
+     * @param rank the rank, from 0
+     * @return the score of the pet at that rank
+     */
+    public double score(int rank) {
+        return scores[rank];
+    }
+
+    /**
+     * Joins the saved ranking to a catalog by pet id.
+     *
+     * @param pets the catalog the ranking was computed from
+     * @return the ranking over that catalog
+     * @throws IOException if the file refers to a pet the catalog does not have, or lists a
+     *                     pet more than once
+     */
+    public RankedResult toRanking(List<Pet> pets) throws IOException {
+        PetKeyIndex index = PetKeyIndex.of(pets);
+        int[] positions = new int[ids.length];
+        long[] seen = new long[(pets.size() + 63) >>> 6];
+        for (int rank = 0; rank < ids.length; rank++) {
+            int position = index.positionOf(ids[rank]);
+            if (position < 0) {
+                throw new IOException("Ranking file refers to unknown pet id " + ids[rank]);
+            }
+            if ((seen[position >>> 6] & (1L << position)) != 0) {
+                throw new IOException("Ranking file lists pet id " + ids[rank] + " more than once");
+            }
+            seen[position >>> 6] |= 1L << position;
+            positions[rank] = position;
+        }
+        return new RankedResult(pets, positions, scores.clone(), ids.length);
+    }
+}
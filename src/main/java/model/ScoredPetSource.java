@@ -0,0 +1,23 @@
+package model;
+
+/**
+ * A read-only sequence of pets with their compatibility scores, such as a ranking, that
+ * can be streamed to an exporter row by row.
+ */
+public interface ScoredPetSource {
+
+    /** @return the number of rows */
+    int size();
+
+    /**
+     * @param row the row, from 0
+     * @return the pet in that row
+     */
+    Pet pet(int row);
+
+    /**
+     * @param row the row, from 0
+     * @return the score of the pet in that row
+     */
+    double score(int row);
+}
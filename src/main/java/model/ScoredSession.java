@@ -0,0 +1,248 @@
+package model;
+
+import Database.PetDatabase;
+import Database.PetIndex;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * The {@code ScoredSession} class holds one user's compatibility ranking of the pet catalog
+ * in memory for the lifetime of an interactive session.
+ * <p>
+ * The catalog is scored and ranked once, when the session is created. Every menu action
+ * (best match, recommendations, the full list and searches) is then answered from the
+ * ranking with exact scores, without reading the compatibility CSV back. Writing the CSV
+ * is an optional export through {@link #exportToCSV(String)}, and the ranking itself can
+ * be saved with {@link #exportRanking(String)} and {@linkplain #restore restored} later
+ * without scoring the catalog again.
+ * <p>
+ * The session keeps its own copy of the catalog, so later changes to the source list do
+ * not disturb the ranking; an immutable view from {@link PetDatabase} is kept as it is.
+ * The session indexes its pets by id and by (name, breed), so that the score of any pet
+ * can be looked up in constant time. When the session is given the
+ * {@link PetIndex} of the catalog its pets were drawn from, searches by type and breed
+ * visit only the matching pets instead of the whole ranking.
+ */
+public final class ScoredSession {
+
+    /** Minimum score for a pet to be recommended or offered as the best match. */
+    public static final double RECOMMENDATION_THRESHOLD = 0.80;
+
+    private final User user;
+    private final ICompatibilityCalculator calculator;
+    private final RankedResult ranking;
+
+    /** The session's copy of the catalog; ranking positions refer to it. */
+    private final List<Pet> pets;
+
+    /** Catalog positions by (name, breed). */
+    private final PetKeyIndex index;
+
+    /** Score of each pet, indexed by catalog position. */
+    private final double[] scoreByPosition;
+
+    /** Rank of each pet, indexed by catalog position. */
+    private final int[] rankByPosition;
+
+    /** Index of the catalog the pets were drawn from, or {@code null} to search by scanning. */
+    private final PetIndex catalogIndex;
+
+    /**
+     * Scores and ranks the catalog for the user.
+     *
+     * @param user       the user to match pets against
+     * @param calculator the scoring algorithm used to compute compatibility
+     * @param pets       the pet catalog
+     */
+    public ScoredSession(User user, ICompatibilityCalculator calculator, List<Pet> pets) {
+        this(user, calculator, pets, null);
+    }
+
+    /**
+     * Scores and ranks the catalog for the user, answering searches from a catalog index.
+     *
+     * @param user         the user to match pets against
+     * @param calculator   the scoring algorithm used to compute compatibility
+     * @param pets         pets drawn from the indexed catalog, each with its catalog id
+     * @param catalogIndex an index covering every pet in {@code pets}, or {@code null}
+     */
+    public ScoredSession(User user, ICompatibilityCalculator calculator, List<Pet> pets, PetIndex catalogIndex) {
+        this(user, calculator, rank(user, calculator, frozen(pets)), catalogIndex);
+    }
+
+    /**
+     * Creates a session around an existing ranking of the whole catalog.
+     *
+     * @param user         the user the ranking was computed for
+     * @param calculator   the scoring algorithm the ranking was computed with
+     * @param ranking      every pet of the session's catalog, best first
+     * @param catalogIndex an index covering every ranked pet, or {@code null}
+     */
+    private ScoredSession(User user, ICompatibilityCalculator calculator, RankedResult ranking, PetIndex catalogIndex) {
+        this.user = user;
+        this.calculator = calculator;
+        this.pets = ranking.catalog();
+        this.ranking = ranking;
+        this.index = PetKeyIndex.of(this.pets);
+        this.catalogIndex = catalogIndex;
+        this.scoreByPosition = new double[this.pets.size()];
+        this.rankByPosition = new int[this.pets.size()];
+        for (int r = 0; r < ranking.size(); r++) {
+            scoreByPosition[ranking.position(r)] = ranking.score(r);
+            rankByPosition[ranking.position(r)] = r;
+        }
+    }
+
+    /**
+     * Restores a session from a ranking saved with {@link #exportRanking(String)}, without
+     * scoring or sorting the catalog again.
+     *
+     * @param user        the user the ranking was computed for
+     * @param calculator  the scoring algorithm the ranking was computed with
+     * @param pets        the pet catalog the ranking was computed from
+     * @param rankingPath the saved ranking file
+     * @return the restored session
+     * @throws IOException if the file cannot be read, or does not rank exactly the pets in
+     *                     the catalog
+     */
+    public static ScoredSession restore(User user, ICompatibilityCalculator calculator, List<Pet> pets,
+                                        String rankingPath) throws IOException {
+        List<Pet> catalog = frozen(pets);
+        RankedResult ranking = RankingFile.read(Path.of(rankingPath)).toRanking(catalog);
+        if (ranking.size() != catalog.size()) {
+            throw new IOException("Ranking file ranks " + ranking.size() + " pets but the catalog has "
+                    + catalog.size() + ": " + rankingPath);
+        }
+        return new ScoredSession(user, calculator, ranking, null);
+    }
+
+    /**
+     * @return the pets themselves if they can never change, otherwise a copy
+     */
+    private static List<Pet> frozen(List<Pet> pets) {
+        return PetDatabase.isCatalogView(pets) ? pets : List.copyOf(pets);
+    }
+
+    private static RankedResult rank(User user, ICompatibilityCalculator calculator, List<Pet> catalog) {
+        return new PetSorter(user, calculator).rank(catalog);
+    }
+
+    /** @return the user this session was scored for */
+    public User getUser() {
+        return user;
+    }
+
+    /** @return the calculator used to score the catalog */
+    public ICompatibilityCalculator getCalculator() {
+        return calculator;
+    }
+
+    /**
+     * Returns every pet in the catalog, best first.
+     *
+     * @return the full ranking
+     */
+    public RankedResult getRanking() {
+        return ranking;
+    }
+
+    /**
+     * Returns the best-ranked pet, provided it scores at least
+     * {@value #RECOMMENDATION_THRESHOLD}.
+     *
+     * @return a ranking of at most one pet
+     */
+    public RankedResult bestMatch() {
+        RankedResult best = ranking.topK(1);
+        return best.isEmpty() || best.score(0) < RECOMMENDATION_THRESHOLD ? ranking.topK(0) : best;
+    }
+
+    /**
+     * Returns the pets scoring strictly above {@value #RECOMMENDATION_THRESHOLD}, best first.
+     *
+     * @return the recommended pets
+     */
+    public RankedResult recommended() {
+        return ranking.aboveThreshold(RECOMMENDATION_THRESHOLD);
+    }
+
+    /**
+     * Returns the pets of the given type and optional breed, best first.
+     *
+     * @param petType  the type of pet to search for (e.g., Dog, Cat)
+     * @param petBreed optional breed (can be empty to match all breeds of that type)
+     * @return the matching pets
+     */
+    public RankedResult search(String petType, String petBreed) {
+        if (catalogIndex == null) {
+            return ranking.ofType(petType, petBreed);
+        }
+
+        // Rank only the matching pets; ids the session does not hold are skipped
+        int[] ids = catalogIndex.idsOfTypeAndBreed(petType, petBreed);
+        int[] ranks = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            int position = index.positionOf(id);
+            if (position >= 0) {
+                ranks[count++] = rankByPosition[position];
+            }
+        }
+        Arrays.sort(ranks, 0, count);
+
+        int[] positions = new int[count];
+        double[] scores = new double[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = ranking.position(ranks[i]);
+            scores[i] = ranking.score(ranks[i]);
+        }
+        return new RankedResult(pets, positions, scores, count);
+    }
+
+    /**
+     * Looks up the score of a pet by name and breed in constant time.
+     *
+     * @param name  the pet's name
+     * @param breed the pet's breed
+     * @return the pet's score, or an empty result if the catalog has no such pet
+     */
+    public OptionalDouble scoreOf(String name, String breed) {
+        int position = index.positionOf(name, breed);
+        return position < 0 ? OptionalDouble.empty() : OptionalDouble.of(scoreByPosition[position]);
+    }
+
+    /**
+     * Looks up the score of a pet by its id, or by name and breed if it has none.
+     *
+     * @param pet the pet
+     * @return the pet's score, or an empty result if the pet is not in the catalog
+     */
+    public OptionalDouble scoreOf(Pet pet) {
+        int position = pet.hasId() ? index.positionOf(pet.getId()) : index.positionOf(pet.getName(), pet.getBreed());
+        return position < 0 ? OptionalDouble.empty() : OptionalDouble.of(scoreByPosition[position]);
+    }
+
+    /**
+     * Writes the ranking to a CSV file in the format produced by {@link PetSorter},
+     * including the Id column when every pet has an id.
+     *
+     * @param outputCsvPath the output file path to write the CSV to
+     */
+    public void exportToCSV(String outputCsvPath) {
+        PetSorter.exportToCSV(ranking, outputCsvPath);
+    }
+
+    /**
+     * Saves the ranking in the binary format of {@link RankingFile}, from which the session
+     * can be {@linkplain #restore restored} with full-precision scores.
+     *
+     * @param rankingPath the output file path to write the ranking to
+     */
+    public void exportRanking(String rankingPath) {
+        PetSorter.exportRanking(ranking, rankingPath);
+    }
+}
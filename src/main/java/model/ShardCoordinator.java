@@ -0,0 +1,281 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code ShardCoordinator} class ranks a cohort against a catalog split across
+ * {@link ShardWorker} processes, scattering each request to every worker and gathering
+ * their per-shard rankings.
+ * <p>
+ * The coordinator sends a request to every worker before reading any reply, so all shards
+ * are scored at the same time. Each worker replies with every user's top {@code k} pets of
+ * its shard; the coordinator merges them into each user's overall top {@code k} with a
+ * bounded heap. The shards must not overlap; together they normally cover the catalog.
+ * The result is the same {@link CohortRanking} that {@link CohortScorer#rankTopK} gives
+ * for the whole catalog, with catalog ids as positions.
+ * <p>
+ * One connection is kept open per worker, and requests are sent one at a time. Connecting
+ * and waiting for a reply are bounded by timeouts; a worker that does not reply in time
+ * fails the request with an {@link IOException}, and its connection is closed since the
+ * late reply would be read as the answer to the next request. A request that cannot be
+ * sent in full closes its connection too, so the worker never reads a later request out
+ * of frame; every later request then fails until a new coordinator is connected.
+ */
+public final class ShardCoordinator implements Closeable {
+
+    /** Default time allowed to connect to a worker, in milliseconds. */
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    /** Default time allowed for a worker's reply to a request, in milliseconds. */
+    public static final int DEFAULT_READ_TIMEOUT_MILLIS = 120_000;
+
+    private final List<Connection> connections;
+
+    private ShardCoordinator(List<Connection> connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * Connects to workers with the default timeouts.
+     *
+     * @param workers the address of each worker
+     * @return the coordinator
+     * @throws IOException if a worker cannot be reached; connections already opened are
+     *                     closed
+     */
+    public static ShardCoordinator connect(List<InetSocketAddress> workers) throws IOException {
+        return connect(workers, DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Connects to workers.
+     *
+     * @param workers              the address of each worker
+     * @param connectTimeoutMillis the time allowed to connect to each worker, or {@code 0}
+     *                             to wait indefinitely
+     * @param readTimeoutMillis    the time allowed for each worker's reply, or {@code 0} to
+     *                             wait indefinitely
+     * @return the coordinator
+     * @throws IOException              if a worker cannot be reached in time; connections
+     *                                  already opened are closed
+     * @throws IllegalArgumentException if a timeout is negative
+     */
+    public static ShardCoordinator connect(List<InetSocketAddress> workers, int connectTimeoutMillis,
+                                           int readTimeoutMillis) throws IOException {
+        if (connectTimeoutMillis < 0 || readTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeouts must not be negative: " + connectTimeoutMillis + ", "
+                    + readTimeoutMillis);
+        }
+        List<Connection> connections = new ArrayList<>(workers.size());
+        try {
+            for (InetSocketAddress worker : workers) {
+                connections.add(new Connection(worker, connectTimeoutMillis, readTimeoutMillis));
+            }
+        } catch (IOException e) {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+            throw e;
+        }
+        return new ShardCoordinator(connections);
+    }
+
+    /**
+     * Computes every user's {@code k} best pets across all shards.
+     *
+     * @param users the cohort
+     * @param k     the number of pets to keep per user
+     * @return the per-user rankings, by catalog id
+     * @throws IOException              if a worker cannot be reached, does not reply in time
+     *                                  or reports a failure
+     * @throws IllegalArgumentException if {@code k} is negative or there are more than
+     *                                  {@link ShardProtocol#MAX_USERS} users
+     */
+    public synchronized CohortRanking rankTopK(List<User> users, int k) throws IOException {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        if (users.size() > ShardProtocol.MAX_USERS) {
+            throw new IllegalArgumentException("At most " + ShardProtocol.MAX_USERS + " users per request: "
+                    + users.size());
+        }
+        IOException failure = null;
+        int sent = 0;
+        for (Connection connection : connections) {
+            try {
+                connection.sendRankTopK(users, k);
+                sent++;
+            } catch (IOException e) {
+                failure = e;
+                break;
+            }
+        }
+
+        // Drain every reply that was asked for, even after a failure, so the connections stay usable
+        List<Reply> replies = new ArrayList<>(sent);
+        for (Connection connection : connections.subList(0, sent)) {
+            try {
+                replies.add(connection.receiveRankings(users.size(), k));
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        int[][] ids = new int[users.size()][];
+        double[][] scores = new double[users.size()][];
+        for (int u = 0; u < ids.length; u++) {
+            // No user can get more pets than the shards sent for it
+            long received = 0;
+            for (Reply reply : replies) {
+                received += reply.ids[u].length;
+            }
+            TopKHeap heap = new TopKHeap((int) Math.min(k, received));
+            for (Reply reply : replies) {
+                for (int r = 0; r < reply.ids[u].length; r++) {
+                    heap.offer(reply.ids[u][r], reply.scores[u][r]);
+                }
+            }
+            ids[u] = new int[heap.size()];
+            scores[u] = new double[heap.size()];
+            heap.drainSorted(ids[u], scores[u]);
+        }
+        return new CohortRanking(ids, scores);
+    }
+
+
+    /**
+     * Closes the connections to every worker. The workers keep running.
+     *
+     * @throws IOException if a connection cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** One worker's rankings of every user, by catalog id, best first. */
+    private record Reply(int[][] ids, double[][] scores) {}
+
+    /** An open connection to one worker. */
+    private static final class Connection implements Closeable {
+        private final InetSocketAddress worker;
+        private final int readTimeoutMillis;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        Connection(InetSocketAddress worker, int connectTimeoutMillis, int readTimeoutMillis) throws IOException {
+            this.worker = worker;
+            this.readTimeoutMillis = readTimeoutMillis;
+            this.socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(readTimeoutMillis);
+                socket.connect(worker, connectTimeoutMillis);
+                this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw new IOException("Cannot connect to shard worker " + worker, e);
+            }
+        }
+
+        /**
+         * Writes one request, closing the connection if it cannot be written in full.
+         *
+         * @throws IOException if the connection was closed by an earlier failure, or the
+         *                     request cannot be written
+         */
+        void sendRankTopK(List<User> users, int k) throws IOException {
+            if (socket.isClosed()) {
+                throw new IOException("Connection to shard worker " + worker + " was closed after an earlier failure");
+            }
+            try {
+                out.writeInt(ShardProtocol.MAGIC);
+                out.writeInt(ShardProtocol.RANK_TOP_K);
+                out.writeInt(k);
+                out.writeInt(users.size());
+                for (User user : users) {
+                    ShardProtocol.writeUser(out, user);
+                }
+                out.flush();
+            } catch (IOException | RuntimeException e) {
+                // Part of the request may already be on the wire
+                socket.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Reads one reply.
+         *
+         * @throws IOException if the reply cannot be read in time, reports a failure or
+         *                     ranks more than {@code k} pets for a user
+         */
+        Reply receiveRankings(int userCount, int k) throws IOException {
+            try {
+                int status = in.readInt();
+                if (status != ShardProtocol.OK) {
+                    throw new IOException("Shard worker " + worker + " failed: " + in.readUTF());
+                }
+                int[][] ids = new int[userCount][];
+                double[][] scores = new double[userCount][];
+                for (int u = 0; u < userCount; u++) {
+                    int count = in.readInt();
+                    if (count < 0 || count > k) {
+                        // The rest of the reply cannot be trusted, so neither can the connection
+                        socket.close();
+                        throw new IOException("Shard worker " + worker + " ranked " + count + " pets, expected at most "
+                                + k);
+                    }
+                    ids[u] = new int[count];
+                    scores[u] = new double[count];
+                    for (int r = 0; r < count; r++) {
+                        ids[u][r] = in.readInt();
+                        scores[u][r] = in.readDouble();
+                    }
+                }
+                return new Reply(ids, scores);
+            } catch (SocketTimeoutException e) {
+                socket.close();
+                throw new IOException("Shard worker " + worker + " did not reply within " + readTimeoutMillis + " ms", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The {@code ShardProtocol} class defines the messages exchanged between a
+ * {@link ShardCoordinator} and its {@link ShardWorker}s over a socket.
+ * <p>
+ * Every message is written with {@link DataOutputStream}, in big-endian order. A request
+ * is the {@link #MAGIC} number, an operation, the number of pets to keep per user, the
+ * number of users and then each user's profile. The reply starts with a status: on
+ * {@link #OK}, each user's ranking follows as a count and then that many (catalog id,
+ * score) pairs, best first; on {@link #FAILED}, an error message follows. A connection
+ * carries any number of request and reply pairs, one at a time.
+ */
+final class ShardProtocol {
+
+    /** Starts every request: {@code "PFU1"} in ASCII. */
+    static final int MAGIC = 0x50465531;
+
+    /** Ranks the worker's shard for every user of the request. */
+    static final int RANK_TOP_K = 1;
+
+    /** Reply status of a request that succeeded. */
+    static final int OK = 0;
+
+    /** Reply status of a request that failed; an error message follows. */
+    static final int FAILED = 1;
+
+    /**
+     * Most users a request may carry. A worker refuses a larger count before allocating
+     * anything for it, and ends the connection.
+     */
+    static final int MAX_USERS = 1 << 20;
+
+    private ShardProtocol() {}
+
+    /**
+     * Writes a user profile.
+     *
+     * @param out  the stream to write to
+     * @param user the profile
+     * @throws IOException if the stream cannot be written
+     */
+    static void writeUser(DataOutputStream out, User user) throws IOException {
+        writeNullable(out, user.getGender());
+        writeNullable(out, user.getPreferredPetGender());
+        out.writeUTF(user.getMbti());
+        out.writeInt(user.getEnergyLevel());
+        out.writeDouble(user.getSpace());
+        out.writeDouble(user.getBudget());
+        out.writeBoolean(user.isAllergic());
+        out.writeBoolean(user.hasYard());
+        out.writeDouble(user.getTimePerDay());
+    }
+
+    /**
+     * Reads a user profile written by {@link #writeUser}.
+     *
+     * @param in the stream to read from
+     * @return the profile
+     * @throws IOException              if the stream cannot be read
+     * @throws IllegalArgumentException if the profile's MBTI type is invalid
+     */
+    static User readUser(DataInputStream in) throws IOException {
+        String gender = readNullable(in);
+        String preferredPetGender = readNullable(in);
+        String mbti = in.readUTF();
+        int energyLevel = in.readInt();
+        double space = in.readDouble();
+        double budget = in.readDouble();
+        boolean allergic = in.readBoolean();
+        boolean hasYard = in.readBoolean();
+        double timePerDay = in.readDouble();
+        return new User(gender, preferredPetGender, mbti, energyLevel, space, budget, allergic, hasYard, timePerDay);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,229 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code ShardWorker} class serves batch scoring of one shard of a pet catalog to a
+ * {@link ShardCoordinator}, so that a cohort run can be spread over several processes.
+ * <p>
+ * A worker owns the pets with ids from {@code fromId} (inclusive) to {@code toId}
+ * (exclusive) of an {@link OffHeapPetCatalog}. For each request it ranks its shard for
+ * every user of the request, users in parallel, and replies with each user's top
+ * {@code k} pets by catalog id, in the order of {@link CohortScorer#rankTopK}. Pets are
+ * scored by the worker's calculator over the {@linkplain OffHeapPetCatalog#columns(int, int)
+ * columns of its shard}; a worker started as a program uses the calculator configured through
+ * {@link WeightProfile#PROFILE_PROPERTY}, so the coordinator and its workers must be
+ * configured alike. The messages are described in {@link ShardProtocol}. Each connection
+ * is served on its own thread.
+ * <p>
+ * Run as a program, a worker listens on the loopback interface only and prints
+ * {@value #READY} followed by its port once it accepts connections:
+ * <pre>
+ * java model.ShardWorker &lt;catalog&gt; &lt;fromId&gt; &lt;toId&gt; [port]
+ * </pre>
+ * A {@code .pets} catalog file is memory-mapped, so workers on one host share a single
+ * copy of it, and each copies only its own shard's scoring columns onto its heap; a JSON
+ * or CSV catalog is loaded and copied off-heap by each worker.
+ */
+public final class ShardWorker {
+
+    /** Printed, followed by the port, once the worker accepts connections. */
+    public static final String READY = "LISTENING ";
+
+    /** Pets scored per call, so the score buffer stays in cache. */
+    private static final int SCORE_CHUNK = 4096;
+
+    /** Scoring columns of the shard only; position {@code i} is the pet with id {@code fromId + i}. */
+    private final PetColumns columns;
+    private final IBatchCompatibilityCalculator calculator;
+    private final int fromId;
+    private final int toId;
+
+    /**
+     * Constructs a worker for a shard of a catalog, scoring with the built-in weights.
+     *
+     * @param catalog the catalog
+     * @param fromId  first pet id of the shard (inclusive)
+     * @param toId    last pet id of the shard (exclusive)
+     * @throws IllegalArgumentException if the ids are not a range of the catalog
+     */
+    public ShardWorker(OffHeapPetCatalog catalog, int fromId, int toId) {
+        this(catalog, CompatibilityCalculator.create(), fromId, toId);
+    }
+
+    /**
+     * Constructs a worker for a shard of a catalog.
+     *
+     * @param catalog    the catalog
+     * @param calculator the calculator that scores the shard
+     * @param fromId     first pet id of the shard (inclusive)
+     * @param toId       last pet id of the shard (exclusive)
+     * @throws IllegalArgumentException if the ids are not a range of the catalog
+     */
+    public ShardWorker(OffHeapPetCatalog catalog, IBatchCompatibilityCalculator calculator, int fromId, int toId) {
+        if (fromId < 0 || fromId > toId || toId > catalog.size()) {
+            throw new IllegalArgumentException("Shard [" + fromId + ", " + toId + ") is not within a catalog of "
+                    + catalog.size() + " pets");
+        }
+        this.columns = catalog.columns(fromId, toId);
+        this.calculator = calculator;
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    /**
+     * Starts a worker process.
+     *
+     * @param args the catalog file, the first and last pet id of the shard, and optionally
+     *             the port to listen on (an ephemeral port by default)
+     * @throws IOException if the catalog or the scoring profile cannot be read, or the port
+     *                     cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            System.err.println("Usage: java model.ShardWorker <catalog> <fromId> <toId> [port]");
+            System.exit(2);
+        }
+        ShardWorker worker = new ShardWorker(open(Path.of(args[0])), WeightProfile.configuredCalculator(),
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        int port = args.length == 4 ? Integer.parseInt(args[3]) : 0;
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println(READY + server.getLocalPort());
+            System.out.flush();
+            worker.serve(server);
+        }
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, serving each one on its own
+     * thread.
+     *
+     * @param server a bound server socket
+     */
+    public void serve(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread thread = new Thread(() -> serve(socket), "shard-worker-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Failed to accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers the requests of one connection until the coordinator closes it.
+     */
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                int magic;
+                try {
+                    magic = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                int operation = in.readInt();
+                if (magic != ShardProtocol.MAGIC || operation != ShardProtocol.RANK_TOP_K) {
+                    // The rest of the stream cannot be trusted, so the connection ends here
+                    out.writeInt(ShardProtocol.FAILED);
+                    out.writeUTF("Unknown request " + Integer.toHexString(magic) + "/" + operation);
+                    out.flush();
+                    return;
+                }
+                int k = in.readInt();
+                int userCount = in.readInt();
+                if (userCount < 0 || userCount > ShardProtocol.MAX_USERS) {
+                    out.writeInt(ShardProtocol.FAILED);
+                    out.writeUTF("User count " + userCount + " is not within [0, " + ShardProtocol.MAX_USERS + "]");
+                    out.flush();
+                    return;
+                }
+                List<User> users = new ArrayList<>(userCount);
+                String error = null;
+                for (int u = 0; u < userCount; u++) {
+                    try {
+                        users.add(ShardProtocol.readUser(in));
+                    } catch (IllegalArgumentException e) {
+                        error = e.getMessage();
+                    }
+                }
+                if (error != null || k < 0) {
+                    out.writeInt(ShardProtocol.FAILED);
+                    out.writeUTF(error != null ? error : "k must not be negative: " + k);
+                } else {
+                    writeRankings(out, rankTopK(users, k));
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ranks the shard for every user.
+     *
+     * @param users the cohort
+     * @param k     the number of pets to keep per user
+     * @return each user's heap of its best pets, by catalog id
+     */
+    TopKHeap[] rankTopK(List<User> users, int k) {
+        TopKHeap[] heaps = new TopKHeap[users.size()];
+        IntStream.range(0, users.size()).parallel().forEach(u -> {
+            int shardSize = toId - fromId;
+            TopKHeap heap = new TopKHeap(Math.min(k, shardSize));
+            double[] scores = new double[Math.min(SCORE_CHUNK, shardSize)];
+            for (int from = 0; from < shardSize; from += scores.length) {
+                int to = Math.min(from + scores.length, shardSize);
+                calculator.scoreRange(users.get(u), columns, from, to, scores, 0);
+                for (int position = from; position < to; position++) {
+                    heap.offer(fromId + position, scores[position - from]);
+                }
+            }
+            heaps[u] = heap;
+        });
+        return heaps;
+    }
+
+    private static void writeRankings(DataOutputStream out, TopKHeap[] heaps) throws IOException {
+        out.writeInt(ShardProtocol.OK);
+        for (TopKHeap heap : heaps) {
+            int[] ids = new int[heap.size()];
+            double[] scores = new double[heap.size()];
+            int count = heap.drainSorted(ids, scores);
+            out.writeInt(count);
+            for (int r = 0; r < count; r++) {
+                out.writeInt(ids[r]);
+                out.writeDouble(scores[r]);
+            }
+        }
+    }
+
+    /** Maps a {@code .pets} catalog, or loads a JSON or CSV catalog off-heap. */
+    private static OffHeapPetCatalog open(Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(OffHeapPetCatalog.FILE_EXTENSION)) {
+            return OffHeapPetCatalog.map(file);
+        }
+        return OffHeapPetCatalog.allocate(CompactPetCatalog.of(new PetCatalogLoader().load(file)).asList());
+    }
+}
@@ -0,0 +1,147 @@
+package model;
+
+/**
+ * A bounded min-heap that keeps the {@code k} best-scoring pet positions offered to it.
+ * <p>
+ * Pets are ranked by descending score; equal scores are ranked by ascending catalog
+ * position so that results are deterministic regardless of the order in which pets
+ * are offered. The weakest retained entry sits at the root, so rejecting a pet that
+ * cannot make the cut costs a single comparison.
+ */
+final class TopKHeap {
+
+    private final int capacity;
+    private final int[] positions;
+    private final double[] scores;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity the number of entries to retain
+     */
+    TopKHeap(int capacity) {
+        this.capacity = capacity;
+        this.positions = new int[capacity];
+        this.scores = new double[capacity];
+    }
+
+    /** @return the number of retained entries */
+    int size() {
+        return size;
+    }
+
+    /** @return {@code true} once {@code k} entries are retained */
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Returns the score a new pet must exceed (or tie with a smaller position) to be
+     * retained once the heap is full.
+     *
+     * @return the lowest retained score, negative infinity while the heap is not full,
+     *         or positive infinity if the heap retains nothing
+     */
+    double threshold() {
+        if (capacity == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return size < capacity ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * Offers a pet to the heap.
+     *
+     * @param position the pet's catalog position
+     * @param score    the pet's score
+     */
+    void offer(int position, double score) {
+        if (size < capacity) {
+            positions[size] = position;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (capacity > 0 && isBetter(score, position, scores[0], positions[0])) {
+            positions[0] = position;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Offers every entry retained by another heap.
+     *
+     * @param other the heap to merge into this one
+     */
+    void addAll(TopKHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.positions[i], other.scores[i]);
+        }
+    }
+
+    /**
+     * Drains the heap into arrays sorted from best to worst. The heap is empty afterwards.
+     *
+     * @param outPositions destination for the pet positions, at least {@link #size()} long
+     * @param outScores    destination for the scores, at least {@link #size()} long
+     * @return the number of entries written
+     */
+    int drainSorted(int[] outPositions, double[] outScores) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            outPositions[i] = positions[0];
+            outScores[i] = scores[0];
+            size--;
+            positions[0] = positions[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return count;
+    }
+
+    /**
+     * @return {@code true} if entry a ranks strictly ahead of entry b
+     */
+    static boolean isBetter(double scoreA, int positionA, double scoreB, int positionB) {
+        return scoreA > scoreB || (scoreA == scoreB && positionA < positionB);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBetter(scores[parent], positions[parent], scores[i], positions[i])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isBetter(scores[worst], positions[worst], scores[right], positions[right])) {
+                worst = right;
+            }
+            if (!isBetter(scores[i], positions[i], scores[worst], positions[worst])) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int position = positions[a];
+        positions[a] = positions[b];
+        positions[b] = position;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
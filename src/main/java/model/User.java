@@ -9,6 +9,7 @@ public class User {
     private final String gender;
     private final String preferredPetGender;
     private final String mbti;
+    private final int mbtiCode;
     private final int energyLevel;
     private final double space;
     private final double budget;
@@ -16,6 +17,12 @@ public class User {
     private final boolean hasYard;
     private final double timePerDay;
 
+    /**
+     * Gender score of each {@link Pet#GENDERS} code, computed on first use and again once
+     * the dictionary has grown past it.
+     */
+    private volatile double[] genderScores;
+
     /**
      * Constructs a {@code User} instance with the specified lifestyle and preference data.
      *
@@ -28,6 +35,7 @@ public class User {
      * @param allergic            whether the user has pet allergies
      * @param hasYard             whether the user has a yard
      * @param timePerDay          available time per day to spend with a pet
+     * @throws IllegalArgumentException if {@code mbti} is not a valid MBTI type
      */
     public User(String gender, String preferredPetGender, String mbti,
                 int energyLevel, double space, double budget,
@@ -35,6 +43,7 @@ public class User {
         this.gender = gender;
         this.preferredPetGender = preferredPetGender;
         this.mbti = mbti;
+        this.mbtiCode = MbtiCode.encode(mbti);
         this.energyLevel = energyLevel;
         this.space = space;
         this.budget = budget;
@@ -58,6 +67,27 @@ public class User {
         return mbti;
     }
 
+    /** @return the user's MBTI type as a 4-bit {@link MbtiCode} */
+    public int getMbtiCode() {
+        return mbtiCode;
+    }
+
+    /**
+     * Scores the gender criterion against a pet gender code of {@link Pet#GENDERS},
+     * comparing codes instead of strings.
+     *
+     * @param genderCode the pet's gender code
+     * @return 1.0 if the pet has the preferred gender or any gender is accepted, 0.0 otherwise
+     */
+    double genderScore(int genderCode) {
+        double[] scores = genderScores;
+        if (scores == null || genderCode >= scores.length) {
+            scores = CompatibilityCalculator.genderScores(preferredPetGender, Pet.GENDERS.values());
+            genderScores = scores;
+        }
+        return scores[genderCode];
+    }
+
     /** @return the user's energy level */
     public int getEnergyLevel() {
         return energyLevel;
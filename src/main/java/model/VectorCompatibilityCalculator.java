@@ -0,0 +1,132 @@
+package model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@code VectorCompatibilityCalculator} class scores columnar catalogs with the
+ * incubating Java Vector API, processing one full SIMD register of pets per iteration.
+ * <p>
+ * Every lane performs exactly the same floating-point operations, in the same order,
+ * as {@link CompatibilityCalculator#calculate(User, Pet)}, so the scores are identical
+ * to the scalar implementation. Leftover pets at the end of a range are scored by the
+ * scalar loop.
+ * <p>
+ * This class requires the {@code jdk.incubator.vector} module at runtime and should be
+ * obtained through {@link CompatibilityCalculator#create()}, which falls back to the
+ * scalar calculator when the module is not available.
+ */
+public class VectorCompatibilityCalculator extends CompatibilityCalculator {
+
+    /** Double lanes processed per iteration. */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    /** Int species with the same lane count, used to load energy levels. */
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED
+            .withShape(VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /** Number of lanes per vector. */
+    private static final int LANES = DOUBLES.length();
+
+    @Override
+    WeightProfile weights() {
+        return getClass() == VectorCompatibilityCalculator.class ? WeightProfile.DEFAULT : null;
+    }
+
+    /**
+     * Scores a range of pets from a columnar catalog using SIMD arithmetic.
+     *
+     * @param user      the user profile
+     * @param pets      the columnar pet catalog
+     * @param from      first pet position (inclusive)
+     * @param to        last pet position (exclusive)
+     * @param out       the destination array
+     * @param outOffset position in {@code out} for the score of pet {@code from}
+     */
+    @Override
+    public void scoreRange(User user, PetColumns pets, int from, int to, double[] out, int outOffset) {
+        int mbtiRow = user.getMbtiCode() << 4;
+        double[] genderScores = genderScores(user, pets);
+
+        DoubleVector space = DoubleVector.broadcast(DOUBLES, user.getSpace());
+        DoubleVector time = DoubleVector.broadcast(DOUBLES, user.getTimePerDay());
+        DoubleVector budget = DoubleVector.broadcast(DOUBLES, user.getBudget());
+        DoubleVector energy = DoubleVector.broadcast(DOUBLES, user.getEnergyLevel());
+        DoubleVector one = DoubleVector.broadcast(DOUBLES, 1.0);
+        DoubleVector zero = DoubleVector.zero(DOUBLES);
+        boolean hasYard = user.hasYard();
+        boolean allergic = user.isAllergic();
+
+        int i = from;
+        int o = outOffset;
+        int upper = from + (to - from) / LANES * LANES;
+        for (; i < upper; i += LANES, o += LANES) {
+            DoubleVector petSpace = DoubleVector.fromArray(DOUBLES, pets.requiredSpace, i);
+            DoubleVector petTime = DoubleVector.fromArray(DOUBLES, pets.timeNeededPerDay, i);
+            DoubleVector petCost = DoubleVector.fromArray(DOUBLES, pets.monthlyCost, i);
+            DoubleVector petEnergy = (DoubleVector) IntVector.fromArray(INTS, pets.energyLevel, i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0);
+
+            DoubleVector spaceScore = ratio(space, petSpace, one);
+            DoubleVector timeScore = ratio(time, petTime, one);
+            DoubleVector budgetScore = ratio(budget, petCost, one);
+            DoubleVector yardScore = hasYard
+                    ? one
+                    : one.blend(zero, VectorMask.fromLong(DOUBLES, bits(pets.requiresYard, i)));
+            DoubleVector energyScore = one.sub(energy.sub(petEnergy).abs().div(10.0));
+            DoubleVector mbtiScore = DoubleVector.fromArray(DOUBLES, MbtiCode.SCORES, mbtiRow, pets.mbtiCode, i);
+            DoubleVector genderScore = DoubleVector.fromArray(DOUBLES, genderScores, 0, pets.genderCode, i);
+
+            DoubleVector finalScore = spaceScore.mul(0.15)
+                    .add(timeScore.mul(0.15))
+                    .add(budgetScore.mul(0.15))
+                    .add(yardScore.mul(0.10))
+                    .add(energyScore.mul(0.15))
+                    .add(mbtiScore.mul(0.25))
+                    .add(genderScore.mul(0.05));
+
+            // Allergy = hard fail
+            if (allergic) {
+                finalScore = finalScore.blend(zero, VectorMask.fromLong(DOUBLES, bits(pets.allergenic, i)));
+            }
+            finalScore.intoArray(out, o);
+        }
+
+        if (i < to) {
+            super.scoreRange(user, pets, i, to, out, o);
+        }
+    }
+
+    /**
+     * Computes the "1.0 if sufficient, otherwise a fraction" score lane by lane.
+     *
+     * @param available the user's available amount, broadcast to every lane
+     * @param required  the pets' required amounts
+     * @param one       a vector of ones
+     * @return the per-lane score
+     */
+    private static DoubleVector ratio(DoubleVector available, DoubleVector required, DoubleVector one) {
+        return available.div(required).blend(one, required.compare(VectorOperators.LE, available));
+    }
+
+    /**
+     * Extracts {@link #LANES} consecutive bits of a bitset, starting at position {@code i}.
+     *
+     * @param bitset the packed bitset
+     * @param i      the first bit position
+     * @return the bits, with bit {@code i} in the lowest position
+     */
+    private static long bits(long[] bitset, int i) {
+        int word = i >>> 6;
+        int shift = i & 63;
+        long bits = bitset[word] >>> shift;
+        if (shift + LANES > 64 && word + 1 < bitset.length) {
+            bits |= bitset[word + 1] << (64 - shift);
+        }
+        return bits;
+    }
+}
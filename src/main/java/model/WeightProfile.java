@@ -0,0 +1,182 @@
+package model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The {@code WeightProfile} class describes how much each compatibility criterion
+ * contributes to the final score, so shelters can tune scoring without changing code.
+ * <p>
+ * Profiles are loaded from JSON of the form:
+ * <pre>
+ * {
+ *   "name": "apartment-friendly",
+ *   "weights": { "space": 0.30, "time": 0.15, "budget": 0.15, "yard": 0.0,
+ *                "energy": 0.10, "mbti": 0.25, "gender": 0.05 }
+ * }
+ * </pre>
+ * Criteria that are omitted have a weight of zero. A profile is turned into a scorer with
+ * {@link #compile()}, which drops zero-weight criteria entirely.
+ */
+public final class WeightProfile {
+
+    /** System property naming a JSON profile to use instead of the built-in weights. */
+    public static final String PROFILE_PROPERTY = "petforu.scoring.profile";
+
+    /** The scoring criteria, in the order their terms are summed. */
+    public enum Criterion {
+        SPACE("space"),
+        TIME("time"),
+        BUDGET("budget"),
+        YARD("yard"),
+        ENERGY("energy"),
+        MBTI("mbti"),
+        GENDER("gender");
+
+        private final String key;
+
+        Criterion(String key) {
+            this.key = key;
+        }
+
+        /** @return the JSON key of this criterion */
+        public String key() {
+            return key;
+        }
+    }
+
+    /** The weights hardcoded in {@link CompatibilityCalculator}. */
+    public static final WeightProfile DEFAULT =
+            new WeightProfile("default", new double[]{0.15, 0.15, 0.15, 0.10, 0.15, 0.25, 0.05});
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String name;
+    private final double[] weights;
+
+    /**
+     * Constructs a profile from per-criterion weights.
+     *
+     * @param name    a descriptive name for the profile
+     * @param weights one non-negative weight per {@link Criterion}, in declaration order
+     * @throws IllegalArgumentException if a weight is missing, negative or not finite
+     */
+    public WeightProfile(String name, double[] weights) {
+        if (weights.length != Criterion.values().length) {
+            throw new IllegalArgumentException("Expected " + Criterion.values().length
+                    + " weights but got " + weights.length);
+        }
+        for (double weight : weights) {
+            if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight in profile " + name + ": " + weight);
+            }
+        }
+        this.name = name;
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Reads a profile from a JSON file.
+     *
+     * @param path the profile file
+     * @return the parsed profile
+     * @throws IOException if the file cannot be read or is not valid JSON
+     * @throws IllegalArgumentException if the profile content is invalid
+     */
+    public static WeightProfile load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a profile from a JSON stream.
+     *
+     * @param in the JSON input
+     * @return the parsed profile
+     * @throws IOException if the input is not valid JSON
+     * @throws IllegalArgumentException if the profile content is invalid
+     */
+    public static WeightProfile read(InputStream in) throws IOException {
+        JsonNode root = MAPPER.readTree(in);
+        if (root == null || !root.isObject()) {
+            throw new IllegalArgumentException("Weight profile must be a JSON object");
+        }
+        JsonNode weightsNode = root.path("weights");
+        if (!weightsNode.isObject()) {
+            throw new IllegalArgumentException("Weight profile must contain a \"weights\" object");
+        }
+
+        double[] weights = new double[Criterion.values().length];
+        Iterator<Map.Entry<String, JsonNode>> fields = weightsNode.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Criterion criterion = criterionFor(field.getKey());
+            if (!field.getValue().isNumber()) {
+                throw new IllegalArgumentException("Weight for " + field.getKey() + " must be a number");
+            }
+            weights[criterion.ordinal()] = field.getValue().doubleValue();
+        }
+        return new WeightProfile(root.path("name").asText("custom"), weights);
+    }
+
+    /**
+     * Selects the scorer configured for this process: the profile named by the
+     * {@value #PROFILE_PROPERTY} system property if set, otherwise the built-in weights.
+     *
+     * @return the configured calculator
+     * @throws IOException if the configured profile cannot be read
+     */
+    public static IBatchCompatibilityCalculator configuredCalculator() throws IOException {
+        String path = System.getProperty(PROFILE_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return CompatibilityCalculator.create();
+        }
+        return load(Path.of(path)).compile();
+    }
+
+    /**
+     * Compiles this profile into a scorer. The built-in weights compile to the
+     * hand-written {@link CompatibilityCalculator} (including its SIMD kernel when enabled);
+     * any other profile compiles to a {@link WeightedCompatibilityCalculator} that only
+     * evaluates criteria with a non-zero weight.
+     *
+     * @return a calculator applying this profile
+     */
+    public IBatchCompatibilityCalculator compile() {
+        if (Arrays.equals(weights, DEFAULT.weights)) {
+            return CompatibilityCalculator.create();
+        }
+        return new WeightedCompatibilityCalculator(this);
+    }
+
+    /** @return the profile name */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param criterion a scoring criterion
+     * @return the weight of that criterion
+     */
+    public double getWeight(Criterion criterion) {
+        return weights[criterion.ordinal()];
+    }
+
+    private static Criterion criterionFor(String key) {
+        for (Criterion criterion : Criterion.values()) {
+            if (criterion.key.equalsIgnoreCase(key)) {
+                return criterion;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scoring criterion: " + key);
+    }
+}
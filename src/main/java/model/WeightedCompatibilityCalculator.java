@@ -0,0 +1,175 @@
+package model;
+
+import model.WeightProfile.Criterion;
+
+/**
+ * The {@code WeightedCompatibilityCalculator} class scores pets with the weights of a
+ * {@link WeightProfile}, using the same per-criterion terms as {@link CompatibilityCalculator}.
+ * <p>
+ * The profile is compiled once, at construction: every weight becomes a final field and
+ * every criterion with a zero weight is switched off. The batch loop tests those
+ * loop-invariant switches, which the JIT hoists or predicts perfectly, so a disabled
+ * criterion never reads its column or evaluates its term and an enabled one costs the
+ * same as in the built-in formula. The per-pet path walks a plan listing only the
+ * enabled criteria.
+ * <p>
+ * Terms are summed in the same order as the built-in formula, so a profile with the
+ * built-in weights yields exactly the built-in scores.
+ */
+public class WeightedCompatibilityCalculator implements IBatchCompatibilityCalculator {
+
+    private final WeightProfile profile;
+
+    private final double spaceWeight;
+    private final double timeWeight;
+    private final double budgetWeight;
+    private final double yardWeight;
+    private final double energyWeight;
+    private final double mbtiWeight;
+    private final double genderWeight;
+
+    private final boolean useSpace;
+    private final boolean useTime;
+    private final boolean useBudget;
+    private final boolean useYard;
+    private final boolean useEnergy;
+    private final boolean useMbti;
+    private final boolean useGender;
+
+    /** Criteria with a non-zero weight, in summation order. */
+    private final Criterion[] plan;
+
+    /** Weights parallel to {@link #plan}. */
+    private final double[] planWeights;
+
+    /**
+     * Compiles the given profile.
+     *
+     * @param profile the weights to apply
+     */
+    public WeightedCompatibilityCalculator(WeightProfile profile) {
+        this.profile = profile;
+        this.spaceWeight = profile.getWeight(Criterion.SPACE);
+        this.timeWeight = profile.getWeight(Criterion.TIME);
+        this.budgetWeight = profile.getWeight(Criterion.BUDGET);
+        this.yardWeight = profile.getWeight(Criterion.YARD);
+        this.energyWeight = profile.getWeight(Criterion.ENERGY);
+        this.mbtiWeight = profile.getWeight(Criterion.MBTI);
+        this.genderWeight = profile.getWeight(Criterion.GENDER);
+
+        this.useSpace = spaceWeight != 0.0;
+        this.useTime = timeWeight != 0.0;
+        this.useBudget = budgetWeight != 0.0;
+        this.useYard = yardWeight != 0.0;
+        this.useEnergy = energyWeight != 0.0;
+        this.useMbti = mbtiWeight != 0.0;
+        this.useGender = genderWeight != 0.0;
+
+        int active = 0;
+        for (Criterion criterion : Criterion.values()) {
+            if (profile.getWeight(criterion) != 0.0) {
+                active++;
+            }
+        }
+        this.plan = new Criterion[active];
+        this.planWeights = new double[active];
+        int step = 0;
+        for (Criterion criterion : Criterion.values()) {
+            if (profile.getWeight(criterion) != 0.0) {
+                plan[step] = criterion;
+                planWeights[step++] = profile.getWeight(criterion);
+            }
+        }
+    }
+
+    /** @return the profile this calculator applies */
+    public WeightProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Computes the weighted compatibility score between a user and a single pet.
+     *
+     * @param user the user profile
+     * @param pet  the pet profile
+     * @return the weighted score
+     */
+    @Override
+    public double calculate(User user, Pet pet) {
+        // Allergy = hard fail
+        if (user.isAllergic() && pet.isAllergenic()) {
+            return 0.0;
+        }
+
+        double finalScore = 0.0;
+        for (int step = 0; step < plan.length; step++) {
+            double term = switch (plan[step]) {
+                case SPACE -> CompatibilityCalculator.getSpaceScore(user.getSpace(), pet.getRequiredSpace());
+                case TIME -> CompatibilityCalculator.getTimeScore(user.getTimePerDay(), pet.getTimeNeededPerDay());
+                case BUDGET -> CompatibilityCalculator.getBudgetScore(user.getBudget(), pet.getMonthlyCost());
+                case YARD -> CompatibilityCalculator.getYardScore(user.hasYard(), pet.requiresYard());
+                case ENERGY -> CompatibilityCalculator.getEnergyLevelScore(user.getEnergyLevel(), pet.getEnergyLevel());
+                case MBTI -> CompatibilityCalculator.getMBTIScore(user.getMbtiCode(), pet.getMbtiCode());
+                case GENDER -> user.genderScore(pet.getGenderCode());
+            };
+            finalScore += planWeights[step] * term;
+        }
+        return finalScore;
+    }
+
+    /**
+     * Scores a range of pets from a columnar catalog, evaluating only enabled criteria.
+     *
+     * @param user      the user profile
+     * @param pets      the columnar pet catalog
+     * @param from      first pet position (inclusive)
+     * @param to        last pet position (exclusive)
+     * @param out       the destination array
+     * @param outOffset position in {@code out} for the score of pet {@code from}
+     */
+    @Override
+    public void scoreRange(User user, PetColumns pets, int from, int to, double[] out, int outOffset) {
+        double[] genderScores = useGender ? CompatibilityCalculator.genderScores(user, pets) : null;
+        int mbtiRow = user.getMbtiCode() << 4;
+
+        double space = user.getSpace();
+        double time = user.getTimePerDay();
+        double budget = user.getBudget();
+        boolean hasYard = user.hasYard();
+        boolean allergic = user.isAllergic();
+        int energy = user.getEnergyLevel();
+
+        for (int i = from, o = outOffset; i < to; i++, o++) {
+            // Allergy = hard fail
+            if (allergic && (pets.allergenic[i >>> 6] & (1L << i)) != 0) {
+                out[o] = 0.0;
+                continue;
+            }
+
+            double finalScore = 0.0;
+            if (useSpace) {
+                finalScore += spaceWeight * CompatibilityCalculator.getSpaceScore(space, pets.requiredSpace[i]);
+            }
+            if (useTime) {
+                finalScore += timeWeight * CompatibilityCalculator.getTimeScore(time, pets.timeNeededPerDay[i]);
+            }
+            if (useBudget) {
+                finalScore += budgetWeight * CompatibilityCalculator.getBudgetScore(budget, pets.monthlyCost[i]);
+            }
+            if (useYard) {
+                boolean needsYard = (pets.requiresYard[i >>> 6] & (1L << i)) != 0;
+                finalScore += yardWeight * CompatibilityCalculator.getYardScore(hasYard, needsYard);
+            }
+            if (useEnergy) {
+                finalScore += energyWeight * CompatibilityCalculator.getEnergyLevelScore(energy, pets.energyLevel[i]);
+            }
+            if (useMbti) {
+                finalScore += mbtiWeight * MbtiCode.SCORES[mbtiRow | pets.mbtiCode[i]];
+            }
+            if (useGender) {
+                finalScore += genderWeight * genderScores[pets.genderCode[i]];
+            }
+            out[o] = finalScore;
+        }
+    }
+}
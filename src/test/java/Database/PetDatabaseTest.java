@@ -0,0 +1,110 @@
+package Database;
+
+import model.CompatibilityCalculator;
+import model.OffHeapPetCatalog;
+import model.Pet;
+import model.PetColumns;
+import model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PetDatabase}, verifying that the catalog is immutable and that
+ * randomized orders are seeded permutations of it.
+ */
+public class PetDatabaseTest {
+
+    /**
+     * The catalog should be in id order and reject modification.
+     */
+    @Test
+    public void testCatalogIsImmutableAndInIdOrder() {
+        List<Pet> catalog = PetDatabase.getCatalog();
+
+        assertEquals(PetDatabase.size(), catalog.size());
+        for (int id = 0; id < catalog.size(); id++) {
+            assertEquals(id, catalog.get(id).getId());
+            assertSame(catalog.get(id), PetDatabase.getPetById(id));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> catalog.remove(0));
+    }
+
+    /**
+     * Every randomized order should contain each pet exactly once, reject modification and
+     * leave the catalog untouched.
+     */
+    @Test
+    public void testAllPetsIsAPermutationView() {
+        List<Pet> before = new ArrayList<>(PetDatabase.getCatalog());
+
+        for (long seed = 0; seed < 200; seed++) {
+            List<Pet> pets = PetDatabase.getAllPets(seed);
+            Set<Pet> seen = new HashSet<>(pets);
+            assertEquals(before.size(), pets.size());
+            assertEquals(before.size(), seen.size());
+            assertThrows(UnsupportedOperationException.class, () -> pets.set(0, pets.get(1)));
+        }
+
+        assertEquals(before, PetDatabase.getCatalog());
+        assertThrows(IndexOutOfBoundsException.class, () -> PetDatabase.getAllPets().get(PetDatabase.size()));
+    }
+
+    /**
+     * The same seed should give the same order, and different seeds should vary it.
+     */
+    @Test
+    public void testSeedSelectsOrder() {
+        assertEquals(PetDatabase.getAllPets(42), PetDatabase.getAllPets(42));
+
+        Set<List<Pet>> orders = new HashSet<>();
+        for (long seed = 0; seed < 20; seed++) {
+            orders.add(new ArrayList<>(PetDatabase.getAllPets(seed)));
+        }
+        assertTrue(orders.size() > 1, "Seeds should produce different orders");
+    }
+
+    /**
+     * The index should cover the whole catalog.
+     */
+    @Test
+    public void testIndexCoversCatalog() {
+        PetIndex index = PetDatabase.getIndex();
+
+        assertEquals(PetDatabase.size(), index.size());
+        for (Pet pet : PetDatabase.getCatalog()) {
+            assertTrue(index.idOf(pet.getName(), pet.getBreed()) <= pet.getId());
+        }
+    }
+
+    /**
+     * Tiny lists should be presented unchanged.
+     */
+    @Test
+    public void testTinyLists() {
+        assertEquals(List.of(), new PermutationView<>(List.of(), 7));
+        assertEquals(List.of("a"), new PermutationView<>(List.of("a"), 7));
+        assertEquals(Set.of("a", "b"), new HashSet<>(new PermutationView<>(List.of("a", "b"), 7)));
+    }
+
+    /**
+     * A view of a list with columns of its own should gather them in the view's order;
+     * a view of plain pets has none.
+     */
+    @Test
+    public void testViewGathersSourceColumns() {
+        List<Pet> offHeap = OffHeapPetCatalog.allocate(PetDatabase.getCatalog()).asList();
+        PermutationView<Pet> view = new PermutationView<>(offHeap, 11);
+        User user = new User("Female", "Male", "ENTP", 4, 30.0, 25.0, false, true, 1.5);
+        CompatibilityCalculator calculator = new CompatibilityCalculator();
+
+        assertArrayEquals(calculator.scoreAll(user, PetColumns.of(new ArrayList<>(view))),
+                calculator.scoreAll(user, PetColumns.of(view)), 0.0);
+        assertNull(new PermutationView<>(PetDatabase.getCatalog(), 11).columns());
+    }
+}
@@ -0,0 +1,177 @@
+package Database;
+
+import model.MbtiCode;
+import model.Pet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PetIndex}, verifying every lookup against a linear scan of the
+ * catalog, and that incremental indexing matches a full rebuild.
+ */
+public class PetIndexTest {
+
+    private static final String[] TYPES = {"Dog", "Cat", "Guinea Pig", "Straße"};
+    private static final String[] BREEDS = {"Beagle", "Mixed", "Peruvian", "ÉCLAIR", ""};
+
+    /**
+     * Lookups on the built-in catalog should match a scan, ignoring case for types and
+     * breeds and comparing keys exactly.
+     */
+    @Test
+    public void testMatchesScanOnBuiltInCatalog() {
+        List<Pet> catalog = PetDatabase.getCatalog();
+        assertMatchesScan(catalog, PetIndex.of(catalog));
+    }
+
+    /**
+     * Indexing a catalog in batches, through several posting-list resizes, should give the
+     * same answers as indexing it at once, and leave earlier indexes unchanged.
+     */
+    @Test
+    public void testIncrementalMatchesRebuild() {
+        List<Pet> catalog = randomPets(3000, new Random(20));
+        Random random = new Random(21);
+
+        PetIndex index = PetIndex.of(List.of());
+        List<PetIndex> earlier = new ArrayList<>();
+        int size = 0;
+        while (size < catalog.size()) {
+            size = Math.min(catalog.size(), size + 1 + random.nextInt(random.nextBoolean() ? 5 : 400));
+            earlier.add(index);
+            index = index.withPets(catalog.subList(0, size));
+            assertEquals(size, index.size());
+        }
+
+        assertMatchesScan(catalog, index);
+        PetIndex middle = earlier.get(earlier.size() / 2);
+        assertMatchesScan(catalog.subList(0, middle.size()), middle);
+    }
+
+    /**
+     * Extending an index that was already extended should index the new catalog alone,
+     * without the pets of the other extension, and leave both earlier indexes unchanged.
+     */
+    @Test
+    public void testExtendingAnOlderIndex() {
+        List<Pet> catalog = randomPets(200, new Random(23));
+        List<Pet> other = new ArrayList<>(catalog.subList(0, 100));
+        for (int i = 0; i < 50; i++) {
+            other.add(new Pet(100 + i, "Smaug" + i, "Dragon", "Fire", "Male", "ENTJ", 5, 10, 50, false, false, 1.0, "a.jpg"));
+        }
+
+        PetIndex base = PetIndex.of(catalog.subList(0, 100));
+        PetIndex extended = base.withPets(catalog);
+        PetIndex branched = base.withPets(other);
+
+        assertMatchesScan(catalog.subList(0, 100), base);
+        assertMatchesScan(catalog, extended);
+        assertMatchesScan(other, branched);
+        assertEquals(0, extended.idsOfType("Dragon").length);
+        assertEquals(-1, extended.idOf("Smaug0", "Fire"));
+    }
+
+    /**
+     * Pets added one at a time should be indexed as if they were added at once.
+     */
+    @Test
+    public void testAddingOneAtATime() {
+        List<Pet> catalog = randomPets(500, new Random(25));
+        PetIndex index = PetIndex.of(List.of());
+        for (int size = 1; size <= catalog.size(); size++) {
+            index = index.withPets(catalog.subList(0, size));
+        }
+        assertMatchesScan(catalog, index);
+    }
+
+    /**
+     * Catalogs whose ids are not their positions cannot be indexed.
+     */
+    @Test
+    public void testRejectsCatalogsOutOfIdOrder() {
+        List<Pet> pets = randomPets(3, new Random(22));
+
+        assertThrows(IllegalArgumentException.class, () -> PetIndex.of(List.of(pets.get(1), pets.get(0))));
+        assertThrows(IllegalArgumentException.class, () -> PetIndex.of(pets).withPets(pets.subList(0, 2)));
+        assertThrows(IllegalArgumentException.class, () -> PetIndex.of(pets).idsWithMbti("XXXX"));
+    }
+
+    /**
+     * Pets without a type, breed or name should be indexed under keys of their own, which
+     * collide neither with each other nor with any text, including text with NUL characters.
+     */
+    @Test
+    public void testIndexesMissingValues() {
+        List<Pet> pets = List.of(
+                new Pet(0, null, null, null, "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "a.jpg"),
+                new Pet(1, "Rex", "Dog", null, "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "b.jpg"),
+                new Pet(2, "Rex", null, "Beagle", "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "c.jpg"),
+                new Pet(3, "Rex", "Dog\0B", "C", "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "d.jpg"),
+                new Pet(4, "Rex", "Dog", "B\0C", "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "e.jpg"));
+
+        PetIndex index = PetIndex.of(pets);
+
+        assertEquals(0, index.idOf(null, null));
+        assertEquals(1, index.idOf("Rex", null));
+        assertEquals(2, index.idOf("Rex", "Beagle"));
+        assertArrayEquals(new int[]{1, 4}, index.idsOfType("dog"));
+        assertArrayEquals(new int[0], index.idsOfType(null));
+        assertArrayEquals(new int[]{3}, index.idsOfTypeAndBreed("dog\0b", "c"));
+        assertArrayEquals(new int[]{4}, index.idsOfTypeAndBreed("dog", "b\0c"));
+        assertArrayEquals(new int[0], index.idsOfTypeAndBreed(null, "Beagle"));
+    }
+
+    private static void assertMatchesScan(List<Pet> catalog, PetIndex index) {
+        Set<String> types = new LinkedHashSet<>(List.of("Dragon"));
+        Set<String> breeds = new LinkedHashSet<>(List.of("Unknown"));
+        for (Pet pet : catalog) {
+            types.add(pet.getType());
+            types.add(pet.getType().toUpperCase());
+            breeds.add(pet.getBreed());
+            breeds.add(pet.getBreed().toLowerCase());
+        }
+
+        for (String type : types) {
+            assertArrayEquals(scan(catalog, pet -> pet.getType().equalsIgnoreCase(type)), index.idsOfType(type));
+            for (String breed : breeds) {
+                int[] expected = breed.isEmpty()
+                        ? scan(catalog, pet -> pet.getType().equalsIgnoreCase(type))
+                        : scan(catalog, pet -> pet.getType().equalsIgnoreCase(type) && pet.getBreed().equalsIgnoreCase(breed));
+                assertArrayEquals(expected, index.idsOfTypeAndBreed(type, breed), type + "/" + breed);
+            }
+        }
+        for (int code = 0; code < MbtiCode.COUNT; code++) {
+            int mbti = code;
+            assertArrayEquals(scan(catalog, pet -> pet.getMbtiCode() == mbti), index.idsWithMbti(MbtiCode.decode(code).toLowerCase()));
+        }
+        for (Pet pet : catalog) {
+            int[] sameKey = scan(catalog, other -> other.getName().equals(pet.getName()) && other.getBreed().equals(pet.getBreed()));
+            assertEquals(sameKey[0], index.idOf(pet.getName(), pet.getBreed()));
+            assertEquals(-1, index.idOf(pet.getName().toUpperCase() + "?", pet.getBreed()));
+        }
+    }
+
+    private static int[] scan(List<Pet> catalog, Predicate<Pet> matches) {
+        return IntStream.range(0, catalog.size()).filter(id -> matches.test(catalog.get(id))).toArray();
+    }
+
+    private static List<Pet> randomPets(int count, Random random) {
+        List<Pet> pets = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            pets.add(new Pet(id, "Pet" + random.nextInt(count / 2 + 1),
+                    random.nextBoolean() ? type : type.toLowerCase(), BREEDS[random.nextInt(BREEDS.length)],
+                    "Male", MbtiCode.decode(random.nextInt(MbtiCode.COUNT)), 5, 10, 50, false, false, 1.0, "a.jpg"));
+        }
+        return pets;
+    }
+}
@@ -48,16 +48,21 @@ public class PetForUAppTest {
         System.setOut(originalOut);
         System.setIn(originalIn);
 
-        // Clean up output directory
+        // Clean up the session output directories
         File outputDir = new File("output");
         if (outputDir.exists()) {
-            File csvFile = new File("output/pet_compatibility.csv");
-            if (csvFile.exists()) {
-                csvFile.delete();
+            for (File sessionDir : sessionDirectories(outputDir)) {
+                for (File file : sessionDir.listFiles()) file.delete();
+                sessionDir.delete();
             }
         }
     }
 
+    private static File[] sessionDirectories(File outputDir) {
+        File[] dirs = outputDir.listFiles(file -> file.isDirectory() && file.getName().startsWith("session-"));
+        return dirs == null ? new File[0] : dirs;
+    }
+
     /**
      * Tests that ArgsController correctly detects the '--help' flag.
      */
@@ -124,12 +129,17 @@ public class PetForUAppTest {
     }
 
     /**
-     * Ensures the output directory and compatibility CSV are created after program execution.
+     * Ensures the output directory and the session's compatibility CSV are created after
+     * program execution.
      */
     @Test
     public void testOutputDirectoryCreation() {
         File outputDir = new File("output");
         if (outputDir.exists()) {
+            for (File sessionDir : sessionDirectories(outputDir)) {
+                for (File file : sessionDir.listFiles()) file.delete();
+                sessionDir.delete();
+            }
             for (File file : outputDir.listFiles()) file.delete();
             outputDir.delete();
         }
@@ -144,7 +154,9 @@ public class PetForUAppTest {
         PetForUApp.main(new String[]{});
 
         assertTrue(outputDir.exists());
-        assertTrue(new File("output/pet_compatibility.csv").exists());
+        File[] sessionDirs = sessionDirectories(outputDir);
+        assertEquals(1, sessionDirs.length, "Expected one session directory");
+        assertTrue(new File(sessionDirs[0], "pet_compatibility.csv").exists());
     }
 
     /**
@@ -169,6 +181,7 @@ public class PetForUAppTest {
         // Create a manager with sample inputs
         PetManager manager = new PetManager("Male", "Any", 1, 1, 1, 1,
                 5, 50.0, 30.0, false, true, 2.0);
+        manager.awaitExport(); // The menu below reads the CSV
 
         ConsoleController consoleController = new ConsoleController(manager.getUser(), new model.CompatibilityCalculator());
 
@@ -4,6 +4,7 @@ import controller.ConsoleController;
 import model.CompatibilityCalculator;
 import model.Pet;
 import model.PetWithScore;
+import model.ScoredSession;
 import model.User;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -126,6 +127,47 @@ public class ConsoleControllerTest {
         assertTrue(output.contains("Milo"),    "Should list third pet");
     }
 
+    /**
+     * displayAllPetsWithScores on a session should list every ranked pet with its score.
+     */
+    @Test
+    public void testDisplayAllPetsWithScoresFromSession() {
+        List<Pet> pets = new ArrayList<>();
+        pets.add(new Pet("Bella","Dog","Beagle","Female","ENFJ",
+                7,50.0,30.0,false,true,2.0,"images/bella.jpg"));
+        pets.add(new Pet("Milo","Cat","Siamese","Male","ISTP",
+                2,900.0,400.0,true,true,6.0,"images/milo.jpg"));
+        ScoredSession session = new ScoredSession(testUser, calculator, pets);
+
+        consoleController.displayAllPetsWithScores(session);
+        String output = outContent.toString();
+
+        assertTrue(output.contains("ALL PETS WITH COMPATIBILITY SCORES"), "Should include header");
+        assertTrue(output.indexOf("1. Bella") >= 0 && output.indexOf("2. Milo") > output.indexOf("1. Bella"),
+                "Should list pets in rank order");
+        assertTrue(output.contains(String.format("%.0f%%", session.getRanking().score(0) * 100)),
+                "Should display the exact score as a percentage");
+    }
+
+    /**
+     * displayBestMatch and displayRecommendedPets on a session with no suitable pet
+     * should report that no compatible pets were found.
+     */
+    @Test
+    public void testSessionWithNoCompatiblePets() {
+        List<Pet> pets = new ArrayList<>();
+        pets.add(new Pet("Milo","Cat","Siamese","Male","ISTP",
+                2,900.0,400.0,true,true,6.0,"images/milo.jpg"));
+        ScoredSession session = new ScoredSession(testUser, calculator, pets);
+
+        consoleController.displayBestMatch(session);
+        consoleController.displayRecommendedPets(session);
+        String output = outContent.toString();
+
+        assertEquals(2, output.split("NO COMPATIBLE PETS FOUND", -1).length - 1,
+                "Both actions should report no compatible pets");
+    }
+
     /**
      * displaySearchResult should show search header, pet names, and scores.
      */
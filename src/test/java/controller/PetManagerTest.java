@@ -1,24 +1,29 @@
 package controller;
 
+import model.ScoredSession;
 import model.User;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for {@link PetManager}, verifying that:
  * - A User is initialized correctly from constructor parameters
- * - The CSV path is as expected
- * - The output CSV file is created upon manager instantiation
+ * - The CSV path is inside the session's own output directory
+ * - The output CSV file is written in the background after manager instantiation
  */
 class PetManagerTest {
 
-    private static final String EXPECTED_CSV_PATH = "output/pet_compatibility.csv";
-
     private PetManager manager;
 
     @BeforeEach
@@ -42,11 +47,24 @@ class PetManagerTest {
 
     @AfterEach
     void tearDown() {
-        // Remove the generated CSV file, if it exists
-        File output = new File(manager.getCsvPath());
-        if (output.exists()) {
-            output.delete();
+        // Let the background export finish, then remove the session's output directory
+        manager.awaitExport();
+        deleteOutput(manager);
+    }
+
+    private static void deleteOutput(PetManager manager) {
+        manager.close();
+        deleteOutput(new File(manager.getOutputDirectory()));
+    }
+
+    private static void deleteOutput(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
         }
+        directory.delete();
     }
 
     /**
@@ -70,12 +88,45 @@ class PetManagerTest {
 
     /**
      * Verifies that the CSV path returned by PetManager
-     * matches the expected static path.
+     * is inside the session's own output directory.
      */
     @Test
     void testCsvPath() {
-        assertEquals(EXPECTED_CSV_PATH, manager.getCsvPath(),
-                "CSV path should match the expected output location");
+        assertEquals(PetManager.OUTPUT_ROOT + "/session-" + manager.getSessionId(), manager.getOutputDirectory(),
+                "Output directory should be named after the session");
+        assertEquals(manager.getOutputDirectory() + "/pet_compatibility.csv", manager.getCsvPath(),
+                "CSV path should be inside the session's output directory");
+    }
+
+    /**
+     * Verifies that concurrent sessions write to separate directories and each keeps
+     * its own complete ranking.
+     */
+    @Test
+    void testConcurrentSessionsDoNotOverwriteEachOther() throws IOException {
+        List<PetManager> managers = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                managers.add(new PetManager("Female", i % 2 == 0 ? "Male" : "Female", i & 1, (i >> 1) & 1,
+                        (i >> 2) & 1, 0, 1 + i, 30.0 + i, 20.0, false, i % 3 == 0, 2.0));
+            }
+            CompletableFuture.allOf(managers.stream()
+                    .map(PetManager::getExportFuture).toArray(CompletableFuture[]::new)).join();
+
+            assertEquals(managers.size(), managers.stream().map(PetManager::getCsvPath).distinct().count(),
+                    "Every session should have its own CSV");
+            for (PetManager session : managers) {
+                ScoredSession restored = ScoredSession.restore(session.getUser(), session.getCalculator(),
+                        Database.PetDatabase.getAllPets(), session.getRankingPath());
+                for (int rank = 0; rank < restored.getRanking().size(); rank++) {
+                    assertEquals(session.getSession().getRanking().score(rank), restored.getRanking().score(rank));
+                }
+                List<String> lines = Files.readAllLines(Path.of(session.getCsvPath()));
+                assertEquals(session.getSession().getRanking().size() + 1, lines.size(), "CSV should be complete");
+            }
+        } finally {
+            managers.forEach(PetManagerTest::deleteOutput);
+        }
     }
 
     /**
@@ -84,7 +135,154 @@ class PetManagerTest {
      */
     @Test
     void testOutputCsvIsCreated() {
+        manager.awaitExport();
         File outputFile = new File(manager.getCsvPath());
         assertTrue(outputFile.exists(), "Expected the CSV file to be created at instantiation");
     }
+
+    /**
+     * Verifies that the in-memory session ranks every pet in the database.
+     */
+    @Test
+    void testSessionRanksAllPets() {
+        assertEquals(Database.PetDatabase.getAllPets().size(), manager.getSession().getRanking().size(),
+                "Session should rank every pet");
+        assertSame(manager.getUser(), manager.getSession().getUser(), "Session should belong to the user");
+    }
+
+    /**
+     * Verifies that the session's seed reproduces its presentation order, so equally
+     * scored pets rank the same way in a session ranked again from that seed.
+     */
+    @Test
+    void testSessionKeepsItsPresentationOrder() {
+        ScoredSession again = new ScoredSession(manager.getUser(), manager.getCalculator(),
+                Database.PetDatabase.getAllPets(manager.getPresentationSeed()));
+
+        for (int rank = 0; rank < again.getRanking().size(); rank++) {
+            assertSame(manager.getSession().getRanking().pet(rank), again.getRanking().pet(rank));
+        }
+    }
+
+    /**
+     * Verifies that the session is available while the export runs, and that the export
+     * future completes with both files written.
+     */
+    @Test
+    void testExportCompletesInBackground() {
+        assertFalse(manager.getSession().getRanking().isEmpty(), "Session should be ranked before export ends");
+
+        manager.getExportFuture().join();
+
+        assertTrue(new File(manager.getCsvPath()).exists(), "CSV should be written");
+        assertTrue(new File(manager.getRankingPath()).exists(), "Ranking should be written");
+    }
+
+    /**
+     * Verifies that the saved ranking restores a session identical to the original.
+     */
+    @Test
+    void testRankingFileRestoresSession() throws IOException {
+        manager.awaitExport();
+        ScoredSession original = manager.getSession();
+
+        ScoredSession restored = ScoredSession.restore(original.getUser(), original.getCalculator(),
+                Database.PetDatabase.getAllPets(), manager.getRankingPath());
+
+        assertEquals(original.getRanking().size(), restored.getRanking().size());
+        for (int rank = 0; rank < original.getRanking().size(); rank++) {
+            assertEquals(original.getRanking().pet(rank), restored.getRanking().pet(rank));
+            assertEquals(original.getRanking().score(rank), restored.getRanking().score(rank));
+        }
+    }
+
+    /**
+     * Verifies that a finished export deletes the oldest session directories, keeping the
+     * newest ones including its own.
+     */
+    @Test
+    void testOldSessionsAreDeleted() throws IOException {
+        List<File> stale = new ArrayList<>();
+        for (int i = 0; i < PetManager.KEPT_SESSIONS + 2; i++) {
+            File directory = new File(PetManager.OUTPUT_ROOT, "session-stale-" + i);
+            directory.mkdirs();
+            Files.writeString(new File(directory, "pet_compatibility.csv").toPath(), "Name\n");
+            directory.setLastModified(System.currentTimeMillis() - (i + 1) * 3_600_000L);
+            stale.add(directory);
+        }
+        try {
+            PetManager latest = new PetManager("Female", "Any", 0, 0, 0, 0, 5, 30.0, 20.0, false, true, 2.0);
+            latest.awaitExport();
+            deleteOutput(latest);
+
+            File[] remaining = new File(PetManager.OUTPUT_ROOT).listFiles(
+                    file -> file.isDirectory() && file.getName().startsWith("session-stale-"));
+            assertTrue(remaining.length < PetManager.KEPT_SESSIONS, "Old sessions should be deleted");
+            assertFalse(stale.get(stale.size() - 1).exists(), "The oldest session should be deleted");
+        } finally {
+            for (File directory : stale) {
+                deleteOutput(directory);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the files of a session that is still running survive the cleanup of
+     * newer sessions, however old its directory, and are deleted once it is closed.
+     */
+    @Test
+    void testLiveSessionsAreKept() throws IOException {
+        manager.awaitExport();
+        File live = new File(manager.getOutputDirectory());
+        live.setLastModified(System.currentTimeMillis() - 48 * 3_600_000L);
+        List<File> stale = new ArrayList<>();
+        for (int i = 0; i < PetManager.KEPT_SESSIONS + 2; i++) {
+            File directory = new File(PetManager.OUTPUT_ROOT, "session-stale-" + i);
+            directory.mkdirs();
+            Files.writeString(new File(directory, "pet_compatibility.csv").toPath(), "Name\n");
+            directory.setLastModified(System.currentTimeMillis() - (i + 1) * 3_600_000L);
+            stale.add(directory);
+        }
+        try {
+            PetManager newer = new PetManager("Female", "Any", 0, 0, 0, 0, 5, 30.0, 20.0, false, true, 2.0);
+            newer.awaitExport();
+            deleteOutput(newer);
+
+            assertTrue(new File(manager.getCsvPath()).exists(), "A live session's CSV should be kept");
+            assertTrue(new File(manager.getRankingPath()).exists(), "A live session's ranking should be kept");
+            assertFalse(stale.get(stale.size() - 1).exists(), "Ended sessions should still be deleted");
+
+            manager.close();
+            PetManager latest = new PetManager("Female", "Any", 0, 0, 0, 0, 5, 30.0, 20.0, false, true, 2.0);
+            latest.awaitExport();
+            deleteOutput(latest);
+
+            assertFalse(live.exists(), "A closed session should be deleted once it is old");
+        } finally {
+            for (File directory : stale) {
+                deleteOutput(directory);
+            }
+        }
+    }
+
+    /**
+     * Verifies that no CSV is written when the export is disabled.
+     */
+    @Test
+    void testExportCanBeDisabled() {
+        manager.awaitExport();
+        deleteOutput(manager);
+        System.setProperty(PetManager.EXPORT_PROPERTY, "false");
+        try {
+            PetManager inMemory = new PetManager("Female", "Any", 0, 0, 0, 0,
+                    5, 30.0, 20.0, false, true, 2.0);
+
+            assertTrue(inMemory.getExportFuture().isDone(), "Disabled export should be complete at once");
+            assertFalse(new File(inMemory.getCsvPath()).exists(), "CSV should not be written");
+            assertFalse(new File(inMemory.getRankingPath()).exists(), "Ranking should not be written");
+            assertFalse(inMemory.getSession().getRanking().isEmpty(), "Session should still be ranked");
+        } finally {
+            System.clearProperty(PetManager.EXPORT_PROPERTY);
+        }
+    }
 }
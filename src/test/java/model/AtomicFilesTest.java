@@ -0,0 +1,73 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AtomicFiles}, verifying that files are replaced in one step and
+ * that no temporary files are left behind.
+ */
+public class AtomicFilesTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("atomic");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Publishing should create the file, then replace it, leaving only the target.
+     */
+    @Test
+    public void testPublishCreatesAndReplaces() throws IOException {
+        Path target = directory.resolve("ranking.csv");
+
+        AtomicFiles.publish(target, file -> Files.writeString(file, "first"));
+        AtomicFiles.publish(target, file -> Files.writeString(file, "second"));
+
+        assertEquals("second", Files.readString(target));
+        assertEquals(1, fileCount());
+    }
+
+    /**
+     * A failed write should leave the previous file untouched and remove the temporary file.
+     */
+    @Test
+    public void testFailedWriteKeepsPreviousFile() throws IOException {
+        Path target = directory.resolve("ranking.csv");
+        AtomicFiles.publish(target, file -> Files.writeString(file, "complete"));
+
+        assertThrows(IOException.class, () -> AtomicFiles.publish(target, file -> {
+            Files.writeString(file, "partial");
+            throw new IOException("disk full");
+        }));
+
+        assertEquals("complete", Files.readString(target));
+        assertEquals(1, fileCount());
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark for loading external catalogs with the {@link PetCatalogLoader}: JSON and CSV
+ * files of 100K to 3M pets, parsed on the common pool and on a single thread.
+ * <p>
+ * Run with {@code gradle catalogLoadBenchmark}. This is not a unit test; it only prints
+ * timings.
+ */
+public final class CatalogLoadBenchmark {
+
+    private static final int[] CATALOG_SIZES = {100_000, 1_000_000, 3_000_000};
+    private static final int MEASURED_ROUNDS = 3;
+    private static final String[] TYPES = {"Dog", "Cat", "Hamster", "Parrot", "Rabbit", "Fish"};
+    private static final String[] MBTI = {"ISFJ", "ENTJ", "INFP", "ENTP", "ENFP", "ISTP", "INTP", "INFJ"};
+
+    private CatalogLoadBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        PetCatalogLoader parallel = new PetCatalogLoader();
+        PetCatalogLoader sequential = new PetCatalogLoader(new ForkJoinPool(1), PetCatalogLoader.DEFAULT_CHUNK_BYTES);
+        Path csv = Files.createTempFile("catalog", ".csv");
+        Path json = Files.createTempFile("catalog", ".json");
+        try {
+            System.out.printf("%10s %8s %14s %14s %12s%n", "pets", "format", "parallel ms", "1 thread ms", "MB");
+            for (int size : CATALOG_SIZES) {
+                write(size, csv, json);
+                for (Path file : new Path[]{csv, json}) {
+                    long fast = time(parallel, file, size);
+                    long slow = time(sequential, file, size);
+                    System.out.printf("%10d %8s %14.1f %14.1f %12.1f%n", size, file.toString().endsWith(".csv") ? "csv" : "json",
+                            fast / 1e6, slow / 1e6, Files.size(file) / 1e6);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(json);
+        }
+    }
+
+    private static long time(PetCatalogLoader loader, Path file, int size) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS + 1; round++) {
+            long start = System.nanoTime();
+            PetCatalog catalog = loader.load(file);
+            long elapsed = System.nanoTime() - start;
+            if (catalog.size() != size) {
+                throw new IllegalStateException(catalog.size() + " != " + size);
+            }
+            if (round > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+
+    private static void write(int size, Path csv, Path json) throws IOException {
+        Random random = new Random(19);
+        try (BufferedWriter csvOut = Files.newBufferedWriter(csv);
+             BufferedWriter jsonOut = Files.newBufferedWriter(json)) {
+            csvOut.write("name,type,breed,gender,mbti,energyLevel,requiredSpace,monthlyCost,"
+                    + "allergenic,requiresYard,timeNeededPerDay,imagePath\n");
+            jsonOut.write("[\n");
+            for (int i = 0; i < size; i++) {
+                String type = TYPES[random.nextInt(TYPES.length)];
+                String gender = random.nextBoolean() ? "Male" : "Female";
+                String mbti = MBTI[random.nextInt(MBTI.length)];
+                int energy = 1 + random.nextInt(10);
+                double space = random.nextInt(800) / 10.0;
+                double cost = random.nextInt(600) / 10.0;
+                boolean allergenic = random.nextBoolean();
+                boolean yard = random.nextInt(4) == 0;
+                double time = random.nextInt(30) / 10.0;
+                csvOut.write("Pet " + i + "," + type + ",Mixed " + type + "," + gender + "," + mbti + "," + energy + ","
+                        + space + "," + cost + "," + allergenic + "," + yard + "," + time + ",images/pet" + i + ".jpg\n");
+                jsonOut.write((i == 0 ? "" : ",\n") + "{\"name\": \"Pet " + i + "\", \"type\": \"" + type
+                        + "\", \"breed\": \"Mixed " + type + "\", \"gender\": \"" + gender + "\", \"mbti\": \"" + mbti
+                        + "\", \"energyLevel\": " + energy + ", \"requiredSpace\": " + space + ", \"monthlyCost\": " + cost
+                        + ", \"allergenic\": " + allergenic + ", \"requiresYard\": " + yard
+                        + ", \"timeNeededPerDay\": " + time + ", \"imagePath\": \"images/pet" + i + ".jpg\"}");
+            }
+            jsonOut.write("\n]\n");
+        }
+    }
+}
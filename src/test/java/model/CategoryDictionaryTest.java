@@ -0,0 +1,105 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CategoryDictionary}, verifying that codes are stable and decode back
+ * to their values, and that concurrent encoders agree on one code per value.
+ */
+public class CategoryDictionaryTest {
+
+    /**
+     * Encoding a value twice should give the same code, and every code should decode back
+     * to its value. {@code null} should always be code 0.
+     */
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        CategoryDictionary dictionary = new CategoryDictionary();
+        int dog = dictionary.encode("Dog");
+        int cat = dictionary.encode("Cat");
+
+        assertEquals(dog, dictionary.encode("Dog"));
+        assertNotEquals(dog, cat);
+        assertNotEquals(dog, dictionary.encode("dog"));
+        assertEquals("Dog", dictionary.decode(dog));
+        assertEquals("Cat", dictionary.decode(cat));
+        assertEquals(CategoryDictionary.NULL_CODE, dictionary.encode(null));
+        assertNull(dictionary.decode(CategoryDictionary.NULL_CODE));
+        assertEquals(4, dictionary.size());
+        assertArrayEquals(new String[]{null, "Dog", "Cat", "dog"}, dictionary.values());
+    }
+
+    /**
+     * Looking up an unknown value should not assign a code, and decoding an unassigned code
+     * should fail.
+     */
+    @Test
+    public void testCodeOfUnknownValue() {
+        CategoryDictionary dictionary = new CategoryDictionary();
+        dictionary.encode("Dog");
+
+        assertEquals(-1, dictionary.codeOf("Rabbit"));
+        assertEquals(2, dictionary.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.decode(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.decode(-1));
+    }
+
+    /**
+     * The match table should flag every code whose value equals the string ignoring case,
+     * and never the null code.
+     */
+    @Test
+    public void testMatchesIgnoreCase() {
+        CategoryDictionary dictionary = new CategoryDictionary();
+        int upper = dictionary.encode("Dog");
+        int cat = dictionary.encode("Cat");
+        int lower = dictionary.encode("dog");
+
+        boolean[] matches = dictionary.matchesIgnoreCase("DOG");
+
+        assertTrue(matches[upper]);
+        assertTrue(matches[lower]);
+        assertFalse(matches[cat]);
+        assertFalse(matches[CategoryDictionary.NULL_CODE]);
+    }
+
+    /**
+     * Threads encoding the same values concurrently should all get the same code for each
+     * value, and the dictionary should hold each value once.
+     */
+    @Test
+    public void testConcurrentEncodeAgrees() throws Exception {
+        CategoryDictionary dictionary = new CategoryDictionary();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    int[] codes = new int[500];
+                    for (int i = 0; i < codes.length; i++) {
+                        codes[i] = dictionary.encode("breed-" + i);
+                    }
+                    return codes;
+                }));
+            }
+            int[] expected = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+            assertEquals(501, dictionary.size());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals("breed-" + i, dictionary.decode(expected[i]));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
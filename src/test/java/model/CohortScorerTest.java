@@ -0,0 +1,104 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CohortScorer}, verifying that the tiled parallel matrix and
+ * top-K rankings agree with scoring each user on its own.
+ */
+public class CohortScorerTest {
+
+    private final CompatibilityCalculator calculator = new CompatibilityCalculator();
+    private ForkJoinPool pool;
+    private CohortScorer scorer;
+    private PetColumns pets;
+    private List<User> users;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        scorer = new CohortScorer(calculator, pool);
+        // Enough pets and users to split along both dimensions
+        pets = ScoringBenchmark.randomCatalog(3 * CohortScorer.PET_TILE + 17, new Random(7));
+        users = randomUsers(2 * CohortScorer.USER_TILE + 5, new Random(11));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Each row of the matrix should equal that user's batch scores.
+     */
+    @Test
+    public void testScoreMatrixMatchesPerUserScores() {
+        double[][] matrix = scorer.scoreMatrix(users, pets);
+
+        assertEquals(users.size(), matrix.length);
+        for (int u = 0; u < users.size(); u++) {
+            assertArrayEquals(calculator.scoreAll(users.get(u), pets), matrix[u]);
+        }
+    }
+
+    /**
+     * Each user's top-K should equal the first K entries of a full sort by
+     * descending score, then ascending position.
+     */
+    @Test
+    public void testRankTopKMatchesFullSort() {
+        int k = 25;
+        CohortRanking ranking = scorer.rankTopK(users, pets, k);
+
+        assertEquals(users.size(), ranking.userCount());
+        for (int u = 0; u < users.size(); u++) {
+            double[] scores = calculator.scoreAll(users.get(u), pets);
+            int[] expected = IntStream.range(0, scores.length).boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingInt(i -> i))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+
+            assertArrayEquals(expected, ranking.topPets(u));
+            for (int r = 0; r < k; r++) {
+                assertEquals(scores[expected[r]], ranking.topScores(u)[r], 0.0);
+            }
+        }
+    }
+
+    /**
+     * Asking for more pets than the catalog holds should return the whole catalog.
+     */
+    @Test
+    public void testRankTopKLargerThanCatalog() {
+        PetColumns small = ScoringBenchmark.randomCatalog(10, new Random(3));
+        CohortRanking ranking = scorer.rankTopK(users.subList(0, 2), small, 50);
+
+        assertEquals(10, ranking.topPets(0).length);
+        assertEquals(10, ranking.topPets(1).length);
+        assertThrows(IllegalArgumentException.class, () -> scorer.rankTopK(users, small, -1));
+    }
+
+    private static List<User> randomUsers(int count, Random random) {
+        String[] genders = {"Male", "Female", "Any"};
+        List<User> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new User("Female", genders[random.nextInt(genders.length)],
+                    MbtiCode.decode(random.nextInt(MbtiCode.COUNT)),
+                    1 + random.nextInt(10), 1 + random.nextInt(100), 5 + random.nextInt(60),
+                    random.nextBoolean(), random.nextBoolean(), 0.5 + random.nextInt(30) / 10.0));
+        }
+        return result;
+    }
+}
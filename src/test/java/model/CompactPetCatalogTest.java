@@ -0,0 +1,103 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CompactPetCatalog}, verifying that packed rows read back exactly,
+ * including amounts that do not fit the fixed-point encoding, and that pets read from it
+ * score exactly as the originals.
+ */
+public class CompactPetCatalogTest {
+
+    /**
+     * Every attribute of every built-in pet should read back unchanged, under its position
+     * as id.
+     */
+    @Test
+    public void testRowsReadBackExactly() {
+        List<Pet> catalog = PetDatabase.getCatalog();
+        List<Pet> packed = CompactPetCatalog.of(catalog).asList();
+
+        assertEquals(catalog.size(), packed.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            assertSamePet(catalog.get(i), packed.get(i));
+            assertEquals(i, packed.get(i).getId());
+        }
+    }
+
+    /**
+     * Amounts that are not exact hundredths, are out of range for a short, or are negative
+     * zero or NaN should still read back bit-for-bit.
+     */
+    @Test
+    public void testAmountsOutsideFixedPointReadBackExactly() {
+        double[] amounts = {0.1 + 0.2, 1234.5678, 1e9, -0.0, Double.NaN, 327.67, 327.68, -327.67, 0.005, 2.5};
+        Pet[] pets = new Pet[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            double other = amounts[amounts.length - 1 - i];
+            pets[i] = new Pet("Pet" + i, "Dog", "Beagle", i % 2 == 0 ? "Male" : "Female", "INTJ",
+                    i + 1, amounts[i], other, i % 3 == 0, i % 4 == 0, amounts[i] / 3, null);
+        }
+
+        CompactPetCatalog packed = CompactPetCatalog.of(List.of(pets));
+
+        for (int i = 0; i < pets.length; i++) {
+            assertSamePet(pets[i], packed.pet(i));
+        }
+    }
+
+    /**
+     * Scoring the packed catalog, through its pets or its columns, should give exactly the
+     * scores of the original pets, and the columns should be decoded only once.
+     */
+    @Test
+    public void testScoresMatchOriginalPets() {
+        List<Pet> catalog = PetDatabase.getCatalog();
+        CompactPetCatalog packed = CompactPetCatalog.of(catalog);
+        CompatibilityCalculator calculator = new CompatibilityCalculator();
+        User user = new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0);
+
+        double[] columnScores = new double[catalog.size()];
+        calculator.scoreRange(user, packed.columns(), 0, catalog.size(), columnScores, 0);
+        for (int i = 0; i < catalog.size(); i++) {
+            double expected = calculator.calculate(user, catalog.get(i));
+            assertEquals(expected, calculator.calculate(user, packed.pet(i)), 0.0);
+            assertEquals(expected, columnScores[i], 0.0);
+        }
+        assertSame(packed.columns(), packed.columns());
+        assertSame(packed.columns(), PetColumns.of(packed.asList()));
+    }
+
+    /**
+     * Energy levels that do not fit in a byte should be rejected rather than truncated.
+     */
+    @Test
+    public void testRejectsOversizedEnergyLevel() {
+        Pet pet = new Pet("Rex", "Dog", "Boxer", "Male", "ESTP", 300, 50.0, 40.0, false, true, 2.0, null);
+
+        assertThrows(IllegalArgumentException.class, () -> CompactPetCatalog.of(List.of(pet)));
+    }
+
+    private static void assertSamePet(Pet expected, Pet actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getBreed(), actual.getBreed());
+        assertEquals(expected.getGender(), actual.getGender());
+        assertEquals(expected.getMbtiCode(), actual.getMbtiCode());
+        assertEquals(expected.getEnergyLevel(), actual.getEnergyLevel());
+        assertEquals(Double.doubleToRawLongBits(expected.getRequiredSpace()),
+                Double.doubleToRawLongBits(actual.getRequiredSpace()));
+        assertEquals(Double.doubleToRawLongBits(expected.getMonthlyCost()),
+                Double.doubleToRawLongBits(actual.getMonthlyCost()));
+        assertEquals(Double.doubleToRawLongBits(expected.getTimeNeededPerDay()),
+                Double.doubleToRawLongBits(actual.getTimeNeededPerDay()));
+        assertEquals(expected.isAllergenic(), actual.isAllergenic());
+        assertEquals(expected.requiresYard(), actual.requiresYard());
+        assertEquals(expected.getImagePath(), actual.getImagePath());
+    }
+}
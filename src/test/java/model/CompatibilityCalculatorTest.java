@@ -1,8 +1,12 @@
 package model;
 
+import Database.PetDatabase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -99,6 +103,26 @@ public class CompatibilityCalculatorTest {
         assertEquals(score1, score2, 0.0001, "Both pets should yield equal score when gender doesn't matter");
     }
 
+    /**
+     * Test case: Gender codes should match the preference ignoring case, including genders
+     * first seen after the user was already scored.
+     */
+    @Test
+    public void testGenderCodesMatchIgnoringCase() {
+        User user = new User("Male", "fEMALE", "ENFP", 7, 500, 200, false, true, 4.0);
+        Pet femalePet = new Pet("Coco", "Dog", "Bulldog", "Female", "ENFP",
+                7, 500, 200, false, true, 4.0, "images/coco.jpg");
+        double femaleScore = calculator.calculate(user, femalePet);
+
+        User laterUser = new User("Male", "intersex-gc", "ENFP", 7, 500, 200, false, true, 4.0);
+        assertEquals(femaleScore - 0.05, calculator.calculate(laterUser, femalePet), 1e-12);
+        Pet newGenderPet = new Pet("Kiki", "Dog", "Bulldog", "Intersex-GC", "ENFP",
+                7, 500, 200, false, true, 4.0, "images/kiki.jpg");
+
+        assertEquals(femaleScore, calculator.calculate(laterUser, newGenderPet), 0.0);
+        assertEquals(femaleScore - 0.05, calculator.calculate(user, newGenderPet), 1e-12);
+    }
+
     /**
      * Test case: Allergic user should not be matched with an allergenic pet (score = 0).
      */
@@ -172,4 +196,47 @@ public class CompatibilityCalculatorTest {
         double score = calculator.calculate(user, pet);
         assertTrue(score < 1.0, "Active pets should score lower if user lacks time");
     }
+
+    /**
+     * Test case: Batch scoring over the columnar catalog must reproduce the
+     * per-pet scores exactly, for allergic and non-allergic users alike.
+     */
+    @Test
+    public void testScoreAllMatchesPerPetScores() {
+        List<Pet> pets = new ArrayList<>(PetDatabase.getAllPets());
+        PetColumns columns = PetColumns.of(pets);
+
+        List<User> users = List.of(
+                baseUser,
+                new User("Female", "Any", "istj", 3, 20, 15, true, false, 0.5),
+                new User("Male", "Male", "INTP", 10, 60, 40, false, false, 2.0),
+                new User("Other", "female", "ESFJ", 1, 5, 5, true, true, 1.0));
+
+        for (User user : users) {
+            double[] scores = calculator.scoreAll(user, columns);
+            assertEquals(pets.size(), scores.length);
+            for (int i = 0; i < pets.size(); i++) {
+                assertEquals(calculator.calculate(user, pets.get(i)), scores[i], 0.0,
+                        "Batch score should equal per-pet score for " + pets.get(i).getName());
+            }
+        }
+    }
+
+    /**
+     * Test case: Scoring a sub-range writes only that range, at the requested offset.
+     */
+    @Test
+    public void testScoreRangeWritesAtOffset() {
+        List<Pet> pets = new ArrayList<>(PetDatabase.getAllPets());
+        PetColumns columns = PetColumns.of(pets);
+
+        double[] out = new double[5];
+        calculator.scoreRange(baseUser, columns, 10, 13, out, 2);
+
+        assertEquals(0.0, out[0]);
+        assertEquals(0.0, out[1]);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(calculator.calculate(baseUser, pets.get(10 + i)), out[2 + i], 0.0);
+        }
+    }
 }
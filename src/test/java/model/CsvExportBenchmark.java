@@ -0,0 +1,87 @@
+package model;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro-benchmark for exporting a ranking to CSV: the streaming {@link CsvExporter}
+ * against the previous {@code FileWriter} with one {@code String.format} call per row,
+ * as the ranking grows from 10K to 1M pets.
+ * <p>
+ * Run with {@code gradle csvExportBenchmark}. This is not a unit test; it only prints
+ * timings.
+ */
+public final class CsvExportBenchmark {
+
+    private static final int[] RANKING_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int MEASURED_ROUNDS = 5;
+
+    private CsvExportBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        File csv = File.createTempFile("export", ".csv");
+        try {
+            // Let the JIT compile both write paths before any measurement
+            RankedResult warmup = ranking(100_000, new Random(0));
+            for (int i = 0; i < 5; i++) {
+                PetSorter.exportToCSV(warmup, csv.getPath());
+                formatExport(warmup, csv.getPath());
+            }
+
+            System.out.printf("%10s %12s %16s %16s%n", "pets", "MB", "streaming ns/row", "format ns/row");
+            for (int size : RANKING_SIZES) {
+                RankedResult ranking = ranking(size, new Random(size));
+
+                long streaming = Long.MAX_VALUE;
+                long format = Long.MAX_VALUE;
+                for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    PetSorter.exportToCSV(ranking, csv.getPath());
+                    streaming = Math.min(streaming, System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    formatExport(ranking, csv.getPath());
+                    format = Math.min(format, System.nanoTime() - start);
+                }
+
+                System.out.printf("%10d %12.1f %16.1f %16.1f%n", size, csv.length() / 1e6,
+                        (double) streaming / size, (double) format / size);
+            }
+        } finally {
+            csv.delete();
+        }
+    }
+
+    /**
+     * Writes the ranking the way {@link PetSorter} did before the streaming exporter.
+     */
+    private static void formatExport(RankedResult ranking, String path) throws IOException {
+        try (FileWriter writer = new FileWriter(path)) {
+            writer.write("Name,Breed,Type,Score,ImagePath,Id\n");
+            for (int r = 0; r < ranking.size(); r++) {
+                Pet pet = ranking.pet(r);
+                writer.write(String.format("%s,%s,%s,%s,%s", pet.getName(), pet.getBreed(), pet.getType(),
+                        String.format("%.0f%%", ranking.score(r) * 100), pet.getImagePath()));
+                writer.write("," + pet.getId() + "\n");
+            }
+        }
+    }
+
+    private static RankedResult ranking(int size, Random random) {
+        String[] types = {"Dog", "Cat", "Hamster", "Parrot"};
+        List<Pet> pets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pets.add(new Pet(i, "Pet" + i, types[random.nextInt(types.length)], "Breed" + random.nextInt(50),
+                    "Female", "ENFP", 5, 10, 50, false, false, 1.0, "images/pet" + i + ".jpg"));
+        }
+        RankedResult.Builder builder = new RankedResult.Builder(pets);
+        for (int i = 0; i < size; i++) {
+            builder.add(i, random.nextDouble());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,170 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CsvExporter}, verifying that its output is byte-for-byte the CSV
+ * previously written with {@code String.format} and a {@code FileWriter}.
+ */
+public class CsvExporterTest {
+
+    /**
+     * Percentages should match the formatter for edge cases and for many random scores.
+     */
+    @Test
+    public void testFormatPercentageMatchesStringFormat() {
+        double[] edges = {0.0, -0.0, 0.005, 0.015, 0.125, 0.5, 0.855, 0.995, 0.9949999999999999, 1.0,
+                1.005, 0.29, 0.57, 1e-300, -0.004, -0.5, 1e20, Double.MAX_VALUE, Double.MIN_VALUE,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double score : edges) {
+            assertEquals(String.format("%.0f%%", score * 100), CsvExporter.formatPercentage(score),
+                    "score " + score);
+        }
+
+        Random random = new Random(41);
+        for (int i = 0; i < 200_000; i++) {
+            double score = i % 2 == 0 ? random.nextDouble() : random.nextInt(20_001) / 20_000.0;
+            assertEquals(String.format("%.0f%%", score * 100), CsvExporter.formatPercentage(score),
+                    "score " + score);
+        }
+    }
+
+    /**
+     * A ranking should export exactly as the format-per-row writer did, with an Id column
+     * when every pet has an id.
+     */
+    @Test
+    public void testExportMatchesFormattedRows() throws IOException {
+        List<Pet> pets = List.of(
+                new Pet(3, "Bella", "Dog", "Labrador", "Female", "ENFP", 7, 50, 100, true, false, 1.5, "images/bella.jpg"),
+                new Pet(8, "Milo", "Cat", "Siamese", "Male", "ISTJ", 3, 5, 40, false, true, 0.5, "images/milo.jpg"));
+        RankedResult ranking = new RankedResult.Builder(pets).add(1, 0.855).add(0, 0.005).build();
+
+        assertEquals(expectedCsv(ranking, true), export(ranking));
+    }
+
+    /**
+     * The Id column should be omitted when any pet lacks an id.
+     */
+    @Test
+    public void testExportWithoutIds() throws IOException {
+        List<Pet> pets = List.of(
+                new Pet(3, "Bella", "Dog", "Labrador", "Female", "ENFP", 7, 50, 100, true, false, 1.5, "images/bella.jpg"),
+                new Pet("Milo", "Cat", "Siamese", "Male", "ISTJ", 3, 5, 40, false, true, 0.5, "images/milo.jpg"));
+        RankedResult ranking = new RankedResult.Builder(pets).add(0, 0.5).add(1, 0.125).build();
+
+        String csv = export(ranking);
+
+        assertEquals(expectedCsv(ranking, false), csv);
+        assertTrue(csv.startsWith("Name,Breed,Type,Score,ImagePath\n"));
+    }
+
+    /**
+     * Non-ASCII names, including characters outside the Basic Multilingual Plane, should be
+     * encoded as UTF-8.
+     */
+    @Test
+    public void testNonAsciiIsUtf8() throws IOException {
+        List<Pet> pets = List.of(new Pet(0, "Zoë é中🐶", "Chien", "Caniche", "Female", "ENFP",
+                5, 10, 50, false, false, 1.0, "images/zoë.jpg"));
+        RankedResult ranking = new RankedResult.Builder(pets).add(0, 0.9).build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvExporter exporter = new CsvExporter(bytes)) {
+            exporter.writeAll(ranking);
+        }
+
+        assertArrayEquals(expectedCsv(ranking, true).getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+    }
+
+    /**
+     * Output larger than the buffer should be flushed in full and in order.
+     */
+    @Test
+    public void testExportLargerThanBuffer() throws IOException {
+        Random random = new Random(43);
+        int count = 5000;
+        Pet[] pets = new Pet[count];
+        for (int i = 0; i < count; i++) {
+            pets[i] = new Pet(i, "Pet" + i + (i % 7 == 0 ? "ü" : ""), "Dog", "Mixed", "Male", "ENFP",
+                    5, 10, 50, false, false, 1.0, "images/pet" + i + ".jpg");
+        }
+        RankedResult.Builder builder = new RankedResult.Builder(List.of(pets));
+        for (int i = 0; i < count; i++) {
+            builder.add(count - 1 - i, random.nextDouble());
+        }
+        RankedResult ranking = builder.build();
+
+        String csv = export(ranking);
+
+        assertTrue(csv.length() > CsvExporter.BUFFER_SIZE);
+        assertEquals(expectedCsv(ranking, true), csv);
+    }
+
+    /**
+     * Fields with commas, quotes or line breaks should be quoted; others should not.
+     */
+    @Test
+    public void testQuotesSpecialFields() throws IOException {
+        List<Pet> pets = List.of(new Pet(2, "Rex, \"Jr.\"", "Dog", "Tabby\nMix", "Male", "ENFP",
+                5, 10, 50, false, false, 1.0, "images/rex.jpg"));
+
+        String csv = export(new RankedResult.Builder(pets).add(0, 0.5).build());
+
+        assertEquals("Name,Breed,Type,Score,ImagePath,Id\n"
+                + "\"Rex, \"\"Jr.\"\"\",\"Tabby\nMix\",Dog,50%,images/rex.jpg,2\n", csv);
+    }
+
+    /**
+     * Missing text fields should be written as {@code null} rather than failing the export.
+     */
+    @Test
+    public void testNullFields() throws IOException {
+        List<Pet> pets = List.of(new Pet(4, "Rex", null, null, "Male", "ENFP",
+                5, 10, 50, false, false, 1.0, null));
+
+        String csv = export(new RankedResult.Builder(pets).add(0, 0.5).build());
+
+        assertEquals("Name,Breed,Type,Score,ImagePath,Id\nRex,null,null,50%,null,4\n", csv);
+    }
+
+    /**
+     * An empty source should produce just the header.
+     */
+    @Test
+    public void testEmptySource() throws IOException {
+        RankedResult empty = new RankedResult.Builder(List.of()).build();
+
+        assertEquals("Name,Breed,Type,Score,ImagePath,Id\n", export(empty));
+    }
+
+    private static String export(ScoredPetSource rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvExporter exporter = new CsvExporter(bytes)) {
+            exporter.writeAll(rows);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The CSV as the format-per-row writer produced it.
+     */
+    private static String expectedCsv(ScoredPetSource rows, boolean withIds) {
+        StringBuilder csv = new StringBuilder(withIds ? "Name,Breed,Type,Score,ImagePath,Id\n" : "Name,Breed,Type,Score,ImagePath\n");
+        for (int r = 0; r < rows.size(); r++) {
+            Pet pet = rows.pet(r);
+            csv.append(String.format("%s,%s,%s,%s,%s", pet.getName(), pet.getBreed(), pet.getType(),
+                    String.format("%.0f%%", rows.score(r) * 100), pet.getImagePath()));
+            csv.append(withIds ? "," + pet.getId() + "\n" : "\n");
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro-benchmark for reading a compatibility CSV: the {@link CsvTokenizer} against the
+ * previous {@code BufferedReader.readLine} and {@code String.split(",")} approach, on
+ * files of 10K to 1M rows.
+ * <p>
+ * Both readers do what {@link PetFilter} does with each row: parse the score and, for
+ * pets above 80%, join the row to the catalog through a {@link PetKeyIndex}.
+ * <p>
+ * Run with {@code gradle csvTokenizerBenchmark}. This is not a unit test; it only prints
+ * timings.
+ */
+public final class CsvTokenizerBenchmark {
+
+    private static final int[] FILE_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int MEASURED_ROUNDS = 5;
+
+    private CsvTokenizerBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        File csv = File.createTempFile("tokenizer", ".csv");
+        try {
+            // Let the JIT compile both read paths before any measurement
+            PetKeyIndex warmup = export(100_000, csv);
+            for (int i = 0; i < 5; i++) {
+                readTokenized(csv.getPath(), warmup);
+                readSplit(csv.getPath(), warmup);
+            }
+
+            System.out.printf("%10s %16s %16s%n", "rows", "tokenizer ns/row", "split ns/row");
+            for (int size : FILE_SIZES) {
+                PetKeyIndex index = export(size, csv);
+
+                long tokenized = Long.MAX_VALUE;
+                long split = Long.MAX_VALUE;
+                for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    int tokenizedMatches = readTokenized(csv.getPath(), index);
+                    tokenized = Math.min(tokenized, System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    int splitMatches = readSplit(csv.getPath(), index);
+                    split = Math.min(split, System.nanoTime() - start);
+
+                    if (tokenizedMatches != splitMatches) {
+                        throw new IllegalStateException(tokenizedMatches + " != " + splitMatches);
+                    }
+                }
+
+                System.out.printf("%10d %16.1f %16.1f%n", size, (double) tokenized / size, (double) split / size);
+            }
+        } finally {
+            csv.delete();
+        }
+    }
+
+    private static int readTokenized(String path, PetKeyIndex index) throws IOException {
+        int matches = 0;
+        try (CsvTokenizer row = CsvTokenizer.open(path)) {
+            row.next();
+            while (row.next()) {
+                if (row.fieldCount() < 5) continue;
+                if (row.percentField(3) > 0.80 && index.positionOfRow(row) >= 0) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static int readSplit(String path, PetKeyIndex index) throws IOException {
+        int matches = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length < 5) continue;
+                double score = Double.parseDouble(parts[3].replace("%", "")) / 100.0;
+                if (score > 0.80 && index.positionOfRow(parts) >= 0) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Writes a random ranking of the given size and returns the index of its catalog.
+     */
+    private static PetKeyIndex export(int size, File csv) throws IOException {
+        Random random = new Random(size);
+        String[] types = {"Dog", "Cat", "Hamster", "Parrot"};
+        List<Pet> pets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pets.add(new Pet(i, "Pet" + i, types[random.nextInt(types.length)], "Breed" + random.nextInt(50),
+                    "Female", "ENFP", 5, 10, 50, false, false, 1.0, "images/pet" + i + ".jpg"));
+        }
+        RankedResult.Builder builder = new RankedResult.Builder(pets);
+        for (int i = 0; i < size; i++) {
+            builder.add(i, random.nextDouble());
+        }
+        CsvExporter.export(builder.build(), csv.toPath());
+        return PetKeyIndex.of(pets);
+    }
+}
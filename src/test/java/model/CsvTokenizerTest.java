@@ -0,0 +1,189 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CsvTokenizer}, verifying RFC 4180 quoting, line endings, buffer
+ * boundaries and in-place field parsing.
+ */
+public class CsvTokenizerTest {
+
+    /**
+     * Quoted fields may contain commas, line breaks and doubled quotes.
+     */
+    @Test
+    public void testQuotedFields() throws IOException {
+        List<List<String>> records = readAll(new StringReader(
+                "a,\"b,c\",\"say \"\"hi\"\"\"\n\"multi\nline\",,\"\"\n"));
+
+        assertEquals(List.of(
+                List.of("a", "b,c", "say \"hi\""),
+                List.of("multi\nline", "", "")), records);
+    }
+
+    /**
+     * LF, CRLF and CR line endings should all end a record, and blank lines should be
+     * one-field records.
+     */
+    @Test
+    public void testLineEndings() throws IOException {
+        List<List<String>> records = readAll(new StringReader("a,b\r\nc,d\re,f\n\ng,h"));
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e", "f"), List.of(""),
+                List.of("g", "h")), records);
+    }
+
+    /**
+     * Malformed quoting should be read leniently rather than rejected.
+     */
+    @Test
+    public void testLenientQuoting() throws IOException {
+        List<List<String>> records = readAll(new StringReader("a\"b,\"c\"d,\"unterminated,x\ny"));
+
+        assertEquals(List.of(List.of("a\"b", "cd", "unterminated,x\ny")), records);
+    }
+
+    /**
+     * Records should be identical however the reader splits its input, including between a
+     * CR and its LF and between the two quotes of an escaped quote.
+     */
+    @Test
+    public void testBufferBoundaries() throws IOException {
+        StringBuilder text = new StringBuilder();
+        List<List<String>> expected = new ArrayList<>();
+        Random random = new Random(53);
+        for (int i = 0; i < 3000; i++) {
+            String name = "Pet \"" + i + "\", the " + (char) ('a' + random.nextInt(26));
+            expected.add(List.of(name, "Breed" + i, i + "%"));
+            text.append('"').append(name.replace("\"", "\"\"")).append("\",Breed").append(i).append(',')
+                    .append(i).append('%').append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+
+        assertEquals(expected, readAll(new StringReader(text.toString())));
+        assertEquals(expected, readAll(new ChunkedReader(text.toString(), 1)));
+        assertEquals(expected, readAll(new ChunkedReader(text.toString(), 7)));
+    }
+
+    /**
+     * In-place comparisons and parsing should agree with their String counterparts.
+     */
+    @Test
+    public void testFieldHelpers() throws IOException {
+        CsvTokenizer row = new CsvTokenizer(new StringReader("Dog,LABRADOR,85%,72.5%,42, 7 ,x\n"));
+        assertTrue(row.next());
+
+        assertTrue(row.fieldEquals(0, "Dog"));
+        assertFalse(row.fieldEquals(0, "dog"));
+        assertFalse(row.fieldEquals(0, null));
+        assertTrue(row.fieldEqualsIgnoreCase(1, "labrador"));
+        assertFalse(row.fieldEqualsIgnoreCase(1, "labradors"));
+        assertFalse(row.fieldEqualsIgnoreCase(1, null));
+        assertEquals(0.85, row.percentField(2));
+        assertEquals(0.725, row.percentField(3));
+        assertEquals(42, row.intField(4));
+        assertEquals(7, row.intField(5));
+        assertThrows(NumberFormatException.class, () -> row.intField(6));
+        assertThrows(NumberFormatException.class, () -> row.percentField(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> row.field(7));
+
+        CharSequence view = row.field(1);
+        assertEquals("LABRADOR", view.toString());
+        assertEquals('A', view.charAt(1));
+        assertEquals("ABR", view.subSequence(1, 4));
+        assertFalse(row.next());
+    }
+
+    /**
+     * Whole-number percentages should parse exactly as {@code Double.parseDouble} does.
+     */
+    @Test
+    public void testPercentMatchesParseDouble() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int percent = 0; percent <= 100; percent++) {
+            text.append(percent).append("%\n");
+        }
+        CsvTokenizer row = new CsvTokenizer(new StringReader(text.toString()));
+        for (int percent = 0; percent <= 100; percent++) {
+            assertTrue(row.next());
+            assertEquals(Double.parseDouble(Integer.toString(percent)) / 100.0, row.percentField(0));
+        }
+    }
+
+    /**
+     * Rows written by {@link CsvExporter} should read back intact, even when names contain
+     * commas, quotes and line breaks.
+     */
+    @Test
+    public void testRoundTripsExportedRows() throws IOException {
+        List<Pet> pets = List.of(
+                new Pet(0, "Rex, Jr.", "Dog", "Retriever, Golden", "Male", "ENFP", 5, 10, 50, false, false, 1.0, "a.jpg"),
+                new Pet(1, "\"Boots\"", "Cat", "Tabby\nMix", "Female", "ISTJ", 5, 10, 50, false, false, 1.0, "b.jpg"));
+        RankedResult ranking = new RankedResult.Builder(pets).add(1, 0.9).add(0, 0.8).build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvExporter exporter = new CsvExporter(bytes)) {
+            exporter.writeAll(ranking);
+        }
+
+        List<List<String>> records = readAll(new StringReader(bytes.toString(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(
+                List.of("Name", "Breed", "Type", "Score", "ImagePath", "Id"),
+                List.of("\"Boots\"", "Tabby\nMix", "Cat", "90%", "b.jpg", "1"),
+                List.of("Rex, Jr.", "Retriever, Golden", "Dog", "80%", "a.jpg", "0")), records);
+    }
+
+    private static List<List<String>> readAll(Reader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvTokenizer row = new CsvTokenizer(reader)) {
+            while (row.next()) {
+                List<String> fields = new ArrayList<>();
+                for (int i = 0; i < row.fieldCount(); i++) {
+                    fields.add(row.fieldString(i));
+                }
+                records.add(fields);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * A reader that returns at most a fixed number of chars per call.
+     */
+    private static final class ChunkedReader extends Reader {
+
+        private final String text;
+        private final int chunk;
+        private int position;
+
+        ChunkedReader(String text, int chunk) {
+            this.text = text;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, chunk), text.length() - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MappedCompatibilityCsv}, verifying random access to rows and
+ * fields of exported and hand-written compatibility CSV files.
+ */
+public class MappedCompatibilityCsvTest {
+
+    private Path csvPath;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        csvPath = Files.createTempFile("mapped", ".csv");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvPath);
+    }
+
+    /**
+     * Every field of an exported ranking should read back as written, in any order.
+     */
+    @Test
+    public void testReadsExportedRanking() throws IOException {
+        Random random = new Random(47);
+        int count = 2000;
+        Pet[] pets = new Pet[count];
+        for (int i = 0; i < count; i++) {
+            pets[i] = new Pet(i, "Pet" + i + (i % 5 == 0 ? "é" : ""), "Dog", "Breed" + random.nextInt(20),
+                    "Female", "ENFP", 5, 10, 50, false, false, 1.0, "images/pet" + i + ".jpg");
+        }
+        RankedResult.Builder builder = new RankedResult.Builder(List.of(pets));
+        for (int i = 0; i < count; i++) {
+            builder.add(random.nextInt(count), random.nextDouble());
+        }
+        RankedResult ranking = builder.build();
+        CsvExporter.export(ranking, csvPath);
+
+        MappedCompatibilityCsv csv = MappedCompatibilityCsv.open(csvPath);
+
+        assertEquals(count, csv.rowCount());
+        assertTrue(csv.hasIds());
+        for (int row = count - 1; row >= 0; row -= 7) {
+            Pet pet = ranking.pet(row);
+            assertEquals(6, csv.fieldCount(row));
+            assertEquals(pet.getName(), csv.field(row, MappedCompatibilityCsv.NAME));
+            assertEquals(pet.getBreed(), csv.field(row, MappedCompatibilityCsv.BREED));
+            assertEquals(pet.getImagePath(), csv.field(row, MappedCompatibilityCsv.IMAGE_PATH));
+            assertEquals(pet.getId(), csv.id(row));
+            String percent = CsvExporter.formatPercentage(ranking.score(row));
+            assertEquals(Double.parseDouble(percent.replace("%", "")) / 100.0, csv.score(row));
+        }
+    }
+
+    /**
+     * Blank lines and CRLF line endings should be skipped, and files without an Id column
+     * should report no ids.
+     */
+    @Test
+    public void testCrlfBlankLinesAndNoIds() throws IOException {
+        write("Name,Breed,Type,Score,ImagePath\r\n"
+                + "Bella,Labrador,Dog,85%,images/bella.jpg\r\n"
+                + "\r\n"
+                + "Milo,Siamese,Cat,72.5%,images/milo.jpg");
+
+        MappedCompatibilityCsv csv = MappedCompatibilityCsv.open(csvPath);
+
+        assertEquals(2, csv.rowCount());
+        assertFalse(csv.hasIds());
+        assertEquals("images/bella.jpg", csv.field(0, MappedCompatibilityCsv.IMAGE_PATH));
+        assertEquals(0.85, csv.score(0));
+        assertEquals(0.725, csv.score(1));
+        assertEquals(Pet.NO_ID, csv.id(0));
+        assertNull(csv.field(1, MappedCompatibilityCsv.ID));
+    }
+
+    /**
+     * Lookups should match names and breeds exactly, skip incomplete rows, and find the
+     * first matching row.
+     */
+    @Test
+    public void testFind() throws IOException {
+        write("Name,Breed,Type,Score,ImagePath\n"
+                + "Bella,Labrador\n"
+                + "Bella,Labrador,Dog,85%,images/bella.jpg\n"
+                + "Bella,Labrador,Dog,40%,images/bella2.jpg\n"
+                + "Zoë,Caniche,Dog,90%,images/zoe.jpg\n");
+
+        MappedCompatibilityCsv csv = MappedCompatibilityCsv.open(csvPath);
+
+        assertEquals(1, csv.find("Bella", "Labrador"));
+        assertEquals(3, csv.find("Zoë", "Caniche"));
+        assertEquals(-1, csv.find("Bell", "Labrador"));
+        assertEquals(-1, csv.find("Bella", "Labradors"));
+        assertEquals(-1, csv.find("Zoe", "Caniche"));
+        assertTrue(csv.fieldEquals(3, MappedCompatibilityCsv.TYPE, "Dog"));
+    }
+
+    /**
+     * Quoted fields with commas, quotes and line breaks should be located and unescaped as
+     * {@link CsvTokenizer} reads them.
+     */
+    @Test
+    public void testQuotedFields() throws IOException {
+        List<Pet> pets = List.of(
+                new Pet(4, "Rex, Jr.", "Dog", "Retriever, Golden", "Male", "ENFP", 5, 10, 50, false, false, 1.0, "a.jpg"),
+                new Pet(9, "\"Boots\"", "Cat", "Tabby\r\nMix", "Female", "ISTJ", 5, 10, 50, false, false, 1.0, "b.jpg"));
+        CsvExporter.export(new RankedResult.Builder(pets).add(0, 0.9).add(1, 0.8).build(), csvPath);
+
+        MappedCompatibilityCsv csv = MappedCompatibilityCsv.open(csvPath);
+
+        assertEquals(2, csv.rowCount());
+        assertEquals(6, csv.fieldCount(0));
+        assertEquals("Retriever, Golden", csv.field(0, MappedCompatibilityCsv.BREED));
+        assertEquals("Tabby\r\nMix", csv.field(1, MappedCompatibilityCsv.BREED));
+        assertEquals(0.8, csv.score(1));
+        assertEquals(9, csv.id(1));
+        assertEquals(1, csv.find("\"Boots\"", "Tabby\r\nMix"));
+        assertEquals(0, csv.find("Rex, Jr.", "Retriever, Golden"));
+    }
+
+    /**
+     * Rows should join to a catalog by id when present, and by name and breed otherwise.
+     */
+    @Test
+    public void testPositionIn() throws IOException {
+        List<Pet> catalog = List.of(
+                new Pet(0, "Bella", "Dog", "Labrador", "Female", "ENFP", 7, 50, 100, true, false, 1.5, "a.jpg"),
+                new Pet(1, "Bella", "Dog", "Labrador", "Female", "ISTJ", 3, 50, 100, true, false, 1.5, "b.jpg"));
+        write("Name,Breed,Type,Score,ImagePath,Id\n"
+                + "Bella,Labrador,Dog,85%,b.jpg,1\n"
+                + "Bella,Labrador,Dog,80%,a.jpg,x\n");
+
+        MappedCompatibilityCsv csv = MappedCompatibilityCsv.open(csvPath);
+        PetKeyIndex index = PetKeyIndex.of(catalog);
+
+        assertEquals(1, csv.positionIn(0, index));
+        assertEquals(0, csv.positionIn(1, index));
+    }
+
+    /**
+     * Empty and header-only files have no rows, and out-of-range rows are rejected.
+     */
+    @Test
+    public void testEmptyFiles() throws IOException {
+        write("");
+        assertEquals(0, MappedCompatibilityCsv.open(csvPath).rowCount());
+
+        write("Name,Breed,Type,Score,ImagePath,Id\n");
+        MappedCompatibilityCsv csv = MappedCompatibilityCsv.open(csvPath);
+        assertEquals(0, csv.rowCount());
+        assertTrue(csv.hasIds());
+        assertThrows(IndexOutOfBoundsException.class, () -> csv.field(0, 0));
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(csvPath, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
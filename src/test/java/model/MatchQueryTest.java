@@ -0,0 +1,177 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MatchQuery}, verifying that pruned top-K and threshold queries
+ * return exactly what a full scan would.
+ */
+public class MatchQueryTest {
+
+    private final CompatibilityCalculator calculator = new CompatibilityCalculator();
+    private final MatchQuery query = new MatchQuery(calculator);
+    private final PetColumns pets = ScoringBenchmark.randomCatalog(5000, new Random(5));
+
+    /**
+     * Top-K should equal the first K entries of a full sort for a range of users and K.
+     */
+    @Test
+    public void testTopKMatchesFullSort() {
+        Random random = new Random(13);
+        for (int u = 0; u < 20; u++) {
+            User user = randomUser(random);
+            double[] scores = calculator.scoreAll(user, pets);
+            int[] sorted = sortedPositions(scores);
+            for (int k : new int[]{1, 10, 300}) {
+                MatchQueryResult result = query.topK(user, pets, k);
+
+                assertEquals(k, result.size());
+                for (int r = 0; r < k; r++) {
+                    assertEquals(sorted[r], result.position(r));
+                    assertEquals(scores[sorted[r]], result.score(r), 0.0);
+                }
+                assertEquals(pets.size(), result.getEvaluatedCount() + result.getPrunedCount());
+            }
+        }
+    }
+
+    /**
+     * A threshold query should return exactly the pets scoring above the threshold, best first.
+     */
+    @Test
+    public void testAboveThresholdMatchesFullScan() {
+        Random random = new Random(17);
+        for (int u = 0; u < 20; u++) {
+            User user = randomUser(random);
+            double[] scores = calculator.scoreAll(user, pets);
+            int[] expected = IntStream.of(sortedPositions(scores)).filter(i -> scores[i] > 0.8).toArray();
+
+            MatchQueryResult result = query.aboveThreshold(user, pets, 0.8);
+
+            assertEquals(expected.length, result.size());
+            for (int r = 0; r < expected.length; r++) {
+                assertEquals(expected[r], result.position(r));
+            }
+        }
+    }
+
+    /**
+     * A selective query should skip most of the catalog.
+     */
+    @Test
+    public void testSelectiveQueryPrunes() {
+        User user = new User("Female", "Male", "INTJ", 5, 50, 40, true, true, 3.0);
+
+        MatchQueryResult best = query.topK(user, pets, 1);
+        MatchQueryResult above = query.aboveThreshold(user, pets, 0.9);
+
+        assertTrue(best.getPrunedCount() > 0);
+        assertTrue(above.getPrunedCount() > 0);
+    }
+
+    /**
+     * Allergenic pets score zero for allergic users but still fill a top-K larger than
+     * the set of safe pets.
+     */
+    @Test
+    public void testAllergenicPetsRankLast() {
+        User user = new User("Female", "Any", "ENFP", 5, 50, 40, true, true, 3.0);
+        double[] scores = calculator.scoreAll(user, pets);
+
+        MatchQueryResult all = query.topK(user, pets, pets.size());
+
+        assertEquals(pets.size(), all.size());
+        assertArrayEquals(sortedPositions(scores), IntStream.range(0, all.size()).map(all::position).toArray());
+        for (int r = 0; r < all.size(); r++) {
+            if (pets.isAllergenic(all.position(r))) {
+                assertEquals(0.0, all.score(r), 0.0);
+            }
+        }
+    }
+
+    /**
+     * A query with custom weights should agree with the compiled profile's scores.
+     */
+    @Test
+    public void testWeightedTopKMatchesFullSort() throws IOException {
+        String json = """
+                {"name": "personality", "weights": {"mbti": 0.6, "gender": 0.3, "space": 0.1}}
+                """;
+        WeightProfile profile = WeightProfile.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        IBatchCompatibilityCalculator weighted = profile.compile();
+        User user = randomUser(new Random(19));
+        double[] scores = weighted.scoreAll(user, pets);
+        int[] sorted = sortedPositions(scores);
+
+        MatchQueryResult result = new MatchQuery(weighted, profile).topK(user, pets, 5);
+
+        for (int r = 0; r < 5; r++) {
+            assertEquals(sorted[r], result.position(r));
+        }
+    }
+
+    /**
+     * A query built from a weighted calculator should bound with that calculator's profile.
+     * The built-in weights bound the cheap terms too tightly for a profile that weighs only
+     * the expensive ones, and would prune pets that qualify.
+     */
+    @Test
+    public void testQueryUsesCalculatorProfile() throws IOException {
+        String json = """
+                {"name": "lifestyle", "weights": {"space": 0.4, "budget": 0.4, "energy": 0.2}}
+                """;
+        WeightProfile profile = WeightProfile.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        IBatchCompatibilityCalculator weighted = profile.compile();
+        User user = new User("Female", "Male", "INTJ", 5, 50, 40, false, true, 3.0);
+        double[] scores = weighted.scoreAll(user, pets);
+        int[] expected = IntStream.of(sortedPositions(scores)).filter(i -> scores[i] > 0.8).toArray();
+
+        MatchQuery weightedQuery = new MatchQuery(weighted);
+        MatchQueryResult above = weightedQuery.aboveThreshold(user, pets, 0.8);
+        MatchQueryResult best = weightedQuery.topK(user, pets, 10);
+
+        assertTrue(expected.length > 0);
+        assertTrue(new MatchQuery(weighted, WeightProfile.DEFAULT).aboveThreshold(user, pets, 0.8).size() < expected.length);
+        assertArrayEquals(expected, IntStream.range(0, above.size()).map(above::position).toArray());
+        int[] sorted = sortedPositions(scores);
+        for (int r = 0; r < 10; r++) {
+            assertEquals(sorted[r], best.position(r));
+        }
+    }
+
+    /**
+     * K of zero returns nothing; a negative K is rejected.
+     */
+    @Test
+    public void testTopKEdgeCases() {
+        User user = randomUser(new Random(23));
+
+        assertEquals(0, query.topK(user, pets, 0).size());
+        assertEquals(0, query.topK(user, ScoringBenchmark.randomCatalog(0, new Random(1)), 3).size());
+        assertThrows(IllegalArgumentException.class, () -> query.topK(user, pets, -1));
+    }
+
+    private static int[] sortedPositions(double[] scores) {
+        return IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static User randomUser(Random random) {
+        String[] genders = {"Male", "Female", "Any"};
+        return new User("Female", genders[random.nextInt(genders.length)],
+                MbtiCode.decode(random.nextInt(MbtiCode.COUNT)),
+                1 + random.nextInt(10), 1 + random.nextInt(100), 5 + random.nextInt(60),
+                random.nextBoolean(), random.nextBoolean(), 0.5 + random.nextInt(30) / 10.0);
+    }
+}
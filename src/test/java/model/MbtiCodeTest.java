@@ -0,0 +1,71 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MbtiCode}, verifying MBTI parsing and validation and that the
+ * precomputed tables agree with a letter-by-letter comparison.
+ */
+public class MbtiCodeTest {
+
+    /**
+     * Every code should decode to a type that encodes back to the same code,
+     * regardless of letter case.
+     */
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        for (int code = 0; code < MbtiCode.COUNT; code++) {
+            String type = MbtiCode.decode(code);
+            assertEquals(code, MbtiCode.encode(type));
+            assertEquals(code, MbtiCode.encode(type.toLowerCase()));
+        }
+        assertEquals("ISTJ", MbtiCode.decode(MbtiCode.encode("istj")));
+        assertEquals("ENFP", MbtiCode.decode(MbtiCode.encode("ENFP")));
+    }
+
+    /**
+     * Malformed types should be rejected.
+     */
+    @Test
+    public void testEncodeRejectsInvalidTypes() {
+        assertThrows(IllegalArgumentException.class, () -> MbtiCode.encode(null));
+        assertThrows(IllegalArgumentException.class, () -> MbtiCode.encode("INF"));
+        assertThrows(IllegalArgumentException.class, () -> MbtiCode.encode("INFPX"));
+        assertThrows(IllegalArgumentException.class, () -> MbtiCode.encode("XNFP"));
+        assertThrows(IllegalArgumentException.class, () -> MbtiCode.encode("IEFP"));
+    }
+
+    /**
+     * Pets and users should validate their MBTI type at construction.
+     */
+    @Test
+    public void testPetAndUserRejectInvalidTypes() {
+        assertThrows(IllegalArgumentException.class, () -> new Pet("Bad", "Dog", "Beagle", "Male", "ABCD",
+                5, 10, 10, false, false, 1.0, "images/bad.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> new User("Male", "Any", "",
+                5, 10, 10, false, false, 1.0));
+    }
+
+    /**
+     * The tables should match a character-by-character comparison for every pair.
+     */
+    @Test
+    public void testTablesMatchLetterComparison() {
+        for (int a = 0; a < MbtiCode.COUNT; a++) {
+            for (int b = 0; b < MbtiCode.COUNT; b++) {
+                String typeA = MbtiCode.decode(a);
+                String typeB = MbtiCode.decode(b);
+                int matches = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (typeA.charAt(i) == typeB.charAt(i)) {
+                        matches++;
+                    }
+                }
+                assertEquals(matches, MbtiCode.matchCount(a, b));
+                assertEquals(matches * 0.25, MbtiCode.score(a, b), 0.0);
+            }
+        }
+    }
+}
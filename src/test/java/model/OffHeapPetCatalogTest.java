@@ -0,0 +1,205 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link OffHeapPetCatalog}, verifying that catalogs read back exactly from a
+ * mapped file and from a direct buffer, that scores from its columns equal the calculator's
+ * on the pets, and that files that are not catalogs or are corrupt are rejected.
+ */
+public class OffHeapPetCatalogTest {
+
+    private final CompatibilityCalculator calculator = new CompatibilityCalculator();
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("offheap");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * A catalog written to a file and mapped back should hold the same pets, with
+     * positions as ids.
+     */
+    @Test
+    public void testMappedFileRoundTrip() throws IOException {
+        List<Pet> catalog = PetDatabase.getCatalog();
+        Path file = directory.resolve("catalog" + OffHeapPetCatalog.FILE_EXTENSION);
+
+        OffHeapPetCatalog.write(catalog, file);
+        OffHeapPetCatalog mapped = OffHeapPetCatalog.map(file);
+
+        assertEquals(catalog.size(), mapped.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            assertSamePet(catalog.get(i), mapped.pet(i));
+            assertEquals(i, mapped.asList().get(i).getId());
+        }
+    }
+
+    /**
+     * Null strings, non-ASCII names and unusual amounts should survive a direct buffer.
+     */
+    @Test
+    public void testDirectBufferRoundTrip() {
+        List<Pet> pets = List.of(
+                new Pet("Zoë", "Cat", "Chartreux", "Female", "ENFJ", 4, 0.1 + 0.2, 1e9, true, false, -0.0, null),
+                new Pet("名前", "Bird", "Canary", null, "istp", -3, Double.NaN, 7.25, false, true, 0.5, "images/名前.jpg"));
+
+        OffHeapPetCatalog catalog = OffHeapPetCatalog.allocate(pets);
+
+        assertEquals(2, catalog.size());
+        assertSamePet(pets.get(0), catalog.pet(0));
+        assertSamePet(pets.get(1), catalog.pet(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.pet(2));
+    }
+
+    /**
+     * Scoring the catalog's columns should give exactly the scores of the pets, with the
+     * built-in weights and with a custom profile, and the list view should be scored from
+     * the same columns.
+     */
+    @Test
+    public void testColumnsScoreLikePets() throws IOException {
+        List<Pet> catalog = PetDatabase.getCatalog();
+        Path file = directory.resolve("catalog" + OffHeapPetCatalog.FILE_EXTENSION);
+        OffHeapPetCatalog.write(catalog, file);
+        OffHeapPetCatalog mapped = OffHeapPetCatalog.map(file);
+        IBatchCompatibilityCalculator weighted = new WeightedCompatibilityCalculator(
+                new WeightProfile("personality", new double[]{0.1, 0, 0, 0, 0.2, 0.4, 0.3}));
+
+        assertSame(mapped.columns(), PetColumns.of(mapped.asList()));
+        for (User user : List.of(
+                new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0),
+                new User("Female", "Any", "ESFP", 3, 10.0, 15.0, true, false, 0.5))) {
+            for (IBatchCompatibilityCalculator scorer : List.of(calculator, weighted)) {
+                assertArrayEquals(scorer.scoreAll(user, PetColumns.of(catalog)), scorer.scoreAll(user, mapped.columns()), 0.0);
+            }
+            RankedResult expected = new PetSorter(user, calculator).rank(catalog);
+            RankedResult actual = new PetSorter(user, calculator).rank(mapped.asList());
+            for (int r = 0; r < expected.size(); r++) {
+                assertEquals(expected.position(r), actual.position(r));
+                assertEquals(expected.score(r), actual.score(r), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Columns of a range of rows should score like the same rows of the full columns,
+     * including ranges that do not start on a bitset word.
+     */
+    @Test
+    public void testColumnsOfRangeScoreLikeFullColumns() {
+        List<Pet> catalog = PetDatabase.getCatalog();
+        OffHeapPetCatalog offHeap = OffHeapPetCatalog.allocate(catalog);
+        User user = new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0);
+        double[] all = calculator.scoreAll(user, PetColumns.of(catalog));
+
+        for (int[] range : new int[][]{{0, catalog.size()}, {7, 31}, {catalog.size(), catalog.size()}}) {
+            PetColumns columns = offHeap.columns(range[0], range[1]);
+            assertEquals(range[1] - range[0], columns.size());
+            assertArrayEquals(Arrays.copyOfRange(all, range[0], range[1]), calculator.scoreAll(user, columns), 0.0);
+        }
+        assertSame(offHeap.columns(), offHeap.columns(0, catalog.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> offHeap.columns(5, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> offHeap.columns(0, catalog.size() + 1));
+    }
+
+    /**
+     * Files that are not catalogs, or are cut short, should be rejected when mapped.
+     */
+    @Test
+    public void testRejectsInvalidFiles() throws IOException {
+        Path text = directory.resolve("text" + OffHeapPetCatalog.FILE_EXTENSION);
+        Files.writeString(text, "name,type,breed\nBella,Dog,Beagle\n, and some more text to pad it");
+        assertThrows(IOException.class, () -> OffHeapPetCatalog.map(text));
+
+        Path file = directory.resolve("catalog" + OffHeapPetCatalog.FILE_EXTENSION);
+        OffHeapPetCatalog.write(PetDatabase.getCatalog(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = directory.resolve("truncated" + OffHeapPetCatalog.FILE_EXTENSION);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> OffHeapPetCatalog.map(truncated));
+    }
+
+    /**
+     * Codes outside their dictionaries and strings outside the string section should be
+     * rejected when mapped, rather than failing when a row is read.
+     */
+    @Test
+    public void testRejectsCorruptRows() throws IOException {
+        List<Pet> catalog = PetDatabase.getCatalog();
+        Path file = directory.resolve("catalog" + OffHeapPetCatalog.FILE_EXTENSION);
+        OffHeapPetCatalog.write(catalog, file);
+        byte[] valid = Files.readAllBytes(file);
+        int count = catalog.size();
+        // Header, three double columns and two byte columns, then the 4-byte aligned int columns
+        int genderAt = (32 + 26 * count + 3) & ~3;
+        int typeAt = genderAt + 4 * count;
+        int breedAt = typeAt + 4 * count;
+        int nameAt = breedAt + 4 * count;
+        int imageAt = nameAt + 4 * count;
+
+        Path corrupt = directory.resolve("corrupt" + OffHeapPetCatalog.FILE_EXTENSION);
+        for (int[] patch : new int[][]{
+                {genderAt, 1 << 20}, {typeAt + 4 * 3, -2}, {breedAt + 4 * (count - 1), 1 << 20},
+                {nameAt, valid.length}, {nameAt + 4 * 5, -7}, {imageAt + 4 * 2, Integer.MAX_VALUE}}) {
+            byte[] bytes = valid.clone();
+            ByteBuffer.wrap(bytes).putInt(patch[0], patch[1]);
+            Files.write(corrupt, bytes);
+            assertThrows(IOException.class, () -> OffHeapPetCatalog.map(corrupt), "patch at " + patch[0]);
+        }
+        byte[] bytes = valid.clone();
+        // A string whose length runs past the end of the file
+        int firstName = ByteBuffer.wrap(bytes).getInt(nameAt);
+        int stringsAt = bytes.length - stringSectionBytes(bytes);
+        ByteBuffer.wrap(bytes).putInt(stringsAt + firstName, bytes.length);
+        Files.write(corrupt, bytes);
+        assertThrows(IOException.class, () -> OffHeapPetCatalog.map(corrupt));
+    }
+
+    /** @return the size of the string section, from the header */
+    private static int stringSectionBytes(byte[] file) {
+        return ByteBuffer.wrap(file).getInt(24);
+    }
+
+    private static void assertSamePet(Pet expected, Pet actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getBreed(), actual.getBreed());
+        assertEquals(expected.getGender(), actual.getGender());
+        assertEquals(expected.getMbtiCode(), actual.getMbtiCode());
+        assertEquals(expected.getEnergyLevel(), actual.getEnergyLevel());
+        assertEquals(Double.doubleToRawLongBits(expected.getRequiredSpace()),
+                Double.doubleToRawLongBits(actual.getRequiredSpace()));
+        assertEquals(Double.doubleToRawLongBits(expected.getMonthlyCost()),
+                Double.doubleToRawLongBits(actual.getMonthlyCost()));
+        assertEquals(Double.doubleToRawLongBits(expected.getTimeNeededPerDay()),
+                Double.doubleToRawLongBits(actual.getTimeNeededPerDay()));
+        assertEquals(expected.isAllergenic(), actual.isAllergenic());
+        assertEquals(expected.requiresYard(), actual.requiresYard());
+        assertEquals(expected.getImagePath(), actual.getImagePath());
+    }
+}
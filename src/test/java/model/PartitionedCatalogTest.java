@@ -0,0 +1,159 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PartitionedCatalog}, verifying that scatter-gather rankings,
+ * searches and filters give exactly the results of a scan of the whole catalog, with or
+ * without partitioning by type.
+ */
+public class PartitionedCatalogTest {
+
+    private static final String[] SHELTERS = {"North", "South", "East"};
+
+    /** Puts every third pet in the same shelter. */
+    private static final Function<Pet, String> SHELTER_OF = pet -> SHELTERS[pet.getId() % SHELTERS.length];
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final CompatibilityCalculator calculator = new CompatibilityCalculator();
+    private final List<Pet> catalog = PetDatabase.getCatalog();
+    private final User user = new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Each shelter, and each type within it if requested, should get its own partition.
+     */
+    @Test
+    public void testPartitionsByShelterAndType() {
+        PartitionedCatalog byShelter = PartitionedCatalog.of(catalog, SHELTER_OF, false, pool);
+        PartitionedCatalog byShelterAndType = PartitionedCatalog.of(catalog, SHELTER_OF, true, pool);
+
+        assertEquals(List.of(SHELTERS), byShelter.shelters());
+        assertEquals(SHELTERS.length, byShelter.partitionCount());
+        long shelterTypes = catalog.stream().map(pet -> SHELTER_OF.apply(pet) + "/" + pet.getType()).distinct().count();
+        assertEquals(shelterTypes, byShelterAndType.partitionCount());
+    }
+
+    /**
+     * The merged top K should be the first K pets of a full scan, for every K, whether or
+     * not the catalog is split by type.
+     */
+    @Test
+    public void testTopKMatchesFullScan() {
+        for (boolean byType : new boolean[]{false, true}) {
+            PartitionedCatalog partitioned = PartitionedCatalog.of(catalog, SHELTER_OF, byType, pool);
+            for (int k : new int[]{0, 1, 5, catalog.size(), catalog.size() + 10}) {
+                assertRanking(scan(id -> true, k), partitioned.topK(user, calculator, k));
+            }
+        }
+        PartitionedCatalog partitioned = PartitionedCatalog.of(catalog, SHELTER_OF, false, pool);
+        assertThrows(IllegalArgumentException.class, () -> partitioned.topK(user, calculator, -1));
+    }
+
+    /**
+     * A shelter-limited ranking should only contain that shelter's pets, ranked as in a
+     * full scan; an unknown shelter should give an empty ranking.
+     */
+    @Test
+    public void testTopKOfShelter() {
+        PartitionedCatalog partitioned = PartitionedCatalog.of(catalog, SHELTER_OF, true, pool);
+
+        for (String shelter : SHELTERS) {
+            assertRanking(scan(id -> SHELTER_OF.apply(catalog.get(id)).equals(shelter), 7),
+                    partitioned.topK(user, calculator, 7, shelter));
+        }
+        assertEquals(0, partitioned.topK(user, calculator, 7, "West").size());
+    }
+
+    /**
+     * Searches and filters by type and breed should match a scan, ignoring case.
+     */
+    @Test
+    public void testSearchAndFilterMatchScan() {
+        for (boolean byType : new boolean[]{false, true}) {
+            PartitionedCatalog partitioned = PartitionedCatalog.of(catalog, SHELTER_OF, byType, pool);
+
+            assertRanking(scan(id -> catalog.get(id).getType().equals("Dog"), 4),
+                    partitioned.search(user, calculator, 4, "dog", null));
+            assertRanking(scan(id -> catalog.get(id).getBreed().equals("Beagle"), 10),
+                    partitioned.search(user, calculator, 10, "DOG", "beagle"));
+
+            assertArrayEquals(PetDatabase.getIndex().idsOfType("Cat"), partitioned.idsOfTypeAndBreed("cat", ""));
+            assertArrayEquals(PetDatabase.getIndex().idsOfTypeAndBreed("Hamster", "Roborovski Hamster"),
+                    partitioned.idsOfTypeAndBreed("hamster", "roborovski hamster"));
+            assertArrayEquals(scanIds(id -> catalog.get(id).getType().equals("Parrot")
+                            && SHELTER_OF.apply(catalog.get(id)).equals("South")),
+                    partitioned.idsOfTypeAndBreed("Parrot", null, "South"));
+            assertEquals(0, partitioned.idsOfTypeAndBreed("Unicorn", null).length);
+        }
+    }
+
+    /**
+     * A missing type should be rejected by searches and filters alike, and pets without a
+     * type should match no type, whether or not the catalog is split by type.
+     */
+    @Test
+    public void testNullTypeIsRejectedInBothLayouts() {
+        List<Pet> pets = List.of(
+                new Pet(0, "Rex", "Dog", "Beagle", "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "a.jpg"),
+                new Pet(1, "Tom", null, null, "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "b.jpg"),
+                new Pet(2, "Max", "Dog", "Pug", "Male", "ENFP", 5, 10.0, 20.0, false, false, 1.0, "c.jpg"));
+        for (boolean byType : new boolean[]{false, true}) {
+            PartitionedCatalog partitioned = PartitionedCatalog.of(pets, pet -> "North", byType, pool);
+
+            assertThrows(IllegalArgumentException.class, () -> partitioned.search(user, calculator, 3, null, null));
+            assertThrows(IllegalArgumentException.class, () -> partitioned.idsOfTypeAndBreed(null, null));
+            assertThrows(IllegalArgumentException.class, () -> partitioned.idsOfTypeAndBreed(null, null, "North"));
+
+            assertArrayEquals(new int[]{0, 2}, partitioned.idsOfTypeAndBreed("dog", null));
+            RankedResult dogs = partitioned.search(user, calculator, 3, "Dog", "");
+            assertEquals(2, dogs.size());
+            assertNotEquals(1, dogs.position(0));
+            assertNotEquals(1, dogs.position(1));
+            assertEquals(3, partitioned.topK(user, calculator, 3).size());
+        }
+    }
+
+    /** Ranks the matching pets by descending score, then ascending id. */
+    private List<Integer> scan(IntPredicate matches, int k) {
+        double[] scores = calculator.scoreAll(user, PetColumns.of(catalog));
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < catalog.size(); id++) {
+            if (matches.test(id)) {
+                ids.add(id);
+            }
+        }
+        ids.sort(Comparator.comparingDouble((Integer id) -> -scores[id]).thenComparingInt(id -> id));
+        return ids.subList(0, Math.min(k, ids.size()));
+    }
+
+    private int[] scanIds(IntPredicate matches) {
+        return IntStream.range(0, catalog.size()).filter(matches).toArray();
+    }
+
+    private void assertRanking(List<Integer> expected, RankedResult actual) {
+        double[] scores = calculator.scoreAll(user, PetColumns.of(catalog));
+        assertEquals(expected.size(), actual.size());
+        for (int r = 0; r < expected.size(); r++) {
+            assertEquals(expected.get(r), actual.position(r));
+            assertEquals(scores[expected.get(r)], actual.score(r), 0.0);
+            assertEquals(catalog.get(expected.get(r)), actual.pet(r));
+        }
+    }
+}
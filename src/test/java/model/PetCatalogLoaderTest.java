@@ -0,0 +1,247 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PetCatalogLoader} and {@link PetCatalog}, verifying that JSON and
+ * CSV catalogs load exactly, whatever the chunk size, and that invalid records are reported
+ * by their position in the file.
+ */
+public class PetCatalogLoaderTest {
+
+    private static final String CSV_HEADER = "name,type,breed,gender,mbti,energyLevel,requiredSpace,"
+            + "monthlyCost,allergenic,requiresYard,timeNeededPerDay,imagePath\n";
+
+    /** Puts every record in a chunk of its own. */
+    private final PetCatalogLoader tinyChunks = new PetCatalogLoader(ForkJoinPool.commonPool(), 1);
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("catalog");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * The built-in catalog written as JSON and as CSV should load back field for field,
+     * with ids in file order, for large and tiny chunks alike.
+     */
+    @Test
+    public void testLoadsBuiltInCatalog() throws IOException {
+        List<Pet> expected = PetDatabase.getCatalog();
+        Path json = write("pets.json", toJson(expected));
+        Path csv = write("pets.csv", toCsv(expected));
+
+        for (PetCatalogLoader loader : List.of(new PetCatalogLoader(), tinyChunks)) {
+            assertSamePets(expected, loader.load(json).toPets());
+            assertSamePets(expected, loader.load(csv).toPets());
+        }
+    }
+
+    /**
+     * The scoring columns of a loaded catalog should match those built from its pets.
+     */
+    @Test
+    public void testColumnsMatchMaterializedPets() throws IOException {
+        PetCatalog catalog = tinyChunks.load(write("pets.csv", toCsv(PetDatabase.getCatalog())));
+        PetColumns columns = catalog.columns();
+        PetColumns expected = PetColumns.of(catalog.toPets());
+
+        assertEquals(expected.size(), columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            assertEquals(expected.requiredSpace[i], columns.requiredSpace[i]);
+            assertEquals(expected.monthlyCost[i], columns.monthlyCost[i]);
+            assertEquals(expected.timeNeededPerDay[i], columns.timeNeededPerDay[i]);
+            assertEquals(expected.energyLevel[i], columns.energyLevel[i]);
+            assertEquals(expected.isAllergenic(i), columns.isAllergenic(i));
+            assertEquals(expected.requiresYard(i), columns.requiresYard(i));
+            assertEquals(expected.mbtiCode[i], columns.mbtiCode[i]);
+            assertEquals(expected.genderDictionary[expected.genderCode[i]], columns.genderDictionary[columns.genderCode[i]]);
+        }
+    }
+
+    /**
+     * Quoted CSV fields may hold commas, quotes and line breaks; columns may come in any
+     * order, extra columns and blank lines are ignored, and the image path is optional.
+     */
+    @Test
+    public void testCsvQuotingAndColumnOrder() throws IOException {
+        Path csv = write("pets.csv", "\uFEFFMBTI,Name,notes,type,breed,gender,energyLevel,requiredSpace,"
+                + "monthlyCost,allergenic,requiresYard,timeNeededPerDay\r\n"
+                + "enfp,\"Mr. \"\"Whiskers\"\", Jr.\",\"multi\nline\",Cat,Siamese,Male,5,25,20,FALSE,false,1.5\r\n"
+                + "\r\n"
+                + "ISTJ,Nemo,,Fish,Betta,Male,2,1.0,3.0,false,False,0.2\n"
+                + "INTJ,\"Tiger,\nthe cat\",x\"y,Cat,British Shorthair,Female,8,45.0,25.0,true,TRUE,2.0");
+
+        List<Pet> pets = tinyChunks.load(csv).toPets();
+
+        assertEquals(3, pets.size());
+        assertEquals("Mr. \"Whiskers\", Jr.", pets.get(0).getName());
+        assertEquals("ENFP", pets.get(0).getMbti());
+        assertEquals("", pets.get(0).getImagePath());
+        assertEquals("Nemo", pets.get(1).getName());
+        assertEquals(1, pets.get(1).getId());
+        assertEquals("Tiger,\nthe cat", pets.get(2).getName());
+        assertTrue(pets.get(2).isAllergenic());
+        assertTrue(pets.get(2).requiresYard());
+    }
+
+    /**
+     * JSON strings may hold escaped quotes and brackets, and unknown keys, including nested
+     * values, are skipped.
+     */
+    @Test
+    public void testJsonEscapesAndUnknownKeys() throws IOException {
+        Path json = write("pets.json", " [ {\"name\": \"Kiki \\\"the\\\\ }, ] bird\", \"shelter\": {\"id\": [1, {\"x\": 2}]},"
+                + " \"type\": \"Parrot\", \"breed\": \"African Grey\", \"gender\": \"Male\", \"mbti\": \"INTP\","
+                + " \"energyLevel\": 5, \"requiredSpace\": 40, \"monthlyCost\": 15.0, \"allergenic\": false,"
+                + " \"requiresYard\": false, \"timeNeededPerDay\": 1.0},\n"
+                + " {\"NAME\": \"Blue\", \"type\": \"Fish\", \"breed\": \"Guppy\", \"gender\": \"Male\", \"mbti\": \"INFP\","
+                + " \"energyLevel\": 2, \"requiredSpace\": 1.0, \"monthlyCost\": 3.0, \"allergenic\": false,"
+                + " \"requiresYard\": false, \"timeNeededPerDay\": 0.2, \"imagePath\": \"images/blue.jpg\"} ]\n");
+
+        List<Pet> pets = tinyChunks.load(json).toPets();
+
+        assertEquals(2, pets.size());
+        assertEquals("Kiki \"the\\ }, ] bird", pets.get(0).getName());
+        assertEquals(40.0, pets.get(0).getRequiredSpace());
+        assertEquals("Blue", pets.get(1).getName());
+        assertEquals("images/blue.jpg", pets.get(1).getImagePath());
+        assertEquals(0, tinyChunks.load(write("empty.json", "[]")).size());
+    }
+
+    /**
+     * When several records are invalid, the first one in the file should be reported, by
+     * its record number, however the file was split.
+     */
+    @Test
+    public void testReportsFirstInvalidRecord() throws IOException {
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 1; i <= 20_000; i++) {
+            String mbti = i == 12_345 ? "XXXX" : "ENFP";
+            int energy = i == 15_000 ? 11 : 5;
+            csv.append("Pet").append(i).append(",Dog,Mixed,Male,").append(mbti).append(',').append(energy)
+                    .append(",10,50,false,false,1.0,images/pet.jpg\n");
+        }
+        Path path = write("pets.csv", csv.toString());
+
+        for (PetCatalogLoader loader : List.of(new PetCatalogLoader(), new PetCatalogLoader(ForkJoinPool.commonPool(), 4096), tinyChunks)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> loader.load(path));
+            assertTrue(e.getMessage().contains("record 12345 "), e.getMessage());
+            assertTrue(e.getMessage().contains("XXXX"), e.getMessage());
+        }
+    }
+
+    /**
+     * Invalid values, missing fields and malformed files should be rejected.
+     */
+    @Test
+    public void testRejectsInvalidCatalogs() throws IOException {
+        String valid = "{\"name\": \"Bella\", \"type\": \"Dog\", \"breed\": \"Beagle\", \"gender\": \"Female\","
+                + " \"mbti\": \"ISFJ\", \"energyLevel\": 7, \"requiredSpace\": 50.0, \"monthlyCost\": 30.0,"
+                + " \"allergenic\": false, \"requiresYard\": true, \"timeNeededPerDay\": 2.0}";
+        assertEquals(2, tinyChunks.load(write("valid.json", "[" + valid + "," + valid + "]")).size());
+
+        assertInvalidJson(IllegalArgumentException.class, "[" + valid + "," + valid.replace("\"ISFJ\"", "\"ISFX\"") + "]");
+        assertInvalidJson(IllegalArgumentException.class, "[" + valid.replace("\"energyLevel\": 7,", "") + "]");
+        assertInvalidJson(IllegalArgumentException.class, "[" + valid.replace("50.0", "\"50\"") + "]");
+        assertInvalidJson(IllegalArgumentException.class, "[" + valid.replace("30.0", "-1") + "]");
+        assertInvalidJson(IllegalArgumentException.class, "[" + valid.replace("\"Bella\"", "\" \"") + "]");
+        assertInvalidJson(IllegalArgumentException.class, "[" + valid + ", 42]");
+        assertInvalidJson(IOException.class, "{\"pets\": []}");
+        assertInvalidJson(IOException.class, "[" + valid);
+        assertInvalidJson(IOException.class, "[" + valid + "] []");
+        assertInvalidJson(IOException.class, "[" + valid + ",]");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> tinyChunks.load(write("pets.csv", CSV_HEADER.replace("mbti,", ""))));
+        assertThrows(IllegalArgumentException.class,
+                () -> tinyChunks.load(write("pets.csv", CSV_HEADER + "Bella,Dog,Beagle,Female,ISFJ,7,50,30,no,true,2.0,a.jpg\n")));
+        assertThrows(IllegalArgumentException.class,
+                () -> tinyChunks.load(write("pets.csv", CSV_HEADER + "Bella,Dog,Beagle,Female,ISFJ,7,50,30\n")));
+        assertThrows(IllegalArgumentException.class, () -> tinyChunks.load(write("pets.csv", "")));
+        assertThrows(IllegalArgumentException.class, () -> tinyChunks.load(write("pets.txt", CSV_HEADER)));
+    }
+
+    private void assertInvalidJson(Class<? extends Exception> expected, String content) throws IOException {
+        Path json = write("invalid.json", content);
+        Exception e = assertThrows(expected, () -> tinyChunks.load(json));
+        assertTrue(e.getMessage().contains(json.toString()), e.getMessage());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    private static void assertSamePets(List<Pet> expected, List<Pet> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int id = 0; id < expected.size(); id++) {
+            Pet e = expected.get(id);
+            Pet a = actual.get(id);
+            assertEquals(id, a.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getBreed(), a.getBreed());
+            assertEquals(e.getGender(), a.getGender());
+            assertEquals(e.getMbti(), a.getMbti());
+            assertEquals(e.getEnergyLevel(), a.getEnergyLevel());
+            assertEquals(e.getRequiredSpace(), a.getRequiredSpace());
+            assertEquals(e.getMonthlyCost(), a.getMonthlyCost());
+            assertEquals(e.isAllergenic(), a.isAllergenic());
+            assertEquals(e.requiresYard(), a.requiresYard());
+            assertEquals(e.getTimeNeededPerDay(), a.getTimeNeededPerDay());
+            assertEquals(e.getImagePath(), a.getImagePath());
+        }
+    }
+
+    private static String toCsv(List<Pet> pets) {
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (Pet pet : pets) {
+            csv.append(String.join(",", pet.getName(), pet.getType(), pet.getBreed(), pet.getGender(), pet.getMbti(),
+                    String.valueOf(pet.getEnergyLevel()), String.valueOf(pet.getRequiredSpace()),
+                    String.valueOf(pet.getMonthlyCost()), String.valueOf(pet.isAllergenic()),
+                    String.valueOf(pet.requiresYard()), String.valueOf(pet.getTimeNeededPerDay()),
+                    pet.getImagePath())).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String toJson(List<Pet> pets) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (Pet pet : pets) {
+            if (json.length() > 2) {
+                json.append(",\n");
+            }
+            json.append(String.format(Locale.ROOT, "{\"name\": \"%s\", \"type\": \"%s\", \"breed\": \"%s\","
+                            + " \"gender\": \"%s\", \"mbti\": \"%s\", \"energyLevel\": %d, \"requiredSpace\": %s,"
+                            + " \"monthlyCost\": %s, \"allergenic\": %b, \"requiresYard\": %b,"
+                            + " \"timeNeededPerDay\": %s, \"imagePath\": \"%s\"}",
+                    pet.getName(), pet.getType(), pet.getBreed(), pet.getGender(), pet.getMbti(),
+                    pet.getEnergyLevel(), pet.getRequiredSpace(), pet.getMonthlyCost(), pet.isAllergenic(),
+                    pet.requiresYard(), pet.getTimeNeededPerDay(), pet.getImagePath()));
+        }
+        return json.append("\n]").toString();
+    }
+}
@@ -175,6 +175,27 @@ public class PetFilterTest {
         assertTrue(filteredPets.isEmpty(), "Expect empty result for null input list");
     }
 
+    /**
+     * Verifies that the in-memory filter returns exactly the pets scoring above 80%, best first.
+     */
+    @Test
+    public void testFilterInMemoryMatchesCalculator() {
+        CompatibilityCalculator calculator = new CompatibilityCalculator();
+        User user = new User("Male", "Female", "ENFP", 7, 1000, 200, false, true, 4.0);
+
+        List<Pet> filteredPets = new PetFilter(user, calculator).filterPetsByCompatibility(testPets);
+
+        List<Pet> expected = new ArrayList<>();
+        for (Pet pet : testPets) {
+            if (calculator.calculate(user, pet) > 0.80) {
+                expected.add(pet);
+            }
+        }
+        expected.sort((a, b) -> Double.compare(calculator.calculate(user, b), calculator.calculate(user, a)));
+        assertFalse(expected.isEmpty(), "Test user should match at least one pet");
+        assertEquals(expected, filteredPets);
+    }
+
     // ---------------- Helper methods for test data preparation ----------------
 
     /**
@@ -0,0 +1,134 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PetKeyIndex}, verifying (name, breed) and id lookups against a
+ * catalog.
+ */
+public class PetKeyIndexTest {
+
+    private final List<Pet> pets = List.of(
+            new Pet("Bella", "Dog", "Beagle", "Female", "ISFJ", 7, 50.0, 30.0, false, true, 2.0, "a.jpg"),
+            new Pet("Bella", "Dog", "Poodle", "Female", "ENFP", 5, 40.0, 35.0, false, false, 1.5, "b.jpg"),
+            new Pet("Milo", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "c.jpg"),
+            new Pet("Bella", "Dog", "Beagle", "Male", "ESTJ", 3, 60.0, 30.0, true, true, 2.0, "d.jpg"));
+
+    /**
+     * Pets should be found by exact name and breed; the first duplicate wins.
+     */
+    @Test
+    public void testPositionOf() {
+        PetKeyIndex index = PetKeyIndex.of(pets);
+
+        assertEquals(0, index.positionOf("Bella", "Beagle"));
+        assertEquals(1, index.positionOf("Bella", "Poodle"));
+        assertEquals(2, index.positionOf("Milo", "Siamese"));
+        assertEquals(-1, index.positionOf("bella", "Beagle"));
+        assertEquals(-1, index.positionOf("Milo", "Beagle"));
+    }
+
+    /**
+     * Keys must not collide when name and breed split the same text differently, even
+     * around a NUL character, nor when a name or breed is missing.
+     */
+    @Test
+    public void testKeysDoNotCollide() {
+        PetKeyIndex index = PetKeyIndex.of(List.of(
+                new Pet("AB", "Dog", "C", "Male", "ISFJ", 7, 50.0, 30.0, false, true, 2.0, "a.jpg"),
+                new Pet("A\0B", "Dog", "C", "Male", "ISFJ", 7, 50.0, 30.0, false, true, 2.0, "b.jpg"),
+                new Pet(null, "Dog", "C", "Male", "ISFJ", 7, 50.0, 30.0, false, true, 2.0, "c.jpg")));
+
+        assertEquals(0, index.positionOf("AB", "C"));
+        assertEquals(-1, index.positionOf("A", "BC"));
+        assertEquals(1, index.positionOf("A\0B", "C"));
+        assertEquals(-1, index.positionOf("A", "B\0C"));
+        assertEquals(2, index.positionOf(null, "C"));
+        assertEquals(-1, index.positionOf("null", "C"));
+    }
+
+    /**
+     * Pets with ids should be found by id, and CSV rows should join by their Id column
+     * when present.
+     */
+    @Test
+    public void testIdLookupsAndRowJoin() throws IOException {
+        List<Pet> withIds = List.of(
+                new Pet(2, "Shelly", "Turtle", "Red-eared Slider", "Female", "ISTP", 2, 2.0, 5.0, false, false, 0.1, "a.jpg"),
+                new Pet(0, "Shelly", "Guinea Pig", "American", "Male", "ISFJ", 4, 5.0, 5.0, true, false, 0.5, "b.jpg"));
+        PetKeyIndex index = PetKeyIndex.of(withIds);
+
+        assertEquals(0, index.positionOf(2));
+        assertEquals(1, index.positionOf(0));
+        assertEquals(-1, index.positionOf(1));
+        assertEquals(-1, index.positionOf(Pet.NO_ID));
+        assertEquals(1, index.positionOfRow("Shelly,Guinea Pig,American,90%,b.jpg,0".split(",")));
+        assertEquals(0, index.positionOfRow("Shelly,Red-eared Slider,Turtle,90%,a.jpg".split(",")));
+        assertEquals(0, index.positionOfRow("Shelly,Red-eared Slider,Turtle,90%,a.jpg,x".split(",")));
+
+        CsvTokenizer row = new CsvTokenizer(new StringReader(
+                "Shelly,American,Guinea Pig,90%,b.jpg,0\nShelly,Red-eared Slider,Turtle,90%,a.jpg,x\n"));
+        assertTrue(row.next());
+        assertEquals(1, index.positionOfRow(row));
+        assertTrue(row.next());
+        assertEquals(0, index.positionOfRow(row));
+    }
+
+    /**
+     * Ids far beyond the catalog size should be found without sizing anything by them.
+     */
+    @Test
+    public void testSparseIds() {
+        PetKeyIndex index = PetKeyIndex.of(List.of(
+                new Pet(Integer.MAX_VALUE - 1, "Shelly", "Turtle", "Red-eared Slider", "Female", "ISTP", 2, 2.0, 5.0, false, false, 0.1, "a.jpg"),
+                new Pet(3, "Milo", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "c.jpg"),
+                new Pet(3, "Bella", "Dog", "Beagle", "Female", "ISFJ", 7, 50.0, 30.0, false, true, 2.0, "d.jpg")));
+
+        assertEquals(0, index.positionOf(Integer.MAX_VALUE - 1));
+        assertEquals(1, index.positionOf(3));
+        assertEquals(-1, index.positionOf(4));
+        assertEquals(-1, index.positionOf(Pet.NO_ID));
+        assertEquals(2, index.positionOf("Bella", "Beagle"));
+    }
+
+    /**
+     * Extending an index should find the new pets, switching to sparse ids if needed,
+     * while earlier indexes, and indexes extended from them, see only their own pets.
+     */
+    @Test
+    public void testWithPets() {
+        List<Pet> catalog = new ArrayList<>();
+        for (int id = 0; id < 40; id++) {
+            catalog.add(new Pet(id, "Pet" + id, "Dog", "Beagle", "Male", "ISFJ", 5, 10.0, 20.0, false, false, 1.0, "a.jpg"));
+        }
+        PetKeyIndex first = PetKeyIndex.of(catalog.subList(0, 10));
+        PetKeyIndex second = first.withPets(catalog.subList(0, 40));
+        catalog.add(new Pet(1_000_000, "Far", "Dog", "Beagle", "Male", "ISFJ", 5, 10.0, 20.0, false, false, 1.0, "a.jpg"));
+        PetKeyIndex sparse = second.withPets(catalog);
+
+        assertEquals(9, first.positionOf(9));
+        assertEquals(-1, first.positionOf(10));
+        assertEquals(-1, first.positionOf("Pet10", "Beagle"));
+        assertEquals(39, second.positionOf("Pet39", "Beagle"));
+        assertEquals(-1, second.positionOf(1_000_000));
+        assertEquals(40, sparse.positionOf(1_000_000));
+        assertEquals(25, sparse.positionOf(25));
+        assertEquals(-1, sparse.positionOf(40));
+
+        List<Pet> other = new ArrayList<>(catalog.subList(0, 10));
+        other.add(catalog.get(30));
+        PetKeyIndex branched = first.withPets(other);
+        assertEquals(10, branched.positionOf("Pet30", "Beagle"));
+        assertEquals(10, branched.positionOf(30));
+        assertEquals(-1, branched.positionOf(11));
+        assertEquals(-1, branched.positionOf("Pet11", "Beagle"));
+        assertThrows(IllegalArgumentException.class, () -> second.withPets(catalog.subList(0, 5)));
+    }
+}
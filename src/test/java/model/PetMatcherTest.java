@@ -131,6 +131,25 @@ public class PetMatcherTest {
         assertNull(bestMatch, "Best match should be null for invalid CSV format");
     }
 
+    /**
+     * The in-memory query should return the highest-scoring pet, or null below 80%.
+     */
+    @Test
+    public void testFindBestMatchInMemory() {
+        CompatibilityCalculator calculator = new CompatibilityCalculator();
+        // Little space, budget or time, and no yard: every pet scores well below 80%
+        User constrained = new User("Male", "Male", "ESFP", 1, 10, 10, false, false, 0.1);
+
+        Pet bestMatch = petMatcher.findBestMatch(testUser, calculator);
+        Pet noMatch = petMatcher.findBestMatch(constrained, calculator);
+
+        assertNotNull(bestMatch, "Best match should not be null when high scores exist");
+        for (Pet pet : testPets) {
+            assertTrue(calculator.calculate(testUser, bestMatch) >= calculator.calculate(testUser, pet));
+        }
+        assertNull(noMatch, "Best match should be null if no score ≥ 80%");
+    }
+
     // ---------------------- Helper Methods ----------------------
 
     /**
@@ -0,0 +1,134 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PetSortKeys}, verifying that the radix-sorted ranking is exactly
+ * the order produced by the {@link PetSorter} comparator chain.
+ */
+public class PetSortKeysTest {
+
+    private final CompatibilityCalculator calculator = new CompatibilityCalculator();
+
+    /**
+     * The built-in catalog should rank identically for a range of users.
+     */
+    @Test
+    public void testMatchesComparatorOnPetDatabase() {
+        List<Pet> pets = new ArrayList<>(PetDatabase.getAllPets());
+        Random random = new Random(29);
+        for (int u = 0; u < 50; u++) {
+            assertSameOrder(randomUser(random), pets);
+        }
+    }
+
+    /**
+     * A large catalog with many tied scores and tie-breakers should rank identically.
+     */
+    @Test
+    public void testMatchesComparatorWithManyTies() {
+        Random random = new Random(31);
+        List<Pet> pets = new ArrayList<>();
+        String[] genders = {"Male", "Female"};
+        for (int i = 0; i < 3000; i++) {
+            pets.add(new Pet("Pet" + i, "Dog", "Mixed", genders[random.nextInt(2)],
+                    MbtiCode.decode(random.nextInt(MbtiCode.COUNT)), 1 + random.nextInt(10),
+                    10 * (1 + random.nextInt(8)), 20 * (1 + random.nextInt(5)),
+                    random.nextBoolean(), random.nextBoolean(), 0.5 * (1 + random.nextInt(6)),
+                    "images/pet.jpg"));
+        }
+        for (int u = 0; u < 10; u++) {
+            assertSameOrder(randomUser(random), pets);
+        }
+    }
+
+    /**
+     * When two ratios quantize to the same key, a later tie-breaker must not decide the
+     * order; the exact comparison has to win.
+     */
+    @Test
+    public void testQuantizationCollisionFallsBackToExactOrder() {
+        User user = new User("Female", "Any", "ENFP", 5, 1.0, 100, false, true, 2.0);
+        List<Pet> pets = List.of(
+                // Space ratio 0.5, perfect energy
+                new Pet("A", "Dog", "Mixed", "Male", "ENFP", 5, 2.0, 50, false, false, 1.0, "a.jpg"),
+                // Space ratio a hair above 0.5, worse energy
+                new Pet("B", "Dog", "Mixed", "Male", "ENFP", 9, 1.9999999, 50, false, false, 1.0, "b.jpg"));
+        double[] scores = {0.5, 0.5};
+
+        int[] order = new PetSortKeys(user, PetColumns.of(pets), scores).sort();
+
+        assertArrayEquals(new int[]{1, 0}, order);
+    }
+
+    /**
+     * Score keys should order like {@link Double#compare}, reversed.
+     */
+    @Test
+    public void testScoreKeyOrder() {
+        double[] ascending = {Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, Double.MIN_VALUE, 0.5, 1.0,
+                Double.POSITIVE_INFINITY, Double.NaN};
+        for (int i = 1; i < ascending.length; i++) {
+            assertTrue(Long.compareUnsigned(PetSortKeys.scoreKey(ascending[i]),
+                    PetSortKeys.scoreKey(ascending[i - 1])) < 0);
+        }
+    }
+
+    /**
+     * Empty and single-pet catalogs should sort trivially.
+     */
+    @Test
+    public void testTinyCatalogs() {
+        User user = randomUser(new Random(37));
+        assertEquals(0, new PetSortKeys(user, PetColumns.of(List.of()), new double[0]).sort().length);
+        List<Pet> one = List.of(PetDatabase.getAllPets().get(0));
+        assertArrayEquals(new int[]{0}, new PetSortKeys(user, PetColumns.of(one), new double[]{0.7}).sort());
+    }
+
+    private void assertSameOrder(User user, List<Pet> pets) {
+        double[] scores = calculator.scoreAll(user, PetColumns.of(pets));
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < pets.size(); i++) {
+            expected.add(i);
+        }
+        expected.sort(referenceOrder(user, pets, scores));
+
+        int[] order = new PetSortKeys(user, PetColumns.of(pets), scores).sort();
+
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), order);
+    }
+
+    /**
+     * The comparator chain that {@link PetSorter} used before sort keys were introduced.
+     */
+    private static Comparator<Integer> referenceOrder(User user, List<Pet> pets, double[] scores) {
+        return Comparator.<Integer, Double>comparing(i -> scores[i]).reversed()
+                .thenComparing(i -> {
+                    String pref = user.getPreferredPetGender();
+                    if (pref.equalsIgnoreCase("Any")) return 0;
+                    return pref.equalsIgnoreCase(pets.get(i).getGender()) ? -1 : 1;
+                })
+                .thenComparing(i -> -MbtiCode.matchCount(user.getMbtiCode(), pets.get(i).getMbtiCode()))
+                .thenComparing(i -> -Math.min(user.getSpace() / pets.get(i).getRequiredSpace(), 1.0))
+                .thenComparing(i -> (double) Math.abs(user.getEnergyLevel() - pets.get(i).getEnergyLevel()))
+                .thenComparing(i -> -Math.min(user.getTimePerDay() / pets.get(i).getTimeNeededPerDay(), 1.0))
+                .thenComparing(i -> -Math.min(user.getBudget() / pets.get(i).getMonthlyCost(), 1.0))
+                .thenComparing(i -> (!pets.get(i).requiresYard() || user.hasYard()) ? -1 : 1);
+    }
+
+    private static User randomUser(Random random) {
+        String[] genders = {"Male", "Female", "Any"};
+        return new User("Female", genders[random.nextInt(genders.length)],
+                MbtiCode.decode(random.nextInt(MbtiCode.COUNT)),
+                1 + random.nextInt(10), 1 + random.nextInt(100), 5 + random.nextInt(150),
+                random.nextBoolean(), random.nextBoolean(), 0.5 + random.nextInt(30) / 10.0);
+    }
+}
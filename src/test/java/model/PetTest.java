@@ -0,0 +1,62 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link Pet} identity: database ids, {@code equals} and {@code hashCode}.
+ */
+public class PetTest {
+
+    /**
+     * Pets are equal exactly when they share an id.
+     */
+    @Test
+    public void testEqualityById() {
+        Pet a = new Pet(7, "Shelly", "Turtle", "Red-eared Slider", "Female", "ISTP", 2, 2.0, 5.0, false, false, 0.1, "a.jpg");
+        Pet sameId = new Pet(7, "Other", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "b.jpg");
+        Pet otherId = new Pet(8, "Shelly", "Turtle", "Red-eared Slider", "Female", "ISTP", 2, 2.0, 5.0, false, false, 0.1, "a.jpg");
+
+        assertEquals(a, sameId);
+        assertEquals(a.hashCode(), sameId.hashCode());
+        assertNotEquals(a, otherId);
+        assertTrue(a.hasId());
+        assertEquals(7, a.getId());
+    }
+
+    /**
+     * Pets without an id are only equal to themselves.
+     */
+    @Test
+    public void testPetsWithoutIdUseIdentity() {
+        Pet a = new Pet("Milo", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "m.jpg");
+        Pet b = new Pet("Milo", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "m.jpg");
+
+        assertEquals(Pet.NO_ID, a.getId());
+        assertFalse(a.hasId());
+        assertEquals(a, a);
+        assertNotEquals(a, b);
+        assertThrows(IllegalArgumentException.class, () ->
+                new Pet(-2, "Milo", "Cat", "Siamese", "Male", "INFP", 5, 25.0, 20.0, false, false, 1.5, "m.jpg"));
+    }
+
+    /**
+     * Database pets should have dense, unique ids that look them up, despite shared names.
+     */
+    @Test
+    public void testDatabaseIdsAreDense() {
+        Set<Integer> ids = new HashSet<>();
+        for (Pet pet : PetDatabase.getAllPets()) {
+            assertTrue(pet.getId() >= 0 && pet.getId() < PetDatabase.size());
+            assertTrue(ids.add(pet.getId()), "Ids should be unique");
+            assertSame(pet, PetDatabase.getPetById(pet.getId()));
+        }
+        assertEquals(PetDatabase.size(), ids.size());
+        assertNull(PetDatabase.getPetById(PetDatabase.size()));
+    }
+}
@@ -0,0 +1,120 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RankedResult}, covering rankings produced by {@link PetSorter}
+ * and the top-K, threshold and type/breed views.
+ */
+public class RankedResultTest {
+
+    private List<Pet> pets;
+    private User user;
+    private RankedResult ranking;
+
+    @BeforeEach
+    public void setUp() {
+        pets = new ArrayList<>(PetDatabase.getAllPets());
+        user = new User("Female", "Any", "INFJ", 5, 300, 150, false, true, 2.0);
+        ranking = new PetSorter(user, new CompatibilityCalculator()).rank(pets);
+    }
+
+    /**
+     * The ranking should hold every pet once, with its own score, best first.
+     */
+    @Test
+    public void testRankCoversCatalogBestFirst() {
+        CompatibilityCalculator calculator = new CompatibilityCalculator();
+        boolean[] seen = new boolean[pets.size()];
+
+        assertEquals(pets.size(), ranking.size());
+        for (int r = 0; r < ranking.size(); r++) {
+            assertFalse(seen[ranking.position(r)], "Each pet should appear once");
+            seen[ranking.position(r)] = true;
+            assertSame(pets.get(ranking.position(r)), ranking.pet(r));
+            assertEquals(calculator.calculate(user, ranking.pet(r)), ranking.score(r), 0.0);
+            if (r > 0) {
+                assertTrue(ranking.score(r - 1) >= ranking.score(r), "Scores should not increase");
+            }
+        }
+    }
+
+    /**
+     * Top-K and threshold views should be prefixes of the ranking.
+     */
+    @Test
+    public void testPrefixViews() {
+        RankedResult top = ranking.topK(5);
+        RankedResult above = ranking.aboveThreshold(0.6);
+
+        assertEquals(5, top.size());
+        assertSame(ranking, ranking.topK(ranking.size() + 10));
+        for (int r = 0; r < top.size(); r++) {
+            assertEquals(ranking.position(r), top.position(r));
+        }
+        for (int r = 0; r < ranking.size(); r++) {
+            assertEquals(ranking.score(r) > 0.6, r < above.size());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> top.score(5));
+        assertThrows(IllegalArgumentException.class, () -> ranking.topK(-1));
+    }
+
+    /**
+     * Type and breed views should keep matching pets in rank order.
+     */
+    @Test
+    public void testOfType() {
+        RankedResult dogs = ranking.ofType("dog", "");
+        Pet firstDog = dogs.pet(0);
+        RankedResult breed = ranking.ofType("Dog", firstDog.getBreed().toUpperCase());
+
+        int expected = 0;
+        for (int r = 0; r < ranking.size(); r++) {
+            if (ranking.pet(r).getType().equalsIgnoreCase("Dog")) {
+                assertEquals(ranking.position(r), dogs.position(expected++));
+            }
+        }
+        assertEquals(expected, dogs.size());
+        assertTrue(breed.size() >= 1);
+        assertEquals(firstDog, breed.pet(0));
+        assertTrue(ranking.ofType("Dragon", null).isEmpty());
+    }
+
+    /**
+     * The list view should expose each rank as a {@link PetWithScore}.
+     */
+    @Test
+    public void testAsList() {
+        List<PetWithScore> list = ranking.topK(3).asList();
+
+        assertEquals(3, list.size());
+        for (int r = 0; r < 3; r++) {
+            assertSame(ranking.pet(r), list.get(r).getPet());
+            assertEquals(ranking.score(r), list.get(r).getScore(), 0.0);
+        }
+        assertThrows(UnsupportedOperationException.class, () -> list.add(list.get(0)));
+    }
+
+    /**
+     * The builder should grow past its initial capacity and keep insertion order.
+     */
+    @Test
+    public void testBuilder() {
+        RankedResult.Builder builder = new RankedResult.Builder(pets);
+        for (int i = 0; i < pets.size(); i++) {
+            builder.add(pets.size() - 1 - i, i / 100.0);
+        }
+        RankedResult built = builder.build();
+
+        assertEquals(pets.size(), built.size());
+        assertEquals(pets.size() - 1, built.position(0));
+        assertEquals((pets.size() - 1) / 100.0, built.score(pets.size() - 1), 0.0);
+    }
+}
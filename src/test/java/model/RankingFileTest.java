@@ -0,0 +1,166 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RankingFile}, verifying the binary layout, exact score round trips
+ * and rejection of invalid files.
+ */
+public class RankingFileTest {
+
+    private Path path;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        path = Files.createTempFile("ranking", ".bin");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Ids, ranks and scores should round-trip bit for bit, and join back to the catalog.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Pet> pets = pets(1000);
+        double[] special = {0.0, -0.0, 1.0, Double.MIN_VALUE, 0.1 + 0.2, Math.nextDown(0.8), Double.NaN};
+        Random random = new Random(59);
+        RankedResult.Builder builder = new RankedResult.Builder(pets);
+        for (int i = 0; i < pets.size(); i++) {
+            builder.add(pets.size() - 1 - i, i < special.length ? special[i] : random.nextDouble());
+        }
+        RankedResult ranking = builder.build();
+
+        RankingFile.write(ranking, path);
+        RankingFile saved = RankingFile.read(path);
+        RankedResult restored = saved.toRanking(pets);
+
+        assertEquals(RankingFile.HEADER_BYTES + pets.size() * RankingFile.RECORD_BYTES, Files.size(path));
+        assertEquals(pets.size(), saved.size());
+        for (int r = 0; r < ranking.size(); r++) {
+            assertEquals(ranking.pet(r).getId(), saved.id(r));
+            assertEquals(Double.doubleToRawLongBits(ranking.score(r)), Double.doubleToRawLongBits(saved.score(r)));
+            assertEquals(ranking.position(r), restored.position(r));
+        }
+    }
+
+    /**
+     * The header and the first record should follow the documented little-endian layout.
+     */
+    @Test
+    public void testLayout() throws IOException {
+        List<Pet> pets = pets(3);
+        RankingFile.write(new RankedResult.Builder(pets).add(2, 0.75).add(0, 0.5).add(1, 0.25).build(), path);
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertArrayEquals(new byte[]{'K', 'R', 'F', 'P'}, Arrays.copyOf(bytes.array(), 4));
+        assertEquals(RankingFile.MAGIC, bytes.getInt(0));
+        assertEquals(RankingFile.VERSION, bytes.getInt(4));
+        assertEquals(3, bytes.getInt(8));
+        assertEquals(2, bytes.getInt(16));
+        assertEquals(0, bytes.getInt(20));
+        assertEquals(0.75, bytes.getDouble(24));
+        assertEquals(1, bytes.getInt(16 + RankingFile.RECORD_BYTES + 4));
+    }
+
+    /**
+     * An empty ranking should be just a header.
+     */
+    @Test
+    public void testEmptyRanking() throws IOException {
+        RankingFile.write(new RankedResult.Builder(List.of()).build(), path);
+
+        assertEquals(RankingFile.HEADER_BYTES, Files.size(path));
+        assertEquals(0, RankingFile.read(path).size());
+    }
+
+    /**
+     * Files with the wrong magic, version or length, or out-of-order ranks, should be rejected.
+     */
+    @Test
+    public void testRejectsInvalidFiles() throws IOException {
+        List<Pet> pets = pets(4);
+        RankingFile.write(new RankedResult.Builder(pets).add(0, 0.9).add(1, 0.8).build(), path);
+        byte[] valid = Files.readAllBytes(path);
+
+        assertInvalid(Arrays.copyOf(valid, 10));
+        assertInvalid(Arrays.copyOf(valid, valid.length - 1));
+        assertInvalid(Arrays.copyOf(valid, valid.length + RankingFile.RECORD_BYTES));
+        assertInvalid(patched(valid, 0, 0x12345678));
+        assertInvalid(patched(valid, 4, RankingFile.VERSION + 1));
+        assertInvalid(patched(valid, 8, -1));
+        assertInvalid(patched(valid, RankingFile.HEADER_BYTES + 4, 1));
+    }
+
+    /**
+     * Pets without ids cannot be saved, and ids missing from the catalog cannot be joined.
+     */
+    @Test
+    public void testRequiresKnownIds() throws IOException {
+        List<Pet> withoutIds = List.of(new Pet("Bella", "Dog", "Beagle", "Female", "ISFJ",
+                7, 50.0, 30.0, false, true, 2.0, "a.jpg"));
+        assertThrows(IllegalArgumentException.class,
+                () -> RankingFile.write(new RankedResult.Builder(withoutIds).add(0, 0.5).build(), path));
+
+        List<Pet> pets = pets(4);
+        RankingFile.write(new RankedResult.Builder(pets).add(3, 0.9).build(), path);
+        assertThrows(IOException.class, () -> RankingFile.read(path).toRanking(pets.subList(0, 3)));
+    }
+
+    /**
+     * A file that lists a pet twice should not join to a catalog, even one it otherwise
+     * covers, nor restore a session.
+     */
+    @Test
+    public void testRejectsDuplicateIds() throws IOException {
+        List<Pet> pets = pets(4);
+        RankingFile.write(new RankedResult.Builder(pets).add(2, 0.9).add(0, 0.8).add(1, 0.7).add(3, 0.6).build(), path);
+        Files.write(path, patched(Files.readAllBytes(path), RankingFile.HEADER_BYTES + 2 * RankingFile.RECORD_BYTES, 2));
+
+        RankingFile corrupted = RankingFile.read(path);
+
+        assertEquals(pets.size(), corrupted.size());
+        assertThrows(IOException.class, () -> corrupted.toRanking(pets));
+        User user = new User("Male", "Any", "ENFP", 5, 20.0, 60.0, false, false, 1.0);
+        assertThrows(IOException.class,
+                () -> ScoredSession.restore(user, new CompatibilityCalculator(), pets, path.toString()));
+    }
+
+    private void assertInvalid(byte[] content) throws IOException {
+        Files.write(path, content);
+        assertThrows(IOException.class, () -> RankingFile.read(path));
+    }
+
+    private static byte[] patched(byte[] content, int offset, int value) {
+        byte[] copy = content.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+        return copy;
+    }
+
+    private static List<Pet> pets(int count) {
+        List<Pet> pets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pets.add(new Pet(i, "Pet" + i, "Dog", "Mixed", "Male", "ENFP", 5, 10, 50, false, false, 1.0,
+                    "images/pet" + i + ".jpg"));
+        }
+        return pets;
+    }
+}
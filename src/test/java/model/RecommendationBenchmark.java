@@ -0,0 +1,120 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro-benchmark for the recommended-pets view: the cost of finding the pets above 80%
+ * and looking up the score of each displayed pet, as the catalog grows from 1K to 1M pets.
+ * <p>
+ * The indexed column uses a {@link ScoredSession}; the rescan column repeats the old
+ * approach of re-reading the compatibility CSV for every displayed pet and is only run
+ * on small catalogs, where it already grows linearly per pet.
+ * <p>
+ * Run with {@code gradle recommendationBenchmark}. This is not a unit test; it only
+ * prints timings.
+ */
+public final class RecommendationBenchmark {
+
+    private static final int[] CATALOG_SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int RESCAN_MAX_SIZE = 10_000;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private RecommendationBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        User user = new User("Female", "Any", "ENFP", 6, 80.0, 60.0, false, true, 3.0);
+        CompatibilityCalculator calculator = new CompatibilityCalculator();
+
+        // Let the JIT compile the lookup path before any measurement
+        ScoredSession warmup = new ScoredSession(user, calculator, randomPets(100_000, new Random(0)));
+        for (int i = 0; i < 50; i++) {
+            lookUpRecommended(warmup);
+        }
+
+        System.out.printf("%10s %12s %18s %18s%n",
+                "pets", "recommended", "indexed ns/pet", "rescan ns/pet");
+        for (int size : CATALOG_SIZES) {
+            List<Pet> pets = randomPets(size, new Random(size));
+            ScoredSession session = new ScoredSession(user, calculator, pets);
+            int shown = session.recommended().size();
+
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                lookUpRecommended(session);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+
+            String rescan = "-";
+            if (size <= RESCAN_MAX_SIZE) {
+                File csv = File.createTempFile("recommendation", ".csv");
+                try {
+                    session.exportToCSV(csv.getPath());
+                    long start = System.nanoTime();
+                    rescanRecommended(session, csv.getPath());
+                    rescan = String.format("%.1f", (double) (System.nanoTime() - start) / shown);
+                } finally {
+                    csv.delete();
+                }
+            }
+
+            System.out.printf("%10d %12d %18.1f %18s%n", size, shown, (double) best / shown, rescan);
+        }
+    }
+
+    /**
+     * Finds the recommended pets and looks up each one's score through the session index.
+     */
+    private static double lookUpRecommended(ScoredSession session) {
+        RankedResult recommended = session.recommended();
+        double total = 0;
+        for (int rank = 0; rank < recommended.size(); rank++) {
+            Pet pet = recommended.pet(rank);
+            total += session.scoreOf(pet.getName(), pet.getBreed()).orElse(0.0);
+        }
+        return total;
+    }
+
+    /**
+     * Looks up each recommended pet's score by re-reading the CSV from the top.
+     */
+    private static double rescanRecommended(ScoredSession session, String csvPath) throws IOException {
+        RankedResult recommended = session.recommended();
+        double total = 0;
+        for (int rank = 0; rank < recommended.size(); rank++) {
+            Pet pet = recommended.pet(rank);
+            try (BufferedReader reader = new BufferedReader(new FileReader(csvPath))) {
+                reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    if (parts[0].equals(pet.getName()) && parts[1].equals(pet.getBreed())) {
+                        total += Double.parseDouble(parts[3].replace("%", "")) / 100.0;
+                        break;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    private static List<Pet> randomPets(int size, Random random) {
+        String[] genders = {"Male", "Female"};
+        String[] types = {"Dog", "Cat", "Hamster", "Parrot"};
+        List<Pet> pets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pets.add(new Pet("Pet" + i, types[random.nextInt(types.length)], "Breed" + random.nextInt(50),
+                    genders[random.nextInt(2)], MbtiCode.decode(random.nextInt(MbtiCode.COUNT)),
+                    1 + random.nextInt(10), 1 + random.nextInt(800) / 10.0, 3 + random.nextInt(620) / 10.0,
+                    random.nextInt(4) == 0, random.nextInt(5) == 0, 0.1 + random.nextInt(30) / 10.0,
+                    "images/pet" + i + ".jpg"));
+        }
+        return pets;
+    }
+}
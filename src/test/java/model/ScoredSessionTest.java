@@ -0,0 +1,202 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ScoredSession}, verifying that menu queries are answered from
+ * the in-memory ranking with exact scores.
+ */
+public class ScoredSessionTest {
+
+    private final CompatibilityCalculator calculator = new CompatibilityCalculator();
+    private List<Pet> pets;
+    private User user;
+    private ScoredSession session;
+
+    @BeforeEach
+    public void setUp() {
+        pets = new ArrayList<>(PetDatabase.getAllPets());
+        user = new User("Female", "Male", "ESFP", 6, 1000, 500, false, true, 5.0);
+        session = new ScoredSession(user, calculator, pets);
+    }
+
+    /**
+     * The ranking should match the sorter's ranking and keep exact scores.
+     */
+    @Test
+    public void testRankingMatchesSorter() {
+        RankedResult expected = new PetSorter(user, calculator).rank(pets);
+        RankedResult ranking = session.getRanking();
+
+        assertEquals(pets.size(), ranking.size());
+        for (int r = 0; r < ranking.size(); r++) {
+            assertEquals(expected.position(r), ranking.position(r));
+            assertEquals(calculator.calculate(user, ranking.pet(r)), ranking.score(r), 0.0);
+        }
+    }
+
+    /**
+     * Recommendations should be the pets scoring above 80%, and the best match the top pet
+     * if it reaches 80%.
+     */
+    @Test
+    public void testRecommendedAndBestMatch() {
+        RankedResult ranking = session.getRanking();
+        RankedResult recommended = session.recommended();
+        RankedResult best = session.bestMatch();
+
+        for (int r = 0; r < ranking.size(); r++) {
+            assertEquals(ranking.score(r) > 0.80, r < recommended.size());
+        }
+        assertEquals(ranking.score(0) >= 0.80, best.size() == 1);
+        if (!best.isEmpty()) {
+            assertSame(ranking.pet(0), best.pet(0));
+        }
+    }
+
+    /**
+     * A user no pet suits should get no best match and no recommendations.
+     */
+    @Test
+    public void testNoCompatiblePets() {
+        User constrained = new User("Male", "Male", "ESFP", 1, 1, 1, true, false, 0.1);
+        ScoredSession poor = new ScoredSession(constrained, calculator, pets);
+
+        assertTrue(poor.bestMatch().isEmpty());
+        assertTrue(poor.recommended().isEmpty());
+        assertEquals(pets.size(), poor.getRanking().size());
+    }
+
+    /**
+     * Searches should return only pets of the requested type, best first.
+     */
+    @Test
+    public void testSearch() {
+        RankedResult cats = session.search("Cat", "");
+
+        assertFalse(cats.isEmpty());
+        for (int r = 0; r < cats.size(); r++) {
+            assertEquals("Cat", cats.pet(r).getType());
+            if (r > 0) {
+                assertTrue(cats.score(r - 1) >= cats.score(r));
+            }
+        }
+    }
+
+    /**
+     * Searches answered from the catalog index should return exactly the pets, order and
+     * scores of a full scan, for any letter case, and skip indexed pets the session lacks.
+     */
+    @Test
+    public void testIndexedSearchMatchesScan() {
+        ScoredSession indexed = new ScoredSession(user, calculator, pets, PetDatabase.getIndex());
+        ScoredSession partial = new ScoredSession(user, calculator, pets.subList(0, 20), PetDatabase.getIndex());
+        ScoredSession partialScan = new ScoredSession(user, calculator, pets.subList(0, 20));
+
+        for (Pet pet : pets) {
+            for (String[] query : new String[][]{{pet.getType(), ""}, {pet.getType().toUpperCase(), null},
+                    {pet.getType().toLowerCase(), pet.getBreed().toUpperCase()}, {pet.getType(), "Unknown"}}) {
+                assertSameRanks(session.search(query[0], query[1]), indexed.search(query[0], query[1]));
+                assertSameRanks(partialScan.search(query[0], query[1]), partial.search(query[0], query[1]));
+            }
+        }
+        assertTrue(indexed.search("Dragon", "").isEmpty());
+    }
+
+    private static void assertSameRanks(RankedResult expected, RankedResult actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int r = 0; r < expected.size(); r++) {
+            assertSame(expected.pet(r), actual.pet(r));
+            assertEquals(expected.score(r), actual.score(r), 0.0);
+        }
+    }
+
+    /**
+     * Score lookups should return each pet's exact score and survive reshuffles of the
+     * source list.
+     */
+    @Test
+    public void testScoreOf() {
+        Collections.reverse(pets);
+
+        for (Pet pet : pets) {
+            assertEquals(calculator.calculate(user, pet), session.scoreOf(pet.getName(), pet.getBreed()).getAsDouble(), 0.0);
+        }
+        assertEquals(calculator.calculate(user, session.getRanking().pet(0)), session.getRanking().score(0), 0.0);
+        for (Pet pet : pets) {
+            assertEquals(calculator.calculate(user, pet), session.scoreOf(pet).getAsDouble(), 0.0);
+        }
+        assertTrue(session.scoreOf("Nobody", "Unknown").isEmpty());
+    }
+
+    /**
+     * The optional export should write one CSV row per pet in rank order.
+     */
+    @Test
+    public void testExportToCSV() throws IOException {
+        File csv = File.createTempFile("session", ".csv");
+        try {
+            session.exportToCSV(csv.getPath());
+            List<String> lines = Files.readAllLines(csv.toPath());
+
+            Pet top = session.getRanking().pet(0);
+            assertEquals("Name,Breed,Type,Score,ImagePath,Id", lines.get(0));
+            assertEquals(pets.size() + 1, lines.size());
+            assertTrue(lines.get(1).startsWith(top.getName() + ","));
+            assertTrue(lines.get(1).endsWith("," + top.getId()));
+        } finally {
+            csv.delete();
+        }
+    }
+
+    /**
+     * A session restored from its saved ranking should answer every query identically, and
+     * a ranking saved for a different catalog should be rejected.
+     */
+    @Test
+    public void testRestoreFromSavedRanking() throws IOException {
+        File saved = File.createTempFile("session", ".bin");
+        try {
+            session.exportRanking(saved.getPath());
+
+            ScoredSession restored = ScoredSession.restore(user, calculator, pets, saved.getPath());
+
+            assertEquals(session.getRanking().size(), restored.getRanking().size());
+            for (int r = 0; r < session.getRanking().size(); r++) {
+                assertEquals(session.getRanking().pet(r), restored.getRanking().pet(r));
+                assertEquals(session.getRanking().score(r), restored.getRanking().score(r), 0.0);
+            }
+            assertEquals(session.recommended().size(), restored.recommended().size());
+            Pet pet = pets.get(7);
+            assertEquals(session.scoreOf(pet), restored.scoreOf(pet));
+
+            assertThrows(IOException.class,
+                    () -> ScoredSession.restore(user, calculator, pets.subList(0, 10), saved.getPath()));
+        } finally {
+            saved.delete();
+        }
+    }
+
+    /**
+     * A catalog view from the database never changes, so the session should rank it as it
+     * is; any other list should be copied.
+     */
+    @Test
+    public void testKeepsCatalogViewWithoutCopying() {
+        List<Pet> view = PetDatabase.getAllPets(42L);
+
+        assertSame(view, new ScoredSession(user, calculator, view).getRanking().catalog());
+        assertNotSame(pets, session.getRanking().catalog());
+    }
+}
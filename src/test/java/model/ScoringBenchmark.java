@@ -0,0 +1,106 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * Micro-benchmark comparing the scalar {@link CompatibilityCalculator} loop with the
+ * SIMD {@link VectorCompatibilityCalculator} kernel and a compiled
+ * {@link WeightedCompatibilityCalculator} profile on synthetic catalogs of 10K to 10M pets.
+ * <p>
+ * Run with {@code gradle scoringBenchmark}. This is not a unit test; it only prints
+ * timings and checks that both kernels agree.
+ */
+public final class ScoringBenchmark {
+
+    private static final int[] CATALOG_SIZES = {10_000, 100_000, 1_000_000, 10_000_000};
+    private static final int WARMUP_PETS = 50_000_000;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private ScoringBenchmark() {}
+
+    public static void main(String[] args) {
+        User user = new User("Female", "Male", "INFJ", 6, 40.0, 30.0, true, false, 1.5);
+        CompatibilityCalculator scalar = new CompatibilityCalculator();
+        CompatibilityCalculator vector = new VectorCompatibilityCalculator();
+        WeightedCompatibilityCalculator profile = new WeightedCompatibilityCalculator(WeightProfile.DEFAULT);
+
+        // Let the JIT fully compile both kernels before any measurement
+        PetColumns warmup = randomCatalog(100_000, new Random(0));
+        double[] warmupOut = new double[warmup.size()];
+        for (int evaluated = 0; evaluated < WARMUP_PETS; evaluated += warmup.size()) {
+            scalar.scoreRange(user, warmup, 0, warmup.size(), warmupOut, 0);
+            vector.scoreRange(user, warmup, 0, warmup.size(), warmupOut, 0);
+            profile.scoreRange(user, warmup, 0, warmup.size(), warmupOut, 0);
+        }
+
+        System.out.printf("%12s %14s %14s %9s %15s%n",
+                "pets", "scalar ns/pet", "vector ns/pet", "speedup", "profile ns/pet");
+        for (int size : CATALOG_SIZES) {
+            PetColumns pets = randomCatalog(size, new Random(size));
+            double[] out = new double[size];
+
+            double scalarNs = measure(scalar, user, pets, out);
+            double[] expected = out.clone();
+            double vectorNs = measure(vector, user, pets, out);
+            verify(expected, out);
+            double profileNs = measure(profile, user, pets, out);
+            verify(expected, out);
+
+            System.out.printf("%12d %14.3f %14.3f %8.2fx %15.3f%n",
+                    size, scalarNs / size, vectorNs / size, scalarNs / vectorNs, profileNs / size);
+        }
+    }
+
+    private static void verify(double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.compare(expected[i], actual[i]) != 0) {
+                throw new IllegalStateException("Kernels disagree at pet " + i);
+            }
+        }
+    }
+
+    /**
+     * Returns the best wall-clock time, in nanoseconds, of scoring the whole catalog.
+     */
+    private static double measure(IBatchCompatibilityCalculator calculator, User user,
+                                  PetColumns pets, double[] out) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            calculator.scoreRange(user, pets, 0, pets.size(), out, 0);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Builds a catalog directly in columnar form so that 10M pets fit in memory.
+     */
+    static PetColumns randomCatalog(int size, Random random) {
+        String[] genders = {"Male", "Female"};
+
+        double[] space = new double[size];
+        double[] cost = new double[size];
+        double[] time = new double[size];
+        int[] energy = new int[size];
+        long[] allergenic = new long[(size + 63) >>> 6];
+        long[] yard = new long[(size + 63) >>> 6];
+        int[] mbti = new int[size];
+        int[] gender = new int[size];
+        for (int i = 0; i < size; i++) {
+            space[i] = 1 + random.nextInt(800) / 10.0;
+            cost[i] = 3 + random.nextInt(620) / 10.0;
+            time[i] = 0.1 + random.nextInt(30) / 10.0;
+            energy[i] = 1 + random.nextInt(10);
+            if (random.nextInt(4) == 0) {
+                allergenic[i >>> 6] |= 1L << i;
+            }
+            if (random.nextInt(5) == 0) {
+                yard[i >>> 6] |= 1L << i;
+            }
+            mbti[i] = random.nextInt(MbtiCode.COUNT);
+            gender[i] = random.nextInt(genders.length);
+        }
+        return new PetColumns(space, cost, time, energy, allergenic, yard, mbti, gender, genders);
+    }
+}
@@ -0,0 +1,188 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ShardCoordinator} and {@link ShardWorker}, running each worker in its
+ * own JVM on this machine and verifying that the gathered rankings equal those of a
+ * single-process {@link CohortScorer}.
+ */
+public class ShardCoordinatorTest {
+
+    /** Splits the catalog into shards of uneven sizes, including an empty one. */
+    private static final int[] SHARD_STARTS = {0, 7, 7, 31};
+
+    private final List<Pet> catalog = PetDatabase.getCatalog();
+    private final List<Process> workers = new ArrayList<>();
+    private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("shards");
+        Path file = directory.resolve("catalog" + OffHeapPetCatalog.FILE_EXTENSION);
+        OffHeapPetCatalog.write(catalog, file);
+        for (int s = 0; s < SHARD_STARTS.length; s++) {
+            int to = s + 1 < SHARD_STARTS.length ? SHARD_STARTS[s + 1] : catalog.size();
+            startWorker(file, SHARD_STARTS[s], to);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (Process worker : workers) {
+            worker.destroy();
+            worker.waitFor(10, TimeUnit.SECONDS);
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Rankings gathered from the worker processes should equal a local ranking of the whole
+     * catalog, for repeated requests over the same connections.
+     */
+    @Test
+    public void testRankingsMatchSingleProcess() throws IOException {
+        List<User> users = List.of(
+                new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0),
+                new User("Female", "Any", "ESFP", 3, 10.0, 15.0, true, false, 0.5),
+                new User(null, "Male", "infp", 9, 80.0, 70.0, false, true, 3.0));
+        CohortScorer scorer = new CohortScorer(new CompatibilityCalculator());
+
+        try (ShardCoordinator coordinator = ShardCoordinator.connect(addresses)) {
+            for (int k : new int[]{5, 0, catalog.size() + 3}) {
+                CohortRanking expected = scorer.rankTopK(users, PetColumns.of(catalog), k);
+                CohortRanking actual = coordinator.rankTopK(users, k);
+
+                assertEquals(users.size(), actual.userCount());
+                for (int u = 0; u < users.size(); u++) {
+                    assertArrayEquals(expected.topPets(u), actual.topPets(u));
+                    assertArrayEquals(expected.topScores(u), actual.topScores(u), 0.0);
+                }
+            }
+            assertThrows(IllegalArgumentException.class, () -> coordinator.rankTopK(users, -1));
+        }
+    }
+
+    /**
+     * A worker that goes away should make the request fail rather than return a partial
+     * ranking.
+     */
+    @Test
+    public void testFailsWhenWorkerIsLost() throws Exception {
+        List<User> users = List.of(new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0));
+
+        try (ShardCoordinator coordinator = ShardCoordinator.connect(addresses)) {
+            assertEquals(3, coordinator.rankTopK(users, 3).topPets(0).length);
+
+            workers.get(1).destroy();
+            workers.get(1).waitFor(10, TimeUnit.SECONDS);
+
+            assertThrows(IOException.class, () -> coordinator.rankTopK(users, 3));
+        }
+    }
+
+    /**
+     * A request that fails while it is being written should close its connection, so the
+     * worker never reads the next request after a fragment of this one.
+     */
+    @Test
+    public void testClosesConnectionWhenSendFails() throws IOException {
+        User user = new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0);
+        List<User> broken = new ArrayList<>(List.of(user));
+        broken.add(null);
+
+        try (ShardCoordinator coordinator = ShardCoordinator.connect(addresses.subList(0, 1))) {
+            assertThrows(NullPointerException.class, () -> coordinator.rankTopK(broken, 3));
+
+            IOException e = assertThrows(IOException.class, () -> coordinator.rankTopK(List.of(user), 3));
+            assertTrue(e.getMessage().contains("closed"), e.getMessage());
+        }
+    }
+
+    /**
+     * A worker that accepts the connection but never replies should fail the request once
+     * the read timeout passes, instead of blocking the coordinator.
+     */
+    @Test
+    public void testFailsWhenWorkerDoesNotReply() throws IOException {
+        List<User> users = List.of(new User("Male", "Female", "INTJ", 6, 40.0, 45.0, false, true, 2.0));
+
+        try (ServerSocket silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+             ShardCoordinator coordinator = ShardCoordinator.connect(
+                     List.of(addresses.get(0), new InetSocketAddress(silent.getInetAddress(), silent.getLocalPort())),
+                     1_000, 200)) {
+            IOException e = assertThrows(IOException.class, () -> coordinator.rankTopK(users, 3));
+            assertTrue(e.getMessage().contains("did not reply"), e.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class, () -> ShardCoordinator.connect(addresses, -1, 0));
+    }
+
+    /**
+     * A request claiming more users than the protocol allows should be refused before the
+     * worker allocates anything for them, and the connection closed.
+     */
+    @Test
+    public void testWorkerRefusesTooManyUsers() throws IOException {
+        try (Socket socket = new Socket(addresses.get(0).getAddress(), addresses.get(0).getPort())) {
+            socket.setSoTimeout(10_000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(ShardProtocol.MAGIC);
+            out.writeInt(ShardProtocol.RANK_TOP_K);
+            out.writeInt(5);
+            out.writeInt(Integer.MAX_VALUE);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertEquals(ShardProtocol.FAILED, in.readInt());
+            assertTrue(in.readUTF().contains(String.valueOf(Integer.MAX_VALUE)));
+            assertThrows(EOFException.class, in::readInt);
+        }
+    }
+
+    /**
+     * Starts a worker JVM on the test classpath and waits until it accepts connections.
+     */
+    private void startWorker(Path file, int fromId, int toId) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process worker = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ShardWorker.class.getName(), file.toString(), String.valueOf(fromId), String.valueOf(toId))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        workers.add(worker);
+        BufferedReader out = new BufferedReader(new InputStreamReader(worker.getInputStream(), StandardCharsets.UTF_8));
+        String line = out.readLine();
+        assertNotNull(line, "Shard worker exited before listening");
+        assertTrue(line.startsWith(ShardWorker.READY), line);
+        int port = Integer.parseInt(line.substring(ShardWorker.READY.length()).trim());
+        addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link VectorCompatibilityCalculator}, verifying that the SIMD kernel
+ * produces exactly the scores of the scalar {@link CompatibilityCalculator}.
+ */
+public class VectorCompatibilityCalculatorTest {
+
+    private final CompatibilityCalculator scalar = new CompatibilityCalculator();
+    private final VectorCompatibilityCalculator vector = new VectorCompatibilityCalculator();
+
+    private final List<User> users = List.of(
+            new User("Male", "Female", "ENFP", 7, 500, 200, false, true, 4.0),
+            new User("Female", "Any", "ISTJ", 3, 20, 15, true, false, 0.5),
+            new User("Male", "Male", "INTP", 10, 60, 40, true, true, 2.0));
+
+    /**
+     * Every pet of the built-in catalog should score identically with both kernels.
+     */
+    @Test
+    public void testMatchesScalarOnDatabase() {
+        List<Pet> pets = new ArrayList<>(PetDatabase.getAllPets());
+        PetColumns columns = PetColumns.of(pets);
+
+        for (User user : users) {
+            assertArrayEquals(scalar.scoreAll(user, columns), vector.scoreAll(user, columns));
+        }
+    }
+
+    /**
+     * Unaligned ranges spanning several bitset words should match the scalar loop,
+     * including the scalar tail.
+     */
+    @Test
+    public void testMatchesScalarOnUnalignedRanges() {
+        PetColumns columns = ScoringBenchmark.randomCatalog(1_000, new Random(42));
+
+        for (User user : users) {
+            double[] expected = new double[700];
+            double[] actual = new double[700];
+            scalar.scoreRange(user, columns, 61, 758, expected, 3);
+            vector.scoreRange(user, columns, 61, 758, actual, 3);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Without the runtime switch the factory should return the scalar calculator.
+     */
+    @Test
+    public void testCreateDefaultsToScalar() {
+        System.clearProperty(CompatibilityCalculator.VECTOR_PROPERTY);
+        assertEquals(CompatibilityCalculator.class, CompatibilityCalculator.create().getClass());
+
+        System.setProperty(CompatibilityCalculator.VECTOR_PROPERTY, "true");
+        try {
+            assertInstanceOf(VectorCompatibilityCalculator.class, CompatibilityCalculator.create());
+        } finally {
+            System.clearProperty(CompatibilityCalculator.VECTOR_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package model;
+
+import Database.PetDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link WeightProfile} and {@link WeightedCompatibilityCalculator},
+ * verifying profile parsing, validation and that compiled profiles score consistently
+ * with the built-in calculator.
+ */
+public class WeightProfileTest {
+
+    private final User user = new User("Male", "Female", "ENFP", 7, 40, 30, true, false, 1.5);
+
+    /**
+     * A profile with the built-in weights should compile to the built-in calculator,
+     * and the generic compiled plan should reproduce its scores exactly.
+     */
+    @Test
+    public void testDefaultWeightsMatchBuiltInScores() throws IOException {
+        WeightProfile profile = read("""
+                {"name": "default", "weights": {"space": 0.15, "time": 0.15, "budget": 0.15,
+                 "yard": 0.10, "energy": 0.15, "mbti": 0.25, "gender": 0.05}}
+                """);
+        assertInstanceOf(CompatibilityCalculator.class, profile.compile());
+
+        CompatibilityCalculator builtIn = new CompatibilityCalculator();
+        WeightedCompatibilityCalculator compiled = new WeightedCompatibilityCalculator(profile);
+        PetColumns columns = ScoringBenchmark.randomCatalog(5_000, new Random(5));
+        assertArrayEquals(builtIn.scoreAll(user, columns), compiled.scoreAll(user, columns));
+
+        for (Pet pet : PetDatabase.getAllPets()) {
+            assertEquals(builtIn.calculate(user, pet), compiled.calculate(user, pet), 0.0);
+        }
+    }
+
+    /**
+     * Omitted criteria weigh zero, and the per-pet and batch paths should agree.
+     */
+    @Test
+    public void testCustomProfileSkipsZeroWeights() throws IOException {
+        WeightProfile profile = read("""
+                {"name": "space-only", "weights": {"space": 0.7, "mbti": 0.3}}
+                """);
+        assertEquals("space-only", profile.getName());
+        assertEquals(0.0, profile.getWeight(WeightProfile.Criterion.YARD));
+
+        IBatchCompatibilityCalculator calculator = profile.compile();
+        assertInstanceOf(WeightedCompatibilityCalculator.class, calculator);
+
+        User easyUser = new User("Male", "Any", "ISTJ", 1, 1000, 1, false, false, 0.1);
+        Pet pet = new Pet("Nemo", "Fish", "Betta", "Male", "ISTJ", 10, 1.0, 300.0, false, true, 5.0,
+                "images/nemo.jpg");
+        assertEquals(1.0, calculator.calculate(easyUser, pet), 1e-12,
+                "Only space and MBTI should count, and both match perfectly");
+
+        List<Pet> pets = new ArrayList<>(PetDatabase.getAllPets());
+        double[] scores = calculator.scoreAll(user, PetColumns.of(pets));
+        for (int i = 0; i < pets.size(); i++) {
+            assertEquals(calculator.calculate(user, pets.get(i)), scores[i], 0.0);
+        }
+    }
+
+    /**
+     * Invalid profiles should be rejected with a descriptive exception.
+     */
+    @Test
+    public void testInvalidProfilesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> read("[]"));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"name\": \"x\"}"));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"weights\": {\"color\": 0.5}}"));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"weights\": {\"space\": -0.5}}"));
+        assertThrows(IllegalArgumentException.class, () -> read("{\"weights\": {\"space\": \"high\"}}"));
+    }
+
+    private static WeightProfile read(String json) throws IOException {
+        return WeightProfile.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}